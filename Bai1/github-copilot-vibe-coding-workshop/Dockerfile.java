@@ -72,7 +72,7 @@ EXPOSE 8080
 
 # Health check
 HEALTHCHECK --interval=30s --timeout=10s --start-period=40s --retries=3 \
-    CMD curl -f http://localhost:8080/api/actuator/health || exit 1
+    CMD curl -f http://localhost:8080/api/actuator/health/readiness || exit 1
 
 # Run the application with proper SQLite configuration
 ENTRYPOINT ["java", \
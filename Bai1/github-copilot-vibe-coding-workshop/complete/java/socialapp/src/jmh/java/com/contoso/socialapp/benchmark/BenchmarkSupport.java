@@ -0,0 +1,36 @@
+package com.contoso.socialapp.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+final class BenchmarkSupport {
+    
+    private BenchmarkSupport() {
+    }
+    
+    /**
+     * The services log every call at INFO; keep that I/O out of the measurement.
+     */
+    static void silenceApplicationLogging() {
+        ((Logger) LoggerFactory.getLogger("com.contoso.socialapp")).setLevel(Level.OFF);
+    }
+    
+    /**
+     * A repository that answers only the given methods, keyed by name.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T stubRepository(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer == null) {
+                throw new UnsupportedOperationException(method.getName());
+            }
+            return answer.apply(args);
+        });
+    }
+}
@@ -0,0 +1,73 @@
+package com.contoso.socialapp.benchmark;
+
+import com.contoso.socialapp.dto.NewPostRequest;
+import com.contoso.socialapp.exception.GlobalExceptionHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Each {@link GlobalExceptionHandler} path from a thrown exception to the serialized
+ * error body. The exceptions are created per call, as they are in the services, so the
+ * stack-trace fill is part of the cost; error logging is switched off.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExceptionHandlerBenchmark {
+    
+    private ObjectMapper mapper;
+    private GlobalExceptionHandler handler;
+    private BeanPropertyBindingResult bindingResult;
+    
+    @Setup
+    public void setUp() {
+        BenchmarkSupport.silenceApplicationLogging();
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+        handler = new GlobalExceptionHandler();
+        bindingResult = new BeanPropertyBindingResult(new NewPostRequest(), "request");
+        bindingResult.rejectValue("username", "NotBlank", "Username is required");
+        bindingResult.rejectValue("content", "NotBlank", "Content is required");
+    }
+    
+    @Benchmark
+    public byte[] notFound() throws IOException {
+        RuntimeException ex = new RuntimeException("NOT_FOUND: Post not found");
+        return mapper.writeValueAsBytes(handler.handleRuntimeException(ex).getBody());
+    }
+    
+    @Benchmark
+    public byte[] validationFailed() throws IOException {
+        MethodArgumentNotValidException ex = new MethodArgumentNotValidException(null, bindingResult);
+        return mapper.writeValueAsBytes(handler.handleValidationException(ex).getBody());
+    }
+    
+    @Benchmark
+    public byte[] unexpectedRuntimeException() throws IOException {
+        RuntimeException ex = new IllegalStateException("boom");
+        return mapper.writeValueAsBytes(handler.handleRuntimeException(ex).getBody());
+    }
+    
+    @Benchmark
+    public byte[] checkedException() throws IOException {
+        Exception ex = new Exception("boom");
+        return mapper.writeValueAsBytes(handler.handleGenericException(ex).getBody());
+    }
+}
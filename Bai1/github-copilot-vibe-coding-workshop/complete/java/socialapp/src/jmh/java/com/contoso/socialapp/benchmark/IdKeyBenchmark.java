@@ -0,0 +1,160 @@
+package com.contoso.socialapp.benchmark;
+
+import com.contoso.socialapp.id.SnowflakeIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Insert throughput and on-disk size of the posts and comments tables keyed by random
+ * UUID strings (the schema before {@code @TimeOrderedId}) versus time-ordered 64-bit ids.
+ * Plain JDBC on a file database, so only the key differs. Each operation commits 100
+ * posts with 5 comments each on top of {@code existingPosts} already there; the page cache
+ * is kept at 8 MB so that random keys pay for touching pages all over the tree. Table
+ * and index sizes from {@code dbstat} are printed at the end of the trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdKeyBenchmark {
+    
+    private static final int POSTS_PER_OP = 100;
+    private static final int COMMENTS_PER_POST = 5;
+    
+    private static final List<String> UUID_TABLES = List.of(
+            "create table posts (id varchar(255) not null, content varchar(2000) not null, created_at timestamp not null, updated_at timestamp not null, username varchar(50) not null, primary key (id))",
+            "create table comments (id varchar(255) not null, content varchar(1000) not null, created_at timestamp not null, updated_at timestamp not null, username varchar(50) not null, post_id varchar(255) not null, primary key (id))");
+    private static final List<String> SNOWFLAKE_TABLES = List.of(
+            "create table posts (id integer not null, content varchar(2000) not null, created_at timestamp not null, legacy_id varchar(36) unique, updated_at timestamp not null, username varchar(50) not null, primary key (id))",
+            "create table comments (id integer not null, content varchar(1000) not null, created_at timestamp not null, legacy_id varchar(36) unique, updated_at timestamp not null, username varchar(50) not null, post_id integer not null, primary key (id))");
+    
+    @Param({"uuid", "snowflake"})
+    private String keyType;
+    
+    @Param({"200000"})
+    private int existingPosts;
+    
+    private Path directory;
+    private Connection connection;
+    private PreparedStatement insertPost;
+    private PreparedStatement insertComment;
+    private SnowflakeIdGenerator ids;
+    private SplittableRandom random;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        directory = Files.createTempDirectory("jmh-ids");
+        connection = DriverManager.getConnection("jdbc:sqlite:" + directory.resolve("ids.db"));
+        ids = new SnowflakeIdGenerator(1);
+        random = new SplittableRandom(42);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("pragma journal_mode = WAL");
+            statement.execute("pragma synchronous = NORMAL");
+            statement.execute("pragma cache_size = -8192");
+            for (String ddl : "uuid".equals(keyType) ? UUID_TABLES : SNOWFLAKE_TABLES) {
+                statement.execute(ddl);
+            }
+        }
+        connection.setAutoCommit(false);
+        insertPost = connection.prepareStatement(
+                "insert into posts (id, username, content, created_at, updated_at) values (?, ?, ?, ?, ?)");
+        insertComment = connection.prepareStatement(
+                "insert into comments (id, post_id, username, content, created_at, updated_at) values (?, ?, ?, ?, ?, ?)");
+        for (int i = 0; i < existingPosts; i += POSTS_PER_OP) {
+            insertPostsWithComments();
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException, SQLException {
+        connection.setAutoCommit(true);
+        // Trials insert different row counts, so sizes compare per row
+        try (Statement statement = connection.createStatement()) {
+            long posts = count(statement, "posts");
+            long comments = count(statement, "comments");
+            System.out.printf("%n%-30s %10s %14s %10s%n", keyType, "rows", "bytes", "bytes/row");
+            try (ResultSet sizes = statement.executeQuery(
+                    "select name, sum(pgsize) from dbstat where name like '%posts%' or name like '%comments%' group by name order by name")) {
+                while (sizes.next()) {
+                    long rows = sizes.getString(1).contains("comments") ? comments : posts;
+                    System.out.printf("%-30s %,10d %,14d %10.1f%n", sizes.getString(1), rows, sizes.getLong(2),
+                            (double) sizes.getLong(2) / rows);
+                }
+            }
+        }
+        insertPost.close();
+        insertComment.close();
+        connection.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+    
+    @Benchmark
+    public void insertPostsWithComments() throws SQLException {
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < POSTS_PER_OP; i++) {
+            Object postId = nextKey();
+            insertPost.setObject(1, postId);
+            insertPost.setString(2, "user_" + random.nextInt(1000));
+            insertPost.setString(3, "Just had an amazing hiking experience in the mountains!");
+            insertPost.setLong(4, now);
+            insertPost.setLong(5, now);
+            insertPost.addBatch();
+            for (int j = 0; j < COMMENTS_PER_POST; j++) {
+                insertComment.setObject(1, nextKey());
+                insertComment.setObject(2, postId);
+                insertComment.setString(3, "user_" + random.nextInt(1000));
+                insertComment.setString(4, "Great photos! Which trail did you take?");
+                insertComment.setLong(5, now);
+                insertComment.setLong(6, now);
+                insertComment.addBatch();
+            }
+        }
+        insertPost.executeBatch();
+        insertComment.executeBatch();
+        connection.commit();
+    }
+    
+    private static long count(Statement statement, String table) throws SQLException {
+        try (ResultSet rows = statement.executeQuery("select count(*) from " + table)) {
+            rows.next();
+            return rows.getLong(1);
+        }
+    }
+    
+    private Object nextKey() {
+        return "uuid".equals(keyType) ? UUID.randomUUID().toString() : ids.nextId();
+    }
+}
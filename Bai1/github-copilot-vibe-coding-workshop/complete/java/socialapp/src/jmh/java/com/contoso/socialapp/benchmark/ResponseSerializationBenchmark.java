@@ -0,0 +1,63 @@
+package com.contoso.socialapp.benchmark;
+
+import com.contoso.socialapp.dto.PostResponse;
+import com.contoso.socialapp.id.SnowflakeIdGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of a feed page of {@link PostResponse}, configured like Spring
+ * Boot's {@code ObjectMapper} (ISO-8601 dates rather than timestamp arrays).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+    
+    @Param({"1", "20", "100", "500"})
+    private int pageSize;
+    
+    private ObjectMapper mapper;
+    private List<PostResponse> page;
+    
+    @Setup
+    public void setUp() {
+        mapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        SnowflakeIdGenerator ids = new SnowflakeIdGenerator(1);
+        LocalDateTime base = LocalDateTime.of(2025, 5, 30, 12, 0);
+        page = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            page.add(new PostResponse(Long.toString(ids.nextId()), "user_" + i,
+                    "Just had an amazing hiking experience in the mountains! Post number " + i,
+                    base.plusMinutes(i), base.plusMinutes(i), i % 7, i % 3));
+        }
+    }
+    
+    @Benchmark
+    public byte[] serializeFeedPage() throws IOException {
+        return mapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,114 @@
+package com.contoso.socialapp.benchmark;
+
+import com.contoso.socialapp.dto.CommentResponse;
+import com.contoso.socialapp.dto.PostResponse;
+import com.contoso.socialapp.entity.Comment;
+import com.contoso.socialapp.entity.Post;
+import com.contoso.socialapp.id.SnowflakeIdGenerator;
+import com.contoso.socialapp.repository.CommentRepository;
+import com.contoso.socialapp.repository.PostRepository;
+import com.contoso.socialapp.service.CommentService;
+import com.contoso.socialapp.service.PostService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping in {@link PostService} and {@link CommentService}, whose
+ * converters are private, so the services run over in-memory repository stubs. Dates
+ * stay {@code LocalDateTime} here and are only formatted by Jackson; see
+ * {@link ResponseSerializationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServiceMappingBenchmark {
+    
+    @Param({"20", "100"})
+    private int pageSize;
+    
+    private PostService postService;
+    private CommentService commentService;
+    private String postId;
+    private String commentId;
+    
+    @Setup
+    public void setUp() {
+        BenchmarkSupport.silenceApplicationLogging();
+        
+        SnowflakeIdGenerator ids = new SnowflakeIdGenerator(1);
+        LocalDateTime base = LocalDateTime.of(2025, 5, 30, 12, 0);
+        List<Post> posts = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            Post post = new Post();
+            post.setId(ids.nextId());
+            post.setUsername("user_" + i);
+            post.setContent("Just had an amazing hiking experience in the mountains! Post number " + i);
+            post.setCreatedAt(base.plusMinutes(i));
+            post.setUpdatedAt(base.plusMinutes(i));
+            posts.add(post);
+        }
+        Post post = posts.get(0);
+        List<Comment> comments = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            Comment comment = new Comment();
+            comment.setId(ids.nextId());
+            comment.setPost(post);
+            comment.setUsername("user_" + i);
+            comment.setContent("Great photos! Which trail did you take? Comment number " + i);
+            comment.setCreatedAt(base.plusSeconds(i));
+            comment.setUpdatedAt(base.plusSeconds(i));
+            comments.add(comment);
+        }
+        post.setComments(comments);
+        postId = post.getId().toString();
+        commentId = comments.get(0).getId().toString();
+        
+        PostRepository postRepository = BenchmarkSupport.stubRepository(PostRepository.class, Map.of(
+                "findAllOrderByCreatedAtDesc", args -> posts,
+                "findByPublicId", args -> Optional.of(post)));
+        CommentRepository commentRepository = BenchmarkSupport.stubRepository(CommentRepository.class, Map.of(
+                "findByPostIdOrderByCreatedAtAsc", args -> comments,
+                "findByPublicIdAndPostId", args -> Optional.of(comments.get(0))));
+        postService = new PostService(postRepository);
+        commentService = new CommentService(commentRepository, postRepository);
+    }
+    
+    @Benchmark
+    public Optional<PostResponse> getPostById() {
+        return postService.getPostById(postId);
+    }
+    
+    @Benchmark
+    public List<PostResponse> getAllPosts() {
+        return postService.getAllPosts();
+    }
+    
+    @Benchmark
+    public Optional<CommentResponse> getCommentById() {
+        return commentService.getCommentById(postId, commentId);
+    }
+    
+    @Benchmark
+    public List<CommentResponse> getCommentsByPostId() {
+        return commentService.getCommentsByPostId(postId);
+    }
+}
@@ -1,13 +1,16 @@
 package com.contoso.socialapp;
 
+import com.contoso.socialapp.config.SocialAppRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 /**
  * Main application class for Contoso Social App.
  * This Spring Boot application provides a social media platform backend.
  */
 @SpringBootApplication
+@ImportRuntimeHints(SocialAppRuntimeHints.class)
 public class SocialAppApplication {
 
 	public static void main(String[] args) {
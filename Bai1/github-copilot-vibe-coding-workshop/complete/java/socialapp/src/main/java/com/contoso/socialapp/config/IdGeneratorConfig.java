@@ -0,0 +1,51 @@
+package com.contoso.socialapp.config;
+
+import com.contoso.socialapp.id.IdGenerator;
+import com.contoso.socialapp.id.SnowflakeIdGenerator;
+import com.contoso.socialapp.id.TimeOrderedIdentifierGenerator;
+import com.contoso.socialapp.id.UuidKeyMigration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Wires the {@link IdGenerator} behind {@code @TimeOrderedId} into Hibernate, and runs the
+ * UUID key migration before Hibernate looks at the schema.
+ */
+@Configuration
+@EnableConfigurationProperties(IdProperties.class)
+public class IdGeneratorConfig {
+    
+    @Bean
+    @ConditionalOnMissingBean
+    public IdGenerator idGenerator(IdProperties properties) {
+        return new SnowflakeIdGenerator(properties.getNodeId());
+    }
+    
+    @Bean
+    public HibernatePropertiesCustomizer idGeneratorHibernateProperties(IdGenerator idGenerator) {
+        return properties -> properties.put(TimeOrderedIdentifierGenerator.ID_GENERATOR_SETTING, idGenerator);
+    }
+    
+    @Bean
+    @ConditionalOnProperty(prefix = "app.ids", name = "migrate-uuid-keys", matchIfMissing = true)
+    public UuidKeyMigration uuidKeyMigration(DataSource dataSource, IdGenerator idGenerator, IdProperties properties) {
+        return new UuidKeyMigration(dataSource, idGenerator instanceof SnowflakeIdGenerator snowflake
+                ? snowflake : new SnowflakeIdGenerator(properties.getNodeId()));
+    }
+    
+    @Configuration
+    @ConditionalOnProperty(prefix = "app.ids", name = "migrate-uuid-keys", matchIfMissing = true)
+    static class UuidKeyMigrationDependency extends EntityManagerFactoryDependsOnPostProcessor {
+        
+        UuidKeyMigrationDependency() {
+            super(UuidKeyMigration.class);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.contoso.socialapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.ids")
+public class IdProperties {
+    
+    // Snowflake node id, 0-1023; must differ between instances writing the same tables
+    private int nodeId = 0;
+    
+    // Convert UUID-keyed tables to time-ordered ids at startup, keeping the UUIDs as legacy ids
+    private boolean migrateUuidKeys = true;
+}
@@ -0,0 +1,50 @@
+package com.contoso.socialapp.config;
+
+import com.contoso.socialapp.dto.CommentResponse;
+import com.contoso.socialapp.dto.ErrorResponse;
+import com.contoso.socialapp.dto.LikeRequest;
+import com.contoso.socialapp.dto.LikeResponse;
+import com.contoso.socialapp.dto.NewCommentRequest;
+import com.contoso.socialapp.dto.NewPostRequest;
+import com.contoso.socialapp.dto.PostResponse;
+import com.contoso.socialapp.dto.UpdateCommentRequest;
+import com.contoso.socialapp.dto.UpdatePostRequest;
+import com.contoso.socialapp.entity.Comment;
+import com.contoso.socialapp.entity.Like;
+import com.contoso.socialapp.entity.LikeId;
+import com.contoso.socialapp.entity.Post;
+import com.contoso.socialapp.id.TimeOrderedId;
+import com.contoso.socialapp.id.TimeOrderedIdentifierGenerator;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import java.util.List;
+
+/**
+ * Reflection the AOT-processed application needs beyond what Spring infers from bean
+ * definitions: Hibernate reads and writes entity fields and instantiates the
+ * {@code @TimeOrderedId} generator itself, and Jackson binds the Lombok DTOs through
+ * their generated accessors, including from places Spring cannot see such as the
+ * exception handler's error bodies.
+ */
+public class SocialAppRuntimeHints implements RuntimeHintsRegistrar {
+    
+    static final List<Class<?>> ENTITIES = List.of(Post.class, Comment.class, Like.class, LikeId.class);
+    
+    static final List<Class<?>> DTOS = List.of(PostResponse.class, CommentResponse.class, LikeResponse.class,
+            ErrorResponse.class, NewPostRequest.class, UpdatePostRequest.class, NewCommentRequest.class,
+            UpdateCommentRequest.class, LikeRequest.class);
+    
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (Class<?> entity : ENTITIES) {
+            hints.reflection().registerType(entity, MemberCategory.DECLARED_FIELDS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), DTOS.toArray(Class<?>[]::new));
+        hints.reflection().registerType(TimeOrderedIdentifierGenerator.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        hints.reflection().registerType(TimeOrderedId.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+    }
+}
@@ -1,10 +1,10 @@
 package com.contoso.socialapp.entity;
 
+import com.contoso.socialapp.id.TimeOrderedId;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
-import org.hibernate.annotations.GenericGenerator;
 
 import java.time.LocalDateTime;
 
@@ -15,10 +15,15 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class Comment {
     
+    // Declared "integer" so SQLite makes it an alias of the rowid instead of a separate unique index
     @Id
-    @GeneratedValue(generator = "uuid")
-    @GenericGenerator(name = "uuid", strategy = "uuid2")
-    private String id;
+    @TimeOrderedId
+    @Column(columnDefinition = "integer")
+    private Long id;
+    
+    // UUID this row had before the switch to time-ordered ids, still accepted in URLs
+    @Column(name = "legacy_id", length = 36, unique = true, updatable = false)
+    private String legacyId;
     
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "post_id", nullable = false)
@@ -48,7 +53,7 @@ public class Comment {
     }
     
     // Helper method to get postId
-    public String getPostId() {
+    public Long getPostId() {
         return post != null ? post.getId() : null;
     }
 }
@@ -33,7 +33,7 @@ public class Like {
     }
     
     // Helper method to get postId
-    public String getPostId() {
+    public Long getPostId() {
         return post != null ? post.getId() : null;
     }
 }
@@ -1,10 +1,10 @@
 package com.contoso.socialapp.entity;
 
+import com.contoso.socialapp.id.TimeOrderedId;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
-import org.hibernate.annotations.GenericGenerator;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -17,10 +17,15 @@ import java.util.List;
 @AllArgsConstructor
 public class Post {
     
+    // Declared "integer" so SQLite makes it an alias of the rowid instead of a separate unique index
     @Id
-    @GeneratedValue(generator = "uuid")
-    @GenericGenerator(name = "uuid", strategy = "uuid2")
-    private String id;
+    @TimeOrderedId
+    @Column(columnDefinition = "integer")
+    private Long id;
+    
+    // UUID this row had before the switch to time-ordered ids, still accepted in URLs
+    @Column(name = "legacy_id", length = 36, unique = true, updatable = false)
+    private String legacyId;
     
     @Column(nullable = false, length = 50)
     private String username;
@@ -0,0 +1,12 @@
+package com.contoso.socialapp.id;
+
+/**
+ * Source of primary keys for entities annotated with {@link TimeOrderedId}. Ids must be
+ * positive, unique across nodes and increasing over time on each node, so that new rows
+ * append to the end of the primary-key B-tree. Declare a bean of this type to replace
+ * the default {@link SnowflakeIdGenerator}.
+ */
+public interface IdGenerator {
+    
+    long nextId();
+}
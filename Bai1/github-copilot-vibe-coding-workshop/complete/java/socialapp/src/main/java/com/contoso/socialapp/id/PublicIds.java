@@ -0,0 +1,34 @@
+package com.contoso.socialapp.id;
+
+/**
+ * Ids travel through the API as strings: JavaScript numbers cannot hold 64-bit values.
+ */
+public final class PublicIds {
+    
+    private PublicIds() {
+    }
+    
+    public static String format(Long id) {
+        return id == null ? null : Long.toString(id);
+    }
+    
+    /**
+     * The numeric id, or {@code null} if the text is not one (for example a UUID issued
+     * before the switch to time-ordered ids).
+     */
+    public static Long parse(String id) {
+        if (id == null || id.isEmpty() || id.length() > 19) {
+            return null;
+        }
+        for (int i = 0; i < id.length(); i++) {
+            if (!Character.isDigit(id.charAt(i))) {
+                return null;
+            }
+        }
+        try {
+            return Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.contoso.socialapp.id;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Member;
+
+/**
+ * Hibernate's side of {@link TimeOrderedId}. Hibernate creates it reflectively, so the
+ * Spring-managed {@link IdGenerator} is handed over through the Hibernate settings under
+ * {@link #ID_GENERATOR_SETTING}.
+ */
+public class TimeOrderedIdentifierGenerator implements IdentifierGenerator {
+    
+    public static final String ID_GENERATOR_SETTING = "socialapp.id_generator";
+    
+    private final IdGenerator idGenerator;
+    
+    public TimeOrderedIdentifierGenerator(TimeOrderedId annotation, Member member,
+                                          CustomIdGeneratorCreationContext context) {
+        Object configured = context.getServiceRegistry().requireService(ConfigurationService.class)
+                .getSettings().get(ID_GENERATOR_SETTING);
+        if (!(configured instanceof IdGenerator generator)) {
+            throw new IllegalStateException("No " + IdGenerator.class.getName() + " in Hibernate setting "
+                    + ID_GENERATOR_SETTING + " for " + member);
+        }
+        this.idGenerator = generator;
+    }
+    
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object entity) {
+        return idGenerator.nextId();
+    }
+}
@@ -0,0 +1,134 @@
+package com.contoso.socialapp.id;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+
+/**
+ * Converts a database created with UUID string keys to time-ordered 64-bit keys, in one
+ * transaction, before Hibernate validates or updates the schema. Rows get ids minted at
+ * their own {@code created_at}, so id order stays creation order, and keep their UUID in
+ * {@code legacy_id} so URLs handed out earlier still resolve. Does nothing once
+ * {@code posts.id} is an integer.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class UuidKeyMigration implements InitializingBean {
+    
+    // The tables exactly as Hibernate creates them from the entities
+    static final String CREATE_POSTS = "create table posts (id integer not null, content varchar(2000) not null, "
+            + "created_at timestamp not null, legacy_id varchar(36) unique, updated_at timestamp not null, "
+            + "username varchar(50) not null, primary key (id))";
+    static final String CREATE_COMMENTS = "create table comments (id integer not null, content varchar(1000) not null, "
+            + "created_at timestamp not null, legacy_id varchar(36) unique, updated_at timestamp not null, "
+            + "username varchar(50) not null, post_id integer not null, primary key (id))";
+    static final String CREATE_LIKES = "create table likes (username varchar(50) not null, liked_at timestamp not null, "
+            + "post_id integer not null, primary key (post_id, username))";
+    
+    private static final int BATCH_SIZE = 10_000;
+    
+    private final DataSource dataSource;
+    private final SnowflakeIdGenerator idGenerator;
+    
+    @Override
+    public void afterPropertiesSet() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            if (hasUuidKeys(connection)) {
+                migrate(connection);
+            }
+        }
+    }
+    
+    static boolean hasUuidKeys(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet columns = statement.executeQuery("pragma table_info(posts)")) {
+            while (columns.next()) {
+                if ("id".equalsIgnoreCase(columns.getString("name"))) {
+                    return !"integer".equalsIgnoreCase(columns.getString("type"));
+                }
+            }
+        }
+        return false;
+    }
+    
+    private void migrate(Connection connection) throws SQLException {
+        log.info("Migrating UUID keys of posts, comments and likes to time-ordered ids");
+        long started = System.nanoTime();
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create temp table post_keys (legacy_id varchar(255) primary key, id integer not null)");
+            statement.execute("create temp table comment_keys (legacy_id varchar(255) primary key, id integer not null)");
+            int keys = assignIds(connection);
+            
+            statement.execute("alter table posts rename to posts_uuid");
+            statement.execute("alter table comments rename to comments_uuid");
+            statement.execute("alter table likes rename to likes_uuid");
+            statement.execute(CREATE_POSTS);
+            statement.execute(CREATE_COMMENTS);
+            statement.execute(CREATE_LIKES);
+            
+            // Inserted in id order, so every table is built by appending
+            int posts = statement.executeUpdate("insert into posts (id, content, created_at, legacy_id, updated_at, username) "
+                    + "select k.id, p.content, p.created_at, p.id, p.updated_at, p.username "
+                    + "from posts_uuid p join post_keys k on k.legacy_id = p.id order by k.id");
+            int comments = statement.executeUpdate("insert into comments (id, content, created_at, legacy_id, updated_at, username, post_id) "
+                    + "select k.id, c.content, c.created_at, c.id, c.updated_at, c.username, pk.id "
+                    + "from comments_uuid c join comment_keys k on k.legacy_id = c.id "
+                    + "join post_keys pk on pk.legacy_id = c.post_id order by k.id");
+            int likes = statement.executeUpdate("insert into likes (username, liked_at, post_id) "
+                    + "select l.username, l.liked_at, pk.id from likes_uuid l "
+                    + "join post_keys pk on pk.legacy_id = l.post_id order by pk.id, l.username");
+            
+            statement.execute("drop table posts_uuid");
+            statement.execute("drop table comments_uuid");
+            statement.execute("drop table likes_uuid");
+            statement.execute("drop table temp.post_keys");
+            statement.execute("drop table temp.comment_keys");
+            connection.commit();
+            log.info("Migrated {} posts, {} comments and {} likes ({} keys) in {} ms", posts, comments, likes, keys,
+                    (System.nanoTime() - started) / 1_000_000);
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+    
+    /**
+     * Mints the new keys of posts and comments together in {@code created_at} order, since
+     * the generator only follows the timestamps it is given if they never go backwards.
+     */
+    private int assignIds(Connection connection) throws SQLException {
+        int count = 0;
+        try (Statement select = connection.createStatement();
+             PreparedStatement postKey = connection.prepareStatement("insert into post_keys (legacy_id, id) values (?, ?)");
+             PreparedStatement commentKey = connection.prepareStatement("insert into comment_keys (legacy_id, id) values (?, ?)");
+             ResultSet rows = select.executeQuery("select 'p', id, created_at from posts "
+                     + "union all select 'c', id, created_at from comments order by 3, 2")) {
+            while (rows.next()) {
+                Timestamp createdAt = rows.getTimestamp(3);
+                PreparedStatement insert = "p".equals(rows.getString(1)) ? postKey : commentKey;
+                insert.setString(1, rows.getString(2));
+                insert.setLong(2, idGenerator.nextIdAt(createdAt != null ? createdAt.getTime() : 0));
+                insert.addBatch();
+                if (++count % BATCH_SIZE == 0) {
+                    postKey.executeBatch();
+                    commentKey.executeBatch();
+                }
+            }
+            postKey.executeBatch();
+            commentKey.executeBatch();
+        }
+        return count;
+    }
+}
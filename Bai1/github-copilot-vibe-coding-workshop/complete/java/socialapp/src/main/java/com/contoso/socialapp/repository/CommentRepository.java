@@ -1,6 +1,7 @@
 package com.contoso.socialapp.repository;
 
 import com.contoso.socialapp.entity.Comment;
+import com.contoso.socialapp.id.PublicIds;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -10,11 +11,23 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface CommentRepository extends JpaRepository<Comment, String> {
+public interface CommentRepository extends JpaRepository<Comment, Long> {
     
-    @Query("SELECT c FROM Comment c WHERE c.post.id = :postId ORDER BY c.createdAt ASC")
-    List<Comment> findByPostIdOrderByCreatedAtAsc(@Param("postId") String postId);
+    // Ids are time-ordered, so id order is creation order
+    @Query("SELECT c FROM Comment c WHERE c.post.id = :postId ORDER BY c.id ASC")
+    List<Comment> findByPostIdOrderByCreatedAtAsc(@Param("postId") Long postId);
     
     @Query("SELECT c FROM Comment c WHERE c.id = :commentId AND c.post.id = :postId")
-    Optional<Comment> findByIdAndPostId(@Param("commentId") String commentId, @Param("postId") String postId);
+    Optional<Comment> findByIdAndPostId(@Param("commentId") Long commentId, @Param("postId") Long postId);
+    
+    @Query("SELECT c FROM Comment c WHERE c.legacyId = :legacyId AND c.post.id = :postId")
+    Optional<Comment> findByLegacyIdAndPostId(@Param("legacyId") String legacyId, @Param("postId") Long postId);
+    
+    /**
+     * Looks a comment of a post up by the id used in URLs: its numeric id, or the UUID it had before.
+     */
+    default Optional<Comment> findByPublicIdAndPostId(String publicId, Long postId) {
+        Long id = PublicIds.parse(publicId);
+        return id != null ? findByIdAndPostId(id, postId) : findByLegacyIdAndPostId(publicId, postId);
+    }
 }
@@ -13,8 +13,8 @@ import java.util.Optional;
 public interface LikeRepository extends JpaRepository<Like, LikeId> {
     
     @Query("SELECT l FROM Like l WHERE l.post.id = :postId AND l.username = :username")
-    Optional<Like> findByPostIdAndUsername(@Param("postId") String postId, @Param("username") String username);
+    Optional<Like> findByPostIdAndUsername(@Param("postId") Long postId, @Param("username") String username);
     
     @Query("DELETE FROM Like l WHERE l.post.id = :postId AND l.username = :username")
-    void deleteByPostIdAndUsername(@Param("postId") String postId, @Param("username") String username);
+    void deleteByPostIdAndUsername(@Param("postId") Long postId, @Param("username") String username);
 }
@@ -1,15 +1,35 @@
 package com.contoso.socialapp.repository;
 
 import com.contoso.socialapp.entity.Post;
+import com.contoso.socialapp.id.PublicIds;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface PostRepository extends JpaRepository<Post, String> {
+public interface PostRepository extends JpaRepository<Post, Long> {
     
-    @Query("SELECT p FROM Post p ORDER BY p.createdAt DESC")
+    // Ids are time-ordered, so newest first is a backwards walk of the table
+    @Query("SELECT p FROM Post p ORDER BY p.id DESC")
     List<Post> findAllOrderByCreatedAtDesc();
+    
+    Optional<Post> findByLegacyId(String legacyId);
+    
+    boolean existsByLegacyId(String legacyId);
+    
+    /**
+     * Looks a post up by the id used in URLs: its numeric id, or the UUID it had before.
+     */
+    default Optional<Post> findByPublicId(String publicId) {
+        Long id = PublicIds.parse(publicId);
+        return id != null ? findById(id) : findByLegacyId(publicId);
+    }
+    
+    default boolean existsByPublicId(String publicId) {
+        Long id = PublicIds.parse(publicId);
+        return id != null ? existsById(id) : existsByLegacyId(publicId);
+    }
 }
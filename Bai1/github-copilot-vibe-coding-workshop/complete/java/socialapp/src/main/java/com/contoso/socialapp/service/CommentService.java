@@ -3,8 +3,10 @@ package com.contoso.socialapp.service;
 import com.contoso.socialapp.dto.*;
 import com.contoso.socialapp.entity.Comment;
 import com.contoso.socialapp.entity.Post;
+import com.contoso.socialapp.id.PublicIds;
 import com.contoso.socialapp.repository.CommentRepository;
 import com.contoso.socialapp.repository.PostRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -15,6 +17,7 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "socialapp.service", histogram = true)
 @RequiredArgsConstructor
 @Slf4j
 @Transactional
@@ -25,7 +28,9 @@ public class CommentService {
     
     public List<CommentResponse> getCommentsByPostId(String postId) {
         log.info("Retrieving comments for post ID: {}", postId);
-        return commentRepository.findByPostIdOrderByCreatedAtAsc(postId)
+        return postRepository.findByPublicId(postId)
+                .map(post -> commentRepository.findByPostIdOrderByCreatedAtAsc(post.getId()))
+                .orElse(List.of())
                 .stream()
                 .map(this::convertToResponse)
                 .collect(Collectors.toList());
@@ -34,7 +39,7 @@ public class CommentService {
     public Optional<CommentResponse> createComment(String postId, NewCommentRequest request) {
         log.info("Creating new comment for post ID: {} by user: {}", postId, request.getUsername());
         
-        return postRepository.findById(postId)
+        return postRepository.findByPublicId(postId)
                 .map(post -> {
                     Comment comment = new Comment();
                     comment.setPost(post);
@@ -50,14 +55,14 @@ public class CommentService {
     
     public Optional<CommentResponse> getCommentById(String postId, String commentId) {
         log.info("Retrieving comment with ID: {} for post ID: {}", commentId, postId);
-        return commentRepository.findByIdAndPostId(commentId, postId)
+        return findComment(postId, commentId)
                 .map(this::convertToResponse);
     }
     
     public Optional<CommentResponse> updateComment(String postId, String commentId, UpdateCommentRequest request) {
         log.info("Updating comment with ID: {} for post ID: {} by user: {}", commentId, postId, request.getUsername());
         
-        return commentRepository.findByIdAndPostId(commentId, postId)
+        return findComment(postId, commentId)
                 .filter(comment -> comment.getUsername().equals(request.getUsername()))
                 .map(comment -> {
                     comment.setContent(request.getContent());
@@ -70,7 +75,7 @@ public class CommentService {
     public boolean deleteComment(String postId, String commentId) {
         log.info("Deleting comment with ID: {} for post ID: {}", commentId, postId);
         
-        Optional<Comment> comment = commentRepository.findByIdAndPostId(commentId, postId);
+        Optional<Comment> comment = findComment(postId, commentId);
         if (comment.isPresent()) {
             commentRepository.delete(comment.get());
             log.info("Deleted comment with ID: {} for post ID: {}", commentId, postId);
@@ -81,10 +86,15 @@ public class CommentService {
         return false;
     }
     
+    private Optional<Comment> findComment(String postId, String commentId) {
+        return postRepository.findByPublicId(postId)
+                .flatMap(post -> commentRepository.findByPublicIdAndPostId(commentId, post.getId()));
+    }
+    
     private CommentResponse convertToResponse(Comment comment) {
         return new CommentResponse(
-                comment.getId(),
-                comment.getPostId(),
+                PublicIds.format(comment.getId()),
+                PublicIds.format(comment.getPostId()),
                 comment.getUsername(),
                 comment.getContent(),
                 comment.getCreatedAt(),
@@ -4,8 +4,10 @@ import com.contoso.socialapp.dto.LikeRequest;
 import com.contoso.socialapp.dto.LikeResponse;
 import com.contoso.socialapp.entity.Like;
 import com.contoso.socialapp.entity.Post;
+import com.contoso.socialapp.id.PublicIds;
 import com.contoso.socialapp.repository.LikeRepository;
 import com.contoso.socialapp.repository.PostRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -14,6 +16,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.util.Optional;
 
 @Service
+@Timed(value = "socialapp.service", histogram = true)
 @RequiredArgsConstructor
 @Slf4j
 @Transactional
@@ -26,7 +29,7 @@ public class LikeService {
         log.info("Adding like to post ID: {} by user: {}", postId, request.getUsername());
         
         // Check if post exists
-        Optional<Post> postOpt = postRepository.findById(postId);
+        Optional<Post> postOpt = postRepository.findByPublicId(postId);
         if (postOpt.isEmpty()) {
             log.warn("Post with ID {} not found for like", postId);
             return Optional.empty();
@@ -35,7 +38,7 @@ public class LikeService {
         Post post = postOpt.get();
         
         // Check if user already liked this post
-        Optional<Like> existingLike = likeRepository.findByPostIdAndUsername(postId, request.getUsername());
+        Optional<Like> existingLike = likeRepository.findByPostIdAndUsername(post.getId(), request.getUsername());
         if (existingLike.isPresent()) {
             log.info("User {} already liked post ID: {}, returning existing like", request.getUsername(), postId);
             return Optional.of(convertToResponse(existingLike.get()));
@@ -55,7 +58,8 @@ public class LikeService {
     public boolean removeLike(String postId, String username) {
         log.info("Removing like from post ID: {} by user: {}", postId, username);
         
-        Optional<Like> like = likeRepository.findByPostIdAndUsername(postId, username);
+        Optional<Like> like = postRepository.findByPublicId(postId)
+                .flatMap(post -> likeRepository.findByPostIdAndUsername(post.getId(), username));
         if (like.isPresent()) {
             likeRepository.delete(like.get());
             log.info("Removed like from post ID: {} by user: {}", postId, username);
@@ -68,7 +72,7 @@ public class LikeService {
     
     private LikeResponse convertToResponse(Like like) {
         return new LikeResponse(
-                like.getPostId(),
+                PublicIds.format(like.getPostId()),
                 like.getUsername(),
                 like.getLikedAt()
         );
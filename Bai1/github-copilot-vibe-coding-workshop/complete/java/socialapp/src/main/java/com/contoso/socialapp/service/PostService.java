@@ -2,7 +2,9 @@ package com.contoso.socialapp.service;
 
 import com.contoso.socialapp.dto.*;
 import com.contoso.socialapp.entity.Post;
+import com.contoso.socialapp.id.PublicIds;
 import com.contoso.socialapp.repository.PostRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -13,6 +15,7 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "socialapp.service", histogram = true)
 @RequiredArgsConstructor
 @Slf4j
 @Transactional
@@ -43,14 +46,14 @@ public class PostService {
     
     public Optional<PostResponse> getPostById(String postId) {
         log.info("Retrieving post with ID: {}", postId);
-        return postRepository.findById(postId)
+        return postRepository.findByPublicId(postId)
                 .map(this::convertToResponse);
     }
     
     public Optional<PostResponse> updatePost(String postId, UpdatePostRequest request) {
         log.info("Updating post with ID: {} by user: {}", postId, request.getUsername());
         
-        return postRepository.findById(postId)
+        return postRepository.findByPublicId(postId)
                 .filter(post -> post.getUsername().equals(request.getUsername()))
                 .map(post -> {
                     post.setContent(request.getContent());
@@ -63,8 +66,9 @@ public class PostService {
     public boolean deletePost(String postId) {
         log.info("Deleting post with ID: {}", postId);
         
-        if (postRepository.existsById(postId)) {
-            postRepository.deleteById(postId);
+        Optional<Post> post = postRepository.findByPublicId(postId);
+        if (post.isPresent()) {
+            postRepository.delete(post.get());
             log.info("Deleted post with ID: {}", postId);
             return true;
         }
@@ -74,12 +78,12 @@ public class PostService {
     }
     
     public boolean postExists(String postId) {
-        return postRepository.existsById(postId);
+        return postRepository.existsByPublicId(postId);
     }
     
     private PostResponse convertToResponse(Post post) {
         return new PostResponse(
-                post.getId(),
+                PublicIds.format(post.getId()),
                 post.getUsername(),
                 post.getContent(),
                 post.getCreatedAt(),
@@ -0,0 +1,28 @@
+package com.contoso.socialapp.config;
+
+import com.contoso.socialapp.dto.PostResponse;
+import com.contoso.socialapp.entity.Post;
+import com.contoso.socialapp.id.TimeOrderedIdentifierGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SocialAppRuntimeHintsTests {
+
+	private final RuntimeHints hints = new RuntimeHints();
+
+	@Test
+	void registersWhatHibernateAndJacksonReflectOn() throws Exception {
+		new SocialAppRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+		assertThat(RuntimeHintsPredicates.reflection().onField(Post.class.getDeclaredField("legacyId"))).accepts(hints);
+		assertThat(RuntimeHintsPredicates.reflection().onType(Post.class)
+				.withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+		assertThat(RuntimeHintsPredicates.reflection().onMethod(PostResponse.class, "getCommentsCount")).accepts(hints);
+		assertThat(RuntimeHintsPredicates.reflection().onType(TimeOrderedIdentifierGenerator.class)
+				.withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)).accepts(hints);
+	}
+}
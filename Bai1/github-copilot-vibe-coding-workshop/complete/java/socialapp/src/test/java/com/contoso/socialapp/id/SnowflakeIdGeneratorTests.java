@@ -0,0 +1,89 @@
+package com.contoso.socialapp.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class SnowflakeIdGeneratorTests {
+
+	private static final long NOW = Instant.parse("2025-06-01T12:00:00Z").toEpochMilli();
+
+	@Test
+	void encodesTimestampAndNode() {
+		SnowflakeIdGenerator generator = new SnowflakeIdGenerator(37);
+
+		long id = generator.nextIdAt(NOW);
+
+		assertThat(SnowflakeIdGenerator.timestampOf(id)).isEqualTo(Instant.ofEpochMilli(NOW));
+		assertThat(SnowflakeIdGenerator.nodeOf(id)).isEqualTo(37);
+		assertThat(id).isPositive();
+	}
+
+	@Test
+	void idsIncreaseWithinAMillisecondAndBorrowTheNextOneWhenTheSequenceRunsOut() {
+		SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1);
+
+		long previous = generator.nextIdAt(NOW);
+		for (int i = 1; i < 5000; i++) {
+			long id = generator.nextIdAt(NOW);
+			assertThat(id).isGreaterThan(previous);
+			previous = id;
+		}
+
+		assertThat(SnowflakeIdGenerator.timestampOf(previous)).isEqualTo(Instant.ofEpochMilli(NOW + 1));
+		assertThat(generator.nextIdAt(NOW + 2)).isGreaterThan(previous);
+	}
+
+	@Test
+	void idsKeepIncreasingWhenTheClockStepsBack() {
+		SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1);
+
+		long before = generator.nextIdAt(NOW);
+		long after = generator.nextIdAt(NOW - 60_000);
+
+		assertThat(after).isGreaterThan(before);
+		assertThat(SnowflakeIdGenerator.timestampOf(after)).isEqualTo(Instant.ofEpochMilli(NOW));
+	}
+
+	@Test
+	void idsAreUniqueAcrossThreads() throws Exception {
+		SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1);
+		Set<Long> ids = ConcurrentHashMap.newKeySet();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Void>> futures = executor.invokeAll(List.<Callable<Void>>of(
+					() -> generate(generator, ids), () -> generate(generator, ids),
+					() -> generate(generator, ids), () -> generate(generator, ids)));
+			for (Future<Void> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		assertThat(ids).hasSize(4 * 50_000);
+	}
+
+	@Test
+	void rejectsNodeIdsThatDoNotFit() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new SnowflakeIdGenerator(-1));
+		assertThatIllegalArgumentException().isThrownBy(() -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID + 1));
+	}
+
+	private static Void generate(SnowflakeIdGenerator generator, Set<Long> ids) {
+		for (int i = 0; i < 50_000; i++) {
+			ids.add(generator.nextId());
+		}
+		return null;
+	}
+}
@@ -0,0 +1,70 @@
+package com.contoso.socialapp.id;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidKeyMigrationTests {
+
+	private static final String POST_A = "6a1f0c3e-0000-4000-8000-00000000000a";
+	private static final String POST_B = "0b2e1d4f-0000-4000-8000-00000000000b";
+	private static final String COMMENT = "9c3f2e50-0000-4000-8000-00000000000c";
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void replacesUuidKeysWithTimeOrderedIdsAndKeepsTheUuids() throws Exception {
+		SingleConnectionDataSource dataSource = new SingleConnectionDataSource("jdbc:sqlite:" + directory.resolve("uuid.db"), true);
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		jdbc.execute("create table posts (id varchar(255) not null, content varchar(2000) not null, created_at timestamp not null, updated_at timestamp not null, username varchar(50) not null, primary key (id))");
+		jdbc.execute("create table comments (id varchar(255) not null, content varchar(1000) not null, created_at timestamp not null, updated_at timestamp not null, username varchar(50) not null, post_id varchar(255) not null, primary key (id))");
+		jdbc.execute("create table likes (username varchar(50) not null, liked_at timestamp not null, post_id varchar(255) not null, primary key (post_id, username))");
+		// POST_B sorts first as a UUID but was created later
+		jdbc.update("insert into posts values (?, 'first', 1000, 1000, 'alice')", POST_A);
+		jdbc.update("insert into posts values (?, 'second', 3000, 3000, 'bob')", POST_B);
+		jdbc.update("insert into comments values (?, 'reply', 2000, 2000, 'bob', ?)", COMMENT, POST_A);
+		jdbc.update("insert into likes values ('carol', 4000, ?)", POST_B);
+
+		new UuidKeyMigration(dataSource, new SnowflakeIdGenerator(3)).afterPropertiesSet();
+
+		assertThat(UuidKeyMigration.hasUuidKeys(dataSource.getConnection())).isFalse();
+		List<Map<String, Object>> posts = jdbc.queryForList("select id, legacy_id, content from posts order by id");
+		assertThat(posts).extracting(row -> row.get("legacy_id")).containsExactly(POST_A, POST_B);
+		assertThat(posts).extracting(row -> row.get("content")).containsExactly("first", "second");
+		long postA = ((Number) posts.get(0).get("id")).longValue();
+		long postB = ((Number) posts.get(1).get("id")).longValue();
+		assertThat(SnowflakeIdGenerator.nodeOf(postA)).isEqualTo(3);
+
+		Map<String, Object> comment = jdbc.queryForMap("select id, legacy_id, post_id from comments");
+		long commentId = ((Number) comment.get("id")).longValue();
+		assertThat(comment.get("legacy_id")).isEqualTo(COMMENT);
+		assertThat(((Number) comment.get("post_id")).longValue()).isEqualTo(postA);
+		assertThat(commentId).isBetween(postA, postB);
+
+		assertThat(jdbc.queryForObject("select post_id from likes where username = 'carol'", Long.class)).isEqualTo(postB);
+		assertThat(jdbc.queryForObject("select type from pragma_table_info('posts') where name = 'id'", String.class))
+				.isEqualToIgnoringCase("integer");
+		dataSource.destroy();
+	}
+
+	@Test
+	void leavesAnIntegerKeyedDatabaseAlone() throws Exception {
+		SingleConnectionDataSource dataSource = new SingleConnectionDataSource("jdbc:sqlite:" + directory.resolve("ids.db"), true);
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		jdbc.execute(UuidKeyMigration.CREATE_POSTS);
+		jdbc.update("insert into posts (id, content, created_at, updated_at, username) values (42, 'kept', 1000, 1000, 'alice')");
+
+		new UuidKeyMigration(dataSource, new SnowflakeIdGenerator(3)).afterPropertiesSet();
+
+		assertThat(jdbc.queryForObject("select id from posts", Long.class)).isEqualTo(42);
+		dataSource.destroy();
+	}
+}
@@ -0,0 +1,61 @@
+package com.contoso.socialapp.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts an app jar on the port of its target URL with an empty SQLite database in a
+ * temporary directory, so each run starts from the same state. The rate limiter is
+ * switched off: the point is to find where the app itself saturates.
+ */
+class AppLauncher implements AutoCloseable {
+    
+    private final Process process;
+    private final Path workDir;
+    
+    private AppLauncher(Process process, Path workDir) {
+        this.process = process;
+        this.workDir = workDir;
+    }
+    
+    static AppLauncher start(Path jar, URI target, Path log) throws IOException {
+        Path workDir = Files.createTempDirectory("socialapp-loadtest");
+        int port = target.getPort() == -1 ? 80 : target.getPort();
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        Files.createDirectories(log.toAbsolutePath().getParent());
+        Process process = new ProcessBuilder(List.of(java, "-jar", jar.toAbsolutePath().toString(),
+                "--server.port=" + port,
+                "--spring.datasource.url=jdbc:sqlite:" + workDir.resolve("sns_api.db"),
+                "--app.rate-limit.enabled=false"))
+                .directory(workDir.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        return new AppLauncher(process, workDir);
+    }
+    
+    void awaitReady(SocialApiClient client, Duration timeout) throws InterruptedException {
+        if (!process.isAlive()) {
+            throw new IllegalStateException("The app exited with " + process.exitValue());
+        }
+        client.awaitReady(timeout);
+    }
+    
+    @Override
+    public void close() throws IOException, InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+        try (var files = Files.walk(workDir)) {
+            for (Path file : files.sorted((a, b) -> b.compareTo(a)).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.contoso.socialapp.loadtest;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain-text tables of the step results, and a side-by-side view when two apps ran.
+ */
+class ConsoleReport {
+    
+    private final PrintStream out;
+    
+    ConsoleReport(PrintStream out) {
+        this.out = out;
+    }
+    
+    void step(String target, StepResult step) {
+        out.printf("%n%s at %d actions/s: achieved %.1f/s, p99 %.1f ms, errors %.2f%%, dropped %d%s%n",
+                target, step.offeredRate(), step.achievedRate(), step.p99(), step.errorRate() * 100, step.dropped(),
+                step.saturated() ? "  [SATURATED]" : "");
+        out.printf("  %-32s %8s %9s %6s %6s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "req/s", "4xx", "5xx+io", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<Endpoint, EndpointSummary> entry : step.endpoints().entrySet()) {
+            EndpointSummary s = entry.getValue();
+            out.printf("  %-32s %8d %9.1f %6d %6d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey().route(), s.count(), s.throughput(), s.clientErrors(), s.errors(),
+                    s.p50(), s.p90(), s.p99(), s.p999(), s.max());
+        }
+    }
+    
+    void summary(LoadTestReport report) {
+        out.printf("%n%s saturates %s%n", report.target(), report.saturationRate() == 0
+                ? "below the lowest offered rate"
+                : "above " + report.saturationRate() + " actions/s");
+    }
+    
+    void compare(LoadTestReport first, LoadTestReport second) {
+        out.printf("%nComparison (p99 ms / req/s): A = %s, B = %s%n", first.target(), second.target());
+        List<StepResult> a = first.steps();
+        List<StepResult> b = second.steps();
+        for (int i = 0; i < Math.min(a.size(), b.size()); i++) {
+            out.printf("  %d actions/s: achieved A %.1f, B %.1f%n",
+                    a.get(i).offeredRate(), a.get(i).achievedRate(), b.get(i).achievedRate());
+            for (Endpoint endpoint : Endpoint.values()) {
+                EndpointSummary x = a.get(i).endpoints().get(endpoint);
+                EndpointSummary y = b.get(i).endpoints().get(endpoint);
+                if (x == null && y == null) {
+                    continue;
+                }
+                out.printf("    %-32s A %9s   B %9s%n", endpoint.route(), cell(x), cell(y));
+            }
+        }
+        out.printf("  saturation: A above %d/s, B above %d/s%n", first.saturationRate(), second.saturationRate());
+    }
+    
+    private static String cell(EndpointSummary summary) {
+        return summary == null ? "-" : String.format("%.1f / %.0f", summary.p99(), summary.throughput());
+    }
+}
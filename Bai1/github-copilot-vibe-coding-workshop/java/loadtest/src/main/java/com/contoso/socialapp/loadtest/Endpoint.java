@@ -0,0 +1,23 @@
+package com.contoso.socialapp.loadtest;
+
+/**
+ * The API calls the workload makes; latencies are reported per endpoint.
+ */
+public enum Endpoint {
+    
+    FEED("GET /posts"),
+    POST_DETAIL("GET /posts/{postId}"),
+    CREATE_COMMENT("POST /posts/{postId}/comments"),
+    LIKE("POST /posts/{postId}/likes"),
+    UNLIKE("DELETE /posts/{postId}/likes");
+    
+    private final String route;
+    
+    Endpoint(String route) {
+        this.route = route;
+    }
+    
+    public String route() {
+        return route;
+    }
+}
@@ -0,0 +1,50 @@
+package com.contoso.socialapp.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram and outcome counts for one endpoint during one load step. Latencies
+ * are recorded in microseconds from the request's intended start time.
+ */
+class EndpointStats {
+    
+    private final Histogram latencies = new ConcurrentHistogram(3);
+    private final LongAdder ok = new LongAdder();
+    private final LongAdder clientErrors = new LongAdder();
+    private final LongAdder serverErrors = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    
+    void record(int status, long micros) {
+        latencies.recordValue(Math.max(micros, 1));
+        if (status >= 500) {
+            serverErrors.increment();
+        } else if (status >= 400) {
+            clientErrors.increment();
+        } else {
+            ok.increment();
+        }
+    }
+    
+    void failed(long micros) {
+        latencies.recordValue(Math.max(micros, 1));
+        failures.increment();
+    }
+    
+    EndpointSummary summarize(double seconds) {
+        long count = latencies.getTotalCount();
+        return new EndpointSummary(count, ok.sum(), clientErrors.sum(), serverErrors.sum(), failures.sum(),
+                count / seconds,
+                millis(latencies.getValueAtPercentile(50)),
+                millis(latencies.getValueAtPercentile(90)),
+                millis(latencies.getValueAtPercentile(99)),
+                millis(latencies.getValueAtPercentile(99.9)),
+                millis(latencies.getMaxValue()));
+    }
+    
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
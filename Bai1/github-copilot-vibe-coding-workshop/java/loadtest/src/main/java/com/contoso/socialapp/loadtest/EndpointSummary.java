@@ -0,0 +1,12 @@
+package com.contoso.socialapp.loadtest;
+
+/**
+ * Throughput and latency percentiles (milliseconds) of one endpoint in one step.
+ */
+public record EndpointSummary(long count, long ok, long clientErrors, long serverErrors, long failures,
+                              double throughput, double p50, double p90, double p99, double p999, double max) {
+    
+    public long errors() {
+        return serverErrors + failures;
+    }
+}
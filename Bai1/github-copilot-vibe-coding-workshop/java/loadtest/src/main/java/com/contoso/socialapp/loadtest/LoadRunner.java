@@ -0,0 +1,177 @@
+package com.contoso.socialapp.loadtest;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load: actions start on a fixed schedule whatever the app's response times,
+ * each on its own virtual thread, and latency is measured from the scheduled start. A
+ * slow app therefore shows up as growing latency rather than as a quietly lower request
+ * rate (coordinated omission).
+ * <p>
+ * Every choice (action, post, user) is drawn on the scheduling thread from one seeded
+ * generator, so two runs with the same options send the same sequence of requests.
+ */
+class LoadRunner {
+    
+    private final SocialApiClient client;
+    private final LoadTestOptions options;
+    private final List<String> postIds;
+    private final ZipfianGenerator popularity;
+    private final SplittableRandom random;
+    private long comments;
+    private long storms;
+    
+    LoadRunner(SocialApiClient client, LoadTestOptions options, List<String> postIds) {
+        this.client = client;
+        this.options = options;
+        this.postIds = postIds;
+        this.popularity = new ZipfianGenerator(postIds.size(), options.zipfExponent());
+        this.random = new SplittableRandom(options.seed());
+    }
+    
+    /**
+     * Creates posts until the target has at least {@code count}, and returns every post
+     * id, newest first, so that rank 0 of the popularity curve is the newest post.
+     */
+    static List<String> preparePosts(SocialApiClient client, int count) throws IOException, InterruptedException {
+        List<String> ids = client.postIds();
+        for (int i = ids.size(); i < count; i++) {
+            client.createPost("load_author_" + (i % 50), "Load test post " + i);
+        }
+        return ids.size() >= count ? ids : client.postIds();
+    }
+    
+    void warmUp() throws InterruptedException {
+        if (!options.warmup().isZero()) {
+            run(options.rates().get(0), options.warmup());
+        }
+    }
+    
+    StepResult step(int rate) throws InterruptedException {
+        return run(rate, options.stepDuration());
+    }
+    
+    private StepResult run(int rate, Duration duration) throws InterruptedException {
+        Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            stats.put(endpoint, new EndpointStats());
+        }
+        Semaphore inFlight = new Semaphore(options.maxInFlight());
+        long dropped = 0;
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long intendedStart = start + i * interval;
+                if (intendedStart >= end) {
+                    break;
+                }
+                long wait;
+                while ((wait = intendedStart - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Runnable action = nextAction(stats, intendedStart);
+                if (!inFlight.tryAcquire()) {
+                    dropped++;
+                    continue;
+                }
+                executor.execute(() -> {
+                    try {
+                        action.run();
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        
+        Map<Endpoint, EndpointSummary> endpoints = new EnumMap<>(Endpoint.class);
+        long requests = 0;
+        long errors = 0;
+        List<Double> p99s = new ArrayList<>();
+        for (Map.Entry<Endpoint, EndpointStats> entry : stats.entrySet()) {
+            EndpointSummary summary = entry.getValue().summarize(seconds);
+            if (summary.count() > 0) {
+                endpoints.put(entry.getKey(), summary);
+                requests += summary.count();
+                errors += summary.errors();
+                p99s.add(summary.p99());
+            }
+        }
+        double p99 = p99s.stream().mapToDouble(Double::doubleValue).max().orElse(0);
+        double errorRate = requests == 0 ? 0 : (double) (errors + dropped) / (requests + dropped);
+        // Actions completed per second over the whole step, including the drain at the end
+        double achieved = (rate * duration.toNanos() / 1e9 - dropped) / seconds;
+        boolean saturated = achieved < rate * 0.95 || p99 > options.sloP99().toMillis()
+                || errorRate > options.maxErrorRate();
+        return new StepResult(rate, achieved, seconds, dropped, p99, errorRate, saturated, endpoints);
+    }
+    
+    private Runnable nextAction(Map<Endpoint, EndpointStats> stats, long intendedStart) {
+        WorkloadMix.Action action = options.mix().next(random);
+        String postId = postIds.get(popularity.next(random));
+        return switch (action) {
+            case FEED -> () -> call(stats.get(Endpoint.FEED), intendedStart, client::feed);
+            case POST -> () -> call(stats.get(Endpoint.POST_DETAIL), intendedStart, () -> client.post(postId));
+            case COMMENT -> {
+                String username = "load_user_" + random.nextInt(options.users());
+                long number = ++comments;
+                yield () -> call(stats.get(Endpoint.CREATE_COMMENT), intendedStart,
+                        () -> client.comment(postId, username, "Load test comment " + number));
+            }
+            case LIKE_STORM -> {
+                long storm = ++storms;
+                yield () -> likeStorm(stats, intendedStart, postId, storm);
+            }
+        };
+    }
+    
+    /**
+     * {@code storm-size} users like the same post at once, then each takes the like back.
+     */
+    private void likeStorm(Map<Endpoint, EndpointStats> stats, long intendedStart, String postId, long storm) {
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < options.stormSize(); i++) {
+                String username = "storm_" + storm + "_" + i;
+                users.execute(() -> {
+                    call(stats.get(Endpoint.LIKE), intendedStart, () -> client.like(postId, username));
+                    call(stats.get(Endpoint.UNLIKE), System.nanoTime(), () -> client.unlike(postId, username));
+                });
+            }
+        }
+    }
+    
+    private static void call(EndpointStats stats, long intendedStart, Request request) {
+        try {
+            int status = request.send();
+            stats.record(status, micros(intendedStart));
+        } catch (IOException e) {
+            stats.failed(micros(intendedStart));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private static long micros(long intendedStart) {
+        return TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStart);
+    }
+    
+    @FunctionalInterface
+    private interface Request {
+        int send() throws IOException, InterruptedException;
+    }
+}
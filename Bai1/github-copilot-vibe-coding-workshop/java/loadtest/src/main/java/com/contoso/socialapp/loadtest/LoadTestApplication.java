@@ -0,0 +1,93 @@
+package com.contoso.socialapp.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drives the Social Media API with a mix of feed reads, post reads, comments and like
+ * storms at increasing request rates, and reports throughput and latency percentiles per
+ * endpoint. With {@code --compare} the same plan runs against a second app.
+ */
+public class LoadTestApplication {
+    
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(LoadTestOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+        
+        ConsoleReport console = new ConsoleReport(System.out);
+        Map<String, LoadTestReport> reports = new LinkedHashMap<>();
+        reports.put("target", run(options, options.target(), options.targetJar(), console));
+        if (options.compare() != null) {
+            reports.put("compare", run(options, options.compare(), options.compareJar(), console));
+            console.compare(reports.get("target"), reports.get("compare"));
+        }
+        
+        Path report = options.report();
+        if (report.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(report.toAbsolutePath().getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(report.toFile(), reports);
+        System.out.printf("%nReport written to %s%n", report.toAbsolutePath());
+    }
+    
+    private static LoadTestReport run(LoadTestOptions options, URI target, Path jar, ConsoleReport console)
+            throws IOException, InterruptedException {
+        SocialApiClient client = new SocialApiClient(target);
+        AppLauncher app = null;
+        try {
+            if (jar != null) {
+                Path log = options.report().toAbsolutePath().resolveSibling(jar.getFileName() + "-" + target.getPort() + ".log");
+                System.out.printf("Starting %s on port %d (log: %s)%n", jar, target.getPort(), log);
+                app = AppLauncher.start(jar, target, log);
+                app.awaitReady(client, STARTUP_TIMEOUT);
+            } else {
+                client.awaitReady(Duration.ofSeconds(10));
+            }
+            
+            List<String> postIds = LoadRunner.preparePosts(client, options.posts());
+            System.out.printf("%s: %d posts, mix %s, zipf %.2f, seed %d%n",
+                    client.baseUrl(), postIds.size(), options.mix(), options.zipfExponent(), options.seed());
+            LoadRunner runner = new LoadRunner(client, options, postIds);
+            runner.warmUp();
+            
+            List<StepResult> steps = new ArrayList<>();
+            int saturationRate = 0;
+            for (int rate : options.rates()) {
+                StepResult step = runner.step(rate);
+                steps.add(step);
+                console.step(client.baseUrl(), step);
+                if (step.saturated()) {
+                    break;
+                }
+                saturationRate = rate;
+            }
+            LoadTestReport report = new LoadTestReport(client.baseUrl(), options.mix().toString(),
+                    options.zipfExponent(), options.seed(), postIds.size(), steps, saturationRate);
+            console.summary(report);
+            return report;
+        } finally {
+            if (app != null) {
+                app.close();
+            }
+        }
+    }
+}
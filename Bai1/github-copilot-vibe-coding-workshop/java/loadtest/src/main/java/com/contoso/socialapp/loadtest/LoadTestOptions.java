@@ -0,0 +1,104 @@
+package com.contoso.socialapp.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Command-line options, all given as {@code --name=value}.
+ */
+public record LoadTestOptions(
+        URI target,
+        URI compare,
+        Path targetJar,
+        Path compareJar,
+        List<Integer> rates,
+        Duration stepDuration,
+        Duration warmup,
+        WorkloadMix mix,
+        double zipfExponent,
+        int posts,
+        int users,
+        int stormSize,
+        int maxInFlight,
+        Duration sloP99,
+        double maxErrorRate,
+        long seed,
+        Path report) {
+    
+    private static final Set<String> NAMES = Set.of("target", "compare", "target-jar", "compare-jar", "rates",
+            "step-duration", "warmup", "mix", "zipf-exponent", "posts", "users", "storm-size", "max-in-flight",
+            "slo-p99", "max-error-rate", "seed", "report");
+    
+    public static final String USAGE = """
+            Options (all --name=value):
+              --target=http://localhost:8080/api   base URL of the app under test
+              --compare=http://localhost:8081/api  optional second app, run with the same plan
+              --target-jar=<jar>                   start the target from this jar on a fresh database
+              --compare-jar=<jar>                  start the compare app from this jar on a fresh database
+              --rates=50,100,200,400               offered actions per second, one step each
+              --step-duration=30s                  how long each rate is held
+              --warmup=10s                         unmeasured load at the first rate
+              --mix=feed=40,post=35,comment=15,like-storm=10
+              --zipf-exponent=1.1                  post popularity skew (0 = uniform)
+              --posts=200                          posts to create when the target has fewer
+              --users=10000                        distinct usernames for comments
+              --storm-size=20                      users that like and unlike a post in one storm
+              --max-in-flight=2000                 outstanding actions before new ones are dropped
+              --slo-p99=500ms                      a step with a slower p99 counts as saturated
+              --max-error-rate=0.01                a step with more 5xx/failures counts as saturated
+              --seed=42                            makes the sequence of actions reproducible
+              --report=build/loadtest/report.json  JSON report
+            """;
+    
+    public static LoadTestOptions parse(String... args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got '" + arg + "'");
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            if (!NAMES.contains(name)) {
+                throw new IllegalArgumentException("Unknown option --" + name);
+            }
+            values.put(name, arg.substring(arg.indexOf('=') + 1));
+        }
+        return new LoadTestOptions(
+                URI.create(values.getOrDefault("target", "http://localhost:8080/api")),
+                values.containsKey("compare") ? URI.create(values.get("compare")) : null,
+                values.containsKey("target-jar") ? Path.of(values.get("target-jar")) : null,
+                values.containsKey("compare-jar") ? Path.of(values.get("compare-jar")) : null,
+                Arrays.stream(values.getOrDefault("rates", "50,100,200,400").split(","))
+                        .map(String::trim).map(Integer::parseInt).toList(),
+                duration(values.getOrDefault("step-duration", "30s")),
+                duration(values.getOrDefault("warmup", "10s")),
+                WorkloadMix.parse(values.getOrDefault("mix", WorkloadMix.DEFAULT)),
+                Double.parseDouble(values.getOrDefault("zipf-exponent", "1.1")),
+                Integer.parseInt(values.getOrDefault("posts", "200")),
+                Integer.parseInt(values.getOrDefault("users", "10000")),
+                Integer.parseInt(values.getOrDefault("storm-size", "20")),
+                Integer.parseInt(values.getOrDefault("max-in-flight", "2000")),
+                duration(values.getOrDefault("slo-p99", "500ms")),
+                Double.parseDouble(values.getOrDefault("max-error-rate", "0.01")),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                Path.of(values.getOrDefault("report", "build/loadtest/report.json")));
+    }
+    
+    static Duration duration(String value) {
+        String text = value.trim();
+        if (text.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(text.substring(0, text.length() - 2)));
+        }
+        long amount = Long.parseLong(text.substring(0, text.length() - 1));
+        return switch (text.charAt(text.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            default -> throw new IllegalArgumentException("Expected a duration like 500ms, 30s or 2m but got '" + value + "'");
+        };
+    }
+}
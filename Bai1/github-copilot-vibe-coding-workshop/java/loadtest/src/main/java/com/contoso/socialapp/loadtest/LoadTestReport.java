@@ -0,0 +1,11 @@
+package com.contoso.socialapp.loadtest;
+
+import java.util.List;
+
+/**
+ * Everything measured against one target. {@code saturationRate} is the highest offered
+ * rate that was still served within the limits, or 0 if even the first step was not.
+ */
+public record LoadTestReport(String target, String mix, double zipfExponent, long seed, int posts,
+                             List<StepResult> steps, int saturationRate) {
+}
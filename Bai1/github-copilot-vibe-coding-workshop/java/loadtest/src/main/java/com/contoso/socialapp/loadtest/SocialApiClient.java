@@ -0,0 +1,119 @@
+package com.contoso.socialapp.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+/**
+ * The API calls shared by both apps. Post ids are kept as strings because
+ * {@code java/socialapp} uses numbers and {@code complete/java/socialapp} UUIDs.
+ * Unlike sends the username both as a body and as a query parameter, which covers the
+ * two apps' signatures.
+ */
+class SocialApiClient {
+    
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    
+    private final String baseUrl;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    SocialApiClient(URI baseUrl) {
+        String url = baseUrl.toString();
+        this.baseUrl = url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+    
+    int feed() throws IOException, InterruptedException {
+        return send(request("/posts").GET());
+    }
+    
+    int post(String postId) throws IOException, InterruptedException {
+        return send(request("/posts/" + postId).GET());
+    }
+    
+    int comment(String postId, String username, String content) throws IOException, InterruptedException {
+        return send(json("/posts/" + postId + "/comments", "POST",
+                "{\"username\":\"" + username + "\",\"content\":\"" + content + "\"}"));
+    }
+    
+    int like(String postId, String username) throws IOException, InterruptedException {
+        return send(json("/posts/" + postId + "/likes", "POST", "{\"username\":\"" + username + "\"}"));
+    }
+    
+    int unlike(String postId, String username) throws IOException, InterruptedException {
+        return send(json("/posts/" + postId + "/likes?username=" + username, "DELETE",
+                "{\"username\":\"" + username + "\"}"));
+    }
+    
+    List<String> postIds() throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = httpClient.send(request("/posts").GET().build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IOException("GET /posts returned " + response.statusCode());
+        }
+        List<String> ids = new ArrayList<>();
+        for (JsonNode post : objectMapper.readTree(response.body())) {
+            ids.add(post.get("id").asText());
+        }
+        return ids;
+    }
+    
+    String createPost(String username, String content) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = httpClient.send(json("/posts", "POST",
+                "{\"username\":\"" + username + "\",\"content\":\"" + content + "\"}").build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 201) {
+            throw new IOException("POST /posts returned " + response.statusCode());
+        }
+        return objectMapper.readTree(response.body()).get("id").asText();
+    }
+    
+    void awaitReady(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                if (feed() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(250);
+        }
+        throw new IllegalStateException(baseUrl + " did not answer GET /posts within " + timeout);
+    }
+    
+    String baseUrl() {
+        return baseUrl;
+    }
+    
+    private int send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+    
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/json");
+    }
+    
+    private HttpRequest.Builder json(String path, String method, String body) {
+        return request(path)
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body));
+    }
+}
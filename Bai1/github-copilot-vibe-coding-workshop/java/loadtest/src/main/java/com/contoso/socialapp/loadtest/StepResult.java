@@ -0,0 +1,12 @@
+package com.contoso.socialapp.loadtest;
+
+import java.util.Map;
+
+/**
+ * One offered request rate held for a fixed time. {@code dropped} counts scheduled
+ * actions that were never sent because {@code max-in-flight} actions were already
+ * outstanding, which only happens far past saturation.
+ */
+public record StepResult(int offeredRate, double achievedRate, double seconds, long dropped, double p99,
+                         double errorRate, boolean saturated, Map<Endpoint, EndpointSummary> endpoints) {
+}
@@ -0,0 +1,77 @@
+package com.contoso.socialapp.loadtest;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Relative weights of the user actions, parsed from {@code feed=40,post=35,comment=15,like-storm=10}.
+ */
+public class WorkloadMix {
+    
+    public enum Action {
+        FEED, POST, COMMENT, LIKE_STORM
+    }
+    
+    public static final String DEFAULT = "feed=40,post=35,comment=15,like-storm=10";
+    
+    private final Map<Action, Integer> weights;
+    private final Action[] actions;
+    private final int[] cumulative;
+    private final int total;
+    
+    private WorkloadMix(Map<Action, Integer> weights) {
+        this.weights = weights;
+        this.actions = weights.keySet().toArray(Action[]::new);
+        this.cumulative = new int[actions.length];
+        int sum = 0;
+        for (int i = 0; i < actions.length; i++) {
+            sum += weights.get(actions[i]);
+            cumulative[i] = sum;
+        }
+        if (sum <= 0) {
+            throw new IllegalArgumentException("The workload mix needs at least one positive weight");
+        }
+        this.total = sum;
+    }
+    
+    public static WorkloadMix parse(String spec) {
+        Map<Action, Integer> weights = new EnumMap<>(Action.class);
+        for (String part : spec.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Expected action=weight but got '" + part + "'");
+            }
+            Action action = Action.valueOf(pair[0].trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight for " + pair[0]);
+            }
+            weights.put(action, weight);
+        }
+        return new WorkloadMix(weights);
+    }
+    
+    public Action next(RandomGenerator random) {
+        int pick = random.nextInt(total);
+        for (int i = 0; i < actions.length; i++) {
+            if (pick < cumulative[i]) {
+                return actions[i];
+            }
+        }
+        throw new IllegalStateException();
+    }
+    
+    public Map<Action, Integer> weights() {
+        return weights;
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder spec = new StringBuilder();
+        weights.forEach((action, weight) -> spec.append(spec.isEmpty() ? "" : ",")
+                .append(action.name().toLowerCase(Locale.ROOT).replace('_', '-')).append('=').append(weight));
+        return spec.toString();
+    }
+}
@@ -0,0 +1,237 @@
+package com.contoso.socialapp.loadtest.seed;
+
+import com.contoso.socialapp.loadtest.ZipfianGenerator;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.function.LongConsumer;
+
+/**
+ * Generates users, posts, comments and likes and writes them through batched inserts.
+ * <p>
+ * Post popularity follows a Lomax (shifted Pareto) distribution, so many posts get no
+ * comments or likes at all, most get a few and a handful get thousands. Authors and commenters are drawn from a Zipfian
+ * curve over the users, so a few users are very active. The likers of a post are
+ * distinct users, as both apps require.
+ * <p>
+ * Every value comes from one generator seeded with {@code --seed}, and timestamps are
+ * relative to a fixed date. The same options therefore always produce the same database.
+ */
+public class DataSeeder {
+    
+    static final Instant END = Instant.parse("2025-06-01T00:00:00Z");
+    
+    private static final String[] WORDS = {
+            "just", "had", "an", "amazing", "hiking", "trip", "in", "the", "mountains", "coffee", "with", "friends",
+            "new", "recipe", "today", "weekend", "city", "lights", "sunset", "beach", "reading", "great", "book",
+            "concert", "last", "night", "working", "on", "side", "project", "photos", "from", "travel", "garden",
+            "morning", "run", "finally", "finished", "cannot", "believe", "this", "view", "love", "team", "launch"};
+    
+    private final SeedOptions options;
+    private final LongConsumer progress;
+    private final SplittableRandom random;
+    private final ZipfianGenerator activeUsers;
+    private final double popularityMean;
+    
+    private long commentSequence;
+    private long likeSequence;
+    private long pendingRows;
+    
+    public DataSeeder(SeedOptions options, LongConsumer progress) {
+        this.options = options;
+        this.progress = progress;
+        this.random = new SplittableRandom(options.seed());
+        this.activeUsers = new ZipfianGenerator(options.users(), options.userExponent());
+        this.popularityMean = 1 / (options.popularityAlpha() - 1);
+    }
+    
+    /**
+     * Fills the database and returns the number of rows written.
+     */
+    public SeedResult seed(Connection connection) throws SQLException {
+        SeedSchema schema = options.schema();
+        try (Statement statement = connection.createStatement()) {
+            // Bulk-load settings: a crash mid-seed means seeding again, not recovering
+            statement.execute("pragma journal_mode = OFF");
+            statement.execute("pragma synchronous = OFF");
+            statement.execute("pragma temp_store = MEMORY");
+            statement.execute("pragma cache_size = -262144");
+            for (String ddl : schema.createTables()) {
+                statement.execute(ddl);
+            }
+            prepareTables(statement);
+            markUnsharded(statement);
+        }
+        
+        connection.setAutoCommit(false);
+        long posts = 0;
+        long comments = 0;
+        long likes = 0;
+        long span = ChronoUnit.MILLIS.between(END.minus(options.days(), ChronoUnit.DAYS), END);
+        long start = END.toEpochMilli() - span;
+        try (PreparedStatement insertPost = connection.prepareStatement(schema.insertPost());
+             PreparedStatement insertComment = connection.prepareStatement(schema.insertComment());
+             PreparedStatement insertLike = connection.prepareStatement(schema.insertLike())) {
+            for (long sequence = 1; sequence <= options.posts(); sequence++) {
+                Object postId = schema.postId(sequence, uuid());
+                long createdAt = start + span * (sequence - 1) / Math.max(options.posts(), 1);
+                double popularity = Math.pow(1 - random.nextDouble(), -1 / options.popularityAlpha()) - 1;
+                int commentCount = count(options.commentsPerPost(), popularity, Integer.MAX_VALUE);
+                int likeCount = count(options.likesPerPost(), popularity, options.users());
+                
+                schema.bindPost(insertPost, postId, username(activeUsers.next(random)), text(8, 40), createdAt,
+                        likeCount, commentCount);
+                insertPost.addBatch();
+                posts++;
+                
+                for (int i = 0; i < commentCount; i++) {
+                    schema.bindComment(insertComment, ++commentSequence, uuid(), postId,
+                            username(activeUsers.next(random)), text(3, 25), createdAt + reactionDelay());
+                    insertComment.addBatch();
+                }
+                comments += commentCount;
+                
+                // Distinct likers: a walk over the users with a stride coprime to their number
+                int first = random.nextInt(options.users());
+                int stride = coprimeStride(options.users());
+                for (int i = 0; i < likeCount; i++) {
+                    int user = (int) ((first + (long) i * stride) % options.users());
+                    schema.bindLike(insertLike, ++likeSequence, postId, username(user), createdAt + reactionDelay());
+                    insertLike.addBatch();
+                }
+                likes += likeCount;
+                
+                pendingRows += 1 + commentCount + likeCount;
+                if (pendingRows >= options.batchSize()) {
+                    flush(connection, insertPost, insertComment, insertLike);
+                    progress.accept(posts + comments + likes);
+                }
+            }
+            flush(connection, insertPost, insertComment, insertLike);
+        }
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("pragma journal_mode = DELETE");
+        }
+        return new SeedResult(options.users(), posts, comments, likes);
+    }
+    
+    private void prepareTables(Statement statement) throws SQLException {
+        for (String table : new String[]{"posts", "comments", "likes"}) {
+            if (options.truncate()) {
+                statement.execute("delete from " + table);
+                continue;
+            }
+            try (ResultSet rows = statement.executeQuery("select exists (select 1 from " + table + ")")) {
+                if (rows.next() && rows.getBoolean(1)) {
+                    throw new IllegalStateException("Table " + table + " is not empty; pass --truncate=true to replace its rows");
+                }
+            }
+        }
+        // Entries naming the replaced rows would be replayed to caches and change feeds
+        if (options.truncate() && hasTable(statement, "change_log")) {
+            statement.execute("delete from change_log");
+        }
+    }
+    
+    // Consecutive ids only fit an unsharded file; a shard of several keeps its own id stride
+    private static void markUnsharded(Statement statement) throws SQLException {
+        if (!hasTable(statement, "shard_info")) {
+            return;
+        }
+        try (ResultSet layout = statement.executeQuery("select shard, shards from shard_info")) {
+            if (layout.next()) {
+                if (layout.getInt(2) != 1) {
+                    throw new IllegalStateException("Database is shard " + layout.getInt(1) + " of "
+                            + layout.getInt(2) + "; seed a single file and run the reshard task instead");
+                }
+                return;
+            }
+        }
+        statement.execute("insert into shard_info (shard, shards, id_floor) values (0, 1, 0)");
+    }
+    
+    private static boolean hasTable(Statement statement, String table) throws SQLException {
+        try (ResultSet rows = statement.executeQuery(
+                "select 1 from sqlite_master where type = 'table' and name = '" + table + "'")) {
+            return rows.next();
+        }
+    }
+    
+    private void flush(Connection connection, PreparedStatement... inserts) throws SQLException {
+        for (PreparedStatement insert : inserts) {
+            insert.executeBatch();
+        }
+        connection.commit();
+        pendingRows = 0;
+    }
+    
+    /**
+     * Stochastic rounding keeps the mean at {@code perPost} across many posts.
+     */
+    private int count(double perPost, double popularity, int max) {
+        double expected = perPost * popularity / popularityMean;
+        return (int) Math.min(max, (long) (expected + random.nextDouble()));
+    }
+    
+    private long reactionDelay() {
+        // Most reactions come within hours of the post; the mean is six hours
+        return (long) (-Math.log(1 - random.nextDouble()) * 6 * 3_600_000L);
+    }
+    
+    private int coprimeStride(int users) {
+        if (users == 1) {
+            return 1;
+        }
+        int stride;
+        do {
+            stride = 1 + random.nextInt(users - 1);
+        } while (gcd(stride, users) != 1);
+        return stride;
+    }
+    
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+    
+    private UUID uuid() {
+        long most = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long least = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(most, least);
+    }
+    
+    private static String username(int user) {
+        return "user_" + user;
+    }
+    
+    private String text(int minWords, int maxWords) {
+        int words = minWords + random.nextInt(maxWords - minWords + 1);
+        StringBuilder text = new StringBuilder(words * 7);
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+    
+    public record SeedResult(int users, long posts, long comments, long likes) {
+        
+        public long rows() {
+            return posts + comments + likes;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.contoso.socialapp.loadtest.seed;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+
+/**
+ * Fills an SQLite database with synthetic users, posts, comments and likes in the
+ * schema of either app, so load tests run against realistic table sizes.
+ */
+public class SeedDataApplication {
+    
+    public static void main(String[] args) throws Exception {
+        SeedOptions options;
+        try {
+            options = SeedOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(SeedOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+        
+        System.out.printf("Seeding %s (%s schema): %d users, %d posts, ~%.1f comments and ~%.1f likes per post, seed %d%n",
+                options.database().toAbsolutePath(), options.schema().name().toLowerCase(), options.users(),
+                options.posts(), options.commentsPerPost(), options.likesPerPost(), options.seed());
+        long started = System.nanoTime();
+        long[] nextReport = {1_000_000};
+        DataSeeder seeder = new DataSeeder(options, rows -> {
+            if (rows >= nextReport[0]) {
+                double seconds = (System.nanoTime() - started) / 1e9;
+                System.out.printf("  %,d rows, %,.0f rows/s%n", rows, rows / seconds);
+                nextReport[0] = rows + 1_000_000;
+            }
+        });
+        
+        DataSeeder.SeedResult result;
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + options.database())) {
+            result = seeder.seed(connection);
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        System.out.printf("Done: %,d posts, %,d comments, %,d likes (%,d rows) in %.1f s, %,.0f rows/s%n",
+                result.posts(), result.comments(), result.likes(), result.rows(), seconds, result.rows() / seconds);
+    }
+}
@@ -0,0 +1,77 @@
+package com.contoso.socialapp.loadtest.seed;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Command-line options of the seeder, all given as {@code --name=value}.
+ */
+public record SeedOptions(
+        Path database,
+        SeedSchema schema,
+        int users,
+        long posts,
+        double commentsPerPost,
+        double likesPerPost,
+        double popularityAlpha,
+        double userExponent,
+        int days,
+        int batchSize,
+        boolean truncate,
+        long seed) {
+    
+    private static final Set<String> NAMES = Set.of("database", "schema", "users", "posts", "comments-per-post",
+            "likes-per-post", "popularity-alpha", "user-exponent", "days", "batch-size", "truncate", "seed");
+    
+    public static final String USAGE = """
+            Options (all --name=value):
+              --database=sns_api.db        SQLite file to fill; tables are created when missing
+              --schema=socialapp           socialapp (java/socialapp) or complete (complete/java/socialapp)
+              --users=100000               distinct usernames
+              --posts=1000000              posts to generate
+              --comments-per-post=5        mean comments per post
+              --likes-per-post=4           mean likes per post
+              --popularity-alpha=1.5       Lomax shape of post popularity (smaller = heavier tail, > 1)
+              --user-exponent=1.0          Zipf skew of how often each user posts and comments
+              --days=365                   posts are spread over this many days before 2025-06-01
+              --batch-size=10000           rows per JDBC batch
+              --truncate=false             empty the tables first instead of refusing to seed a non-empty database
+              --seed=42                    the same seed and options always produce the same rows
+            """;
+    
+    public static SeedOptions parse(String... args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got '" + arg + "'");
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            if (!NAMES.contains(name)) {
+                throw new IllegalArgumentException("Unknown option --" + name);
+            }
+            values.put(name, arg.substring(arg.indexOf('=') + 1));
+        }
+        SeedOptions options = new SeedOptions(
+                Path.of(values.getOrDefault("database", "sns_api.db")),
+                SeedSchema.parse(values.getOrDefault("schema", "socialapp")),
+                Integer.parseInt(values.getOrDefault("users", "100000")),
+                Long.parseLong(values.getOrDefault("posts", "1000000")),
+                Double.parseDouble(values.getOrDefault("comments-per-post", "5")),
+                Double.parseDouble(values.getOrDefault("likes-per-post", "4")),
+                Double.parseDouble(values.getOrDefault("popularity-alpha", "1.5")),
+                Double.parseDouble(values.getOrDefault("user-exponent", "1.0")),
+                Integer.parseInt(values.getOrDefault("days", "365")),
+                Integer.parseInt(values.getOrDefault("batch-size", "10000")),
+                Boolean.parseBoolean(values.getOrDefault("truncate", "false")),
+                Long.parseLong(values.getOrDefault("seed", "42")));
+        if (options.popularityAlpha() <= 1) {
+            throw new IllegalArgumentException("--popularity-alpha must be above 1 for the mean to exist");
+        }
+        if (options.users() <= 0 || options.posts() < 0 || options.batchSize() <= 0 || options.days() <= 0) {
+            throw new IllegalArgumentException("--users, --batch-size and --days must be positive, --posts not negative");
+        }
+        return options;
+    }
+}
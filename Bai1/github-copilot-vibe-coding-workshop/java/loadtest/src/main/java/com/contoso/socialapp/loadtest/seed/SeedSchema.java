@@ -0,0 +1,166 @@
+package com.contoso.socialapp.loadtest.seed;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * The tables and indexes Hibernate creates for each app, statement for statement, and how
+ * a generated row is bound into them. Timestamps are epoch milliseconds, which is how
+ * sqlite-jdbc stores {@code LocalDateTime} values written by the apps. For
+ * {@code java/socialapp} the statements are checked against the schema snapshot that
+ * the app's own tests keep in step with its entities.
+ */
+public enum SeedSchema {
+    
+    /**
+     * {@code java/socialapp}: integer ids, like and comment counts kept on the post. Seeded
+     * rows get no change-log entries; the log only has to exist for the app's writes. The
+     * ids are consecutive, so the file is marked as the only shard and a sharded start is
+     * refused until the reshard task has moved the posts.
+     */
+    SOCIALAPP(
+            List.of(
+                    "create table if not exists posts (comments_count integer not null, likes_count integer not null, created_at timestamp not null, id integer, updated_at timestamp not null, content TEXT not null, username varchar(255) not null, primary key (id))",
+                    "create index if not exists idx_posts_created_at_id on posts (created_at, id)",
+                    "create table if not exists comments (created_at timestamp not null, id integer, post_id bigint not null, updated_at timestamp not null, content TEXT not null, username varchar(255) not null, primary key (id))",
+                    "create table if not exists likes (created_at timestamp not null, id integer, post_id bigint not null, username varchar(255) not null, primary key (id))",
+                    "create unique index if not exists uk_likes_post_id_username on likes (post_id, username)",
+                    "create table if not exists change_log (changed_at timestamp not null, entity_id bigint not null, origin bigint, post_id bigint not null, seq integer, entity_type varchar(16) not null check (entity_type in ('POST','COMMENT','LIKE')), operation varchar(16) not null check (operation in ('CREATE','UPDATE','DELETE')), primary key (seq))",
+                    "create table if not exists shard_info (shard integer not null, shards integer not null, id_floor integer not null)"),
+            "insert into posts (id, username, content, created_at, updated_at, likes_count, comments_count) values (?, ?, ?, ?, ?, ?, ?)",
+            "insert into comments (id, post_id, username, content, created_at, updated_at) values (?, ?, ?, ?, ?, ?)",
+            "insert into likes (id, post_id, username, created_at) values (?, ?, ?, ?)") {
+        
+        @Override
+        Object postId(long sequence, UUID uuid) {
+            return sequence;
+        }
+        
+        @Override
+        void bindPost(PreparedStatement insert, Object id, String username, String content, long createdAt,
+                      int likes, int comments) throws SQLException {
+            insert.setObject(1, id);
+            insert.setString(2, username);
+            insert.setString(3, content);
+            insert.setLong(4, createdAt);
+            insert.setLong(5, createdAt);
+            insert.setInt(6, likes);
+            insert.setInt(7, comments);
+        }
+        
+        @Override
+        void bindComment(PreparedStatement insert, long sequence, UUID uuid, Object postId, String username,
+                         String content, long createdAt) throws SQLException {
+            insert.setLong(1, sequence);
+            insert.setObject(2, postId);
+            insert.setString(3, username);
+            insert.setString(4, content);
+            insert.setLong(5, createdAt);
+            insert.setLong(6, createdAt);
+        }
+        
+        @Override
+        void bindLike(PreparedStatement insert, long sequence, Object postId, String username, long createdAt)
+                throws SQLException {
+            insert.setLong(1, sequence);
+            insert.setObject(2, postId);
+            insert.setString(3, username);
+            insert.setLong(4, createdAt);
+        }
+    },
+    
+    /**
+     * {@code complete/java/socialapp} before time-ordered ids: UUID ids, likes keyed by
+     * post and user, counts derived from the collections. The app migrates these tables
+     * to its current keys at startup.
+     */
+    COMPLETE(
+            List.of(
+                    "create table if not exists posts (id varchar(255) not null, content varchar(2000) not null, created_at timestamp not null, updated_at timestamp not null, username varchar(50) not null, primary key (id))",
+                    "create table if not exists comments (id varchar(255) not null, content varchar(1000) not null, created_at timestamp not null, updated_at timestamp not null, username varchar(50) not null, post_id varchar(255) not null, primary key (id))",
+                    "create table if not exists likes (username varchar(50) not null, liked_at timestamp not null, post_id varchar(255) not null, primary key (post_id, username))"),
+            "insert into posts (id, username, content, created_at, updated_at) values (?, ?, ?, ?, ?)",
+            "insert into comments (id, post_id, username, content, created_at, updated_at) values (?, ?, ?, ?, ?, ?)",
+            "insert into likes (post_id, username, liked_at) values (?, ?, ?)") {
+        
+        @Override
+        Object postId(long sequence, UUID uuid) {
+            return uuid.toString();
+        }
+        
+        @Override
+        void bindPost(PreparedStatement insert, Object id, String username, String content, long createdAt,
+                      int likes, int comments) throws SQLException {
+            insert.setObject(1, id);
+            insert.setString(2, username);
+            insert.setString(3, content);
+            insert.setLong(4, createdAt);
+            insert.setLong(5, createdAt);
+        }
+        
+        @Override
+        void bindComment(PreparedStatement insert, long sequence, UUID uuid, Object postId, String username,
+                         String content, long createdAt) throws SQLException {
+            insert.setString(1, uuid.toString());
+            insert.setObject(2, postId);
+            insert.setString(3, username);
+            insert.setString(4, content);
+            insert.setLong(5, createdAt);
+            insert.setLong(6, createdAt);
+        }
+        
+        @Override
+        void bindLike(PreparedStatement insert, long sequence, Object postId, String username, long createdAt)
+                throws SQLException {
+            insert.setObject(1, postId);
+            insert.setString(2, username);
+            insert.setLong(3, createdAt);
+        }
+    };
+    
+    private final List<String> createTables;
+    private final String insertPost;
+    private final String insertComment;
+    private final String insertLike;
+    
+    SeedSchema(List<String> createTables, String insertPost, String insertComment, String insertLike) {
+        this.createTables = createTables;
+        this.insertPost = insertPost;
+        this.insertComment = insertComment;
+        this.insertLike = insertLike;
+    }
+    
+    public static SeedSchema parse(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+    
+    List<String> createTables() {
+        return createTables;
+    }
+    
+    String insertPost() {
+        return insertPost;
+    }
+    
+    String insertComment() {
+        return insertComment;
+    }
+    
+    String insertLike() {
+        return insertLike;
+    }
+    
+    abstract Object postId(long sequence, UUID uuid);
+    
+    abstract void bindPost(PreparedStatement insert, Object id, String username, String content, long createdAt,
+                           int likes, int comments) throws SQLException;
+    
+    abstract void bindComment(PreparedStatement insert, long sequence, UUID uuid, Object postId, String username,
+                              String content, long createdAt) throws SQLException;
+    
+    abstract void bindLike(PreparedStatement insert, long sequence, Object postId, String username, long createdAt)
+            throws SQLException;
+}
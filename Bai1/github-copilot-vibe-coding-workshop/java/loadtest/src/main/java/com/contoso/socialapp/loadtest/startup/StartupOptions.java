@@ -0,0 +1,92 @@
+package com.contoso.socialapp.loadtest.startup;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Command-line options of the startup benchmark, all given as {@code --name=value}.
+ */
+public record StartupOptions(
+        Path jar,
+        List<String> jvmArgs,
+        List<String> appArgs,
+        Path database,
+        int runs,
+        int port,
+        String path,
+        Duration timeout,
+        String label,
+        Path report) {
+    
+    private static final Set<String> NAMES = Set.of("jar", "jvm-args", "app-args", "database", "runs", "port",
+            "path", "timeout", "label", "report");
+    
+    public static final String USAGE = """
+            Options (all --name=value):
+              --jar=<jar>                  app jar to start; runs in the jar's directory
+              --jvm-args="..."             JVM options, e.g. "-XX:SharedArchiveFile=app.jsa -Dspring.aot.enabled=true"
+              --app-args="..."             extra application arguments
+              --database=<file>            SQLite file copied fresh for every run (default: empty database)
+              --runs=5                     cold starts to measure
+              --port=8097                  port the app is started on
+              --path=/api/posts            first request; must answer 200
+              --timeout=120s               give up on a start after this long
+              --label=default              name of this configuration in the report
+              --report=build/startup/<label>.json
+            """;
+    
+    public static StartupOptions parse(String... args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got '" + arg + "'");
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            if (!NAMES.contains(name)) {
+                throw new IllegalArgumentException("Unknown option --" + name);
+            }
+            values.put(name, arg.substring(arg.indexOf('=') + 1));
+        }
+        if (!values.containsKey("jar")) {
+            throw new IllegalArgumentException("--jar is required");
+        }
+        String label = values.getOrDefault("label", "default");
+        StartupOptions options = new StartupOptions(
+                Path.of(values.get("jar")),
+                words(values.getOrDefault("jvm-args", "")),
+                words(values.getOrDefault("app-args", "")),
+                values.containsKey("database") ? Path.of(values.get("database")) : null,
+                Integer.parseInt(values.getOrDefault("runs", "5")),
+                Integer.parseInt(values.getOrDefault("port", "8097")),
+                values.getOrDefault("path", "/api/posts"),
+                duration(values.getOrDefault("timeout", "120s")),
+                label,
+                Path.of(values.getOrDefault("report", "build/startup/" + label + ".json")));
+        if (options.runs() <= 0) {
+            throw new IllegalArgumentException("--runs must be positive");
+        }
+        return options;
+    }
+    
+    private static List<String> words(String value) {
+        return Arrays.stream(value.trim().split("\\s+")).filter(word -> !word.isEmpty()).toList();
+    }
+    
+    private static Duration duration(String value) {
+        String text = value.trim();
+        if (text.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(text.substring(0, text.length() - 2)));
+        }
+        long amount = Long.parseLong(text.substring(0, text.length() - 1));
+        return switch (text.charAt(text.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            default -> throw new IllegalArgumentException("Expected a duration like 500ms, 30s or 2m but got '" + value + "'");
+        };
+    }
+}
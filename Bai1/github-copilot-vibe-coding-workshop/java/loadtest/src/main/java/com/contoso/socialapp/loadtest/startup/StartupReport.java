@@ -0,0 +1,22 @@
+package com.contoso.socialapp.loadtest.startup;
+
+import java.util.List;
+
+/**
+ * Cold starts of one configuration. {@code timeToFirstRequestMillis} runs from launching
+ * the JVM to the first 200 answer; {@code reportedStartSeconds} is what Spring Boot logged
+ * as its own start time, or {@code null} if the log had no such line.
+ */
+public record StartupReport(String label, String jar, List<String> jvmArgs, List<Run> runs,
+                            long minMillis, long medianMillis, long maxMillis) {
+    
+    public record Run(long timeToFirstRequestMillis, Double reportedStartSeconds) {
+    }
+    
+    public static StartupReport of(String label, String jar, List<String> jvmArgs, List<Run> runs) {
+        long[] sorted = runs.stream().mapToLong(Run::timeToFirstRequestMillis).sorted().toArray();
+        int middle = sorted.length / 2;
+        long median = sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+        return new StartupReport(label, jar, jvmArgs, runs, sorted[0], median, sorted[sorted.length - 1]);
+    }
+}
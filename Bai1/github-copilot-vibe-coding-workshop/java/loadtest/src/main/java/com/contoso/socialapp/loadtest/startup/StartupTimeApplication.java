@@ -0,0 +1,45 @@
+package com.contoso.socialapp.loadtest.startup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures time to first request over several cold starts of one configuration and
+ * writes a JSON report, so startup modes and builds can be compared run against run.
+ */
+public class StartupTimeApplication {
+    
+    public static void main(String[] args) throws Exception {
+        StartupOptions options;
+        try {
+            options = StartupOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(StartupOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+        
+        System.out.printf("Timing %d cold starts of %s (%s) %s%n", options.runs(), options.jar(), options.label(),
+                String.join(" ", options.jvmArgs()));
+        StartupTimer timer = new StartupTimer(options);
+        List<StartupReport.Run> runs = new ArrayList<>();
+        for (int i = 1; i <= options.runs(); i++) {
+            StartupReport.Run run = timer.measure();
+            runs.add(run);
+            System.out.printf("  run %d: first request after %,d ms (Spring Boot reported %s s)%n", i,
+                    run.timeToFirstRequestMillis(), run.reportedStartSeconds());
+        }
+        StartupReport report = StartupReport.of(options.label(), options.jar().toString(), options.jvmArgs(), runs);
+        System.out.printf("%s: min %,d ms, median %,d ms, max %,d ms%n", report.label(), report.minMillis(),
+                report.medianMillis(), report.maxMillis());
+        
+        Files.createDirectories(options.report().toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(options.report().toFile(), report);
+        System.out.println("Report: " + options.report().toAbsolutePath());
+    }
+}
@@ -0,0 +1,104 @@
+package com.contoso.socialapp.loadtest.startup;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Starts the app from cold, on a fresh copy of the database each time, and measures how
+ * long it takes from launching the JVM until the first request is answered with 200. That
+ * is what an autoscaler waits for, and it includes what Spring Boot's own "Started in"
+ * leaves out: JVM boot, and whatever the first request still has to initialize.
+ */
+public class StartupTimer {
+    
+    private static final Pattern STARTED = Pattern.compile("Started \\S+ in ([0-9.]+) seconds");
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(10);
+    
+    private final StartupOptions options;
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    
+    public StartupTimer(StartupOptions options) {
+        this.options = options;
+    }
+    
+    public StartupReport.Run measure() throws IOException, InterruptedException {
+        Path workDir = Files.createTempDirectory("socialapp-startup");
+        Path database = workDir.resolve("sns_api.db");
+        if (options.database() != null) {
+            Files.copy(options.database(), database);
+        }
+        Path log = workDir.resolve("app.log");
+        
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(options.jvmArgs());
+        command.addAll(List.of("-jar", options.jar().toAbsolutePath().toString(),
+                "--server.port=" + options.port(),
+                "--spring.datasource.url=jdbc:sqlite:" + database,
+                "--app.rate-limit.enabled=false"));
+        command.addAll(options.appArgs());
+        HttpRequest firstRequest = HttpRequest.newBuilder(URI.create("http://localhost:" + options.port() + options.path()))
+                .timeout(options.timeout())
+                .build();
+        
+        long launched = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(options.jar().toAbsolutePath().getParent().toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            long deadline = launched + options.timeout().toNanos();
+            while (true) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("The app exited with " + process.exitValue() + "; see " + log);
+                }
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("No 200 from " + options.path() + " within " + options.timeout());
+                }
+                try {
+                    if (httpClient.send(firstRequest, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        break;
+                    }
+                } catch (ConnectException e) {
+                    // not listening yet
+                }
+                Thread.sleep(POLL_INTERVAL);
+            }
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - launched);
+            return new StartupReport.Run(millis, reportedStartSeconds(log));
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+            deleteRecursively(workDir);
+        }
+    }
+    
+    private static Double reportedStartSeconds(Path log) throws IOException {
+        Matcher matcher = STARTED.matcher(Files.readString(log));
+        return matcher.find() ? Double.parseDouble(matcher.group(1)) : null;
+    }
+    
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (var files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.contoso.socialapp.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorkloadTests {
+
+	@Test
+	void zipfianPopularityFavoursLowRanks() {
+		ZipfianGenerator generator = new ZipfianGenerator(1000, 1.1);
+		SplittableRandom random = new SplittableRandom(42);
+		int[] hits = new int[1000];
+		for (int i = 0; i < 100_000; i++) {
+			hits[generator.next(random)]++;
+		}
+
+		// With exponent 1.1 over 1000 items the top 10 take roughly half the traffic
+		int top10 = 0;
+		for (int rank = 0; rank < 10; rank++) {
+			top10 += hits[rank];
+		}
+		assertTrue(top10 > 40_000 && top10 < 60_000, "top 10 got " + top10);
+		assertTrue(hits[0] > hits[1] && hits[1] > hits[10]);
+	}
+
+	@Test
+	void sameSeedGivesSameSequence() {
+		ZipfianGenerator generator = new ZipfianGenerator(200, 1.1);
+		WorkloadMix mix = WorkloadMix.parse(WorkloadMix.DEFAULT);
+
+		assertArrayEquals(sequence(generator, mix, 7), sequence(generator, mix, 7));
+	}
+
+	@Test
+	void mixFollowsWeights() {
+		WorkloadMix mix = WorkloadMix.parse("feed=3,like-storm=1");
+		SplittableRandom random = new SplittableRandom(1);
+		int feeds = 0;
+		for (int i = 0; i < 40_000; i++) {
+			if (mix.next(random) == WorkloadMix.Action.FEED) {
+				feeds++;
+			}
+		}
+
+		assertEquals(30_000, feeds, 600);
+		assertEquals("feed=3,like-storm=1", mix.toString());
+	}
+
+	@Test
+	void optionsParseDurationsAndRejectUnknownNames() {
+		LoadTestOptions options = LoadTestOptions.parse("--rates=10,20", "--slo-p99=250ms", "--step-duration=2m");
+
+		assertEquals(List.of(10, 20), options.rates());
+		assertEquals(Duration.ofMillis(250), options.sloP99());
+		assertEquals(Duration.ofMinutes(2), options.stepDuration());
+		assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse("--rate=10"));
+	}
+
+	private static String[] sequence(ZipfianGenerator generator, WorkloadMix mix, long seed) {
+		SplittableRandom random = new SplittableRandom(seed);
+		String[] sequence = new String[1000];
+		for (int i = 0; i < sequence.length; i++) {
+			sequence[i] = mix.next(random) + ":" + generator.next(random);
+		}
+		return sequence;
+	}
+}
@@ -0,0 +1,142 @@
+package com.contoso.socialapp.loadtest.seed;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DataSeederTests {
+
+	private static final Path HIBERNATE_SCHEMA = Path.of("../socialapp/src/test/resources/hibernate-schema.sql");
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void sameSeedProducesSameRows() throws SQLException {
+		for (SeedSchema schema : SeedSchema.values()) {
+			String name = schema.name().toLowerCase();
+			DataSeeder.SeedResult first = seed(dir.resolve(name + "-a.db"), schema, 42);
+			DataSeeder.SeedResult second = seed(dir.resolve(name + "-b.db"), schema, 42);
+
+			assertEquals(first, second);
+			for (String table : List.of("posts", "comments", "likes")) {
+				assertEquals(dump(dir.resolve(name + "-a.db"), table), dump(dir.resolve(name + "-b.db"), table));
+			}
+		}
+	}
+
+	@Test
+	void denormalizedCountsMatchRowsAndLikesAreDistinct() throws SQLException {
+		Path database = dir.resolve("counts.db");
+		DataSeeder.SeedResult result = seed(database, SeedSchema.SOCIALAPP, 7);
+
+		assertTrue(result.comments() > 0 && result.likes() > 0);
+		assertEquals(List.of("0"), dump(database, "(select id from posts p where comments_count <> "
+				+ "(select count(*) from comments where post_id = p.id) or likes_count <> "
+				+ "(select count(*) from likes where post_id = p.id)) as mismatched", "count(*)"));
+		assertEquals(List.of("0"), dump(database, "(select post_id, username from likes group by post_id, username "
+				+ "having count(*) > 1) as duplicated", "count(*)"));
+	}
+
+	@Test
+	void refusesToSeedOverExistingRows() throws SQLException {
+		Path database = dir.resolve("existing.db");
+		seed(database, SeedSchema.COMPLETE, 1);
+
+		assertThrows(IllegalStateException.class, () -> seed(database, SeedSchema.COMPLETE, 1));
+	}
+
+	@Test
+	void socialappSchemaMatchesWhatHibernateCreates() throws IOException, SQLException {
+		Path database = dir.resolve("schema.db");
+		seed(database, SeedSchema.SOCIALAPP, 1);
+
+		// Kept in step with the app's entities by its SchemaSnapshotTests
+		assertEquals(Files.readAllLines(HIBERNATE_SCHEMA), dump(database, "sqlite_master where sql is not null "
+				+ "and name not like 'sqlite_%' and name <> 'shard_info' order by type desc, name", "sql"));
+	}
+
+	@Test
+	void truncatingAlsoEmptiesTheChangeLog() throws SQLException {
+		Path database = dir.resolve("truncated.db");
+		seed(database, SeedSchema.SOCIALAPP, 1);
+		try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + database);
+			 Statement statement = connection.createStatement()) {
+			statement.execute("insert into change_log (changed_at, entity_id, post_id, entity_type, operation) "
+					+ "values (0, 1, 1, 'POST', 'CREATE')");
+		}
+		seed(database, SeedSchema.SOCIALAPP, 1, "--truncate=true");
+
+		assertEquals(List.of("0"), dump(database, "change_log", "count(*)"));
+	}
+
+	@Test
+	void socialappFileHasTheFeedIndexAndIsMarkedUnsharded() throws SQLException {
+		Path database = dir.resolve("unsharded.db");
+		seed(database, SeedSchema.SOCIALAPP, 3);
+
+		assertEquals(List.of("0|1|0|"), dump(database, "shard_info", "shard, shards, id_floor"));
+		assertEquals(List.of("1"), dump(database,
+				"sqlite_master where type = 'index' and name = 'idx_posts_created_at_id'", "count(*)"));
+	}
+
+	@Test
+	void refusesToSeedOneShardOfSeveral() throws SQLException {
+		Path database = dir.resolve("shard.db");
+		try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + database);
+			 Statement statement = connection.createStatement()) {
+			statement.execute("create table shard_info (shard integer not null, shards integer not null, "
+					+ "id_floor integer not null)");
+			statement.execute("insert into shard_info values (1, 2, 0)");
+		}
+
+		assertThrows(IllegalStateException.class, () -> seed(database, SeedSchema.SOCIALAPP, 1));
+	}
+
+	private static DataSeeder.SeedResult seed(Path database, SeedSchema schema, long seed, String... extra)
+			throws SQLException {
+		List<String> args = new ArrayList<>(List.of("--database=" + database, "--schema=" + schema.name(),
+				"--users=50", "--posts=200", "--batch-size=100", "--seed=" + seed));
+		args.addAll(List.of(extra));
+		SeedOptions options = SeedOptions.parse(args.toArray(String[]::new));
+		try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + database)) {
+			return new DataSeeder(options, rows -> {
+			}).seed(connection);
+		}
+	}
+
+	private static List<String> dump(Path database, String table) throws SQLException {
+		return dump(database, table, "*");
+	}
+
+	private static List<String> dump(Path database, String from, String columns) throws SQLException {
+		List<String> rows = new ArrayList<>();
+		try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + database);
+			 Statement statement = connection.createStatement();
+			 ResultSet result = statement.executeQuery("select " + columns + " from " + from)) {
+			int width = result.getMetaData().getColumnCount();
+			while (result.next()) {
+				StringBuilder row = new StringBuilder();
+				for (int column = 1; column <= width; column++) {
+					row.append(result.getString(column)).append('|');
+				}
+				rows.add(width == 1 ? result.getString(1) : row.toString());
+			}
+		}
+		return rows;
+	}
+}
@@ -0,0 +1,37 @@
+package com.contoso.socialapp.loadtest.startup;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StartupReportTests {
+
+	@Test
+	void summarizesRunsByTimeToFirstRequest() {
+		StartupReport odd = StartupReport.of("aot", "app.jar", List.of(), List.of(run(900), run(700), run(1200)));
+		assertEquals(700, odd.minMillis());
+		assertEquals(900, odd.medianMillis());
+		assertEquals(1200, odd.maxMillis());
+
+		StartupReport even = StartupReport.of("aot", "app.jar", List.of(), List.of(run(900), run(700), run(1200), run(1000)));
+		assertEquals(950, even.medianMillis());
+	}
+
+	@Test
+	void splitsJvmArgumentsAndDefaultsTheReportToTheLabel() {
+		StartupOptions options = StartupOptions.parse("--jar=build/cds/app.jar",
+				"--jvm-args= -XX:SharedArchiveFile=app.jsa  -Dspring.aot.enabled=true", "--label=cds");
+
+		assertEquals(List.of("-XX:SharedArchiveFile=app.jsa", "-Dspring.aot.enabled=true"), options.jvmArgs());
+		assertEquals(List.of(), options.appArgs());
+		assertEquals("build/startup/cds.json", options.report().toString());
+		assertThrows(IllegalArgumentException.class, () -> StartupOptions.parse("--runs=3"));
+	}
+
+	private static StartupReport.Run run(long millis) {
+		return new StartupReport.Run(millis, null);
+	}
+}
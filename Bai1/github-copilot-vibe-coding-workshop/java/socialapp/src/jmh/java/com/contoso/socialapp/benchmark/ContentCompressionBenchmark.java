@@ -0,0 +1,77 @@
+package com.contoso.socialapp.benchmark;
+
+import com.contoso.socialapp.compression.ContentCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of storing and reading one piece of content, with and without the preset
+ * dictionary. The text is drawn from the load-test seeder's vocabulary, the same
+ * content dictionary 1 was trained on, so the sizes printed per trial are the best case.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContentCompressionBenchmark {
+    
+    private static final String[] WORDS = {
+            "just", "had", "an", "amazing", "hiking", "trip", "in", "the", "mountains", "coffee", "with", "friends",
+            "new", "recipe", "today", "weekend", "city", "lights", "sunset", "beach", "reading", "great", "book",
+            "concert", "last", "night", "working", "on", "side", "project", "photos", "from", "travel", "garden",
+            "morning", "run", "finally", "finished", "cannot", "believe", "this", "view", "love", "team", "launch"};
+    
+    @Param({"100", "1000", "10000"})
+    private int length;
+    
+    @Param({"0", "1"})
+    private int dictionary;
+    
+    private String content;
+    private ContentCodec codec;
+    private byte[] stored;
+    
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        StringBuilder text = new StringBuilder(length + 16);
+        while (text.length() < length) {
+            text.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        content = text.substring(0, length);
+        codec = new ContentCodec(0, 6, dictionary);
+        stored = codec.encode(content);
+        System.out.printf("%n%d bytes of text stored in %d with dictionary %d%n",
+                content.getBytes(StandardCharsets.UTF_8).length, stored.length, dictionary);
+    }
+    
+    @Benchmark
+    public byte[] encode() {
+        return codec.encode(content);
+    }
+    
+    @Benchmark
+    public String decode() {
+        return ContentCodec.decode(stored);
+    }
+    
+    @Benchmark
+    public byte[] plain() {
+        return content.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,121 @@
+package com.contoso.socialapp.benchmark;
+
+import com.contoso.socialapp.SocialappApplication;
+import com.contoso.socialapp.dto.CreatePostRequest;
+import com.contoso.socialapp.dto.PostResponse;
+import com.contoso.socialapp.entity.Post;
+import com.contoso.socialapp.shard.ShardedFeed;
+import com.contoso.socialapp.service.SocialMediaService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The feed query and post creation with content compression on and off, over a file on
+ * disk seeded with 2,000 posts. The feed loads every row, so it pays one decode per post
+ * unless the decoded text is cached; a write pays one encode. The database size after
+ * seeding is printed once per trial. The text comes from the load-test seeder's
+ * vocabulary, which dictionary 1 was trained on, so sizes are the best case.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContentStorageBenchmark {
+    
+    private static final int POSTS = 2000;
+    private static final String[] WORDS = {
+            "just", "had", "an", "amazing", "hiking", "trip", "in", "the", "mountains", "coffee", "with", "friends",
+            "new", "recipe", "today", "weekend", "city", "lights", "sunset", "beach", "reading", "great", "book",
+            "concert", "last", "night", "working", "on", "side", "project", "photos", "from", "travel", "garden",
+            "morning", "run", "finally", "finished", "cannot", "believe", "this", "view", "love", "team", "launch"};
+    
+    @Param({"true", "false"})
+    private boolean compression;
+    
+    // Average UTF-8 length of a post
+    @Param({"150", "1500"})
+    private int contentLength;
+    
+    private Path directory;
+    private ConfigurableApplicationContext context;
+    private SocialMediaService socialMediaService;
+    private ShardedFeed shardedFeed;
+    private String content;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("jmh-content");
+        context = new SpringApplicationBuilder(SocialappApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:sqlite:" + directory.resolve("sns_api.db"),
+                        "--app.content-compression.enabled=" + compression,
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--app.existence-filter.enabled=false",
+                        "--app.profiling.continuous=false",
+                        "--app.statement-budget.enabled=false",
+                        "--app.slow-query.enabled=false",
+                        "--app.feed-stream.enabled=false",
+                        "--app.warmup.enabled=false");
+        socialMediaService = context.getBean(SocialMediaService.class);
+        shardedFeed = context.getBean(ShardedFeed.class);
+        
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < POSTS; i++) {
+            socialMediaService.createPost(new CreatePostRequest("user_" + (i % 25),
+                    text(random, contentLength / 2 + random.nextInt(contentLength))));
+        }
+        content = text(random, contentLength);
+        System.out.printf("%ncompression=%s, %d posts of about %d bytes: database %,d bytes%n", compression, POSTS,
+                contentLength, Files.size(directory.resolve("sns_api.db")));
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+    
+    @Benchmark
+    public List<Post> feed() {
+        return shardedFeed.newestFirst();
+    }
+    
+    @Benchmark
+    public PostResponse createPost() {
+        return socialMediaService.createPost(new CreatePostRequest("writer", content));
+    }
+    
+    private static String text(SplittableRandom random, int length) {
+        StringBuilder text = new StringBuilder(length + 16);
+        while (text.length() < length) {
+            text.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        return text.substring(0, length);
+    }
+}
@@ -0,0 +1,76 @@
+package com.contoso.socialapp.benchmark;
+
+import com.contoso.socialapp.dto.CreatePostRequest;
+import com.contoso.socialapp.exception.GlobalExceptionHandler;
+import com.contoso.socialapp.exception.PostNotFoundException;
+import com.contoso.socialapp.exception.RateLimitExceededException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Each {@link GlobalExceptionHandler} path from a ready exception to the serialized
+ * problem body. Throwing and unwinding are covered by {@link NotFoundPathBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExceptionHandlerBenchmark {
+    
+    private ObjectMapper mapper;
+    private GlobalExceptionHandler handler;
+    private PostNotFoundException notFound;
+    private RateLimitExceededException rateLimited;
+    private MethodArgumentNotValidException invalid;
+    private IllegalStateException unexpected;
+    
+    @Setup
+    public void setUp() {
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+        handler = new GlobalExceptionHandler();
+        notFound = new PostNotFoundException();
+        rateLimited = new RateLimitExceededException("POST /posts", 1);
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(new CreatePostRequest(), "request");
+        bindingResult.rejectValue("username", "NotBlank", "Username is required");
+        bindingResult.rejectValue("content", "NotBlank", "Content is required");
+        invalid = new MethodArgumentNotValidException(null, bindingResult);
+        unexpected = new IllegalStateException("boom");
+    }
+    
+    @Benchmark
+    public byte[] domainException() throws IOException {
+        return mapper.writeValueAsBytes(handler.handleDomainException(notFound).getBody());
+    }
+    
+    @Benchmark
+    public byte[] rateLimitExceeded() throws IOException {
+        return mapper.writeValueAsBytes(handler.handleRateLimitExceeded(rateLimited).getBody());
+    }
+    
+    @Benchmark
+    public byte[] validationFailed() throws IOException {
+        return mapper.writeValueAsBytes(handler.handleValidationExceptions(invalid).getBody());
+    }
+    
+    @Benchmark
+    public byte[] genericException() throws IOException {
+        return mapper.writeValueAsBytes(handler.handleGenericException(unexpected).getBody());
+    }
+}
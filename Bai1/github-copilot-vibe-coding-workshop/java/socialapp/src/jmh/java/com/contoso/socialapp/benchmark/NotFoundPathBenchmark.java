@@ -0,0 +1,93 @@
+package com.contoso.socialapp.benchmark;
+
+import com.contoso.socialapp.exception.GlobalExceptionHandler;
+import com.contoso.socialapp.exception.PostNotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The 404 path from throw to serialized error body. The exception is thrown
+ * {@code stackDepth} frames below the handler, roughly what a request sees under
+ * Tomcat, Spring MVC and the service proxies. {@code runtimeExceptionMessageMatching}
+ * reproduces the previous handler: a plain {@link RuntimeException} classified by
+ * scanning its message.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotFoundPathBenchmark {
+    
+    @Param({"32", "128"})
+    private int stackDepth;
+    
+    private ObjectMapper mapper;
+    private GlobalExceptionHandler handler;
+    
+    @Setup
+    public void setUp() {
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+        handler = new GlobalExceptionHandler();
+    }
+    
+    @Benchmark
+    public byte[] runtimeExceptionMessageMatching() throws IOException {
+        try {
+            throwAt(stackDepth, () -> new RuntimeException("Post not found"));
+            throw new IllegalStateException();
+        } catch (RuntimeException ex) {
+            ResponseEntity<LegacyError> response;
+            if (ex.getMessage().contains("not found")) {
+                response = ResponseEntity.status(HttpStatus.NOT_FOUND).body(new LegacyError(ex.getMessage()));
+            } else if (ex.getMessage().contains("already liked")) {
+                response = ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new LegacyError(ex.getMessage()));
+            } else {
+                response = ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new LegacyError(ex.getMessage()));
+            }
+            return mapper.writeValueAsBytes(response.getBody());
+        }
+    }
+    
+    @Benchmark
+    public byte[] typedStacklessProblemDetail() throws IOException {
+        try {
+            throwAt(stackDepth, PostNotFoundException::new);
+            throw new IllegalStateException();
+        } catch (PostNotFoundException ex) {
+            return mapper.writeValueAsBytes(handler.handleDomainException(ex).getBody());
+        }
+    }
+    
+    private static void throwAt(int depth, ExceptionFactory factory) {
+        if (depth == 0) {
+            throw factory.create();
+        }
+        throwAt(depth - 1, factory);
+    }
+    
+    @FunctionalInterface
+    private interface ExceptionFactory {
+        RuntimeException create();
+    }
+    
+    private record LegacyError(String message) {
+    }
+}
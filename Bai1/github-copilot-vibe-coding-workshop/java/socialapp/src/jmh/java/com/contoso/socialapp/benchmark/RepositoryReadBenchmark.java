@@ -0,0 +1,129 @@
+package com.contoso.socialapp.benchmark;
+
+import com.contoso.socialapp.SocialappApplication;
+import com.contoso.socialapp.entity.Comment;
+import com.contoso.socialapp.entity.Post;
+import com.contoso.socialapp.repository.CommentRepository;
+import com.contoso.socialapp.repository.PostRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repository reads through JPA against a seeded in-memory SQLite database, with and
+ * without the Hibernate second-level cache. The application context runs without the
+ * web layer and without background jobs that would compete for the CPU. Hibernate,
+ * Spring Data and the proxies take far longer to compile than the other benchmarks,
+ * hence the longer warmup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RepositoryReadBenchmark {
+    
+    private static final int COMMENTS_PER_POST = 10;
+    
+    @Param({"100"})
+    private int posts;
+    
+    @Param({"true", "false"})
+    private boolean secondLevelCache;
+    
+    private ConfigurableApplicationContext context;
+    private PostRepository postRepository;
+    private CommentRepository commentRepository;
+    private final Sort newestFirst = Sort.by(Sort.Direction.DESC, "createdAt");
+    private long postId;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(SocialappApplication.class)
+                .web(WebApplicationType.NONE)
+                // Arguments rather than default properties, which application.properties would override
+                .run(
+                        // Shared cache keeps the database alive while the pool holds a connection
+                        "--spring.datasource.url=jdbc:sqlite:file:jmh-" + UUID.randomUUID() + "?mode=memory&cache=shared",
+                        "--spring.jpa.properties.hibernate.cache.use_second_level_cache=" + secondLevelCache,
+                        "--spring.jpa.properties.hibernate.cache.use_query_cache=" + secondLevelCache,
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--app.existence-filter.enabled=false",
+                        "--app.profiling.continuous=false",
+                        "--app.statement-budget.enabled=false",
+                        "--app.slow-query.enabled=false");
+        postRepository = context.getBean(PostRepository.class);
+        commentRepository = context.getBean(CommentRepository.class);
+        
+        LocalDateTime base = LocalDateTime.of(2025, 5, 30, 12, 0);
+        List<Post> seeded = new ArrayList<>(posts);
+        for (int i = 0; i < posts; i++) {
+            Post post = new Post();
+            post.setUsername("user_" + (i % 25));
+            post.setContent("Benchmark post number " + i);
+            post.setCreatedAt(base.plusMinutes(i));
+            post.setUpdatedAt(base.plusMinutes(i));
+            post.setCommentsCount(COMMENTS_PER_POST);
+            seeded.add(post);
+        }
+        seeded = postRepository.saveAll(seeded);
+        
+        List<Comment> comments = new ArrayList<>(posts * COMMENTS_PER_POST);
+        for (Post post : seeded) {
+            for (int j = 0; j < COMMENTS_PER_POST; j++) {
+                Comment comment = new Comment();
+                comment.setPostId(post.getId());
+                comment.setUsername("user_" + j);
+                comment.setContent("Comment " + j + " on post " + post.getId());
+                comment.setCreatedAt(post.getCreatedAt().plusSeconds(j));
+                comment.setUpdatedAt(post.getCreatedAt().plusSeconds(j));
+                comments.add(comment);
+            }
+        }
+        commentRepository.saveAll(comments);
+        postId = seeded.get(seeded.size() / 2).getId();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public List<Post> findAllNewestFirst() {
+        return postRepository.findAll(newestFirst);
+    }
+    
+    @Benchmark
+    public Optional<Post> findPostById() {
+        return postRepository.findById(postId);
+    }
+    
+    @Benchmark
+    public List<Comment> findCommentsOfPost() {
+        return commentRepository.findByPostIdOrderByCreatedAtAsc(postId);
+    }
+}
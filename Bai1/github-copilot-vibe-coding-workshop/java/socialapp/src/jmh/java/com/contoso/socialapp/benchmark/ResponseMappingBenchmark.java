@@ -0,0 +1,74 @@
+package com.contoso.socialapp.benchmark;
+
+import com.contoso.socialapp.dto.CommentResponse;
+import com.contoso.socialapp.dto.PostResponse;
+import com.contoso.socialapp.entity.Comment;
+import com.contoso.socialapp.entity.Post;
+import com.contoso.socialapp.service.ResponseMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping in {@link ResponseMapper}. Both timestamps of every item go
+ * through {@code formatDateTime}, so it dominates the per-item cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseMappingBenchmark {
+    
+    private final ResponseMapper responseMapper = new ResponseMapper();
+    private LocalDateTime timestamp;
+    private Post post;
+    private Comment comment;
+    
+    @Setup
+    public void setUp() {
+        timestamp = LocalDateTime.of(2025, 5, 30, 12, 34, 56, 789_000_000);
+        post = new Post();
+        post.setId(42L);
+        post.setUsername("john_doe");
+        post.setContent("Just had an amazing hiking experience in the mountains!");
+        post.setCreatedAt(timestamp);
+        post.setUpdatedAt(timestamp.plusMinutes(5));
+        post.setLikesCount(7);
+        post.setCommentsCount(3);
+        
+        comment = new Comment();
+        comment.setId(7L);
+        comment.setPostId(42L);
+        comment.setUsername("jane_smith");
+        comment.setContent("Great photos! Which trail did you take?");
+        comment.setCreatedAt(timestamp);
+        comment.setUpdatedAt(timestamp);
+    }
+    
+    @Benchmark
+    public String formatDateTime() {
+        return responseMapper.formatDateTime(timestamp);
+    }
+    
+    @Benchmark
+    public PostResponse toPostResponse() {
+        return responseMapper.toPostResponse(post);
+    }
+    
+    @Benchmark
+    public CommentResponse toCommentResponse() {
+        return responseMapper.toCommentResponse(comment);
+    }
+}
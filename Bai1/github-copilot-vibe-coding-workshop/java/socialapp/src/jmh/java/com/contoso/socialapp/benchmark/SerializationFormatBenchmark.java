@@ -0,0 +1,71 @@
+package com.contoso.socialapp.benchmark;
+
+import com.contoso.socialapp.dto.PostResponse;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON versus CBOR for a feed page of {@link PostResponse}, in both directions. The
+ * encoded payload sizes are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationFormatBenchmark {
+    
+    private static final TypeReference<List<PostResponse>> POST_LIST = new TypeReference<>() {
+    };
+    
+    @Param({"1", "20", "100", "500"})
+    private int pageSize;
+    
+    @Param({"json", "cbor"})
+    private String format;
+    
+    private ObjectMapper mapper;
+    private List<PostResponse> page;
+    private byte[] encoded;
+    
+    @Setup
+    public void setUp() throws IOException {
+        mapper = "cbor".equals(format) ? new ObjectMapper(new CBORFactory()) : new ObjectMapper();
+        page = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            page.add(new PostResponse((long) i, "user_" + i,
+                    "Just had an amazing hiking experience in the mountains! Post number " + i,
+                    "2025-05-30T12:00:00Z", "2025-05-30T12:00:00Z", i % 7, i % 3));
+        }
+        encoded = mapper.writeValueAsBytes(page);
+        System.out.printf("%n%s payload for %d posts: %d bytes%n", format, pageSize, encoded.length);
+    }
+    
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return mapper.writeValueAsBytes(page);
+    }
+    
+    @Benchmark
+    public List<PostResponse> deserialize() throws IOException {
+        return mapper.readValue(encoded, POST_LIST);
+    }
+}
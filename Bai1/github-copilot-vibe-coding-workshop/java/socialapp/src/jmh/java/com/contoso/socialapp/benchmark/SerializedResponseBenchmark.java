@@ -0,0 +1,82 @@
+package com.contoso.socialapp.benchmark;
+
+import com.contoso.socialapp.config.ResponseCacheProperties;
+import com.contoso.socialapp.dto.SerializedResponse;
+import com.contoso.socialapp.entity.Post;
+import com.contoso.socialapp.service.ResponseMapper;
+import com.contoso.socialapp.service.SerializationFormat;
+import com.contoso.socialapp.service.SerializedResponseCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feed page rendering: mapping and serializing every post on each request versus
+ * assembling the page from cached per-post JSON slices. Run with {@code -prof gc} and
+ * divide {@code gc.alloc.rate.norm} by {@code pageSize} for the per-item allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializedResponseBenchmark {
+    
+    @Param({"20", "100"})
+    private int pageSize;
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ResponseMapper responseMapper = new ResponseMapper();
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+    private SerializedResponseCache cache;
+    private List<Post> posts;
+    private SerializedResponse page;
+    
+    @Setup
+    public void setUp() {
+        cache = new SerializedResponseCache(objectMapper, responseMapper, new ResponseCacheProperties(),
+                new SimpleMeterRegistry());
+        posts = new ArrayList<>(pageSize);
+        LocalDateTime base = LocalDateTime.of(2025, 5, 30, 12, 0);
+        for (int i = 0; i < pageSize; i++) {
+            LocalDateTime createdAt = base.plusMinutes(i);
+            posts.add(new Post((long) i, "user_" + i,
+                    "Just had an amazing hiking experience in the mountains! Post number " + i,
+                    createdAt, createdAt, i % 7, i % 3));
+        }
+        page = SerializedResponse.array(posts);
+        cache.contentLength(page, SerializationFormat.JSON);
+    }
+    
+    @Benchmark
+    public int mapAndSerialize() throws IOException {
+        out.reset();
+        objectMapper.writeValue(out, posts.stream().map(responseMapper::toPostResponse).toList());
+        return out.size();
+    }
+    
+    @Benchmark
+    public int cachedSlices() throws IOException {
+        out.reset();
+        cache.write(page, SerializationFormat.JSON, out);
+        return out.size();
+    }
+}
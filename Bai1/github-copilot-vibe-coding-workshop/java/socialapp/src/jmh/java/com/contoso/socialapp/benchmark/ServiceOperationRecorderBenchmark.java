@@ -0,0 +1,119 @@
+package com.contoso.socialapp.benchmark;
+
+import com.contoso.socialapp.dto.PostResponse;
+import com.contoso.socialapp.profiling.ServiceOperationEvent;
+import com.contoso.socialapp.profiling.ServiceOperationRecorder;
+import com.contoso.socialapp.service.SocialMediaService;
+import jdk.jfr.Recording;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What {@link ServiceOperationRecorder} adds to a service call that does no work of its
+ * own. {@code direct} calls the service without a proxy, {@code passThrough} through a
+ * proxy whose advice only proceeds, and {@code recorded} through the recorder with the
+ * event off, or enabled in a disk recording at the given threshold as the continuous
+ * recording has it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServiceOperationRecorderBenchmark {
+    
+    @Param({"off", "0ms", "1ms"})
+    private String threshold;
+    
+    private SocialMediaService direct;
+    private SocialMediaService passThrough;
+    private SocialMediaService recorded;
+    private Recording recording;
+    
+    @Setup
+    public void setUp() {
+        direct = new FixedService();
+        passThrough = proxy(new PassThrough());
+        recorded = proxy(new ServiceOperationRecorder());
+        if (!threshold.equals("off")) {
+            recording = new Recording();
+            recording.enable(ServiceOperationEvent.class)
+                    .withThreshold(Duration.ofMillis(Long.parseLong(threshold.replace("ms", ""))));
+            recording.setToDisk(true);
+            recording.setMaxSize(64L * 1024 * 1024);
+            recording.start();
+        }
+    }
+    
+    @TearDown
+    public void tearDown() {
+        if (recording != null) {
+            recording.close();
+        }
+    }
+    
+    @Benchmark
+    public PostResponse direct() {
+        return direct.getPost(42L);
+    }
+    
+    @Benchmark
+    public PostResponse passThrough() {
+        return passThrough.getPost(42L);
+    }
+    
+    @Benchmark
+    public PostResponse recorded() {
+        return recorded.getPost(42L);
+    }
+    
+    private static SocialMediaService proxy(Object aspect) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new FixedService());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        return factory.getProxy();
+    }
+    
+    @Aspect
+    public static class PassThrough {
+        
+        @Around("execution(public * com.contoso.socialapp.service.SocialMediaService.*(..))")
+        public Object proceed(ProceedingJoinPoint joinPoint) throws Throwable {
+            return joinPoint.proceed();
+        }
+    }
+    
+    // No repositories: the one overridden read returns a ready response
+    static class FixedService extends SocialMediaService {
+        
+        private final PostResponse post = new PostResponse(42L, "jmh", "content",
+                "2025-05-30T12:00:00Z", "2025-05-30T12:00:00Z", 0, 0);
+        
+        FixedService() {
+            super(null, null, null, null, null, null, null, null, null);
+        }
+        
+        @Override
+        public PostResponse getPost(Long postId) {
+            return post;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.contoso.socialapp.benchmark;
+
+import com.contoso.socialapp.SocialappApplication;
+import com.contoso.socialapp.dto.CreatePostRequest;
+import com.contoso.socialapp.dto.PostResponse;
+import com.contoso.socialapp.service.SocialMediaService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write throughput of eight concurrent writers against one to eight shard files on
+ * disk. Each operation creates a post through the service, so routing, the transaction
+ * and the change-log entry are included. SQLite lets one writer at a time hold a file:
+ * with one shard the writers queue on its lock, with more they spread round-robin and
+ * only meet on the same shard. Background jobs are off, as in the read benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 10, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Threads(8)
+@Fork(1)
+public class ShardedWriteBenchmark {
+    
+    @Param({"1", "2", "4", "8"})
+    private int shards;
+    
+    private Path directory;
+    private ConfigurableApplicationContext context;
+    private SocialMediaService socialMediaService;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("jmh-shards");
+        context = new SpringApplicationBuilder(SocialappApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:sqlite:" + directory.resolve("sns_api.db"),
+                        "--app.sharding.shards=" + shards,
+                        // Enough connections that every writer can wait on a lock rather than the pool
+                        "--app.sharding.pool-size=8",
+                        "--spring.datasource.hikari.maximum-pool-size=8",
+                        "--app.sqlite.busy-timeout=60s",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--app.existence-filter.enabled=false",
+                        "--app.profiling.continuous=false",
+                        "--app.statement-budget.enabled=false",
+                        "--app.slow-query.enabled=false",
+                        "--app.feed-stream.enabled=false");
+        socialMediaService = context.getBean(SocialMediaService.class);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+    
+    @Benchmark
+    public PostResponse createPost() {
+        return socialMediaService.createPost(new CreatePostRequest("writer", "Benchmark post"));
+    }
+}
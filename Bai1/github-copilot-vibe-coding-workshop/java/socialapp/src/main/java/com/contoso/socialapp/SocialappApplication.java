@@ -1,12 +1,17 @@
 package com.contoso.socialapp;
 
+import com.contoso.socialapp.replication.CommitSequenceHeader;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
+@EnableScheduling
 public class SocialappApplication {
 
 	public static void main(String[] args) {
@@ -22,6 +27,7 @@ public class SocialappApplication {
 						.allowedOriginPatterns("*")
 						.allowedMethods("*")
 						.allowedHeaders("*")
+						.exposedHeaders(CommitSequenceHeader.HEADER)
 						.allowCredentials(true);
 			}
 		};
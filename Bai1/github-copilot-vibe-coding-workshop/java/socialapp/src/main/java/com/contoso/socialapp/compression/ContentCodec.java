@@ -0,0 +1,210 @@
+package com.contoso.socialapp.compression;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Stored form of post and comment content. Text below the threshold, or text that
+ * would not get smaller, is stored as its UTF-8 bytes. Longer text is raw deflate,
+ * primed with a preset dictionary, behind a header:
+ * <pre>
+ *   0xFF          marker; never the first byte of UTF-8, so plain values are told apart
+ *   codec         1 = deflate
+ *   dictionary    id of content-dictionaries/&lt;id&gt;.dict on the classpath, 0 for none
+ *   length        UTF-8 length of the text, unsigned LEB128
+ *   payload
+ * </pre>
+ * Rows written before compression existed hold plain text and read unchanged. A value
+ * names its dictionary, so a newer dictionary can be shipped while older rows still read.
+ * Deflaters and inflaters are pooled: allocating their native state costs more than
+ * decoding a short post, and a feed rebuild decodes every row it loads.
+ */
+public final class ContentCodec {
+    
+    static final int MARKER = 0xFF;
+    static final int DEFLATE = 1;
+    static final int NO_DICTIONARY = 0;
+    static final int MAX_DICTIONARY_SIZE = 32 * 1024;
+    // Marker, codec and dictionary; the length follows
+    static final int HEADER = 3;
+    
+    private static final String DICTIONARY_LOCATION = "content-dictionaries/%d.dict";
+    private static final ConcurrentMap<Integer, byte[]> DICTIONARIES = new ConcurrentHashMap<>();
+    private static final int POOL_SIZE = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private static final BlockingQueue<Inflater> INFLATERS = new ArrayBlockingQueue<>(POOL_SIZE);
+    
+    private final int threshold;
+    private final int level;
+    private final int dictionaryId;
+    private final byte[] dictionary;
+    private final BlockingQueue<Deflater> deflaters = new ArrayBlockingQueue<>(POOL_SIZE);
+    
+    public ContentCodec(int threshold, int level, int dictionaryId) {
+        if (level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Deflate level must be between 1 and 9 but was " + level);
+        }
+        if (dictionaryId < NO_DICTIONARY || dictionaryId > 255) {
+            throw new IllegalArgumentException("Dictionary id must be between 0 and 255 but was " + dictionaryId);
+        }
+        this.threshold = threshold;
+        this.level = level;
+        this.dictionaryId = dictionaryId;
+        // Loaded now, so a missing dictionary stops startup rather than the first long write
+        this.dictionary = dictionaryId == NO_DICTIONARY ? null : dictionary(dictionaryId);
+    }
+    
+    public byte[] encode(String content) {
+        byte[] text = content.getBytes(StandardCharsets.UTF_8);
+        if (text.length < threshold) {
+            return text;
+        }
+        // Anything that does not fit in the text's own length is not worth storing
+        byte[] stored = new byte[text.length];
+        int offset = headerSize(text.length);
+        if (offset >= stored.length) {
+            return text;
+        }
+        stored[0] = (byte) MARKER;
+        stored[1] = DEFLATE;
+        stored[2] = (byte) dictionaryId;
+        for (int i = HEADER, length = text.length; i < offset; i++, length >>>= 7) {
+            stored[i] = (byte) (i < offset - 1 ? length & 0x7F | 0x80 : length);
+        }
+        Deflater deflater = deflaters.poll();
+        if (deflater == null) {
+            deflater = new Deflater(level, true);
+        }
+        int end;
+        try {
+            end = deflate(deflater, text, dictionary, stored, offset);
+        } finally {
+            deflater.reset();
+            if (!deflaters.offer(deflater)) {
+                deflater.end();
+            }
+        }
+        if (end < 0) {
+            return text;
+        }
+        return end == stored.length ? stored : Arrays.copyOf(stored, end);
+    }
+    
+    public static String decode(byte[] stored) {
+        if (!isCompressed(stored)) {
+            return new String(stored, StandardCharsets.UTF_8);
+        }
+        int dictionaryId = stored[2] & 0xFF;
+        int length = textLength(stored);
+        int offset = headerSize(length);
+        
+        byte[] text = new byte[length];
+        Inflater inflater = INFLATERS.poll();
+        if (inflater == null) {
+            inflater = new Inflater(true);
+        }
+        try {
+            if (dictionaryId != NO_DICTIONARY) {
+                inflater.setDictionary(dictionary(dictionaryId));
+            }
+            inflater.setInput(stored, offset, stored.length - offset);
+            int read = 0;
+            while (read < length) {
+                int inflated = inflater.inflate(text, read, length - read);
+                if (inflated == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException(
+                            "Compressed content ended after " + read + " of " + length + " bytes");
+                }
+                read += inflated;
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt compressed content", e);
+        } finally {
+            inflater.reset();
+            if (!INFLATERS.offer(inflater)) {
+                inflater.end();
+            }
+        }
+        return new String(text, StandardCharsets.UTF_8);
+    }
+    
+    public static boolean isCompressed(byte[] stored) {
+        return stored.length > 0 && (stored[0] & 0xFF) == MARKER;
+    }
+    
+    /**
+     * UTF-8 length of the text a compressed value holds, from its header.
+     */
+    public static int textLength(byte[] stored) {
+        if (stored.length <= HEADER || stored[1] != DEFLATE) {
+            throw new IllegalStateException("Unknown content codec " + (stored.length > 1 ? stored[1] & 0xFF : -1));
+        }
+        int length = 0;
+        for (int offset = HEADER, shift = 0; ; shift += 7) {
+            if (offset == stored.length || shift > 28) {
+                throw new IllegalStateException("Truncated content header");
+            }
+            int b = stored[offset++];
+            length |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return length;
+            }
+        }
+    }
+    
+    static int headerSize(int textLength) {
+        return HEADER + (textLength < 0x80 ? 1 : textLength < 0x4000 ? 2 : textLength < 0x200000 ? 3
+                : textLength < 0x10000000 ? 4 : 5);
+    }
+    
+    /**
+     * Raw deflate of {@code input} into {@code output} from {@code offset} with a fresh
+     * or reset deflater; the end offset, or -1 if it did not fit.
+     */
+    static int deflate(Deflater deflater, byte[] input, byte[] dictionary, byte[] output, int offset) {
+        if (dictionary != null) {
+            deflater.setDictionary(dictionary);
+        }
+        deflater.setInput(input);
+        deflater.finish();
+        int end = offset;
+        while (!deflater.finished()) {
+            if (end == output.length) {
+                return -1;
+            }
+            end += deflater.deflate(output, end, output.length - end);
+        }
+        return end;
+    }
+    
+    static byte[] dictionary(int id) {
+        return DICTIONARIES.computeIfAbsent(id, ContentCodec::loadDictionary);
+    }
+    
+    private static byte[] loadDictionary(int id) {
+        String location = DICTIONARY_LOCATION.formatted(id);
+        try (InputStream in = ContentCodec.class.getClassLoader().getResourceAsStream(location)) {
+            if (in == null) {
+                throw new IllegalStateException("Content dictionary " + id + " is not on the classpath (" + location
+                        + "); values compressed with it cannot be read");
+            }
+            byte[] dictionary = in.readAllBytes();
+            if (dictionary.length == 0 || dictionary.length > MAX_DICTIONARY_SIZE) {
+                throw new IllegalStateException("Content dictionary " + location + " must hold 1 to "
+                        + MAX_DICTIONARY_SIZE + " bytes but has " + dictionary.length);
+            }
+            return dictionary;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Reading content dictionary " + location + " failed", e);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.contoso.socialapp.compression;
+
+import com.contoso.socialapp.config.ContentCompressionProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.hibernate.annotations.Mutability;
+import org.hibernate.type.descriptor.java.Immutability;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Maps post and comment content to its stored form through {@link ContentCodec}.
+ * Hibernate creates converters through Spring's bean container, so the constructor is
+ * autowired. Native statements that copy rows, as replication and resharding do, move
+ * the stored bytes unchanged.
+ * <p>
+ * Hibernate converts every row a query returns, whether or not the entity is cached, so
+ * decoded text is kept by its stored bytes and a feed rebuild hashes each value instead
+ * of inflating it. Declared immutable, since otherwise Hibernate would snapshot each
+ * loaded entity by encoding its content again.
+ */
+@Converter
+@Mutability(Immutability.class)
+public class ContentConverter implements AttributeConverter<String, byte[]> {
+    
+    private final ContentCodec codec;
+    private final Cache<ByteBuffer, String> decoded;
+    private final Counter contentBytes;
+    private final Counter storedBytes;
+    
+    public ContentConverter(ContentCompressionProperties properties, MeterRegistry meterRegistry) {
+        // Disabled still reads compressed rows; it only stops new ones
+        this.codec = properties.isEnabled()
+                ? new ContentCodec((int) properties.getThreshold().toBytes(), properties.getLevel(),
+                        properties.getDictionary())
+                : new ContentCodec(Integer.MAX_VALUE, properties.getLevel(), ContentCodec.NO_DICTIONARY);
+        this.decoded = Caffeine.newBuilder()
+                .maximumWeight(properties.getDecodedCacheSize().toBytes())
+                .weigher((ByteBuffer stored, String text) -> stored.capacity() + 2 * text.length())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, decoded, "decodedContent");
+        this.contentBytes = Counter.builder("socialapp.content.bytes")
+                .description("Size of post and comment content written, as UTF-8 text and as stored")
+                .baseUnit("bytes")
+                .tag("form", "text")
+                .register(meterRegistry);
+        this.storedBytes = Counter.builder("socialapp.content.bytes")
+                .description("Size of post and comment content written, as UTF-8 text and as stored")
+                .baseUnit("bytes")
+                .tag("form", "stored")
+                .register(meterRegistry);
+    }
+    
+    @Override
+    public byte[] convertToDatabaseColumn(String content) {
+        if (content == null) {
+            return null;
+        }
+        byte[] stored = codec.encode(content);
+        storedBytes.increment(stored.length);
+        contentBytes.increment(ContentCodec.isCompressed(stored) ? ContentCodec.textLength(stored) : stored.length);
+        return stored;
+    }
+    
+    @Override
+    public String convertToEntityAttribute(byte[] stored) {
+        if (stored == null) {
+            return null;
+        }
+        // Plain text decodes at copy speed and would only take room
+        if (!ContentCodec.isCompressed(stored)) {
+            return ContentCodec.decode(stored);
+        }
+        return decoded.get(ByteBuffer.wrap(stored), key -> ContentCodec.decode(stored));
+    }
+}
@@ -0,0 +1,71 @@
+package com.contoso.socialapp.compression;
+
+import com.contoso.socialapp.shard.Shards;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Command-line options of the content dictionary trainer, all given as {@code --name=value}.
+ */
+public record ContentDictionaryOptions(
+        Path database,
+        int shards,
+        Path output,
+        int size,
+        int samples,
+        int segmentSize) {
+    
+    private static final Set<String> NAMES = Set.of("database", "shards", "output", "size", "samples", "segment-size");
+    
+    public static final String USAGE = """
+            Options (all --name=value):
+              --database=sns_api.db        database path as in spring.datasource.url, without jdbc:sqlite:
+              --shards=1                   app.sharding.shards the database is written with
+              --output=<path>              dictionary file to write, e.g. src/main/resources/content-dictionaries/2.dict
+              --size=16384                 dictionary size in bytes, at most 32768
+              --samples=100000             posts and comments sampled at random across all files
+              --segment-size=64            bytes taken around each frequent phrase
+            """;
+    
+    public static ContentDictionaryOptions parse(String... args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got '" + arg + "'");
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            if (!NAMES.contains(name)) {
+                throw new IllegalArgumentException("Unknown option --" + name);
+            }
+            values.put(name, arg.substring(arg.indexOf('=') + 1));
+        }
+        if (!values.containsKey("output")) {
+            throw new IllegalArgumentException("--output is required");
+        }
+        ContentDictionaryOptions options = new ContentDictionaryOptions(
+                Path.of(values.getOrDefault("database", "sns_api.db")),
+                Integer.parseInt(values.getOrDefault("shards", "1")),
+                Path.of(values.get("output")),
+                Integer.parseInt(values.getOrDefault("size", "16384")),
+                Integer.parseInt(values.getOrDefault("samples", "100000")),
+                Integer.parseInt(values.getOrDefault("segment-size", "64")));
+        if (options.shards() < 1 || options.samples() <= 0) {
+            throw new IllegalArgumentException("--shards and --samples must be positive");
+        }
+        if (options.size() < 1 || options.size() > ContentCodec.MAX_DICTIONARY_SIZE) {
+            throw new IllegalArgumentException("--size must be between 1 and " + ContentCodec.MAX_DICTIONARY_SIZE);
+        }
+        if (options.segmentSize() <= ContentDictionaryTrainer.DMER || options.segmentSize() > options.size()) {
+            throw new IllegalArgumentException("--segment-size must be above " + ContentDictionaryTrainer.DMER
+                    + " and at most --size");
+        }
+        return options;
+    }
+    
+    public Path databaseFile(int shard) {
+        return shards == 1 ? database : Path.of(Shards.shardUrl(database.toString(), shard));
+    }
+}
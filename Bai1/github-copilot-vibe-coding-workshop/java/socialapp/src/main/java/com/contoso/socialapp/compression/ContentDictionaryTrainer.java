@@ -0,0 +1,208 @@
+package com.contoso.socialapp.compression;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.Deflater;
+
+/**
+ * Offline training of a preset dictionary for {@link ContentCodec} from content already
+ * in the database. Every position of the sampled text is hashed by its next few bytes and
+ * each hash counted once per sample it occurs in. The sample text is cut into as many
+ * stretches as the dictionary has segments, and from each the window whose phrases are
+ * shared by the most samples becomes a segment; its phrases then count for nothing, so
+ * later segments add new ones. The best segments go last, where deflate reaches them with
+ * the shortest distances. One sample in ten is held back to report the saving.
+ */
+public final class ContentDictionaryTrainer {
+    
+    static final int DMER = 6;
+    
+    private static final int HASH_BITS = 20;
+    private static final int HELD_BACK = 10;
+    
+    private ContentDictionaryTrainer() {
+    }
+    
+    public static void main(String[] args) throws Exception {
+        ContentDictionaryOptions options;
+        try {
+            options = ContentDictionaryOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(ContentDictionaryOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+        
+        List<byte[]> samples = samples(options);
+        List<byte[]> training = new ArrayList<>();
+        List<byte[]> test = new ArrayList<>();
+        for (int i = 0; i < samples.size(); i++) {
+            (i % HELD_BACK == HELD_BACK - 1 ? test : training).add(samples.get(i));
+        }
+        System.out.printf("Training a %,d byte dictionary on %,d of %,d sampled values from %s%n", options.size(),
+                training.size(), samples.size(), options.database().toAbsolutePath());
+        byte[] dictionary = train(training, options.size(), options.segmentSize());
+        if (options.output().toAbsolutePath().getParent() != null) {
+            Files.createDirectories(options.output().toAbsolutePath().getParent());
+        }
+        Files.write(options.output(), dictionary);
+        System.out.printf("Wrote %,d bytes to %s%n", dictionary.length, options.output().toAbsolutePath());
+        System.out.printf("Held-back values deflate to %.1f%% of their size without a dictionary and %.1f%% with it%n",
+                100 * ratio(test, null), 100 * ratio(test, dictionary));
+    }
+    
+    public static byte[] train(List<byte[]> samples, int size, int segmentSize) {
+        int total = samples.stream().mapToInt(sample -> sample.length).sum();
+        byte[] corpus = new byte[total];
+        // Hash of the phrase starting at each position, -1 where it would run into the next sample
+        int[] hashes = new int[total];
+        int[] frequencies = new int[1 << HASH_BITS];
+        int[] lastSample = new int[1 << HASH_BITS];
+        int position = 0;
+        for (int sample = 0; sample < samples.size(); sample++) {
+            byte[] text = samples.get(sample);
+            System.arraycopy(text, 0, corpus, position, text.length);
+            for (int i = 0; i < text.length; i++) {
+                int hash = i + DMER <= text.length ? hash(text, i) : -1;
+                hashes[position + i] = hash;
+                if (hash >= 0 && lastSample[hash] != sample + 1) {
+                    lastSample[hash] = sample + 1;
+                    frequencies[hash]++;
+                }
+            }
+            position += text.length;
+        }
+        
+        record Segment(int start, int length, long score) {
+        }
+        List<Segment> segments = new ArrayList<>();
+        int[] inWindow = new int[1 << HASH_BITS];
+        int epochs = Math.max(1, Math.min((size + segmentSize - 1) / segmentSize, total / segmentSize));
+        int epochSize = total / epochs;
+        for (int epoch = 0; epoch < epochs; epoch++) {
+            int from = epoch * epochSize;
+            int to = epoch == epochs - 1 ? total : from + epochSize;
+            int windowPhrases = Math.min(segmentSize, to - from) - DMER + 1;
+            if (windowPhrases <= 0) {
+                continue;
+            }
+            long score = 0;
+            long bestScore = 0;
+            int bestStart = from;
+            for (int end = from; end < to - DMER + 1; end++) {
+                score += enter(hashes[end], inWindow, frequencies);
+                int start = end - windowPhrases + 1;
+                if (start < from) {
+                    continue;
+                }
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestStart = start;
+                }
+                score -= leave(hashes[start], inWindow, frequencies);
+            }
+            for (int end = Math.max(from, to - DMER + 1 - windowPhrases + 1); end < to - DMER + 1; end++) {
+                leave(hashes[end], inWindow, frequencies);
+            }
+            if (bestScore == 0) {
+                continue;
+            }
+            int length = Math.min(segmentSize, to - bestStart);
+            segments.add(new Segment(bestStart, length, bestScore));
+            for (int i = bestStart; i < bestStart + length - DMER + 1; i++) {
+                if (hashes[i] >= 0) {
+                    frequencies[hashes[i]] = 0;
+                }
+            }
+        }
+        
+        segments.sort(Comparator.comparingLong(Segment::score).reversed());
+        List<Segment> kept = new ArrayList<>();
+        int length = 0;
+        for (Segment segment : segments) {
+            if (length + segment.length() > size) {
+                break;
+            }
+            kept.add(segment);
+            length += segment.length();
+        }
+        Collections.reverse(kept);
+        byte[] dictionary = new byte[length];
+        int offset = 0;
+        for (Segment segment : kept) {
+            System.arraycopy(corpus, segment.start(), dictionary, offset, segment.length());
+            offset += segment.length();
+        }
+        return dictionary;
+    }
+    
+    /**
+     * Stored size over original size of the values, as {@link ContentCodec} would store
+     * them with no threshold.
+     */
+    static double ratio(List<byte[]> values, byte[] dictionary) {
+        long original = 0;
+        long stored = 0;
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            for (byte[] value : values) {
+                int end = ContentCodec.deflate(deflater, value, dictionary, new byte[value.length], 0);
+                deflater.reset();
+                original += value.length;
+                stored += end < 0 ? value.length : Math.min(value.length, end + ContentCodec.headerSize(value.length));
+            }
+        } finally {
+            deflater.end();
+        }
+        return original == 0 ? 1 : (double) stored / original;
+    }
+    
+    private static List<byte[]> samples(ContentDictionaryOptions options) throws SQLException {
+        List<byte[]> samples = new ArrayList<>();
+        for (int shard = 0; shard < options.shards(); shard++) {
+            Path file = options.databaseFile(shard);
+            if (!Files.isRegularFile(file)) {
+                throw new IllegalArgumentException("Database file " + file + " does not exist");
+            }
+            try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + file);
+                 PreparedStatement select = connection.prepareStatement("select content from (select content "
+                         + "from posts union all select content from comments) order by random() limit ?")) {
+                select.setInt(1, (options.samples() + options.shards() - 1) / options.shards());
+                try (ResultSet result = select.executeQuery()) {
+                    while (result.next()) {
+                        samples.add(ContentCodec.decode(result.getBytes(1)).getBytes(StandardCharsets.UTF_8));
+                    }
+                }
+            }
+        }
+        Collections.shuffle(samples);
+        return samples;
+    }
+    
+    private static long enter(int hash, int[] inWindow, int[] frequencies) {
+        return hash >= 0 && inWindow[hash]++ == 0 ? frequencies[hash] : 0;
+    }
+    
+    private static long leave(int hash, int[] inWindow, int[] frequencies) {
+        return hash >= 0 && --inWindow[hash] == 0 ? frequencies[hash] : 0;
+    }
+    
+    private static int hash(byte[] text, int offset) {
+        long phrase = 0;
+        for (int i = 0; i < DMER; i++) {
+            phrase = phrase << 8 | (text[offset + i] & 0xFF);
+        }
+        return (int) ((phrase * 0x9E3779B97F4A7C15L) >>> (64 - HASH_BITS));
+    }
+}
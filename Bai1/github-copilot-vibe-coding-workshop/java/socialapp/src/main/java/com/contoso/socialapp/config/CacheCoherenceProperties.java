@@ -0,0 +1,19 @@
+package com.contoso.socialapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.cache-coherence")
+public class CacheCoherenceProperties {
+    
+    private boolean enabled = true;
+    
+    // Upper bound on how long another process's write can be served stale from this one's caches
+    private Duration pollInterval = Duration.ofMillis(100);
+    
+    // Change-log entries read per query once the file has changed
+    private int batchSize = 1000;
+}
@@ -0,0 +1,19 @@
+package com.contoso.socialapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.change-log")
+public class ChangeLogProperties {
+    
+    // Entries older than this are pruned; clients further behind must reload everything
+    private Duration retention = Duration.ofDays(7);
+    
+    private Duration pruneInterval = Duration.ofHours(1);
+    
+    // Changed entities returned per /changes response; the rest follow from the next cursor
+    private int pageSize = 500;
+}
@@ -0,0 +1,18 @@
+package com.contoso.socialapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@Data
+@ConfigurationProperties(prefix = "app.compressed-pages")
+public class CompressedPageProperties {
+    
+    private boolean enabled = true;
+    
+    // Total size of cached compressed pages
+    private DataSize maxSize = DataSize.ofMegabytes(32);
+    
+    // Pages smaller than this are sent uncompressed; gzip overhead outweighs the saving
+    private DataSize minSize = DataSize.ofKilobytes(1);
+}
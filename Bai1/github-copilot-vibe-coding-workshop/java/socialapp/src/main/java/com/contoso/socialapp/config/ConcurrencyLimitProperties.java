@@ -0,0 +1,38 @@
+package com.contoso.socialapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "app.concurrency-limit")
+public class ConcurrencyLimitProperties {
+    
+    private boolean enabled = true;
+    
+    private int initialLimit = 20;
+    
+    private int minLimit = 4;
+    
+    private int maxLimit = 200;
+    
+    // Latency may grow this much over the unloaded latency before the limit shrinks
+    private double rttTolerance = 1.5;
+    
+    private double smoothing = 0.2;
+    
+    // Every this many samples the limit is lowered by sqrt(limit) to re-measure unloaded latency
+    private int probeInterval = 5000;
+    
+    // Fraction of the limit that writes and bulk/admin work may occupy; reads may use all of it
+    private double writeShare = 0.8;
+    
+    private double bulkShare = 0.5;
+    
+    private List<String> bulkPaths = new ArrayList<>(List.of("/admin/**", "/actuator/**"));
+    
+    // Never shed, so probes keep working while the API is overloaded
+    private List<String> exemptPaths = new ArrayList<>(List.of("/actuator/health/**"));
+}
@@ -0,0 +1,25 @@
+package com.contoso.socialapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@Data
+@ConfigurationProperties(prefix = "app.content-compression")
+public class ContentCompressionProperties {
+    
+    // Only decides how new writes are stored; compressed values always read
+    private boolean enabled = true;
+    
+    // Content shorter than this in UTF-8 is stored as is
+    private DataSize threshold = DataSize.ofBytes(64);
+    
+    // Deflate level, 1 (fastest) to 9 (smallest)
+    private int level = 6;
+    
+    // content-dictionaries/<n>.dict on the classpath to compress with, 0 for none; never drop one rows may name
+    private int dictionary = 1;
+    
+    // Decoded text of compressed values, keyed by their stored bytes; feed rebuilds read every row again
+    private DataSize decodedCacheSize = DataSize.ofMegabytes(16);
+}
@@ -0,0 +1,46 @@
+package com.contoso.socialapp.config;
+
+import com.contoso.socialapp.jdbc.BusyCountingSqliteDataSource;
+import com.contoso.socialapp.jdbc.SlowQueryListener;
+import com.contoso.socialapp.jdbc.SlowQueryLog;
+import com.contoso.socialapp.jdbc.StatementCountingListener;
+import com.zaxxer.hikari.HikariDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class DataSourceConfig {
+    
+    /**
+     * Puts {@link BusyCountingSqliteDataSource} underneath the Hikari pool for SQLite URLs,
+     * behind a proxy that counts and times statements.
+     */
+    @Bean
+    public static BeanPostProcessor sqliteBusyHandlerPostProcessor(ObjectProvider<SqliteProperties> properties,
+                                                                   ObjectProvider<SlowQueryLog> slowQueryLog) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari && hikari.getDataSource() == null
+                        && hikari.getJdbcUrl() != null && hikari.getJdbcUrl().startsWith("jdbc:sqlite:")) {
+                    hikari.setDataSource(sqliteDataSource(hikari.getJdbcUrl(), properties.getObject(), slowQueryLog));
+                }
+                return bean;
+            }
+        };
+    }
+    
+    static DataSource sqliteDataSource(String url, SqliteProperties properties, ObjectProvider<SlowQueryLog> slowQueryLog) {
+        return ProxyDataSourceBuilder
+                .create(new BusyCountingSqliteDataSource(url, properties.getBusyTimeout().toMillis()))
+                .name("sqlite")
+                .listener(new StatementCountingListener())
+                .listener(new SlowQueryListener(slowQueryLog))
+                .build();
+    }
+}
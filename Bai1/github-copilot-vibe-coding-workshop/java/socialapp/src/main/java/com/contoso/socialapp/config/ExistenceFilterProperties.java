@@ -0,0 +1,22 @@
+package com.contoso.socialapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.existence-filter")
+public class ExistenceFilterProperties {
+    
+    private boolean enabled = true;
+    
+    // Target false-positive rate while the filter holds its sized capacity
+    private double falsePositiveRate = 0.01;
+    
+    // Filters are sized for twice the current row count, but never below this
+    private long minCapacity = 10_000;
+    
+    // Rebuilds drop deleted posts and likes, and resize for growth
+    private Duration rebuildInterval = Duration.ofMinutes(10);
+}
@@ -0,0 +1,28 @@
+package com.contoso.socialapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.feed-stream")
+public class FeedStreamProperties {
+    
+    private boolean enabled = true;
+    
+    // Open streams at most; further subscribers get 503
+    private int maxSubscribers = 50_000;
+    
+    // Most events a subscriber may have pending after coalescing before it is told to resync
+    private int backlog = 256;
+    
+    // Recent events kept for Last-Event-ID resume
+    private int retention = 10_000;
+    
+    // Comment line sent on an otherwise idle stream
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+    
+    // Streams are closed after this long; clients reconnect with Last-Event-ID
+    private Duration timeout = Duration.ofMinutes(30);
+}
@@ -0,0 +1,27 @@
+package com.contoso.socialapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.profiling")
+public class ProfilingProperties {
+    
+    // Always-on recording with the JDK's "default" settings, designed for under 1% overhead
+    private boolean continuous = true;
+    private Duration continuousMaxAge = Duration.ofHours(1);
+    private DataSize continuousMaxSize = DataSize.ofMegabytes(250);
+    
+    // Service operations faster than this are not recorded
+    private Duration eventThreshold = Duration.ZERO;
+    
+    // The admin endpoint hands out recordings, so it stays off unless the network is trusted
+    private boolean adminEndpointEnabled = false;
+    
+    // Bounds for on-demand recordings, which use the more detailed "profile" settings
+    private Duration maxRecordingDuration = Duration.ofMinutes(5);
+    private DataSize maxRecordingSize = DataSize.ofMegabytes(100);
+}
@@ -0,0 +1,32 @@
+package com.contoso.socialapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+    
+    private boolean enabled = true;
+    
+    // Upper bound on live buckets across all endpoints, clients and users
+    private long maxKeys = 100_000;
+    
+    // Buckets untouched for this long are dropped; an idle bucket is full anyway
+    private Duration idleExpiry = Duration.ofMinutes(10);
+    
+    // Keyed by the OpenAPI operationId of the controller method, e.g. createPost
+    private Map<String, Limit> endpoints = new HashMap<>();
+    
+    @Data
+    public static class Limit {
+        
+        private int capacity = 20;
+        
+        private double refillPerSecond = 1.0;
+    }
+}
@@ -0,0 +1,35 @@
+package com.contoso.socialapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.replication")
+public class ReplicationProperties {
+    
+    public enum Role { STANDALONE, LEADER, FOLLOWER }
+    
+    private Role role = Role.STANDALONE;
+    
+    // Unix domain socket the leader listens on and followers connect to
+    private Path socketPath = Path.of("sns_api.replication.sock");
+    
+    // Base URL of the leader's API; followers redirect writes and lagging reads there
+    private String leaderUrl;
+    
+    // Change-log entries, or snapshot rows, per message
+    private int batchSize = 500;
+    
+    // How often the leader looks for new entries while a follower is caught up
+    private Duration pollInterval = Duration.ofMillis(10);
+    
+    private Duration heartbeatInterval = Duration.ofSeconds(1);
+    
+    private Duration reconnectDelay = Duration.ofSeconds(1);
+    
+    // How long a follower holds a read for the sequence in X-Replication-Seq before redirecting it
+    private Duration readYourWritesTimeout = Duration.ofMillis(500);
+}
@@ -0,0 +1,13 @@
+package com.contoso.socialapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@Data
+@ConfigurationProperties(prefix = "app.response-cache")
+public class ResponseCacheProperties {
+    
+    // Total size of cached serialized posts and comments
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+}
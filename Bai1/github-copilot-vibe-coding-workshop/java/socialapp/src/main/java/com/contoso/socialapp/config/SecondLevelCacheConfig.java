@@ -0,0 +1,85 @@
+package com.contoso.socialapp.config;
+
+import com.contoso.socialapp.entity.SecondLevelCacheRegions;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Caffeine-backed JCache regions for the Hibernate second-level and query caches.
+ * Every region is created here with a size bound; Hibernate is set to fail on any
+ * region it would otherwise create unbounded.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+    
+    private static final List<String> METERED_REGIONS = List.of(
+            SecondLevelCacheRegions.POSTS, SecondLevelCacheRegions.COMMENTS, SecondLevelCacheRegions.COMMENT_PAGES);
+    
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(SecondLevelCacheProperties properties) {
+        // A private manager per application context, so contexts in one JVM never share entries
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("socialapp-l2-" + UUID.randomUUID()), getClass().getClassLoader());
+        createRegion(cacheManager, SecondLevelCacheRegions.POSTS, OptionalLong.of(properties.getPosts()));
+        createRegion(cacheManager, SecondLevelCacheRegions.COMMENTS, OptionalLong.of(properties.getComments()));
+        createRegion(cacheManager, SecondLevelCacheRegions.COMMENT_PAGES, OptionalLong.of(properties.getCommentPages()));
+        createRegion(cacheManager, SecondLevelCacheRegions.DEFAULT_QUERY_RESULTS,
+                OptionalLong.of(properties.getDefaultQueryResults()));
+        // One entry per table; evicting these would let stale query results through
+        createRegion(cacheManager, SecondLevelCacheRegions.UPDATE_TIMESTAMPS, OptionalLong.empty());
+        return cacheManager;
+    }
+    
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return hibernateProperties -> {
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+    
+    @Bean
+    public MeterBinder secondLevelCacheHitRatio(EntityManagerFactory entityManagerFactory) {
+        return registry -> {
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            for (String region : METERED_REGIONS) {
+                Gauge.builder("socialapp.hibernate.cache.hit.ratio", statistics, stats -> hitRatio(stats, region))
+                        .tag("region", region)
+                        .description("Hit ratio of a Hibernate second-level or query cache region")
+                        .register(registry);
+            }
+        };
+    }
+    
+    private static void createRegion(CacheManager cacheManager, String region, OptionalLong maximumSize) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(maximumSize);
+        cacheManager.createCache(region, configuration);
+    }
+    
+    private static double hitRatio(Statistics statistics, String region) {
+        CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+        if (regionStatistics == null) {
+            return Double.NaN;
+        }
+        long requests = regionStatistics.getHitCount() + regionStatistics.getMissCount();
+        return requests == 0 ? Double.NaN : (double) regionStatistics.getHitCount() / requests;
+    }
+}
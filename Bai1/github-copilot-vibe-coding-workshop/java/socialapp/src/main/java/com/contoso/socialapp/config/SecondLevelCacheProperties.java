@@ -0,0 +1,15 @@
+package com.contoso.socialapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.second-level-cache")
+public class SecondLevelCacheProperties {
+    
+    // Maximum entries per Hibernate cache region
+    private long posts = 10_000;
+    private long comments = 50_000;
+    private long commentPages = 5_000;
+    private long defaultQueryResults = 1_000;
+}
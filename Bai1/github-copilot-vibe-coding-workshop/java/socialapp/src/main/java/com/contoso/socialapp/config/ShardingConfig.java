@@ -0,0 +1,67 @@
+package com.contoso.socialapp.config;
+
+import com.contoso.socialapp.jdbc.SlowQueryLog;
+import com.contoso.socialapp.shard.ShardCatalog;
+import com.contoso.socialapp.shard.ShardRoutingDataSource;
+import com.contoso.socialapp.shard.ShardSchemaIntegrator;
+import com.contoso.socialapp.shard.ShardedIdentityGenerator;
+import com.contoso.socialapp.shard.Shards;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+public class ShardingConfig {
+    
+    private static final String INTEGRATOR_PROVIDER_SETTING = "hibernate.integrator_provider";
+    
+    @Bean
+    public HibernatePropertiesCustomizer shardingHibernateProperties(Shards shards) {
+        return properties -> {
+            properties.put(ShardedIdentityGenerator.SHARDS_SETTING, shards.count());
+            if (shards.count() > 1) {
+                properties.put(INTEGRATOR_PROVIDER_SETTING,
+                        (IntegratorProvider) () -> List.of(new ShardSchemaIntegrator(shards)));
+            }
+        };
+    }
+    
+    /**
+     * One pool per shard file behind a routing data source, in place of Boot's single pool.
+     */
+    @Bean
+    @ConditionalOnExpression("${app.sharding.shards:1} > 1")
+    public ShardRoutingDataSource dataSource(DataSourceProperties dataSourceProperties, ShardingProperties properties,
+                                             SqliteProperties sqliteProperties,
+                                             ObjectProvider<SlowQueryLog> slowQueryLog,
+                                             MeterRegistry meterRegistry) throws SQLException {
+        String url = dataSourceProperties.determineUrl();
+        List<HikariDataSource> pools = new ArrayList<>();
+        try {
+            for (int shard = 0; shard < properties.getShards(); shard++) {
+                HikariDataSource pool = new HikariDataSource();
+                pool.setPoolName("shard-" + shard);
+                pool.setJdbcUrl(Shards.shardUrl(url, shard));
+                pool.setMaximumPoolSize(properties.getPoolSize());
+                pool.setDataSource(DataSourceConfig.sqliteDataSource(pool.getJdbcUrl(), sqliteProperties, slowQueryLog));
+                pool.setMetricRegistry(meterRegistry);
+                pools.add(pool);
+                ShardCatalog.prepare(pool, shard, properties.getShards());
+            }
+        } catch (SQLException | RuntimeException e) {
+            pools.forEach(HikariDataSource::close);
+            throw e;
+        }
+        return new ShardRoutingDataSource(pools);
+    }
+}
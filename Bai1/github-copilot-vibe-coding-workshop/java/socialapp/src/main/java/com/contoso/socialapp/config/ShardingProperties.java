@@ -0,0 +1,19 @@
+package com.contoso.socialapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.sharding")
+public class ShardingProperties {
+    
+    // Database files that posts, with their comments and likes, are spread over by post id;
+    // 1 keeps everything in spring.datasource.url, more uses <name>.shard<n>.db next to it
+    private int shards = 1;
+    
+    // Connections per shard file; SQLite still lets only one of them write at a time
+    private int poolSize = 4;
+    
+    // Posts fetched from each shard per query while merging the feed
+    private int feedPageSize = 500;
+}
@@ -0,0 +1,16 @@
+package com.contoso.socialapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.single-flight")
+public class SingleFlightProperties {
+    
+    private boolean enabled = true;
+    
+    // How long a completed load keeps answering identical reads; zero disables micro-caching
+    private Duration microCache = Duration.ZERO;
+}
@@ -0,0 +1,28 @@
+package com.contoso.socialapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.slow-query")
+public class SlowQueryProperties {
+    
+    private boolean enabled = true;
+    
+    // Statements at least this slow are logged and kept
+    private Duration threshold = Duration.ofMillis(50);
+    
+    // Distinct statement shapes kept, worst first; a slower newcomer evicts the fastest
+    private int capacity = 50;
+    
+    // Capture EXPLAIN QUERY PLAN for slow statements on a background thread
+    private boolean explain = true;
+    
+    // Plans older than this are captured again on the next slow execution
+    private Duration explainRefresh = Duration.ofMinutes(10);
+    
+    // Pending plan captures beyond this are dropped
+    private int explainQueueCapacity = 100;
+}
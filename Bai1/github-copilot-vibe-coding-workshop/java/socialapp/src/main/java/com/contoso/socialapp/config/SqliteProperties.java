@@ -0,0 +1,14 @@
+package com.contoso.socialapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.sqlite")
+public class SqliteProperties {
+    
+    // How long a statement retries on a locked database before failing with SQLITE_BUSY
+    private Duration busyTimeout = Duration.ofSeconds(3);
+}
@@ -0,0 +1,34 @@
+package com.contoso.socialapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "app.statement-budget")
+public class StatementBudgetProperties {
+    
+    private boolean enabled = true;
+    
+    // LOG warns about requests over budget; REJECT fails the statement that goes over
+    private Mode mode = Mode.LOG;
+    
+    // Statements a request may run when its endpoint has no budget of its own
+    private int defaultBudget = 10;
+    
+    // Keyed by the OpenAPI operationId of the controller method, e.g. listComments
+    private Map<String, Integer> endpoints = new HashMap<>();
+    
+    // A statement shape repeated this often within one request is reported as a likely N+1
+    private int repeatedThreshold = 3;
+    
+    public int budgetFor(String endpoint) {
+        return endpoints.getOrDefault(endpoint, defaultBudget);
+    }
+    
+    public enum Mode {
+        LOG, REJECT
+    }
+}
@@ -0,0 +1,31 @@
+package com.contoso.socialapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.warmup")
+public class WarmupProperties {
+    
+    private boolean enabled = true;
+    
+    // Rounds of the endpoint mix before stable latency may end the warmup
+    private int minIterations = 200;
+    
+    // Rounds of the endpoint mix at most
+    private int maxIterations = 2000;
+    
+    // Round latencies are compared as medians of consecutive windows of this many rounds
+    private int window = 50;
+    
+    // Largest relative change between two window medians that still counts as stable
+    private double tolerance = 0.1;
+    
+    // Readiness is released after this long even if latency is still moving
+    private Duration maxDuration = Duration.ofSeconds(60);
+    
+    // Most recent posts the mix rotates through
+    private int posts = 20;
+}
@@ -0,0 +1,64 @@
+package com.contoso.socialapp.config;
+
+import com.contoso.socialapp.service.CompressedPageCache;
+import com.contoso.socialapp.service.SerializationFormat;
+import com.contoso.socialapp.service.SerializedResponseCache;
+import com.contoso.socialapp.shard.Shards;
+import com.contoso.socialapp.web.CborProblemHttpMessageConverter;
+import com.contoso.socialapp.web.RateLimitInterceptor;
+import com.contoso.socialapp.web.SerializedResponseHttpMessageConverter;
+import com.contoso.socialapp.web.StatementBudgetInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+    
+    private final RateLimitInterceptor rateLimitInterceptor;
+    private final StatementBudgetInterceptor statementBudgetInterceptor;
+    private final SerializedResponseCache serializedResponseCache;
+    private final CompressedPageCache compressedPageCache;
+    private final ObjectProvider<OpenEntityManagerInViewInterceptor> openEntityManagerInViewInterceptor;
+    private final Shards shards;
+    
+    // Takes over Boot's open-in-view registration so that feed streams, which stay open
+    // for minutes, do not each hold an EntityManager. Sharded, it is left out altogether:
+    // a request-wide EntityManager would keep the first shard's connection for every
+    // transaction of the request.
+    @Bean
+    @ConditionalOnProperty(prefix = "spring.jpa", name = "open-in-view", havingValue = "true", matchIfMissing = true)
+    public OpenEntityManagerInViewInterceptor openEntityManagerInViewInterceptor() {
+        return new OpenEntityManagerInViewInterceptor();
+    }
+    
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(rateLimitInterceptor).addPathPatterns("/posts/**").excludePathPatterns("/posts/stream");
+        registry.addInterceptor(statementBudgetInterceptor).excludePathPatterns("/posts/stream");
+        if (shards.count() == 1) {
+            openEntityManagerInViewInterceptor.ifAvailable(interceptor -> registry.addWebRequestInterceptor(interceptor)
+                    .excludePathPatterns("/posts/stream"));
+        }
+    }
+    
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.replaceAll(converter -> converter instanceof MappingJackson2CborHttpMessageConverter cbor
+                ? new CborProblemHttpMessageConverter(cbor.getObjectMapper()) : converter);
+        converters.add(0, new SerializedResponseHttpMessageConverter(serializedResponseCache, compressedPageCache,
+                SerializationFormat.CBOR));
+        converters.add(0, new SerializedResponseHttpMessageConverter(serializedResponseCache, compressedPageCache,
+                SerializationFormat.JSON));
+    }
+}
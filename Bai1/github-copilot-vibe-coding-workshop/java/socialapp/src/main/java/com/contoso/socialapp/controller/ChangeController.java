@@ -0,0 +1,46 @@
+package com.contoso.socialapp.controller;
+
+import com.contoso.socialapp.dto.ChangesResponse;
+import com.contoso.socialapp.service.ChangeLog;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping(value = "/changes", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+@RequiredArgsConstructor
+@Tag(name = "Changes", description = "Delta sync endpoints")
+public class ChangeController {
+    
+    private final ChangeLog changeLog;
+    
+    @GetMapping
+    @Operation(
+        summary = "List changes since a cursor",
+        description = "Latest state of every post, comment and like changed after `since`, and tombstones for "
+                + "deletions. Without `since` only the current cursor is returned: take it before a full reload, "
+                + "then poll with it. Follow `cursor` while `hasMore` is true.",
+        operationId = "listChanges"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Changes after the cursor",
+            content = @Content(schema = @Schema(implementation = ChangesResponse.class))),
+        @ApiResponse(responseCode = "410", description = "Changes since the cursor were pruned; reload everything"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<ChangesResponse> listChanges(
+            @Parameter(description = "Cursor from the previous response") @RequestParam(required = false) String since) {
+        return ResponseEntity.ok(changeLog.changesSince(since));
+    }
+}
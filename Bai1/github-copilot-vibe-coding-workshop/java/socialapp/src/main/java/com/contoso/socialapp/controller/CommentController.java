@@ -2,22 +2,25 @@ package com.contoso.socialapp.controller;
 
 import com.contoso.socialapp.dto.CommentResponse;
 import com.contoso.socialapp.dto.CreateCommentRequest;
+import com.contoso.socialapp.dto.SerializedResponse;
 import com.contoso.socialapp.dto.UpdateCommentRequest;
 import com.contoso.socialapp.service.SocialMediaService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
-@RequestMapping(value = "/posts/{postId}/comments", produces = "application/json")
+@RequestMapping(value = "/posts/{postId}/comments", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
 @RequiredArgsConstructor
 @Tag(name = "Comments", description = "Comment management endpoints")
 public class CommentController {
@@ -31,12 +34,13 @@ public class CommentController {
         operationId = "listComments"
     )
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Successful response with list of comments"),
+        @ApiResponse(responseCode = "200", description = "Successful response with list of comments",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = CommentResponse.class)))),
         @ApiResponse(responseCode = "404", description = "Post not found"),
         @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<List<CommentResponse>> listComments(@PathVariable Long postId) {
-        List<CommentResponse> comments = socialMediaService.listComments(postId);
+    public ResponseEntity<SerializedResponse> listComments(@PathVariable Long postId) {
+        SerializedResponse comments = socialMediaService.listCommentsSerialized(postId);
         return ResponseEntity.ok(comments);
     }
     
@@ -66,14 +70,15 @@ public class CommentController {
         operationId = "getComment"
     )
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Successful response with comment details"),
+        @ApiResponse(responseCode = "200", description = "Successful response with comment details",
+            content = @Content(schema = @Schema(implementation = CommentResponse.class))),
         @ApiResponse(responseCode = "404", description = "Comment or post not found"),
         @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<CommentResponse> getComment(
+    public ResponseEntity<SerializedResponse> getComment(
             @PathVariable Long postId,
             @PathVariable Long commentId) {
-        CommentResponse comment = socialMediaService.getComment(postId, commentId);
+        SerializedResponse comment = socialMediaService.getCommentSerialized(postId, commentId);
         return ResponseEntity.ok(comment);
     }
     
@@ -2,9 +2,13 @@ package com.contoso.socialapp.controller;
 
 import com.contoso.socialapp.dto.CreatePostRequest;
 import com.contoso.socialapp.dto.PostResponse;
+import com.contoso.socialapp.dto.SerializedResponse;
 import com.contoso.socialapp.dto.UpdatePostRequest;
+import com.contoso.socialapp.service.CoalescingReadService;
+import com.contoso.socialapp.service.FeedStream;
 import com.contoso.socialapp.service.SocialMediaService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -13,18 +17,20 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
-@RequestMapping(value = "/posts", produces = "application/json")
+@RequestMapping(value = "/posts", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
 @RequiredArgsConstructor
 @Tag(name = "Posts", description = "Post management endpoints")
 public class PostController {
     
     private final SocialMediaService socialMediaService;
+    private final CoalescingReadService coalescingReadService;
+    private final FeedStream feedStream;
     
     @GetMapping
     @Operation(
@@ -33,14 +39,31 @@ public class PostController {
         operationId = "listPosts"
     )
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Successful response with list of posts"),
+        @ApiResponse(responseCode = "200", description = "Successful response with list of posts",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = PostResponse.class)))),
         @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<List<PostResponse>> listPosts() {
-        List<PostResponse> posts = socialMediaService.listPosts();
+    public ResponseEntity<SerializedResponse> listPosts() {
+        SerializedResponse posts = coalescingReadService.listPosts();
         return ResponseEntity.ok(posts);
     }
     
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+        summary = "Stream feed changes",
+        description = "Server-sent events for committed changes: `post` (created or edited), `post-deleted`, "
+                + "`counts` (likes and comments) and `comment` (created). Reconnect with `Last-Event-ID` to resume; "
+                + "a `resync` event means changes were dropped and the feed should be reloaded.",
+        operationId = "streamPosts"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Event stream opened"),
+        @ApiResponse(responseCode = "503", description = "Too many open streams")
+    })
+    public SseEmitter streamPosts(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return feedStream.subscribe(lastEventId);
+    }
+    
     @PostMapping
     @Operation(
         summary = "Create a new post",
@@ -64,12 +87,13 @@ public class PostController {
         operationId = "getPost"
     )
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Successful response with post details"),
+        @ApiResponse(responseCode = "200", description = "Successful response with post details",
+            content = @Content(schema = @Schema(implementation = PostResponse.class))),
         @ApiResponse(responseCode = "404", description = "Post not found"),
         @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<PostResponse> getPost(@PathVariable Long postId) {
-        PostResponse post = socialMediaService.getPost(postId);
+    public ResponseEntity<SerializedResponse> getPost(@PathVariable Long postId) {
+        SerializedResponse post = coalescingReadService.getPost(postId);
         return ResponseEntity.ok(post);
     }
     
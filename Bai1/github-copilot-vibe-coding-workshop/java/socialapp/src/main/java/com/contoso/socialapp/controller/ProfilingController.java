@@ -0,0 +1,104 @@
+package com.contoso.socialapp.controller;
+
+import com.contoso.socialapp.exception.RecordingInProgressException;
+import com.contoso.socialapp.exception.RecordingNotFoundException;
+import com.contoso.socialapp.profiling.FlightRecorderService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/admin/profiling")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.profiling", name = "admin-endpoint-enabled", havingValue = "true")
+@Tag(name = "Profiling", description = "JDK Flight Recorder recordings")
+public class ProfilingController {
+    
+    private final FlightRecorderService flightRecorderService;
+    
+    @PostMapping("/recording")
+    @Operation(
+        summary = "Start a recording",
+        description = "Start a bounded JFR recording with the profile settings. It stops by itself after the given number of seconds, capped by app.profiling.max-recording-duration.",
+        operationId = "startRecording"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Recording started"),
+        @ApiResponse(responseCode = "409", description = "A recording is already running")
+    })
+    public ResponseEntity<Map<String, Object>> startRecording(@RequestParam(defaultValue = "60") long seconds)
+            throws IOException, ParseException {
+        Duration duration = flightRecorderService.start(Duration.ofSeconds(Math.max(1, seconds)));
+        if (duration == null) {
+            throw new RecordingInProgressException();
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of("durationSeconds", duration.toSeconds()));
+    }
+    
+    @PostMapping("/recording/stop")
+    @Operation(
+        summary = "Stop the recording",
+        description = "Stop the on-demand recording, if it is still running, and download it as a .jfr file.",
+        operationId = "stopRecording"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Recording file"),
+        @ApiResponse(responseCode = "404", description = "No recording has been started")
+    })
+    public ResponseEntity<StreamingResponseBody> stopRecording() {
+        Path file = flightRecorderService.stop();
+        if (file == null) {
+            throw new RecordingNotFoundException();
+        }
+        return download(file, "socialapp.jfr");
+    }
+    
+    @GetMapping("/continuous")
+    @Operation(
+        summary = "Download the continuous recording",
+        description = "Download what the always-on recording currently holds as a .jfr file.",
+        operationId = "dumpContinuousRecording"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Recording file"),
+        @ApiResponse(responseCode = "404", description = "Continuous recording is disabled")
+    })
+    public ResponseEntity<StreamingResponseBody> dumpContinuousRecording() throws IOException {
+        Path file = flightRecorderService.dumpContinuous();
+        if (file == null) {
+            throw new RecordingNotFoundException();
+        }
+        return download(file, "socialapp-continuous.jfr");
+    }
+    
+    private static ResponseEntity<StreamingResponseBody> download(Path file, String filename) {
+        StreamingResponseBody body = out -> {
+            try {
+                Files.copy(file, out);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+}
@@ -0,0 +1,34 @@
+package com.contoso.socialapp.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "Changes", description = "Latest state of everything changed since a cursor")
+public class ChangesResponse {
+    
+    @Schema(description = "Cursor to send as `since` on the next call: one sequence number per shard, separated by dots", example = "42", requiredMode = Schema.RequiredMode.REQUIRED)
+    private String cursor;
+    
+    @Schema(description = "More changes are waiting after the cursor", example = "false", requiredMode = Schema.RequiredMode.REQUIRED)
+    private boolean hasMore;
+    
+    @Schema(description = "Posts created or changed, including their like and comment counts", requiredMode = Schema.RequiredMode.REQUIRED)
+    private List<PostResponse> posts = new ArrayList<>();
+    
+    @Schema(description = "Comments created or edited", requiredMode = Schema.RequiredMode.REQUIRED)
+    private List<CommentResponse> comments = new ArrayList<>();
+    
+    @Schema(description = "Likes added", requiredMode = Schema.RequiredMode.REQUIRED)
+    private List<LikeResponse> likes = new ArrayList<>();
+    
+    @Schema(description = "Posts, comments and likes deleted", requiredMode = Schema.RequiredMode.REQUIRED)
+    private List<TombstoneResponse> deleted = new ArrayList<>();
+}
@@ -10,7 +10,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Schema(description = "Request payload for liking/unliking a post")
-public class LikeRequest {
+public class LikeRequest implements UserScopedRequest {
     
     @NotBlank(message = "Username is required")
     @Schema(description = "Username of the user liking the post", example = "alice_wilson", requiredMode = Schema.RequiredMode.REQUIRED)
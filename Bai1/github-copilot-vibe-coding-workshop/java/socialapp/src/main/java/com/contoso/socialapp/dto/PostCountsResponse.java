@@ -0,0 +1,22 @@
+package com.contoso.socialapp.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "PostCounts", description = "Like and comment counters of a post")
+public class PostCountsResponse {
+    
+    @Schema(description = "ID of the post", example = "1", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Long postId;
+    
+    @Schema(description = "Number of likes the post has received", example = "3", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Integer likesCount;
+    
+    @Schema(description = "Number of comments the post has received", example = "2", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Integer commentsCount;
+}
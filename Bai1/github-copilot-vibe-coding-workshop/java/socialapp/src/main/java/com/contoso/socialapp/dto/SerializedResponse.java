@@ -0,0 +1,59 @@
+package com.contoso.socialapp.dto;
+
+import java.util.List;
+
+/**
+ * Response body rendered from the serialized-response cache: either a single post or
+ * comment, or an array of them. Items are the loaded entities; the message converter
+ * looks up their cached bytes in the negotiated format and writes them as-is.
+ * Pages that carry a page key may additionally be served pre-compressed.
+ */
+public final class SerializedResponse {
+    
+    private final List<?> items;
+    private final boolean array;
+    private final Object pageKey;
+    private final String contentEncoding;
+    
+    private SerializedResponse(List<?> items, boolean array, Object pageKey, String contentEncoding) {
+        this.items = items;
+        this.array = array;
+        this.pageKey = pageKey;
+        this.contentEncoding = contentEncoding;
+    }
+    
+    public static SerializedResponse value(Object entity) {
+        return new SerializedResponse(List.of(entity), false, null, null);
+    }
+    
+    public static SerializedResponse array(List<?> entities) {
+        return new SerializedResponse(entities, true, null, null);
+    }
+    
+    /**
+     * An array that identifies a cacheable page; the key must change whenever the page content does.
+     */
+    public static SerializedResponse page(List<?> entities, Object pageKey) {
+        return new SerializedResponse(entities, true, pageKey, null);
+    }
+    
+    public SerializedResponse withContentEncoding(String encoding) {
+        return new SerializedResponse(items, array, pageKey, encoding);
+    }
+    
+    public List<?> getItems() {
+        return items;
+    }
+    
+    public boolean isArray() {
+        return array;
+    }
+    
+    public Object getPageKey() {
+        return pageKey;
+    }
+    
+    public String getContentEncoding() {
+        return contentEncoding;
+    }
+}
@@ -0,0 +1,22 @@
+package com.contoso.socialapp.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "Tombstone", description = "A post, comment or like deleted since the cursor")
+public class TombstoneResponse {
+    
+    @Schema(description = "Kind of entity deleted", example = "comment", allowableValues = {"post", "comment", "like"}, requiredMode = Schema.RequiredMode.REQUIRED)
+    private String type;
+    
+    @Schema(description = "ID of the deleted entity", example = "7", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Long id;
+    
+    @Schema(description = "ID of the post the entity belonged to (the post itself for posts)", example = "1", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Long postId;
+}
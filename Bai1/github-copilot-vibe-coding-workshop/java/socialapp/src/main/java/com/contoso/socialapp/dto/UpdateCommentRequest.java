@@ -10,7 +10,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Schema(description = "Request payload for updating an existing comment")
-public class UpdateCommentRequest {
+public class UpdateCommentRequest implements UserScopedRequest {
     
     @NotBlank(message = "Username is required")
     @Schema(description = "Username of the comment author", example = "jane_smith", requiredMode = Schema.RequiredMode.REQUIRED)
@@ -10,7 +10,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Schema(description = "Request payload for updating an existing post")
-public class UpdatePostRequest {
+public class UpdatePostRequest implements UserScopedRequest {
     
     @NotBlank(message = "Username is required")
     @Schema(description = "Username of the post author", example = "john_doe", requiredMode = Schema.RequiredMode.REQUIRED)
@@ -0,0 +1,9 @@
+package com.contoso.socialapp.dto;
+
+/**
+ * Request payloads that are issued on behalf of a username.
+ */
+public interface UserScopedRequest {
+    
+    String getUsername();
+}
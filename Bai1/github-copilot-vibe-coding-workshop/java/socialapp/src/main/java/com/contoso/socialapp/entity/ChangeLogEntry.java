@@ -0,0 +1,53 @@
+package com.contoso.socialapp.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * One write to a post, comment or like, appended in the transaction that made it.
+ * SQLite holds the write lock from the insert until commit, so entries become visible
+ * in sequence order and a reader never skips one that commits later.
+ */
+@Entity
+@Table(name = "change_log")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeLogEntry {
+    
+    public enum EntityType { POST, COMMENT, LIKE }
+    
+    public enum Operation { CREATE, UPDATE, DELETE }
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long seq;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 16)
+    private EntityType entityType;
+    
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+    
+    // The post itself for posts, so tombstones can be applied without a lookup
+    @Column(name = "post_id", nullable = false)
+    private Long postId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Operation operation;
+    
+    // Random per process, so an instance sharing the file can tell other writers' entries from its own
+    @Column(name = "origin")
+    private Long origin;
+    
+    @CreationTimestamp
+    @Column(name = "changed_at", nullable = false, updatable = false)
+    private LocalDateTime changedAt;
+}
@@ -1,15 +1,21 @@
 package com.contoso.socialapp.entity;
 
+import com.contoso.socialapp.compression.ContentConverter;
+import com.contoso.socialapp.shard.ShardedId;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheRegions.COMMENTS)
 @Table(name = "comments")
 @Data
 @NoArgsConstructor
@@ -17,7 +23,7 @@ import java.time.LocalDateTime;
 public class Comment {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @ShardedId
     private Long id;
     
     @Column(name = "post_id", nullable = false)
@@ -26,7 +32,9 @@ public class Comment {
     @Column(nullable = false)
     private String username;
     
+    // Compressed above a threshold; SQLite keeps the blobs in this TEXT column, and older text rows still read
     @Column(nullable = false, columnDefinition = "TEXT")
+    @Convert(converter = ContentConverter.class)
     private String content;
     
     @CreationTimestamp
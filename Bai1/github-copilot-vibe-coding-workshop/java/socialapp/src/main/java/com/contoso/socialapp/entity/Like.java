@@ -1,5 +1,6 @@
 package com.contoso.socialapp.entity;
 
+import com.contoso.socialapp.shard.ShardedId;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -10,7 +11,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "likes", uniqueConstraints = {
-    @UniqueConstraint(columnNames = {"post_id", "username"})
+    @UniqueConstraint(name = "uk_likes_post_id_username", columnNames = {"post_id", "username"})
 })
 @Data
 @NoArgsConstructor
@@ -18,7 +19,7 @@ import java.time.LocalDateTime;
 public class Like {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @ShardedId
     private Long id;
     
     @Column(name = "post_id", nullable = false)
@@ -1,29 +1,37 @@
 package com.contoso.socialapp.entity;
 
+import com.contoso.socialapp.compression.ContentConverter;
+import com.contoso.socialapp.shard.ShardedId;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "posts")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheRegions.POSTS)
+@Table(name = "posts", indexes = @Index(name = "idx_posts_created_at_id", columnList = "created_at, id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Post {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @ShardedId
     private Long id;
     
     @Column(nullable = false)
     private String username;
     
+    // Compressed above a threshold; SQLite keeps the blobs in this TEXT column, and older text rows still read
     @Column(nullable = false, columnDefinition = "TEXT")
+    @Convert(converter = ContentConverter.class)
     private String content;
     
     @CreationTimestamp
@@ -0,0 +1,18 @@
+package com.contoso.socialapp.entity;
+
+/**
+ * Hibernate second-level cache regions; each is created up front with its own size bound.
+ */
+public final class SecondLevelCacheRegions {
+    
+    public static final String POSTS = "posts";
+    public static final String COMMENTS = "comments";
+    public static final String COMMENT_PAGES = "comment-pages";
+    
+    // Hibernate's own regions, used by queries without an explicit region and by query invalidation
+    public static final String DEFAULT_QUERY_RESULTS = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+    
+    private SecondLevelCacheRegions() {
+    }
+}
@@ -0,0 +1,10 @@
+package com.contoso.socialapp.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class AlreadyLikedException extends DomainException {
+    
+    public AlreadyLikedException() {
+        super(HttpStatus.BAD_REQUEST, "already-liked", "User already liked this post");
+    }
+}
@@ -0,0 +1,10 @@
+package com.contoso.socialapp.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class ChangesExpiredException extends DomainException {
+    
+    public ChangesExpiredException() {
+        super(HttpStatus.GONE, "changes-expired", "Changes since this sequence number are no longer available; reload and sync from a new cursor");
+    }
+}
@@ -0,0 +1,10 @@
+package com.contoso.socialapp.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class CommentNotFoundException extends DomainException {
+    
+    public CommentNotFoundException() {
+        super(HttpStatus.NOT_FOUND, "comment-not-found", "Comment not found");
+    }
+}
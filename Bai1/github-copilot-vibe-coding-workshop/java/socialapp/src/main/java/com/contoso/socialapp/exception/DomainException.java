@@ -0,0 +1,30 @@
+package com.contoso.socialapp.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Expected outcome of a domain operation that maps to a client error. These are
+ * thrown on every miss, so they carry no stack trace and no suppressed list.
+ */
+public abstract class DomainException extends RuntimeException {
+    
+    private final HttpStatus status;
+    private final String problemType;
+    
+    protected DomainException(HttpStatus status, String problemType, String message) {
+        super(message, null, false, false);
+        this.status = status;
+        this.problemType = problemType;
+    }
+    
+    public HttpStatus getStatus() {
+        return status;
+    }
+    
+    /**
+     * Short slug identifying the problem type, e.g. {@code post-not-found}.
+     */
+    public String getProblemType() {
+        return problemType;
+    }
+}
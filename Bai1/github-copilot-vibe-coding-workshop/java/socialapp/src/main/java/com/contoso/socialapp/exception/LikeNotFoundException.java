@@ -0,0 +1,10 @@
+package com.contoso.socialapp.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class LikeNotFoundException extends DomainException {
+    
+    public LikeNotFoundException() {
+        super(HttpStatus.NOT_FOUND, "like-not-found", "Like not found");
+    }
+}
@@ -0,0 +1,10 @@
+package com.contoso.socialapp.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class PostNotFoundException extends DomainException {
+    
+    public PostNotFoundException() {
+        super(HttpStatus.NOT_FOUND, "post-not-found", "Post not found");
+    }
+}
@@ -0,0 +1,25 @@
+package com.contoso.socialapp.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+
+import java.net.URI;
+
+/**
+ * RFC 7807 problem details for API errors. Each problem also carries the detail as
+ * {@code message}, the field error bodies used before, so existing clients keep working.
+ */
+public final class Problems {
+    
+    private static final String TYPE_PREFIX = "urn:contoso:socialapp:problem:";
+    
+    private Problems() {
+    }
+    
+    public static ProblemDetail of(HttpStatus status, String problemType, String detail) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(status, detail);
+        problem.setType(URI.create(TYPE_PREFIX + problemType));
+        problem.setProperty("message", detail);
+        return problem;
+    }
+}
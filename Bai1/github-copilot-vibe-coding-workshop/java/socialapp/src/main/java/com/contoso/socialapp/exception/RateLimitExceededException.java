@@ -0,0 +1,17 @@
+package com.contoso.socialapp.exception;
+
+import lombok.Getter;
+
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+    
+    private final String endpoint;
+    private final long retryAfterSeconds;
+    
+    public RateLimitExceededException(String endpoint, long retryAfterSeconds) {
+        // Rejections are expected under abuse, so skip the stack trace
+        super("Rate limit exceeded", null, false, false);
+        this.endpoint = endpoint;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
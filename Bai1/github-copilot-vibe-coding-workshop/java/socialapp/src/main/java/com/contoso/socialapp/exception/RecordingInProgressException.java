@@ -0,0 +1,10 @@
+package com.contoso.socialapp.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class RecordingInProgressException extends DomainException {
+    
+    public RecordingInProgressException() {
+        super(HttpStatus.CONFLICT, "recording-in-progress", "A recording is already running");
+    }
+}
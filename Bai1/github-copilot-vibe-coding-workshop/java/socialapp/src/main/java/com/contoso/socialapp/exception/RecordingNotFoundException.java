@@ -0,0 +1,10 @@
+package com.contoso.socialapp.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class RecordingNotFoundException extends DomainException {
+    
+    public RecordingNotFoundException() {
+        super(HttpStatus.NOT_FOUND, "recording-not-found", "No recording has been started");
+    }
+}
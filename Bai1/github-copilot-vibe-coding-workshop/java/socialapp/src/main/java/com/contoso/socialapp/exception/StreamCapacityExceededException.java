@@ -0,0 +1,10 @@
+package com.contoso.socialapp.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class StreamCapacityExceededException extends DomainException {
+    
+    public StreamCapacityExceededException() {
+        super(HttpStatus.SERVICE_UNAVAILABLE, "stream-capacity-exceeded", "Too many open feed streams");
+    }
+}
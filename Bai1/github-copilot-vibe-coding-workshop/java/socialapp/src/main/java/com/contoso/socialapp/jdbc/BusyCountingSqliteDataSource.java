@@ -0,0 +1,28 @@
+package com.contoso.socialapp.jdbc;
+
+import org.sqlite.BusyHandler;
+import org.sqlite.SQLiteConnection;
+import org.sqlite.SQLiteDataSource;
+
+import java.sql.SQLException;
+
+/**
+ * Opens SQLite connections with a {@link CountingBusyHandler} in place of the driver's
+ * silent busy timeout. Used as the physical data source behind the connection pool.
+ */
+public class BusyCountingSqliteDataSource extends SQLiteDataSource {
+    
+    private final BusyHandler busyHandler;
+    
+    public BusyCountingSqliteDataSource(String url, long busyTimeoutMillis) {
+        setUrl(url);
+        this.busyHandler = new CountingBusyHandler(busyTimeoutMillis);
+    }
+    
+    @Override
+    public SQLiteConnection getConnection(String username, String password) throws SQLException {
+        SQLiteConnection connection = super.getConnection(username, password);
+        BusyHandler.setHandler(connection, busyHandler);
+        return connection;
+    }
+}
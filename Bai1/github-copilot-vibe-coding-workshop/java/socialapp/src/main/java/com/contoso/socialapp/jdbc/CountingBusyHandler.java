@@ -0,0 +1,60 @@
+package com.contoso.socialapp.jdbc;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import org.sqlite.BusyHandler;
+
+/**
+ * SQLite busy handler that waits with SQLite's own backoff schedule, like the built-in
+ * busy timeout, but counts every retry and every give-up.
+ */
+final class CountingBusyHandler extends BusyHandler {
+    
+    // sqlite3_busy_timeout's delays; the last one repeats
+    private static final int[] DELAYS_MILLIS = {1, 2, 5, 10, 15, 20, 25, 25, 25, 50, 50, 100};
+    private static final int[] TOTALS_MILLIS = new int[DELAYS_MILLIS.length];
+    
+    static {
+        int total = 0;
+        for (int i = 0; i < DELAYS_MILLIS.length; i++) {
+            TOTALS_MILLIS[i] = total;
+            total += DELAYS_MILLIS[i];
+        }
+    }
+    
+    // Registered globally: connections are opened by the pool, outside any bean's reach
+    private static final Counter RETRIES = Counter.builder("socialapp.sqlite.busy")
+            .description("Statements that found the database locked, by what happened next")
+            .tag("outcome", "retry")
+            .register(Metrics.globalRegistry);
+    private static final Counter TIMEOUTS = Counter.builder("socialapp.sqlite.busy")
+            .description("Statements that found the database locked, by what happened next")
+            .tag("outcome", "timeout")
+            .register(Metrics.globalRegistry);
+    
+    private final long timeoutMillis;
+    
+    CountingBusyHandler(long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+    
+    @Override
+    protected int callback(int previousInvocations) {
+        int step = Math.min(previousInvocations, DELAYS_MILLIS.length - 1);
+        long waited = TOTALS_MILLIS[step] + (long) (previousInvocations - step) * DELAYS_MILLIS[step];
+        long delay = Math.min(DELAYS_MILLIS[step], timeoutMillis - waited);
+        if (delay <= 0) {
+            TIMEOUTS.increment();
+            return 0;
+        }
+        RETRIES.increment();
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            TIMEOUTS.increment();
+            return 0;
+        }
+        return 1;
+    }
+}
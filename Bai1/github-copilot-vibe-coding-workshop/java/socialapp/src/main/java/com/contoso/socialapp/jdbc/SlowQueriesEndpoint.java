@@ -0,0 +1,30 @@
+package com.contoso.socialapp.jdbc;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@code /actuator/slowqueries}: the slowest statement shapes with their query plans.
+ */
+@Component
+@Endpoint(id = "slowqueries")
+@RequiredArgsConstructor
+public class SlowQueriesEndpoint {
+    
+    private final SlowQueryLog slowQueryLog;
+    
+    @ReadOperation
+    public List<SlowQueryLog.SlowQuery> slowQueries() {
+        return slowQueryLog.worst();
+    }
+    
+    @DeleteOperation
+    public void clear() {
+        slowQueryLog.clear();
+    }
+}
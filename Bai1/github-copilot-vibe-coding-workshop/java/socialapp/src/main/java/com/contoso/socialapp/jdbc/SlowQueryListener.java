@@ -0,0 +1,50 @@
+package com.contoso.socialapp.jdbc;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+
+/**
+ * Times every statement and hands the result to the {@link SlowQueryLog}. Statements
+ * executed before the log bean exists, such as schema creation, are not timed.
+ */
+public class SlowQueryListener implements QueryExecutionListener {
+    
+    private static final String START_NANOS = SlowQueryListener.class.getName() + ".start";
+    
+    private final ObjectProvider<SlowQueryLog> slowQueryLogProvider;
+    private volatile SlowQueryLog slowQueryLog;
+    
+    public SlowQueryListener(ObjectProvider<SlowQueryLog> slowQueryLogProvider) {
+        this.slowQueryLogProvider = slowQueryLogProvider;
+    }
+    
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(START_NANOS, System.nanoTime());
+    }
+    
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long start = execInfo.getCustomValue(START_NANOS, Long.class);
+        SlowQueryLog log = slowQueryLog();
+        if (start == null || log == null) {
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+        // A batch is timed as a whole; attribute it to its first statement
+        log.record(queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery(), nanos);
+    }
+    
+    private SlowQueryLog slowQueryLog() {
+        SlowQueryLog log = slowQueryLog;
+        if (log == null) {
+            log = slowQueryLogProvider.getIfAvailable();
+            slowQueryLog = log;
+        }
+        return log;
+    }
+}
@@ -0,0 +1,230 @@
+package com.contoso.socialapp.jdbc;
+
+import com.contoso.socialapp.config.SlowQueryProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The worst statement shapes seen above the slow threshold, each with its timings and
+ * SQLite's query plan. Plans are captured with {@code EXPLAIN QUERY PLAN} on a single
+ * background thread so the slow request is not made slower.
+ */
+@Slf4j
+@Component
+public class SlowQueryLog implements DisposableBean {
+    
+    private final SlowQueryProperties properties;
+    private final ObjectProvider<DataSource> dataSource;
+    private final long thresholdNanos;
+    private final Timer statements;
+    private final Counter slowStatements;
+    private final Counter fullScans;
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final ThreadPoolExecutor explainer;
+    
+    public SlowQueryLog(SlowQueryProperties properties, ObjectProvider<DataSource> dataSource,
+                        MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.dataSource = dataSource;
+        this.thresholdNanos = properties.getThreshold().toNanos();
+        this.statements = Timer.builder("socialapp.sql.statement")
+                .description("Execution time of every SQL statement")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.slowStatements = Counter.builder("socialapp.sql.slow")
+                .description("Statements at or above the slow-query threshold")
+                .register(meterRegistry);
+        this.fullScans = Counter.builder("socialapp.sql.slow.full.scans")
+                .description("Captured slow-statement plans that scan a whole table")
+                .register(meterRegistry);
+        this.explainer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getExplainQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "slow-query-explain");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+    
+    void record(String sql, long nanos) {
+        statements.record(nanos, TimeUnit.NANOSECONDS);
+        if (!properties.isEnabled() || nanos < thresholdNanos || sql.isEmpty() || isExplain(sql)) {
+            return;
+        }
+        slowStatements.increment();
+        
+        String shape = StatementCounter.shape(sql);
+        boolean explain;
+        synchronized (this) {
+            Entry entry = entries.get(shape);
+            if (entry == null) {
+                if (entries.size() >= properties.getCapacity() && !evictFasterThan(nanos)) {
+                    return;
+                }
+                entry = new Entry(shape);
+                entries.put(shape, entry);
+            }
+            entry.record(sql, nanos);
+            explain = properties.isExplain() && hasPlan(sql) && entry.claimPlanCapture(properties.getExplainRefresh().toMillis());
+        }
+        if (explain) {
+            log.warn("Slow statement ({} ms): {}", TimeUnit.NANOSECONDS.toMillis(nanos), shape);
+            explainer.execute(() -> capturePlan(shape, sql));
+        }
+    }
+    
+    /**
+     * Snapshot of the kept statements, slowest first.
+     */
+    public synchronized List<SlowQuery> worst() {
+        List<SlowQuery> worst = new ArrayList<>(entries.size());
+        for (Entry entry : entries.values()) {
+            worst.add(entry.snapshot());
+        }
+        worst.sort(Comparator.comparingDouble(SlowQuery::maxMillis).reversed());
+        return worst;
+    }
+    
+    public synchronized void clear() {
+        entries.clear();
+    }
+    
+    @Override
+    public void destroy() {
+        explainer.shutdownNow();
+    }
+    
+    private boolean evictFasterThan(long nanos) {
+        Entry fastest = null;
+        for (Entry entry : entries.values()) {
+            if (fastest == null || entry.maxNanos < fastest.maxNanos) {
+                fastest = entry;
+            }
+        }
+        if (fastest == null || fastest.maxNanos >= nanos) {
+            return false;
+        }
+        entries.remove(fastest.shape);
+        return true;
+    }
+    
+    private void capturePlan(String shape, String sql) {
+        List<String> plan = new ArrayList<>();
+        Map<Integer, Integer> depths = new HashMap<>();
+        try (Connection connection = dataSource.getObject().getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("EXPLAIN QUERY PLAN " + sql)) {
+            while (rows.next()) {
+                int id = rows.getInt("id");
+                int depth = depths.getOrDefault(rows.getInt("parent"), -1) + 1;
+                depths.put(id, depth);
+                plan.add("  ".repeat(depth) + rows.getString("detail"));
+            }
+        } catch (SQLException e) {
+            plan = List.of("EXPLAIN QUERY PLAN failed: " + e.getMessage());
+        }
+        
+        boolean fullScan = plan.stream().anyMatch(SlowQueryLog::isFullScan);
+        if (fullScan) {
+            fullScans.increment();
+            log.warn("Slow statement scans a full table: {} -> {}", shape, plan);
+        }
+        synchronized (this) {
+            Entry entry = entries.get(shape);
+            if (entry != null) {
+                entry.plan(plan, fullScan);
+            }
+        }
+    }
+    
+    private static boolean isExplain(String sql) {
+        return sql.regionMatches(true, 0, "EXPLAIN", 0, 7);
+    }
+    
+    private static boolean hasPlan(String sql) {
+        // DDL and plain inserts have nothing to plan
+        String head = sql.stripLeading();
+        return head.regionMatches(true, 0, "select", 0, 6) || head.regionMatches(true, 0, "with", 0, 4)
+                || head.regionMatches(true, 0, "update", 0, 6) || head.regionMatches(true, 0, "delete", 0, 6);
+    }
+    
+    static boolean isFullScan(String planLine) {
+        // "SCAN posts" is a table scan; "SCAN posts USING [COVERING] INDEX ..." walks an index
+        String detail = planLine.trim().toUpperCase(Locale.ROOT);
+        return detail.startsWith("SCAN ") && !detail.contains(" USING ") && !detail.startsWith("SCAN CONSTANT ROW");
+    }
+    
+    public record SlowQuery(String shape, String sample, long count, double maxMillis, double totalMillis,
+                            Instant lastSeen, List<String> plan, boolean fullScan, Instant planCapturedAt) {
+    }
+    
+    private static final class Entry {
+        
+        private final String shape;
+        private String sample;
+        private long count;
+        private long maxNanos;
+        private long totalNanos;
+        private Instant lastSeen;
+        private List<String> plan = List.of();
+        private boolean fullScan;
+        private Instant planCapturedAt;
+        private long planClaimedAtMillis = Long.MIN_VALUE;
+        
+        private Entry(String shape) {
+            this.shape = shape;
+        }
+        
+        void record(String sql, long nanos) {
+            count++;
+            totalNanos += nanos;
+            if (nanos >= maxNanos) {
+                maxNanos = nanos;
+                sample = sql;
+            }
+            lastSeen = Instant.now();
+        }
+        
+        boolean claimPlanCapture(long refreshMillis) {
+            long now = System.currentTimeMillis();
+            if (planClaimedAtMillis != Long.MIN_VALUE && now - planClaimedAtMillis < refreshMillis) {
+                return false;
+            }
+            planClaimedAtMillis = now;
+            return true;
+        }
+        
+        void plan(List<String> plan, boolean fullScan) {
+            this.plan = List.copyOf(plan);
+            this.fullScan = fullScan;
+            this.planCapturedAt = Instant.now();
+        }
+        
+        SlowQuery snapshot() {
+            return new SlowQuery(shape, sample, count, maxNanos / 1e6, totalNanos / 1e6, lastSeen, plan, fullScan,
+                    planCapturedAt);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.contoso.socialapp.jdbc;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.model.relational.SqlStringGenerationContext;
+import org.hibernate.community.dialect.SQLiteDialect;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.unique.AlterTableUniqueDelegate;
+import org.hibernate.dialect.unique.UniqueDelegate;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.exception.spi.SQLExceptionConversionDelegate;
+import org.hibernate.internal.util.JdbcExceptionHelper;
+import org.hibernate.mapping.UniqueKey;
+
+import java.util.stream.Collectors;
+
+/**
+ * The community SQLite dialect with two gaps closed. Unique constraints become unique
+ * indexes: the stock dialect would add them with {@code alter table}, which SQLite lacks,
+ * so it leaves them out of the schema altogether. And a violated constraint surfaces as
+ * a {@link ConstraintViolationException}, which Spring turns into a
+ * {@code DataIntegrityViolationException}, rather than as a generic JDBC error.
+ */
+public class SocialappSQLiteDialect extends SQLiteDialect {
+    
+    private static final int SQLITE_CONSTRAINT = 19;
+    
+    private final UniqueDelegate uniqueDelegate = new UniqueIndexDelegate(this);
+    
+    @Override
+    public UniqueDelegate getUniqueDelegate() {
+        return uniqueDelegate;
+    }
+    
+    @Override
+    public SQLExceptionConversionDelegate buildSQLExceptionConversionDelegate() {
+        SQLExceptionConversionDelegate delegate = super.buildSQLExceptionConversionDelegate();
+        return (sqlException, message, sql) -> JdbcExceptionHelper.extractErrorCode(sqlException) == SQLITE_CONSTRAINT
+                ? new ConstraintViolationException(message, sqlException, sql,
+                        getViolatedConstraintNameExtractor().extractConstraintName(sqlException))
+                : delegate.convert(sqlException, message, sql);
+    }
+    
+    private static final class UniqueIndexDelegate extends AlterTableUniqueDelegate {
+        
+        private UniqueIndexDelegate(Dialect dialect) {
+            super(dialect);
+        }
+        
+        // Also adds the index to an existing table under ddl-auto=update
+        @Override
+        public String getAlterTableToAddUniqueKeyCommand(UniqueKey uniqueKey, Metadata metadata,
+                                                         SqlStringGenerationContext context) {
+            String columns = uniqueKey.getColumns().stream()
+                    .map(column -> column.getQuotedName(dialect))
+                    .collect(Collectors.joining(", "));
+            return "create unique index if not exists " + uniqueKey.getName() + " on "
+                    + context.format(uniqueKey.getTable().getQualifiedTableName()) + " (" + columns + ")";
+        }
+        
+        @Override
+        public String getAlterTableToDropUniqueKeyCommand(UniqueKey uniqueKey, Metadata metadata,
+                                                          SqlStringGenerationContext context) {
+            return "drop index if exists " + uniqueKey.getName();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.contoso.socialapp.jdbc;
+
+import lombok.Getter;
+
+/**
+ * A request tried to run more statements than its endpoint's budget allows.
+ */
+@Getter
+public class StatementBudgetExceededException extends RuntimeException {
+    
+    private final String endpoint;
+    private final int budget;
+    
+    public StatementBudgetExceededException(String endpoint, int budget) {
+        super("Statement budget of " + budget + " exceeded by " + endpoint);
+        this.endpoint = endpoint;
+        this.budget = budget;
+    }
+}
@@ -0,0 +1,152 @@
+package com.contoso.socialapp.jdbc;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Thread-bound statement counting scopes. A statement executed while a scope is open
+ * counts towards it and every enclosing scope, keyed by its shape: the SQL with
+ * literals replaced by {@code ?}, so repeats with different ids look the same.
+ */
+public final class StatementCounter {
+    
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+    
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    // Fetches the key of the row just inserted; one per insert, so repeats are not an N+1
+    private static final Pattern IDENTITY_FETCH = Pattern.compile("(?i)select last_insert_rowid\\(\\)");
+    
+    private StatementCounter() {
+    }
+    
+    /**
+     * Opens a scope that only counts.
+     */
+    public static Scope open() {
+        return open(null, -1, false);
+    }
+    
+    /**
+     * Opens a scope with a statement budget; a negative budget means unlimited.
+     *
+     * @param reject whether a statement over the budget fails instead of only being counted
+     */
+    public static Scope open(String name, int budget, boolean reject) {
+        Scope scope = new Scope(CURRENT.get(), name, budget, reject);
+        CURRENT.set(scope);
+        return scope;
+    }
+    
+    static Scope current() {
+        return CURRENT.get();
+    }
+    
+    public static String shape(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("(?)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+    
+    public static final class Scope implements AutoCloseable {
+        
+        private final Scope parent;
+        private final String name;
+        private final int budget;
+        private final boolean reject;
+        private final Map<String, Integer> shapes = new HashMap<>();
+        private int count;
+        private long databaseNanos;
+        private long rowsAffected;
+        private boolean rejected;
+        
+        private Scope(Scope parent, String name, int budget, boolean reject) {
+            this.parent = parent;
+            this.name = name;
+            this.budget = budget;
+            this.reject = reject;
+        }
+        
+        public String getName() {
+            return name;
+        }
+        
+        public int getBudget() {
+            return budget;
+        }
+        
+        public int getCount() {
+            return count;
+        }
+        
+        public long getDatabaseNanos() {
+            return databaseNanos;
+        }
+        
+        public long getRowsAffected() {
+            return rowsAffected;
+        }
+        
+        public boolean isOverBudget() {
+            return rejected || budget >= 0 && count > budget;
+        }
+        
+        public Map<String, Integer> getShapes() {
+            return Collections.unmodifiableMap(shapes);
+        }
+        
+        /**
+         * Shapes executed at least {@code threshold} times, the usual sign of an N+1.
+         * Identity fetches follow each insert and are left out.
+         */
+        public Map<String, Integer> repeatedShapes(int threshold) {
+            Map<String, Integer> repeated = new HashMap<>();
+            shapes.forEach((shape, times) -> {
+                if (times >= threshold && !IDENTITY_FETCH.matcher(shape).matches()) {
+                    repeated.put(shape, times);
+                }
+            });
+            return repeated;
+        }
+        
+        void checkBudget(int statements) {
+            for (Scope scope = this; scope != null; scope = scope.parent) {
+                if (scope.reject && scope.budget >= 0 && scope.count + statements > scope.budget) {
+                    scope.rejected = true;
+                    throw new StatementBudgetExceededException(scope.name, scope.budget);
+                }
+            }
+        }
+        
+        void record(String sql) {
+            String shape = shape(sql);
+            for (Scope scope = this; scope != null; scope = scope.parent) {
+                scope.count++;
+                scope.shapes.merge(shape, 1, Integer::sum);
+            }
+        }
+        
+        void recordExecution(long nanos, long rows) {
+            for (Scope scope = this; scope != null; scope = scope.parent) {
+                scope.databaseNanos += nanos;
+                scope.rowsAffected += rows;
+            }
+        }
+        
+        @Override
+        public void close() {
+            if (CURRENT.get() == this) {
+                if (parent == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(parent);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.contoso.socialapp.jdbc;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/**
+ * Feeds executed statements, their time and the rows they changed into the open
+ * {@link StatementCounter} scope, if any, and enforces rejecting budgets before the
+ * statement runs.
+ */
+public class StatementCountingListener implements QueryExecutionListener {
+    
+    private static final String START_NANOS = StatementCountingListener.class.getName() + ".start";
+    
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        StatementCounter.Scope scope = StatementCounter.current();
+        if (scope != null) {
+            scope.checkBudget(queryInfoList.size());
+            execInfo.addCustomValue(START_NANOS, System.nanoTime());
+        }
+    }
+    
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        StatementCounter.Scope scope = StatementCounter.current();
+        if (scope == null) {
+            return;
+        }
+        for (QueryInfo queryInfo : queryInfoList) {
+            scope.record(queryInfo.getQuery());
+        }
+        Long start = execInfo.getCustomValue(START_NANOS, Long.class);
+        scope.recordExecution(start == null ? 0 : System.nanoTime() - start, rowsAffected(execInfo.getResult()));
+    }
+    
+    private static long rowsAffected(Object result) {
+        if (result instanceof Number count) {
+            return Math.max(0, count.longValue());
+        }
+        long rows = 0;
+        if (result instanceof int[] counts) {
+            for (int count : counts) {
+                rows += Math.max(0, count);
+            }
+        } else if (result instanceof long[] counts) {
+            for (long count : counts) {
+                rows += Math.max(0, count);
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,146 @@
+package com.contoso.socialapp.profiling;
+
+import com.contoso.socialapp.config.ProfilingProperties;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Owns the always-on continuous recording and at most one bounded on-demand recording.
+ * Both leave out the events that capture environment variables and system properties,
+ * since recordings are handed out over HTTP.
+ */
+@Slf4j
+@Service
+public class FlightRecorderService implements InitializingBean, DisposableBean {
+    
+    private static final List<String> SENSITIVE_EVENTS = List.of(
+            "jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty", "jdk.JVMInformation");
+    
+    private final ProfilingProperties properties;
+    
+    private Recording continuous;
+    private Recording onDemand;
+    private Path onDemandFile;
+    
+    public FlightRecorderService(ProfilingProperties properties) {
+        this.properties = properties;
+    }
+    
+    @Override
+    public void afterPropertiesSet() throws IOException, ParseException {
+        if (!properties.isContinuous() || !FlightRecorder.isAvailable()) {
+            return;
+        }
+        continuous = newRecording("default", "socialapp-continuous");
+        continuous.setToDisk(true);
+        continuous.setMaxAge(properties.getContinuousMaxAge());
+        continuous.setMaxSize(properties.getContinuousMaxSize().toBytes());
+        continuous.start();
+        log.info("Continuous JFR recording started (max age {}, max size {})",
+                properties.getContinuousMaxAge(), properties.getContinuousMaxSize());
+    }
+    
+    /**
+     * Starts an on-demand recording that stops by itself after {@code duration}, capped
+     * at the configured maximum.
+     *
+     * @return the effective duration, or {@code null} if a recording is already running
+     */
+    public synchronized Duration start(Duration duration) throws IOException, ParseException {
+        if (onDemand != null && onDemand.getState() == RecordingState.RUNNING) {
+            return null;
+        }
+        discardOnDemand();
+        Duration bounded = duration.compareTo(properties.getMaxRecordingDuration()) > 0
+                ? properties.getMaxRecordingDuration() : duration;
+        onDemandFile = Files.createTempFile("socialapp-", ".jfr");
+        onDemand = newRecording("profile", "socialapp-on-demand");
+        onDemand.setToDisk(true);
+        onDemand.setDuration(bounded);
+        onDemand.setMaxSize(properties.getMaxRecordingSize().toBytes());
+        onDemand.setDestination(onDemandFile);
+        onDemand.start();
+        return bounded;
+    }
+    
+    /**
+     * Stops the on-demand recording, if still running, and hands over its file. The
+     * caller owns and must delete the file.
+     *
+     * @return the recording file, or {@code null} if none was started
+     */
+    public synchronized Path stop() {
+        if (onDemand == null) {
+            return null;
+        }
+        if (onDemand.getState() == RecordingState.RUNNING) {
+            onDemand.stop();
+        }
+        Path file = onDemandFile;
+        onDemand.close();
+        onDemand = null;
+        onDemandFile = null;
+        return file;
+    }
+    
+    /**
+     * Writes what the continuous recording currently holds to a new temporary file.
+     *
+     * @return the file, owned by the caller, or {@code null} when continuous recording is off
+     */
+    public Path dumpContinuous() throws IOException {
+        if (continuous == null) {
+            return null;
+        }
+        Path file = Files.createTempFile("socialapp-continuous-", ".jfr");
+        continuous.dump(file);
+        return file;
+    }
+    
+    @Override
+    public synchronized void destroy() {
+        discardOnDemand();
+        if (continuous != null) {
+            continuous.close();
+        }
+    }
+    
+    private Recording newRecording(String configuration, String name) throws IOException, ParseException {
+        Recording recording = new Recording(Configuration.getConfiguration(configuration));
+        recording.setName(name);
+        for (String event : SENSITIVE_EVENTS) {
+            recording.disable(event);
+        }
+        recording.enable(ServiceOperationEvent.class).withThreshold(properties.getEventThreshold());
+        return recording;
+    }
+    
+    private void discardOnDemand() {
+        if (onDemand != null) {
+            onDemand.close();
+            onDemand = null;
+        }
+        if (onDemandFile != null) {
+            try {
+                Files.deleteIfExists(onDemandFile);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            onDemandFile = null;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.contoso.socialapp.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * One {@code SocialMediaService} operation, with the database work done inside it.
+ */
+@Name("com.contoso.socialapp.ServiceOperation")
+@Label("Service Operation")
+@Category({"Social App", "Service"})
+@Description("A SocialMediaService call and the SQL it ran")
+@StackTrace(false)
+public class ServiceOperationEvent extends jdk.jfr.Event {
+    
+    @Label("Operation")
+    String operation;
+    
+    @Label("Post Id")
+    @Description("Post the operation addressed, or 0 for the feed")
+    long postId;
+    
+    @Label("Statements")
+    int statements;
+    
+    @Label("Rows Affected")
+    @Description("Rows inserted, updated or deleted")
+    long rowsAffected;
+    
+    @Label("Rows Returned")
+    @Description("Posts, comments or likes in the result")
+    int rowsReturned;
+    
+    @Label("Database Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long databaseTime;
+    
+    @Label("Failure")
+    String failure;
+}
@@ -0,0 +1,94 @@
+package com.contoso.socialapp.profiling;
+
+import com.contoso.socialapp.dto.SerializedResponse;
+import com.contoso.socialapp.jdbc.StatementCounter;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Emits a {@link ServiceOperationEvent} around every public {@code SocialMediaService}
+ * method. Sits outside the transaction so commit time is part of the event; costs one
+ * flag check when no recording has the event enabled.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 100)
+public class ServiceOperationRecorder {
+    
+    private static final int NO_POST_ID = -1;
+    
+    private static final DefaultParameterNameDiscoverer PARAMETER_NAMES = new DefaultParameterNameDiscoverer();
+    
+    private final Map<Method, Integer> postIdIndexes = new ConcurrentHashMap<>();
+    
+    @Around("execution(public * com.contoso.socialapp.service.SocialMediaService.*(..))")
+    public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+        ServiceOperationEvent event = new ServiceOperationEvent();
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        event.operation = signature.getName();
+        int postIdIndex = postIdIndexes.computeIfAbsent(signature.getMethod(), ServiceOperationRecorder::postIdIndex);
+        if (postIdIndex != NO_POST_ID && joinPoint.getArgs()[postIdIndex] instanceof Long postId) {
+            event.postId = postId;
+        }
+        
+        event.begin();
+        StatementCounter.Scope scope = StatementCounter.open();
+        try {
+            Object result = joinPoint.proceed();
+            event.rowsReturned = rowsReturned(result);
+            return result;
+        } catch (Throwable e) {
+            event.failure = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            scope.close();
+            event.end();
+            if (event.shouldCommit()) {
+                event.statements = scope.getCount();
+                event.rowsAffected = scope.getRowsAffected();
+                event.databaseTime = scope.getDatabaseNanos();
+                event.commit();
+            }
+        }
+    }
+    
+    private static int postIdIndex(Method method) {
+        String[] names = PARAMETER_NAMES.getParameterNames(method);
+        if (names != null) {
+            for (int i = 0; i < names.length; i++) {
+                if ("postId".equals(names[i])) {
+                    return i;
+                }
+            }
+        }
+        return NO_POST_ID;
+    }
+    
+    private static int rowsReturned(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof SerializedResponse response) {
+            return response.getItems().size();
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,51 @@
+package com.contoso.socialapp.replication;
+
+import com.contoso.socialapp.service.ChangeLog;
+import jakarta.servlet.http.HttpServletResponse;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Hands out read-your-writes tokens on the leader: after a {@code SocialMediaService}
+ * write commits, its response carries the change-log sequence in
+ * {@value #HEADER}. A client that sends the token back on reads is served by a
+ * follower only once the follower has applied that far. Sits outside the transaction,
+ * and sets the header before the controller returns, since bodiless responses are
+ * committed as soon as it does.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 300)
+@ConditionalOnProperty(prefix = "app.replication", name = "role", havingValue = "leader")
+public class CommitSequenceHeader {
+    
+    public static final String HEADER = "X-Replication-Seq";
+    
+    private final ChangeLog changeLog;
+    
+    public CommitSequenceHeader(ChangeLog changeLog) {
+        this.changeLog = changeLog;
+    }
+    
+    @Around("execution(public * com.contoso.socialapp.service.SocialMediaService.*(..)) && @annotation(transactional)")
+    public Object stamp(ProceedingJoinPoint joinPoint, Transactional transactional) throws Throwable {
+        Object result = joinPoint.proceed();
+        if (!transactional.readOnly()
+                && RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            HttpServletResponse response = attributes.getResponse();
+            if (response != null) {
+                // Read after commit: at least this write's entry, possibly a later one too
+                response.setHeader(HEADER, changeLog.changesSince(null).getCursor());
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,166 @@
+package com.contoso.socialapp.replication;
+
+import com.contoso.socialapp.entity.ChangeLogEntry;
+import com.contoso.socialapp.entity.Comment;
+import com.contoso.socialapp.entity.Like;
+import com.contoso.socialapp.entity.Post;
+import com.contoso.socialapp.replication.ReplicationMessage.RowSet;
+import com.contoso.socialapp.service.ExistenceFilters;
+import com.contoso.socialapp.service.PageVersions;
+import jakarta.persistence.EntityManager;
+import org.hibernate.query.NativeQuery;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+
+import static com.contoso.socialapp.replication.ReplicationLeader.CHANGE_LOG;
+import static com.contoso.socialapp.replication.ReplicationLeader.TABLES;
+
+/**
+ * Writes replicated rows into a follower's database, one transaction per message.
+ * Statements run as Hibernate native mutations synchronized on the entity they touch,
+ * so Hibernate evicts that entity's cache region and marks the table changed for the
+ * query cache, as for any bulk update. Page versions and existence filters then move
+ * after commit, as they do when the service writes.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.replication", name = "role", havingValue = "follower")
+public class ReplicaApplier {
+    
+    private static final Map<String, Class<?>> ENTITIES = Map.of(
+            "posts", Post.class, "comments", Comment.class, "likes", Like.class, CHANGE_LOG, ChangeLogEntry.class);
+    
+    private final EntityManager entityManager;
+    private final PageVersions pageVersions;
+    private final ExistenceFilters existenceFilters;
+    
+    public ReplicaApplier(EntityManager entityManager, PageVersions pageVersions, ExistenceFilters existenceFilters) {
+        this.entityManager = entityManager;
+        this.pageVersions = pageVersions;
+        this.existenceFilters = existenceFilters;
+    }
+    
+    // Empties the tables ahead of a snapshot
+    @Transactional
+    public void reset() {
+        List<?> postIds = entityManager.createNativeQuery("select id from posts").getResultList();
+        for (Object postId : postIds) {
+            pageVersions.commentsChanged(((Number) postId).longValue());
+        }
+        for (String table : List.of(CHANGE_LOG, "likes", "comments", "posts")) {
+            mutate("delete from " + table, table, List.of());
+        }
+        pageVersions.feedChanged();
+    }
+    
+    /**
+     * Upserts the rows of every table in the message. With {@code deleteMissing}, the
+     * entities that its change-log entries name but that came without a row are gone on
+     * the leader and are deleted here as well.
+     */
+    @Transactional
+    public void apply(Map<String, RowSet> tables, boolean deleteMissing) {
+        tables.forEach((table, rows) -> {
+            if (!rows.rows().isEmpty()) {
+                upsert(table, rows);
+            }
+        });
+        
+        Map<String, Set<Long>> deleted = new LinkedHashMap<>();
+        Map<String, Set<Long>> shipped = new HashMap<>();
+        RowSet entries = tables.get(CHANGE_LOG);
+        if (deleteMissing && entries != null) {
+            for (int row = 0; row < entries.rows().size(); row++) {
+                String table = TABLES.get((String) entries.value(row, "entity_type"));
+                long id = entries.longValue(row, "entity_id");
+                if (!shipped.computeIfAbsent(table, name -> ids(tables.get(name))).contains(id)) {
+                    deleted.computeIfAbsent(table, name -> new LinkedHashSet<>()).add(id);
+                    if (table.equals("comments")) {
+                        pageVersions.commentsChanged(entries.longValue(row, "post_id"));
+                    }
+                }
+            }
+            deleted.forEach((table, ids) -> mutate("delete from " + table + " where id in ("
+                    + String.join(", ", ids.stream().map(id -> "?").toList()) + ")", table, new ArrayList<>(ids)));
+        }
+        
+        afterApply(tables, deleted);
+    }
+    
+    private void upsert(String table, RowSet rows) {
+        // Entries are never rewritten; rows are replaced whole with the leader's image
+        String insert = table.equals(CHANGE_LOG) ? "insert or ignore into " : "insert or replace into ";
+        StringBuilder sql = new StringBuilder(insert).append(table).append(" (").append(String.join(", ", rows.columns())).append(") values ");
+        List<Object> parameters = new ArrayList<>();
+        for (int row = 0; row < rows.rows().size(); row++) {
+            StringJoiner values = new StringJoiner(", ", row == 0 ? "(" : ", (", ")");
+            for (Object value : rows.rows().get(row)) {
+                // A null parameter has no type to bind by
+                if (value == null) {
+                    values.add("null");
+                } else {
+                    parameters.add(value);
+                    values.add("?");
+                }
+            }
+            sql.append(values);
+        }
+        mutate(sql.toString(), table, parameters);
+    }
+    
+    private void mutate(String sql, String table, List<Object> parameters) {
+        NativeQuery<?> query = entityManager.createNativeQuery(sql).unwrap(NativeQuery.class);
+        query.addSynchronizedEntityClass(ENTITIES.get(table));
+        for (int i = 0; i < parameters.size(); i++) {
+            query.setParameter(i + 1, parameters.get(i));
+        }
+        query.executeUpdate();
+    }
+    
+    private void afterApply(Map<String, RowSet> tables, Map<String, Set<Long>> deleted) {
+        RowSet posts = tables.get("posts");
+        if (posts != null) {
+            for (int row = 0; row < posts.rows().size(); row++) {
+                existenceFilters.postAdded(posts.longValue(row, "id"));
+            }
+        }
+        RowSet comments = tables.get("comments");
+        if (comments != null) {
+            for (int row = 0; row < comments.rows().size(); row++) {
+                pageVersions.commentsChanged(comments.longValue(row, "post_id"));
+            }
+        }
+        RowSet likes = tables.get("likes");
+        if (likes != null) {
+            for (int row = 0; row < likes.rows().size(); row++) {
+                existenceFilters.likeAdded(likes.longValue(row, "post_id"), (String) likes.value(row, "username"));
+            }
+        }
+        for (Long postId : deleted.getOrDefault("posts", Set.of())) {
+            pageVersions.commentsChanged(postId);
+        }
+        if (posts != null || comments != null || likes != null) {
+            pageVersions.feedChanged();
+        }
+    }
+    
+    private static Set<Long> ids(RowSet rows) {
+        Set<Long> ids = new HashSet<>();
+        if (rows != null) {
+            for (int row = 0; row < rows.rows().size(); row++) {
+                ids.add(rows.longValue(row, "id"));
+            }
+        }
+        return ids;
+    }
+}
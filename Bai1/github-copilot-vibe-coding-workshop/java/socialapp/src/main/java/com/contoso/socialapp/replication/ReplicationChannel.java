@@ -0,0 +1,58 @@
+package com.contoso.socialapp.replication;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ProtocolException;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Length-prefixed CBOR frames over a Unix domain socket. CBOR keeps integers, text and
+ * blobs apart, so rows arrive with the storage classes they were read with.
+ */
+final class ReplicationChannel implements Closeable {
+    
+    private static final ObjectMapper CBOR = new ObjectMapper(new CBORFactory());
+    
+    // Far above a batch of rows; anything larger is a corrupt length
+    private static final int MAX_FRAME_BYTES = 256 * 1024 * 1024;
+    
+    private final SocketChannel socket;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+    
+    ReplicationChannel(SocketChannel socket) {
+        this.socket = socket;
+        this.in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(socket)));
+        this.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(socket)));
+    }
+    
+    void write(ReplicationMessage message) throws IOException {
+        byte[] frame = CBOR.writeValueAsBytes(message);
+        out.writeInt(frame.length);
+        out.write(frame);
+        out.flush();
+    }
+    
+    ReplicationMessage read() throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > MAX_FRAME_BYTES) {
+            throw new ProtocolException("Invalid replication frame length " + length);
+        }
+        byte[] frame = new byte[length];
+        in.readFully(frame);
+        return CBOR.readValue(frame, ReplicationMessage.class);
+    }
+    
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
@@ -0,0 +1,252 @@
+package com.contoso.socialapp.replication;
+
+import com.contoso.socialapp.config.ReplicationProperties;
+import com.contoso.socialapp.replication.ReplicationMessage.RowSet;
+import com.contoso.socialapp.replication.ReplicationMessage.Type;
+import com.contoso.socialapp.repository.ChangeLogRepository;
+import com.contoso.socialapp.shard.Shards;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.net.ProtocolException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps this instance's database a copy of the leader's. Connects over the leader's
+ * socket, resumes after the last change-log sequence applied here, and applies every
+ * message in its own transaction; the change log is mirrored with the leader's
+ * sequence numbers, so delta cursors and read-your-writes tokens mean the same on
+ * both. Reconnects after the configured delay whenever the stream breaks.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.replication", name = "role", havingValue = "follower")
+public class ReplicationFollower {
+    
+    private static final long NONE = -1;
+    
+    private final ReplicationProperties properties;
+    private final ReplicaApplier applier;
+    private final ChangeLogRepository changeLogRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Counter applied;
+    private final Counter snapshots;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition advanced = lock.newCondition();
+    
+    private volatile long appliedSeq = NONE;
+    private volatile long leaderSeq = NONE;
+    private volatile boolean connected;
+    private volatile boolean synced;
+    // Leader clock of the first message that found this copy behind, 0 while caught up
+    private volatile long behindSince = System.currentTimeMillis();
+    private volatile boolean running = true;
+    private volatile ReplicationChannel channel;
+    private volatile Thread thread;
+    
+    public ReplicationFollower(ReplicationProperties properties, ReplicaApplier applier,
+                               ChangeLogRepository changeLogRepository, Shards shards,
+                               PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        if (shards.count() != 1) {
+            throw new IllegalStateException("Replication needs app.sharding.shards=1");
+        }
+        this.properties = properties;
+        this.applier = applier;
+        this.changeLogRepository = changeLogRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.applied = Counter.builder("socialapp.replication.applied")
+                .description("Change-log entries applied from the leader")
+                .register(meterRegistry);
+        this.snapshots = Counter.builder("socialapp.replication.snapshots")
+                .description("Snapshots loaded from the leader")
+                .tag("role", "follower")
+                .register(meterRegistry);
+        TimeGauge.builder("socialapp.replication.lag", this, TimeUnit.MILLISECONDS, ReplicationFollower::lagMillis)
+                .description("How long this copy has been behind the leader, 0 while caught up")
+                .register(meterRegistry);
+        Gauge.builder("socialapp.replication.lag.entries", this, ReplicationFollower::lagEntries)
+                .description("Change-log entries the leader had that are not applied here yet")
+                .register(meterRegistry);
+        Gauge.builder("socialapp.replication.connected", this, follower -> follower.connected ? 1 : 0)
+                .description("1 while the stream from the leader is open")
+                .register(meterRegistry);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Long last = readOnlyTransaction.execute(status -> changeLogRepository.findLastSeq());
+        appliedSeq = last != null ? last : NONE;
+        thread = Thread.ofPlatform().daemon().name("replication-follower").start(this::run);
+    }
+    
+    @PreDestroy
+    public void stop() throws IOException {
+        running = false;
+        ReplicationChannel current = channel;
+        if (current != null) {
+            current.close();
+        }
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+    
+    /**
+     * Waits until the change-log entry {@code seq} of the leader is applied here.
+     * Returns {@code false} if that takes longer than the timeout.
+     */
+    public boolean awaitApplied(long seq, Duration timeout) {
+        if (appliedSeq >= seq) {
+            return true;
+        }
+        long nanos = timeout.toNanos();
+        lock.lock();
+        try {
+            while (appliedSeq < seq) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = advanced.awaitNanos(nanos);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public long appliedSeq() {
+        return appliedSeq;
+    }
+    
+    public long leaderSeq() {
+        return leaderSeq;
+    }
+    
+    public boolean isConnected() {
+        return connected;
+    }
+    
+    // Caught up with the leader at least once since startup
+    public boolean isSynced() {
+        return synced;
+    }
+    
+    public long lagMillis() {
+        long since = behindSince;
+        return since == 0 ? 0 : Math.max(0, System.currentTimeMillis() - since);
+    }
+    
+    public long lagEntries() {
+        return Math.max(0, leaderSeq - Math.max(appliedSeq, 0));
+    }
+    
+    private void run() {
+        int failures = 0;
+        while (running) {
+            try (ReplicationChannel leader = connect()) {
+                channel = leader;
+                connected = true;
+                failures = 0;
+                log.info("Following the leader at {} from sequence {}", properties.getSocketPath(), appliedSeq);
+                follow(leader);
+            } catch (IOException | RuntimeException e) {
+                if (running && failures++ == 0) {
+                    log.warn("Replication stream from the leader broke, retrying every {}: {}",
+                            properties.getReconnectDelay(), e.toString());
+                }
+            } finally {
+                channel = null;
+                connected = false;
+                if (behindSince == 0) {
+                    behindSince = System.currentTimeMillis();
+                }
+            }
+            try {
+                Thread.sleep(properties.getReconnectDelay());
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+    
+    private ReplicationChannel connect() throws IOException {
+        SocketChannel socket = SocketChannel.open(StandardProtocolFamily.UNIX);
+        try {
+            socket.connect(UnixDomainSocketAddress.of(properties.getSocketPath()));
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+        return new ReplicationChannel(socket);
+    }
+    
+    private void follow(ReplicationChannel leader) throws IOException {
+        leader.write(ReplicationMessage.of(Type.SUBSCRIBE, appliedSeq));
+        // Set from RESET until the snapshot's last page is in
+        long snapshotSeq = NONE;
+        while (running) {
+            ReplicationMessage message = leader.read();
+            if (snapshotSeq != NONE && (message.type() == Type.CHANGES || message.type() == Type.HEARTBEAT)) {
+                advance(snapshotSeq);
+                snapshotSeq = NONE;
+            }
+            switch (message.type()) {
+                case RESET -> {
+                    applier.reset();
+                    appliedSeq = NONE;
+                    snapshotSeq = message.seq();
+                    snapshots.increment();
+                    log.info("Loading a snapshot of the leader at sequence {}", message.seq());
+                }
+                case ROWS -> applier.apply(message.tables(), false);
+                case CHANGES -> {
+                    applier.apply(message.tables(), true);
+                    RowSet entries = message.tables().get(ReplicationLeader.CHANGE_LOG);
+                    applied.increment(entries.rows().size());
+                    advance(entries.longValue(entries.rows().size() - 1, "seq"));
+                }
+                case HEARTBEAT -> {
+                }
+                default -> throw new ProtocolException("Unexpected " + message.type() + " from the leader");
+            }
+            leaderSeq = message.seq();
+            if (snapshotSeq == NONE && appliedSeq >= message.seq()) {
+                behindSince = 0;
+                synced = true;
+            } else if (behindSince == 0) {
+                behindSince = message.sentAt();
+            }
+        }
+    }
+    
+    private void advance(long seq) {
+        lock.lock();
+        try {
+            appliedSeq = seq;
+            advanced.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.contoso.socialapp.replication;
+
+import com.contoso.socialapp.config.ReplicationProperties;
+import com.contoso.socialapp.replication.ReplicationMessage.RowSet;
+import com.contoso.socialapp.replication.ReplicationMessage.Type;
+import com.contoso.socialapp.repository.ChangeLogRepository;
+import com.contoso.socialapp.shard.Shards;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.ProtocolException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Ships committed writes to followers over a Unix domain socket, one virtual thread
+ * per follower. The change log is the replication log: each batch carries the next
+ * entries after the follower's sequence together with the rows they name as they are
+ * now, read in one transaction, so applying batches in order converges on the leader's
+ * data. A follower without a usable sequence first gets a snapshot, paged by key in
+ * short transactions rather than under one long read lock; rows changed while it is
+ * taken are shipped again by the entries that follow the snapshot's sequence.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.replication", name = "role", havingValue = "leader")
+public class ReplicationLeader {
+    
+    static final String CHANGE_LOG = "change_log";
+    static final Map<String, String> TABLES = Map.of("POST", "posts", "COMMENT", "comments", "LIKE", "likes");
+    
+    private final ReplicationProperties properties;
+    private final ChangeLogRepository changeLogRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Set<ReplicationChannel> followers = ConcurrentHashMap.newKeySet();
+    private final Counter shipped;
+    private final Counter snapshots;
+    
+    private volatile ServerSocketChannel server;
+    
+    public ReplicationLeader(ReplicationProperties properties, ChangeLogRepository changeLogRepository,
+                             DataSource dataSource, Shards shards, PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry) {
+        if (shards.count() != 1) {
+            throw new IllegalStateException("Replication needs app.sharding.shards=1");
+        }
+        this.properties = properties;
+        this.changeLogRepository = changeLogRepository;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.shipped = Counter.builder("socialapp.replication.shipped")
+                .description("Change-log entries sent to followers")
+                .register(meterRegistry);
+        this.snapshots = Counter.builder("socialapp.replication.snapshots")
+                .description("Snapshots sent to followers that could not resume")
+                .tag("role", "leader")
+                .register(meterRegistry);
+        Gauge.builder("socialapp.replication.followers", followers, Set::size)
+                .description("Followers connected to this leader")
+                .register(meterRegistry);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws IOException {
+        // A socket file left by a previous run refuses the bind
+        Files.deleteIfExists(properties.getSocketPath());
+        server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        server.bind(UnixDomainSocketAddress.of(properties.getSocketPath()));
+        Thread.ofPlatform().daemon().name("replication-leader").start(this::accept);
+        log.info("Replication leader listening on {}", properties.getSocketPath().toAbsolutePath());
+    }
+    
+    @PreDestroy
+    public void stop() throws IOException {
+        if (server != null) {
+            server.close();
+            Files.deleteIfExists(properties.getSocketPath());
+        }
+        for (ReplicationChannel follower : followers) {
+            follower.close();
+        }
+    }
+    
+    public int followers() {
+        return followers.size();
+    }
+    
+    private void accept() {
+        while (server.isOpen()) {
+            try {
+                SocketChannel socket = server.accept();
+                Thread.ofVirtual().name("replication-ship").start(() -> ship(socket));
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                log.warn("Accepting a follower failed", e);
+            }
+        }
+    }
+    
+    private void ship(SocketChannel socket) {
+        ReplicationChannel follower = new ReplicationChannel(socket);
+        followers.add(follower);
+        try (follower) {
+            ReplicationMessage subscribe = follower.read();
+            if (subscribe.type() != Type.SUBSCRIBE) {
+                throw new ProtocolException("Expected SUBSCRIBE but got " + subscribe.type());
+            }
+            long cursor = subscribe.seq();
+            long lastSent = System.nanoTime();
+            while (true) {
+                long since = cursor;
+                Batch batch = readOnlyTransaction.execute(status -> changesAfter(since));
+                if (batch == null) {
+                    cursor = sendSnapshot(follower);
+                    lastSent = System.nanoTime();
+                    continue;
+                }
+                if (batch.message().type() == Type.HEARTBEAT) {
+                    if (System.nanoTime() - lastSent < properties.getHeartbeatInterval().toNanos()) {
+                        Thread.sleep(properties.getPollInterval());
+                        continue;
+                    }
+                } else {
+                    shipped.increment(batch.message().tables().get(CHANGE_LOG).rows().size());
+                }
+                follower.write(batch.message());
+                cursor = batch.cursor();
+                lastSent = System.nanoTime();
+            }
+        } catch (IOException e) {
+            log.info("Follower disconnected: {}", e.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            // Shutdown closes the socket and the data source under a running shipper
+            if (server.isOpen()) {
+                log.warn("Shipping to a follower failed", e);
+            }
+        } finally {
+            followers.remove(follower);
+        }
+    }
+    
+    // Null when the follower cannot resume from since: pruned past, ahead of the log, or never synced
+    private Batch changesAfter(long since) {
+        Long first = changeLogRepository.findFirstSeq();
+        Long lastOrNull = changeLogRepository.findLastSeq();
+        long last = lastOrNull != null ? lastOrNull : 0;
+        if (since < 0 || since > last || (first != null && since < first - 1)) {
+            return null;
+        }
+        RowSet entries = query("select * from " + CHANGE_LOG + " where seq > ? order by seq limit ?",
+                since, properties.getBatchSize());
+        if (entries.rows().isEmpty()) {
+            return new Batch(ReplicationMessage.of(Type.HEARTBEAT, last), since);
+        }
+        
+        Map<String, Set<Long>> ids = new LinkedHashMap<>();
+        for (int row = 0; row < entries.rows().size(); row++) {
+            ids.computeIfAbsent(TABLES.get((String) entries.value(row, "entity_type")), table -> new LinkedHashSet<>())
+                    .add(entries.longValue(row, "entity_id"));
+        }
+        Map<String, RowSet> tables = new LinkedHashMap<>();
+        tables.put(CHANGE_LOG, entries);
+        ids.forEach((table, tableIds) -> tables.put(table, query("select * from " + table + " where id in ("
+                + tableIds.stream().map(id -> "?").collect(Collectors.joining(", ")) + ")", tableIds.toArray())));
+        return new Batch(ReplicationMessage.of(Type.CHANGES, last, tables),
+                entries.longValue(entries.rows().size() - 1, "seq"));
+    }
+    
+    // Returns the sequence the follower resumes from once it has applied the snapshot
+    private long sendSnapshot(ReplicationChannel follower) throws IOException {
+        Long lastOrNull = readOnlyTransaction.execute(status -> changeLogRepository.findLastSeq());
+        long seq = lastOrNull != null ? lastOrNull : 0;
+        follower.write(ReplicationMessage.of(Type.RESET, seq));
+        for (String table : List.of("posts", "comments", "likes")) {
+            sendPages(follower, table, "id", Long.MAX_VALUE, seq);
+        }
+        // Last, so a follower holding any entries also holds the rows they cover
+        sendPages(follower, CHANGE_LOG, "seq", seq, seq);
+        snapshots.increment();
+        log.info("Sent a snapshot at sequence {} to a follower", seq);
+        return seq;
+    }
+    
+    private void sendPages(ReplicationChannel follower, String table, String key, long upTo, long seq)
+            throws IOException {
+        long after = Long.MIN_VALUE;
+        while (true) {
+            long from = after;
+            RowSet page = readOnlyTransaction.execute(status -> query("select * from " + table + " where " + key
+                    + " > ? and " + key + " <= ? order by " + key + " limit ?", from, upTo, properties.getBatchSize()));
+            if (page.rows().isEmpty()) {
+                return;
+            }
+            follower.write(ReplicationMessage.of(Type.ROWS, seq, Map.of(table, page)));
+            after = page.longValue(page.rows().size() - 1, key);
+        }
+    }
+    
+    private RowSet query(String sql, Object... args) {
+        return jdbcTemplate.query(sql, (ResultSet result) -> {
+            ResultSetMetaData metaData = result.getMetaData();
+            List<String> columns = new ArrayList<>();
+            for (int column = 1; column <= metaData.getColumnCount(); column++) {
+                columns.add(metaData.getColumnName(column));
+            }
+            List<List<Object>> rows = new ArrayList<>();
+            while (result.next()) {
+                List<Object> row = new ArrayList<>(columns.size());
+                for (int column = 1; column <= columns.size(); column++) {
+                    row.add(result.getObject(column));
+                }
+                rows.add(row);
+            }
+            return new RowSet(Collections.unmodifiableList(columns), rows);
+        }, args);
+    }
+    
+    private record Batch(ReplicationMessage message, long cursor) {
+    }
+}
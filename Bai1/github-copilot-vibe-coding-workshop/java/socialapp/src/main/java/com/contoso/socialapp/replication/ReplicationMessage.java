@@ -0,0 +1,39 @@
+package com.contoso.socialapp.replication;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One frame of the replication stream. A follower opens with {@code SUBSCRIBE} and the
+ * change-log sequence it has applied, or -1 for none. The leader answers with either a
+ * snapshot ({@code RESET}, then {@code ROWS} pages) or straight away with
+ * {@code CHANGES}: change-log entries plus the current rows of the entities they name.
+ * {@code HEARTBEAT} is sent while there is nothing new. {@code seq} is the leader's last
+ * sequence when the frame was built, {@code sentAt} its clock in epoch milliseconds.
+ */
+record ReplicationMessage(Type type, long seq, long sentAt, Map<String, RowSet> tables) {
+    
+    enum Type { SUBSCRIBE, RESET, ROWS, CHANGES, HEARTBEAT }
+    
+    static ReplicationMessage of(Type type, long seq) {
+        return new ReplicationMessage(type, seq, System.currentTimeMillis(), Map.of());
+    }
+    
+    static ReplicationMessage of(Type type, long seq, Map<String, RowSet> tables) {
+        return new ReplicationMessage(type, seq, System.currentTimeMillis(), tables);
+    }
+    
+    /**
+     * Rows of one table as read over JDBC, so each value keeps its SQLite storage class.
+     */
+    record RowSet(List<String> columns, List<List<Object>> rows) {
+        
+        long longValue(int row, String column) {
+            return ((Number) rows.get(row).get(columns.indexOf(column))).longValue();
+        }
+        
+        Object value(int row, String column) {
+            return rows.get(row).get(columns.indexOf(column));
+        }
+    }
+}
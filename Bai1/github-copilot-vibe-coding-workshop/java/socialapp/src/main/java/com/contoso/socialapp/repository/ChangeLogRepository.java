@@ -0,0 +1,31 @@
+package com.contoso.socialapp.repository;
+
+import com.contoso.socialapp.entity.ChangeLogEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ChangeLogRepository extends JpaRepository<ChangeLogEntry, Long> {
+    
+    // The latest entry of every entity changed after the given sequence number
+    @Query("select e from ChangeLogEntry e where e.seq in (select max(x.seq) from ChangeLogEntry x "
+            + "where x.seq > :since group by x.entityType, x.entityId) order by e.seq")
+    List<ChangeLogEntry> findLatestPerEntityAfter(@Param("since") long since, Limit limit);
+    
+    @Query("select min(e.seq) from ChangeLogEntry e")
+    Long findFirstSeq();
+    
+    @Query("select max(e.seq) from ChangeLogEntry e")
+    Long findLastSeq();
+    
+    @Modifying
+    @Query("delete from ChangeLogEntry e where e.changedAt < :horizon and e.seq < :last")
+    int deleteOlderThan(@Param("horizon") LocalDateTime horizon, @Param("last") long last);
+}
@@ -1,7 +1,11 @@
 package com.contoso.socialapp.repository;
 
 import com.contoso.socialapp.entity.Comment;
+import com.contoso.socialapp.entity.SecondLevelCacheRegions;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,6 +13,10 @@ import java.util.Optional;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheRegions.COMMENT_PAGES)
+    })
     List<Comment> findByPostIdOrderByCreatedAtAsc(Long postId);
     Optional<Comment> findByIdAndPostId(Long id, Long postId);
     long countByPostId(Long postId);
@@ -2,13 +2,18 @@ package com.contoso.socialapp.repository;
 
 import com.contoso.socialapp.entity.Like;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface LikeRepository extends JpaRepository<Like, Long> {
     Optional<Like> findByPostIdAndUsername(Long postId, String username);
     long countByPostId(Long postId);
     boolean existsByPostIdAndUsername(Long postId, String username);
+    
+    @Query("select l.postId, l.username from Like l")
+    Stream<Object[]> streamAllPostIdsAndUsernames();
 }
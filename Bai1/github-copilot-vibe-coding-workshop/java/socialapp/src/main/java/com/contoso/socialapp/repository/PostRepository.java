@@ -1,9 +1,25 @@
 package com.contoso.socialapp.repository;
 
 import com.contoso.socialapp.entity.Post;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
+    @Query("select p.id from Post p")
+    Stream<Long> streamAllIds();
+    
+    // Keyset pages of the feed; see ShardedFeed
+    List<Post> findAllByOrderByCreatedAtDescIdDesc(Limit limit);
+    
+    @Query("select p from Post p where p.createdAt < :createdAt or (p.createdAt = :createdAt and p.id < :id) "
+            + "order by p.createdAt desc, p.id desc")
+    List<Post> findFeedPageBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
 }
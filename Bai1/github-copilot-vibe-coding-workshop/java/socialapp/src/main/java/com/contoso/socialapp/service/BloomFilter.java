@@ -0,0 +1,94 @@
+package com.contoso.socialapp.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter over 64-bit hashes. Bit positions come from double hashing
+ * ({@code h1 + i * h2}), so one well-mixed hash per element is enough. Elements can
+ * only be added; deletes are absorbed by building a fresh filter.
+ */
+public final class BloomFilter {
+    
+    private final AtomicLongArray words;
+    private final long bitSize;
+    private final int hashCount;
+    
+    private BloomFilter(long bitSize, int hashCount) {
+        this.words = new AtomicLongArray((int) ((bitSize + 63) >>> 6));
+        this.bitSize = bitSize;
+        this.hashCount = hashCount;
+    }
+    
+    /**
+     * Sizes a filter to keep the false-positive rate at {@code falsePositiveRate}
+     * until {@code expectedInsertions} elements have been added.
+     */
+    public static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("expectedInsertions must be positive and falsePositiveRate in (0, 1)");
+        }
+        double ln2 = Math.log(2);
+        long bitSize = Math.max(64, (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (ln2 * ln2)));
+        int hashCount = Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * ln2));
+        return new BloomFilter(bitSize, hashCount);
+    }
+    
+    public void put(long hash) {
+        long h2 = secondHash(hash);
+        for (int i = 0; i < hashCount; i++) {
+            long index = Math.floorMod(hash + i * h2, bitSize);
+            long mask = 1L << index;
+            int word = (int) (index >>> 6);
+            if ((words.get(word) & mask) == 0) {
+                words.accumulateAndGet(word, mask, (current, bit) -> current | bit);
+            }
+        }
+    }
+    
+    public boolean mightContain(long hash) {
+        long h2 = secondHash(hash);
+        for (int i = 0; i < hashCount; i++) {
+            long index = Math.floorMod(hash + i * h2, bitSize);
+            if ((words.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * False-positive rate implied by the fraction of bits set so far.
+     */
+    public double expectedFalsePositiveRate() {
+        long setBits = 0;
+        for (int i = 0; i < words.length(); i++) {
+            setBits += Long.bitCount(words.get(i));
+        }
+        return Math.pow((double) setBits / bitSize, hashCount);
+    }
+    
+    public static long hash(long value) {
+        // MurmurHash3 fmix64
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+    
+    public static long hash(long value, String text) {
+        // FNV-1a over the characters, seeded with the number, then mixed
+        long h = 0xcbf29ce484222325L ^ hash(value);
+        for (int i = 0; i < text.length(); i++) {
+            h ^= text.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return hash(h);
+    }
+    
+    private static long secondHash(long hash) {
+        // Odd, so successive positions never repeat before wrapping the whole filter
+        return hash(hash ^ 0x9e3779b97f4a7c15L) | 1;
+    }
+}
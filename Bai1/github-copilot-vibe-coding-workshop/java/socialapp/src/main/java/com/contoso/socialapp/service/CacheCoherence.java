@@ -0,0 +1,330 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.config.CacheCoherenceProperties;
+import com.contoso.socialapp.config.ReplicationProperties;
+import com.contoso.socialapp.config.SqliteProperties;
+import com.contoso.socialapp.entity.ChangeLogEntry.EntityType;
+import com.contoso.socialapp.entity.ChangeLogEntry.Operation;
+import com.contoso.socialapp.entity.Comment;
+import com.contoso.socialapp.entity.Post;
+import com.contoso.socialapp.jdbc.BusyCountingSqliteDataSource;
+import com.contoso.socialapp.shard.Shards;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps this instance's caches coherent with other processes writing the same database
+ * files. Each poll interval it asks every file for {@code PRAGMA data_version}, which
+ * moves whenever another connection has committed, and only then reads the change log
+ * past the last entry it saw. Entries another process wrote evict just the posts and
+ * comments they name from the second-level cache, mark their tables changed for the
+ * query cache, and move page versions and existence filters as a local write would.
+ * Each invalidation is repeated one poll later, for a load that read the old row before
+ * the other commit and cached it after the first eviction. If entries were pruned before
+ * they were seen, or the file was recreated, everything is invalidated. A follower does
+ * not poll: the replica applier already invalidates for every batch it writes.
+ */
+@Slf4j
+@Component
+public class CacheCoherence {
+    
+    private final CacheCoherenceProperties properties;
+    private final ReplicationProperties replicationProperties;
+    private final ChangeLog changeLog;
+    private final PageVersions pageVersions;
+    private final ExistenceFilters existenceFilters;
+    private final SessionFactoryImplementor sessionFactory;
+    private final List<String> urls = new ArrayList<>();
+    private final long busyTimeoutMillis;
+    private final Counter foreignEntries;
+    private final Counter fullInvalidations;
+    private final List<DatabaseFile> files = new ArrayList<>();
+    
+    private Invalidation previous;
+    private volatile boolean running = true;
+    private volatile Thread thread;
+    
+    public CacheCoherence(CacheCoherenceProperties properties, ReplicationProperties replicationProperties,
+                          ChangeLog changeLog, PageVersions pageVersions,
+                          ExistenceFilters existenceFilters, EntityManagerFactory entityManagerFactory,
+                          DataSourceProperties dataSourceProperties, SqliteProperties sqliteProperties, Shards shards,
+                          MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.replicationProperties = replicationProperties;
+        this.changeLog = changeLog;
+        this.pageVersions = pageVersions;
+        this.existenceFilters = existenceFilters;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        String url = dataSourceProperties.determineUrl();
+        for (int shard = 0; shard < shards.count(); shard++) {
+            urls.add(shards.count() == 1 ? url : Shards.shardUrl(url, shard));
+        }
+        this.busyTimeoutMillis = sqliteProperties.getBusyTimeout().toMillis();
+        this.foreignEntries = Counter.builder("socialapp.cache.coherence.entries")
+                .description("Change-log entries from other processes that invalidated cached data")
+                .register(meterRegistry);
+        this.fullInvalidations = Counter.builder("socialapp.cache.coherence.full")
+                .description("Times every cache was dropped because the change log could not tell what changed")
+                .register(meterRegistry);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws SQLException {
+        if (!properties.isEnabled() || replicationProperties.getRole() == ReplicationProperties.Role.FOLLOWER
+                || urls.isEmpty() || !urls.get(0).startsWith("jdbc:sqlite:")) {
+            return;
+        }
+        for (String url : urls) {
+            Connection connection = new BusyCountingSqliteDataSource(url, busyTimeoutMillis).getConnection();
+            // A file whose schema Hibernate did not create (ddl-auto=none) may predate the change log
+            if (!hasChangeLog(connection)) {
+                log.warn("{} has no change_log table; writes by other processes to it will not invalidate caches",
+                        url);
+                connection.close();
+                continue;
+            }
+            DatabaseFile file = new DatabaseFile(connection);
+            file.dataVersion = dataVersion(file.connection);
+            Long last = lastSeq(file.connection);
+            file.lastSeq = last != null ? last : 0;
+            files.add(file);
+        }
+        if (!files.isEmpty()) {
+            thread = Thread.ofPlatform().daemon().name("cache-coherence").start(this::run);
+        }
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread.join(1000);
+        }
+        for (DatabaseFile file : files) {
+            try {
+                file.connection.close();
+            } catch (SQLException e) {
+                log.debug("Closing a cache-coherence connection failed", e);
+            }
+        }
+    }
+    
+    private void run() {
+        while (running) {
+            try {
+                Thread.sleep(properties.getPollInterval());
+                poll();
+            } catch (InterruptedException e) {
+                return;
+            } catch (SQLException | RuntimeException e) {
+                if (running) {
+                    log.warn("Cache coherence poll failed: {}", e.toString());
+                }
+            }
+        }
+    }
+    
+    void poll() throws SQLException {
+        Invalidation invalidation = new Invalidation();
+        for (DatabaseFile file : files) {
+            // The version is read first: a commit between the two reads is read now and seen again next poll
+            long dataVersion = dataVersion(file.connection);
+            if (dataVersion != file.dataVersion) {
+                file.dataVersion = dataVersion;
+                readChanges(file, invalidation);
+            }
+        }
+        if (previous != null) {
+            apply(previous);
+        }
+        previous = invalidation.isEmpty() ? null : invalidation;
+        if (previous != null) {
+            apply(invalidation);
+            foreignEntries.increment(invalidation.entries);
+        }
+    }
+    
+    private void readChanges(DatabaseFile file, Invalidation invalidation) throws SQLException {
+        Long lastOrNull = lastSeq(file.connection);
+        long last = lastOrNull != null ? lastOrNull : 0;
+        Long first = firstSeq(file.connection);
+        // Behind what was seen means the file was recreated; past it, entries were pruned unseen
+        if (last < file.lastSeq || (first != null && first > file.lastSeq + 1)) {
+            invalidation.everything = true;
+            file.lastSeq = last;
+            return;
+        }
+        
+        List<Long> createdLikes = new ArrayList<>();
+        try (PreparedStatement statement = file.connection.prepareStatement("select seq, entity_type, entity_id, "
+                + "post_id, operation, origin from change_log where seq > ? order by seq limit ?")) {
+            int read;
+            do {
+                statement.setLong(1, file.lastSeq);
+                statement.setInt(2, properties.getBatchSize());
+                read = 0;
+                try (ResultSet result = statement.executeQuery()) {
+                    while (result.next()) {
+                        read++;
+                        file.lastSeq = result.getLong(1);
+                        long origin = result.getLong(6);
+                        if (!result.wasNull() && origin == changeLog.origin()) {
+                            continue;
+                        }
+                        EntityType entityType = EntityType.valueOf(result.getString(2));
+                        long entityId = result.getLong(3);
+                        Operation operation = Operation.valueOf(result.getString(5));
+                        invalidation.add(entityType, entityId, result.getLong(4), operation);
+                        if (entityType == EntityType.LIKE && operation == Operation.CREATE) {
+                            createdLikes.add(entityId);
+                        }
+                    }
+                }
+            } while (read == properties.getBatchSize());
+        }
+        if (!createdLikes.isEmpty()) {
+            readLikes(file.connection, createdLikes, invalidation);
+        }
+    }
+    
+    // Entries name the like but the likes filter is keyed by post and username
+    private static void readLikes(Connection connection, List<Long> likeIds, Invalidation invalidation)
+            throws SQLException {
+        String ids = likeIds.stream().map(Object::toString).collect(Collectors.joining(", "));
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("select post_id, username from likes where id in (" + ids + ")")) {
+            while (result.next()) {
+                invalidation.createdLikes.add(Map.entry(result.getLong(1), result.getString(2)));
+            }
+        }
+    }
+    
+    private void apply(Invalidation invalidation) {
+        Cache cache = sessionFactory.getCache();
+        if (invalidation.everything) {
+            cache.evictEntityData();
+            cache.evictQueryRegions();
+            cache.evictDefaultQueryRegion();
+            pageVersions.everythingChanged();
+            existenceFilters.rebuild();
+            fullInvalidations.increment();
+        }
+        invalidation.posts.forEach(id -> cache.evict(Post.class, id));
+        invalidation.comments.forEach(id -> cache.evict(Comment.class, id));
+        if (!invalidation.tables.isEmpty()) {
+            try (StatelessSession session = sessionFactory.openStatelessSession()) {
+                sessionFactory.getCache().getTimestampsCache().invalidate(
+                        invalidation.tables.toArray(String[]::new), (SharedSessionContractImplementor) session);
+            }
+            pageVersions.feedChanged();
+        }
+        invalidation.commentPages.forEach(pageVersions::commentsChanged);
+        invalidation.createdPosts.forEach(existenceFilters::postAdded);
+        invalidation.createdLikes.forEach(like -> existenceFilters.likeAdded(like.getKey(), like.getValue()));
+    }
+    
+    private static long dataVersion(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("pragma data_version")) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+    
+    private static boolean hasChangeLog(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(
+                     "select 1 from sqlite_master where type = 'table' and name = 'change_log'")) {
+            return result.next();
+        }
+    }
+    
+    private static Long lastSeq(Connection connection) throws SQLException {
+        return seq(connection, "select max(seq) from change_log");
+    }
+    
+    private static Long firstSeq(Connection connection) throws SQLException {
+        return seq(connection, "select min(seq) from change_log");
+    }
+    
+    private static Long seq(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(sql)) {
+            result.next();
+            long seq = result.getLong(1);
+            return result.wasNull() ? null : seq;
+        }
+    }
+    
+    private static final class DatabaseFile {
+        
+        private final Connection connection;
+        private long dataVersion;
+        private long lastSeq;
+        
+        private DatabaseFile(Connection connection) {
+            this.connection = connection;
+        }
+    }
+    
+    private static final class Invalidation {
+        
+        private final Set<Long> posts = new LinkedHashSet<>();
+        private final Set<Long> comments = new LinkedHashSet<>();
+        private final Set<Long> createdPosts = new LinkedHashSet<>();
+        private final List<Map.Entry<Long, String>> createdLikes = new ArrayList<>();
+        private final Set<Long> commentPages = new LinkedHashSet<>();
+        private final Set<String> tables = new LinkedHashSet<>();
+        private boolean everything;
+        private int entries;
+        
+        void add(EntityType entityType, long entityId, long postId, Operation operation) {
+            entries++;
+            switch (entityType) {
+                case POST -> {
+                    posts.add(entityId);
+                    tables.add("posts");
+                    if (operation == Operation.CREATE) {
+                        createdPosts.add(entityId);
+                    } else if (operation == Operation.DELETE) {
+                        commentPages.add(entityId);
+                    }
+                }
+                case COMMENT -> {
+                    comments.add(entityId);
+                    tables.add("comments");
+                    commentPages.add(postId);
+                }
+                case LIKE -> tables.add("likes");
+            }
+        }
+        
+        boolean isEmpty() {
+            return !everything && entries == 0;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.config.ChangeLogProperties;
+import com.contoso.socialapp.dto.ChangesResponse;
+import com.contoso.socialapp.dto.TombstoneResponse;
+import com.contoso.socialapp.entity.ChangeLogEntry;
+import com.contoso.socialapp.entity.ChangeLogEntry.EntityType;
+import com.contoso.socialapp.entity.ChangeLogEntry.Operation;
+import com.contoso.socialapp.entity.Comment;
+import com.contoso.socialapp.entity.Like;
+import com.contoso.socialapp.entity.Post;
+import com.contoso.socialapp.exception.ChangesExpiredException;
+import com.contoso.socialapp.repository.ChangeLogRepository;
+import com.contoso.socialapp.repository.CommentRepository;
+import com.contoso.socialapp.repository.LikeRepository;
+import com.contoso.socialapp.repository.PostRepository;
+import com.contoso.socialapp.shard.Shards;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Append-only log of writes to posts, comments and likes, read back as compacted deltas:
+ * for every entity changed after a cursor, its current state or a tombstone. Entries
+ * older than the retention are pruned, except the newest, which keeps the sequence
+ * from restarting; a cursor from before the oldest remaining entry gets 410. Each shard
+ * keeps its own log, written with the post's data.
+ */
+@Slf4j
+@Component
+public class ChangeLog {
+    
+    private final ChangeLogProperties properties;
+    private final ChangeLogRepository changeLogRepository;
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+    private final LikeRepository likeRepository;
+    private final ResponseMapper responseMapper;
+    private final Shards shards;
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Counter pruned;
+    private final long origin = new SecureRandom().nextLong();
+    
+    public ChangeLog(ChangeLogProperties properties, ChangeLogRepository changeLogRepository,
+                     PostRepository postRepository, CommentRepository commentRepository,
+                     LikeRepository likeRepository, ResponseMapper responseMapper, Shards shards,
+                     PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.changeLogRepository = changeLogRepository;
+        this.postRepository = postRepository;
+        this.commentRepository = commentRepository;
+        this.likeRepository = likeRepository;
+        this.responseMapper = responseMapper;
+        this.shards = shards;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.pruned = Counter.builder("socialapp.change.log.pruned")
+                .description("Change-log entries removed after passing the retention")
+                .register(meterRegistry);
+    }
+    
+    // Part of the caller's transaction, so the entry commits or rolls back with the write
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(EntityType entityType, Long entityId, Long postId, Operation operation) {
+        ChangeLogEntry entry = new ChangeLogEntry();
+        entry.setEntityType(entityType);
+        entry.setEntityId(entityId);
+        entry.setPostId(postId);
+        entry.setOperation(operation);
+        entry.setOrigin(origin);
+        changeLogRepository.save(entry);
+    }
+    
+    /**
+     * The origin this instance records with its entries.
+     */
+    public long origin() {
+        return origin;
+    }
+    
+    /**
+     * Changes after {@code since}, or only the current cursor when it is {@code null}.
+     * Clients take that cursor before their full load, so nothing written during the load
+     * is missed; changes seen twice are harmless since every delta is the latest state.
+     * The cursor holds one sequence number per shard, separated by dots.
+     */
+    public ChangesResponse changesSince(String since) {
+        ChangesResponse response = new ChangesResponse();
+        long[] cursors = new long[shards.count()];
+        if (since == null) {
+            shards.forEachShard(shard -> cursors[shard] = readOnlyTransaction.execute(status -> lastSeq()));
+            response.setCursor(format(cursors));
+            return response;
+        }
+        long[] from = parse(since);
+        shards.forEachShard(shard -> readOnlyTransaction.executeWithoutResult(status -> {
+            cursors[shard] = changesSince(from[shard], response);
+        }));
+        response.setCursor(format(cursors));
+        return response;
+    }
+    
+    @Scheduled(initialDelayString = "${app.change-log.prune-interval:1h}",
+            fixedDelayString = "${app.change-log.prune-interval:1h}")
+    public void prune() {
+        LocalDateTime horizon = LocalDateTime.now().minus(properties.getRetention());
+        shards.forEachShard(shard -> transaction.executeWithoutResult(status -> {
+            Long last = changeLogRepository.findLastSeq();
+            if (last == null) {
+                return;
+            }
+            int removed = changeLogRepository.deleteOlderThan(horizon, last);
+            pruned.increment(removed);
+            log.debug("Pruned {} change-log entries of shard {}", removed, shard);
+        }));
+    }
+    
+    // Changes of the routed shard; returns its new cursor and sets hasMore if entries are left
+    private long changesSince(long since, ChangesResponse response) {
+        long last = lastSeq();
+        Long first = changeLogRepository.findFirstSeq();
+        // Ahead of the log means the database was recreated since the cursor was handed out
+        if (since < 0 || since > last || (first != null && since < first - 1)) {
+            throw new ChangesExpiredException();
+        }
+        
+        int pageSize = properties.getPageSize();
+        List<ChangeLogEntry> entries = changeLogRepository.findLatestPerEntityAfter(since, Limit.of(pageSize + 1));
+        boolean hasMore = entries.size() > pageSize;
+        if (hasMore) {
+            entries = entries.subList(0, pageSize);
+            response.setHasMore(true);
+        }
+        
+        Map<EntityType, List<ChangeLogEntry>> upserts = new EnumMap<>(EntityType.class);
+        for (ChangeLogEntry entry : entries) {
+            if (entry.getOperation() == Operation.DELETE) {
+                response.getDeleted().add(tombstone(entry));
+            } else {
+                upserts.computeIfAbsent(entry.getEntityType(), type -> new ArrayList<>()).add(entry);
+            }
+        }
+        load(upserts.get(EntityType.POST), postRepository, Post::getId,
+                post -> response.getPosts().add(responseMapper.toPostResponse(post)), response);
+        load(upserts.get(EntityType.COMMENT), commentRepository, Comment::getId,
+                comment -> response.getComments().add(responseMapper.toCommentResponse(comment)), response);
+        load(upserts.get(EntityType.LIKE), likeRepository, Like::getId,
+                like -> response.getLikes().add(responseMapper.toLikeResponse(like)), response);
+        return hasMore ? entries.get(entries.size() - 1).getSeq() : last;
+    }
+    
+    private long lastSeq() {
+        Long last = changeLogRepository.findLastSeq();
+        return last != null ? last : 0;
+    }
+    
+    // A cursor that does not parse, or was handed out for another shard count, cannot be resumed either
+    private long[] parse(String cursor) {
+        String[] parts = cursor.split("\\.", -1);
+        if (parts.length != shards.count()) {
+            throw new ChangesExpiredException();
+        }
+        long[] cursors = new long[parts.length];
+        try {
+            for (int i = 0; i < parts.length; i++) {
+                cursors[i] = Long.parseLong(parts[i]);
+            }
+        } catch (NumberFormatException e) {
+            throw new ChangesExpiredException();
+        }
+        return cursors;
+    }
+    
+    private static String format(long[] cursors) {
+        return Arrays.stream(cursors).mapToObj(Long::toString).collect(Collectors.joining("."));
+    }
+    
+    // One query per entity type; rows gone without a logged delete still come back as tombstones
+    private <T> void load(List<ChangeLogEntry> entries, JpaRepository<T, Long> repository, Function<T, Long> id,
+                          Consumer<T> add, ChangesResponse response) {
+        if (entries == null) {
+            return;
+        }
+        Map<Long, T> rows = repository.findAllById(entries.stream().map(ChangeLogEntry::getEntityId).toList())
+                .stream()
+                .collect(Collectors.toMap(id, Function.identity()));
+        for (ChangeLogEntry entry : entries) {
+            T row = rows.get(entry.getEntityId());
+            if (row != null) {
+                add.accept(row);
+            } else {
+                response.getDeleted().add(tombstone(entry));
+            }
+        }
+    }
+    
+    private static TombstoneResponse tombstone(ChangeLogEntry entry) {
+        return new TombstoneResponse(entry.getEntityType().name().toLowerCase(), entry.getEntityId(), entry.getPostId());
+    }
+}
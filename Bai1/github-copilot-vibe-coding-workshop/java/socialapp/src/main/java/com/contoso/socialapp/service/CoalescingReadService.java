@@ -0,0 +1,44 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.config.SingleFlightProperties;
+import com.contoso.socialapp.dto.SerializedResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+
+/**
+ * Single-flight layer in front of the hot read paths of {@link SocialMediaService}.
+ * Concurrent identical reads share one database load; each call still runs outside
+ * any caller transaction so the shared load opens exactly one.
+ */
+@Service
+public class CoalescingReadService {
+    
+    private static final String FEED_KEY = "feed";
+    
+    private final SocialMediaService socialMediaService;
+    private final SingleFlightProperties properties;
+    private final SingleFlight<Long, SerializedResponse> postFlights;
+    private final SingleFlight<String, SerializedResponse> feedFlights;
+    
+    public CoalescingReadService(SocialMediaService socialMediaService, SingleFlightProperties properties,
+                                 MeterRegistry meterRegistry) {
+        this.socialMediaService = socialMediaService;
+        this.properties = properties;
+        this.postFlights = new SingleFlight<>("post", properties.getMicroCache(), meterRegistry);
+        this.feedFlights = new SingleFlight<>("feed", properties.getMicroCache(), meterRegistry);
+    }
+    
+    public SerializedResponse getPost(Long postId) {
+        if (!properties.isEnabled()) {
+            return socialMediaService.getPostSerialized(postId);
+        }
+        return postFlights.execute(postId, () -> socialMediaService.getPostSerialized(postId));
+    }
+    
+    public SerializedResponse listPosts() {
+        if (!properties.isEnabled()) {
+            return socialMediaService.listPostsSerialized();
+        }
+        return feedFlights.execute(FEED_KEY, socialMediaService::listPostsSerialized);
+    }
+}
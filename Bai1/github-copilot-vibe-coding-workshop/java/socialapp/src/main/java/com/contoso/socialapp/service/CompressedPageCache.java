@@ -0,0 +1,55 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.config.CompressedPageProperties;
+import com.contoso.socialapp.dto.SerializedResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzip-compressed feed and comment pages, compressed once per page version and format.
+ */
+@Component
+public class CompressedPageCache {
+    
+    public static final String GZIP = "gzip";
+    
+    private final SerializedResponseCache serializedResponseCache;
+    private final Cache<CompressedPageKey, byte[]> cache;
+    
+    public CompressedPageCache(SerializedResponseCache serializedResponseCache, CompressedPageProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.serializedResponseCache = serializedResponseCache;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxSize().toBytes())
+                .weigher((CompressedPageKey key, byte[] value) -> value.length)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "compressedPages");
+    }
+    
+    public byte[] gzip(SerializedResponse page, SerializationFormat format) {
+        return cache.get(new CompressedPageKey(page.getPageKey(), format), key -> compress(page, format));
+    }
+    
+    private byte[] compress(SerializedResponse page, SerializationFormat format) {
+        int length = (int) serializedResponseCache.contentLength(page, format);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed, 8192)) {
+            serializedResponseCache.write(page, format, gzip);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+    
+    private record CompressedPageKey(Object pageKey, SerializationFormat format) {
+    }
+}
@@ -0,0 +1,175 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.config.ExistenceFilterProperties;
+import com.contoso.socialapp.repository.LikeRepository;
+import com.contoso.socialapp.repository.PostRepository;
+import com.contoso.socialapp.shard.Shards;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filters over existing post ids and (postId, username) likes. A negative answer
+ * is definite and lets callers skip the database; a positive one still needs a query.
+ * Until the first build completes every answer is positive.
+ */
+@Slf4j
+@Component
+public class ExistenceFilters {
+    
+    private final ExistenceFilterProperties properties;
+    private final PostRepository postRepository;
+    private final LikeRepository likeRepository;
+    private final Shards shards;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Filter posts;
+    private final Filter likes;
+    
+    public ExistenceFilters(ExistenceFilterProperties properties, PostRepository postRepository,
+                            LikeRepository likeRepository, Shards shards,
+                            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.postRepository = postRepository;
+        this.likeRepository = likeRepository;
+        this.shards = shards;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.posts = new Filter("posts", meterRegistry);
+        this.likes = new Filter("likes", meterRegistry);
+    }
+    
+    public boolean mightContainPost(Long postId) {
+        return posts.mightContain(BloomFilter.hash(postId));
+    }
+    
+    public boolean mightContainLike(Long postId, String username) {
+        return likes.mightContain(BloomFilter.hash(postId, username));
+    }
+    
+    // A positive answer that the database then contradicted
+    public void postFalsePositive() {
+        posts.falsePositives.increment();
+    }
+    
+    public void likeFalsePositive() {
+        likes.falsePositives.increment();
+    }
+    
+    // Put at once: an insert that rolls back only leaves a false positive, and the JIT
+    // warmup likes a post that exists only inside its rolled-back transaction
+    public void postAdded(Long postId) {
+        posts.put(BloomFilter.hash(postId));
+    }
+    
+    public void likeAdded(Long postId, String username) {
+        long hash = BloomFilter.hash(postId, username);
+        TransactionCallbacks.afterCommit(() -> likes.put(hash));
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.existence-filter.rebuild-interval:10m}",
+            fixedDelayString = "${app.existence-filter.rebuild-interval:10m}")
+    public synchronized void rebuild() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long started = System.nanoTime();
+        posts.rebuild(shards.sum(postRepository::count), filter -> shards.forEachShard(shard ->
+                readOnlyTransaction.executeWithoutResult(status -> {
+                    try (Stream<Long> ids = postRepository.streamAllIds()) {
+                        ids.forEach(id -> filter.put(BloomFilter.hash(id)));
+                    }
+                })));
+        likes.rebuild(shards.sum(likeRepository::count), filter -> shards.forEachShard(shard ->
+                readOnlyTransaction.executeWithoutResult(status -> {
+                    try (Stream<Object[]> pairs = likeRepository.streamAllPostIdsAndUsernames()) {
+                        pairs.forEach(pair -> filter.put(BloomFilter.hash((Long) pair[0], (String) pair[1])));
+                    }
+                })));
+        log.debug("Rebuilt existence filters in {} ms", (System.nanoTime() - started) / 1_000_000);
+    }
+    
+    private class Filter {
+        
+        private final Counter negatives;
+        private final Counter falsePositives;
+        
+        private volatile BloomFilter current;
+        // Filter being built; writes go to it as well so the rebuild cannot miss them
+        private volatile BloomFilter pending;
+        
+        Filter(String name, MeterRegistry meterRegistry) {
+            this.negatives = Counter.builder("socialapp.existence.filter.negatives")
+                    .description("Lookups answered as definitely absent without a query")
+                    .tag("filter", name)
+                    .register(meterRegistry);
+            this.falsePositives = Counter.builder("socialapp.existence.filter.false.positives")
+                    .description("Lookups the filter passed through that found nothing")
+                    .tag("filter", name)
+                    .register(meterRegistry);
+            Gauge.builder("socialapp.existence.filter.false.positive.rate", this, Filter::observedFalsePositiveRate)
+                    .description("Share of absent keys the filter failed to reject")
+                    .tag("filter", name)
+                    .register(meterRegistry);
+            Gauge.builder("socialapp.existence.filter.expected.false.positive.rate", this,
+                            Filter::expectedFalsePositiveRate)
+                    .description("False-positive rate implied by the current filter fill")
+                    .tag("filter", name)
+                    .register(meterRegistry);
+        }
+        
+        boolean mightContain(long hash) {
+            BloomFilter filter = current;
+            if (!properties.isEnabled() || filter == null || filter.mightContain(hash)) {
+                return true;
+            }
+            negatives.increment();
+            return false;
+        }
+        
+        void put(long hash) {
+            // Read pending before current: the rebuild publishes current before clearing pending
+            BloomFilter building = pending;
+            if (building != null) {
+                building.put(hash);
+            }
+            BloomFilter filter = current;
+            if (filter != null) {
+                filter.put(hash);
+            }
+        }
+        
+        void rebuild(long count, Consumer<BloomFilter> loader) {
+            BloomFilter next = BloomFilter.create(Math.max(properties.getMinCapacity(), count * 2),
+                    properties.getFalsePositiveRate());
+            pending = next;
+            try {
+                loader.accept(next);
+                current = next;
+            } finally {
+                pending = null;
+            }
+        }
+        
+        private double observedFalsePositiveRate() {
+            double rejected = negatives.count();
+            double missed = falsePositives.count();
+            return rejected + missed == 0 ? Double.NaN : missed / (rejected + missed);
+        }
+        
+        private double expectedFalsePositiveRate() {
+            BloomFilter filter = current;
+            return filter == null ? Double.NaN : filter.expectedFalsePositiveRate();
+        }
+    }
+}
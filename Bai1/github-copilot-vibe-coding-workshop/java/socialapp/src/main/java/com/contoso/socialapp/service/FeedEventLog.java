@@ -0,0 +1,145 @@
+package com.contoso.socialapp.service;
+
+import java.security.SecureRandom;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The most recent committed feed events, numbered from 1, in a fixed ring shared by
+ * every stream. Each event is rendered once as a complete server-sent event frame. A
+ * subscriber only holds the id of the last event it was sent, so an event costs one
+ * slot however many streams are open, and reading takes no lock. Event ids on the wire
+ * carry a random epoch, {@code <epoch>-<id>}, since numbering starts again with every log:
+ * an id from another process, or from this one before a restart, names nothing here.
+ */
+final class FeedEventLog {
+    
+    /**
+     * One event; a later event with the same non-null {@code key} supersedes it.
+     */
+    record Event(long id, String key, String frame) {
+    }
+    
+    private final String epoch = Long.toHexString(new SecureRandom().nextLong());
+    private final AtomicReferenceArray<Event> ring;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    
+    private volatile long lastId;
+    
+    FeedEventLog(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.ring = new AtomicReferenceArray<>(capacity);
+    }
+    
+    /**
+     * Appends an event whose {@code data} is a single line, as compact JSON always is.
+     */
+    Event append(String type, String key, String data) {
+        lock.lock();
+        try {
+            long id = lastId + 1;
+            Event event = new Event(id, key, frame(id, type, data));
+            ring.set(slot(event.id()), event);
+            lastId = event.id();
+            appended.signalAll();
+            return event;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    long lastId() {
+        return lastId;
+    }
+    
+    /**
+     * The number of the event a wire id names, or -1 if it is not an id of this log.
+     */
+    long idOf(String eventId) {
+        String prefix = epoch + "-";
+        if (!eventId.startsWith(prefix)) {
+            return -1;
+        }
+        try {
+            long id = Long.parseLong(eventId.substring(prefix.length()));
+            return id >= 0 ? id : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+    
+    /**
+     * Events after {@code cursor}, oldest first, or {@code null} if some of them have
+     * already been overwritten or the cursor is ahead of the log.
+     */
+    List<Event> after(long cursor) {
+        long last = lastId;
+        if (cursor > last || last - cursor > ring.length()) {
+            return null;
+        }
+        List<Event> events = new ArrayList<>((int) (last - cursor));
+        for (long id = cursor + 1; id <= last; id++) {
+            Event event = ring.get(slot(id));
+            // Lapped by the writer while copying
+            if (event == null || event.id() != id) {
+                return null;
+            }
+            events.add(event);
+        }
+        return events;
+    }
+    
+    /**
+     * Like {@link #after(long)}, but first waits up to {@code timeoutNanos} for an event
+     * after {@code cursor}; an empty list means the wait timed out.
+     */
+    List<Event> awaitAfter(long cursor, long timeoutNanos) throws InterruptedException {
+        if (lastId == cursor) {
+            lock.lockInterruptibly();
+            try {
+                long nanos = timeoutNanos;
+                while (lastId == cursor && nanos > 0) {
+                    nanos = appended.awaitNanos(nanos);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return after(cursor);
+    }
+    
+    /**
+     * Drops every event that a later one with the same key supersedes, keeping order.
+     */
+    static List<Event> coalesce(List<Event> events) {
+        if (events.size() < 2) {
+            return events;
+        }
+        Set<String> seen = new HashSet<>();
+        ArrayDeque<Event> kept = new ArrayDeque<>(events.size());
+        for (int i = events.size() - 1; i >= 0; i--) {
+            Event event = events.get(i);
+            if (event.key() == null || seen.add(event.key())) {
+                kept.addFirst(event);
+            }
+        }
+        return kept.size() == events.size() ? events : new ArrayList<>(kept);
+    }
+    
+    String frame(long id, String type, String data) {
+        return "id:" + epoch + "-" + id + "\nevent:" + type + "\ndata:" + data + "\n\n";
+    }
+    
+    private int slot(long id) {
+        return (int) (id % ring.length());
+    }
+}
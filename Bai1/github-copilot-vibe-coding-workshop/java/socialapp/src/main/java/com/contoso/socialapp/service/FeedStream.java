@@ -0,0 +1,200 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.config.FeedStreamProperties;
+import com.contoso.socialapp.dto.CommentResponse;
+import com.contoso.socialapp.dto.PostCountsResponse;
+import com.contoso.socialapp.dto.PostResponse;
+import com.contoso.socialapp.exception.StreamCapacityExceededException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-sent feed of committed posts, counter changes and new comments. Events are
+ * rendered once into a shared {@link FeedEventLog}; every stream has a virtual thread
+ * that waits on the log from its own cursor, so an idle stream holds no platform thread
+ * and a slow one only delays itself. Pending events are coalesced per post before they
+ * are sent, and a stream that is still more than the backlog behind, or asks to resume
+ * from an event no longer kept, gets a {@code resync} event telling it to reload the feed.
+ */
+@Service
+public class FeedStream {
+    
+    // Cursor that makes the sender start with a resync
+    private static final long RESYNC = -1;
+    private static final MediaType FRAMES = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+    
+    private final FeedStreamProperties properties;
+    private final ObjectMapper objectMapper;
+    private final FeedEventLog events;
+    private final ThreadFactory senders = Thread.ofVirtual().name("feed-stream-", 0).factory();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final Counter published;
+    private final Counter coalesced;
+    private final Counter resyncs;
+    
+    public FeedStream(FeedStreamProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.events = new FeedEventLog(properties.getRetention());
+        Gauge.builder("socialapp.feed.stream.subscribers", subscribers, AtomicInteger::get)
+                .description("Open feed streams")
+                .register(meterRegistry);
+        this.published = Counter.builder("socialapp.feed.stream.events")
+                .description("Committed changes published to the feed stream")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("socialapp.feed.stream.coalesced")
+                .description("Pending stream events skipped because a later one superseded them")
+                .register(meterRegistry);
+        this.resyncs = Counter.builder("socialapp.feed.stream.resyncs")
+                .description("Streams told to reload the feed after falling too far behind")
+                .register(meterRegistry);
+    }
+    
+    public void postChanged(PostResponse post) {
+        publish("post", "post:" + post.getId(), post);
+    }
+    
+    public void postDeleted(Long postId) {
+        publish("post-deleted", "post:" + postId, Map.of("id", postId));
+    }
+    
+    public void commentCreated(CommentResponse comment) {
+        publish("comment", null, comment);
+    }
+    
+    public void countsChanged(PostCountsResponse counts) {
+        publish("counts", "counts:" + counts.getPostId(), counts);
+    }
+    
+    /**
+     * Opens a stream that starts after {@code lastEventId}, or with the next event when
+     * it is {@code null}.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        if (subscribers.incrementAndGet() > properties.getMaxSubscribers() || !properties.isEnabled()) {
+            subscribers.decrementAndGet();
+            throw new StreamCapacityExceededException();
+        }
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        Subscription subscription = new Subscription(emitter, startCursor(lastEventId));
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(error -> subscription.close());
+        subscription.sender.start();
+        return emitter;
+    }
+    
+    private void publish(String type, String key, Object payload) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> {
+            try {
+                events.append(type, key, objectMapper.writeValueAsString(payload));
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+            published.increment();
+        });
+    }
+    
+    private long startCursor(String lastEventId) {
+        long last = events.lastId();
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return last;
+        }
+        // Ids from another epoch, such as this process before a restart, get a full resync
+        long id = events.idOf(lastEventId.trim());
+        return id >= 0 && id <= last ? id : RESYNC;
+    }
+    
+    private class Subscription {
+        
+        private final SseEmitter emitter;
+        private final Thread sender;
+        private long cursor;
+        private volatile boolean closed;
+        
+        Subscription(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+            this.sender = senders.newThread(this::run);
+        }
+        
+        void close() {
+            closed = true;
+            sender.interrupt();
+        }
+        
+        private void run() {
+            long heartbeatNanos = properties.getHeartbeatInterval().toNanos();
+            try {
+                // Commits the response headers right away
+                write(":connected\n\n");
+                if (cursor == RESYNC) {
+                    resync();
+                }
+                while (!closed) {
+                    List<FeedEventLog.Event> pending = events.awaitAfter(cursor, heartbeatNanos);
+                    if (pending == null) {
+                        resync();
+                    } else if (pending.isEmpty()) {
+                        write(":heartbeat\n\n");
+                    } else {
+                        List<FeedEventLog.Event> batch = FeedEventLog.coalesce(pending);
+                        coalesced.increment(pending.size() - batch.size());
+                        if (batch.size() > properties.getBacklog()) {
+                            resync();
+                        } else {
+                            send(batch);
+                        }
+                    }
+                }
+            } catch (InterruptedException | IllegalStateException e) {
+                // Closed, or completed by the container
+            } catch (IOException e) {
+                emitter.completeWithError(e);
+            } finally {
+                subscribers.decrementAndGet();
+            }
+        }
+        
+        // One write and flush for the whole batch
+        private void send(List<FeedEventLog.Event> batch) throws IOException {
+            StringBuilder frames = new StringBuilder();
+            for (FeedEventLog.Event event : batch) {
+                frames.append(event.frame());
+            }
+            write(frames.toString());
+            cursor = batch.get(batch.size() - 1).id();
+        }
+        
+        private void resync() throws IOException {
+            long last = events.lastId();
+            write(events.frame(last, "resync", "{}"));
+            cursor = last;
+            resyncs.increment();
+        }
+        
+        // Frames are already in event-stream format, so they bypass the SseEmitter event builder
+        private void write(String text) throws IOException {
+            emitter.send(Set.of(new ResponseBodyEmitter.DataWithMediaType(text, FRAMES)));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.contoso.socialapp.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Data versions for the cacheable pages. Readers take the version before loading a
+ * page and key anything they cache by it; writers bump it after their transaction
+ * commits, so a cached page can never outlive the data it was rendered from.
+ */
+@Component
+public class PageVersions {
+    
+    // Comment pages share striped counters: a collision only costs an extra cache miss
+    private static final int COMMENT_STRIPES = 4096;
+    
+    private final AtomicLong feed = new AtomicLong();
+    private final AtomicLongArray comments = new AtomicLongArray(COMMENT_STRIPES);
+    
+    public Object feedPageKey() {
+        return new FeedPageKey(feed.get());
+    }
+    
+    public Object commentsPageKey(Long postId) {
+        return new CommentsPageKey(postId, comments.get(stripe(postId)));
+    }
+    
+    public void feedChanged() {
+        TransactionCallbacks.afterCommit(feed::incrementAndGet);
+    }
+    
+    public void commentsChanged(Long postId) {
+        int stripe = stripe(postId);
+        TransactionCallbacks.afterCommit(() -> comments.incrementAndGet(stripe));
+    }
+    
+    // For writes seen too late to tell which pages they touched
+    public void everythingChanged() {
+        TransactionCallbacks.afterCommit(() -> {
+            feed.incrementAndGet();
+            for (int stripe = 0; stripe < COMMENT_STRIPES; stripe++) {
+                comments.incrementAndGet(stripe);
+            }
+        });
+    }
+    
+    private static int stripe(Long postId) {
+        return Long.hashCode(postId) & (COMMENT_STRIPES - 1);
+    }
+    
+    private record FeedPageKey(long version) {
+    }
+    
+    private record CommentsPageKey(Long postId, long version) {
+    }
+}
@@ -0,0 +1,60 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.dto.CommentResponse;
+import com.contoso.socialapp.dto.LikeResponse;
+import com.contoso.socialapp.dto.PostResponse;
+import com.contoso.socialapp.entity.Comment;
+import com.contoso.socialapp.entity.Like;
+import com.contoso.socialapp.entity.Post;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+@Component
+public class ResponseMapper {
+    
+    private static final DateTimeFormatter ISO_FORMATTER = DateTimeFormatter.ISO_DATE_TIME;
+    
+    // Helper method to format datetime to ISO format with Z
+    public String formatDateTime(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return OffsetDateTime.now(ZoneOffset.UTC).format(ISO_FORMATTER);
+        }
+        return dateTime.atOffset(ZoneOffset.UTC).format(ISO_FORMATTER);
+    }
+    
+    public PostResponse toPostResponse(Post post) {
+        PostResponse response = new PostResponse();
+        response.setId(post.getId());
+        response.setUsername(post.getUsername());
+        response.setContent(post.getContent());
+        response.setCreatedAt(formatDateTime(post.getCreatedAt()));
+        response.setUpdatedAt(formatDateTime(post.getUpdatedAt()));
+        response.setLikesCount(post.getLikesCount());
+        response.setCommentsCount(post.getCommentsCount());
+        return response;
+    }
+    
+    public CommentResponse toCommentResponse(Comment comment) {
+        CommentResponse response = new CommentResponse();
+        response.setId(comment.getId());
+        response.setPostId(comment.getPostId());
+        response.setUsername(comment.getUsername());
+        response.setContent(comment.getContent());
+        response.setCreatedAt(formatDateTime(comment.getCreatedAt()));
+        response.setUpdatedAt(formatDateTime(comment.getUpdatedAt()));
+        return response;
+    }
+    
+    public LikeResponse toLikeResponse(Like like) {
+        LikeResponse response = new LikeResponse();
+        response.setId(like.getId());
+        response.setPostId(like.getPostId());
+        response.setUsername(like.getUsername());
+        response.setCreatedAt(formatDateTime(like.getCreatedAt()));
+        return response;
+    }
+}
@@ -0,0 +1,88 @@
+package com.contoso.socialapp.service;
+
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Wire formats whose arrays can be assembled from independently serialized items.
+ */
+public enum SerializationFormat {
+    
+    JSON(MediaType.APPLICATION_JSON) {
+        @Override
+        public void writeArrayStart(OutputStream out, int size) throws IOException {
+            out.write('[');
+        }
+        
+        @Override
+        public void writeArraySeparator(OutputStream out) throws IOException {
+            out.write(',');
+        }
+        
+        @Override
+        public void writeArrayEnd(OutputStream out) throws IOException {
+            out.write(']');
+        }
+        
+        @Override
+        public int arrayOverhead(int size) {
+            return 2 + Math.max(0, size - 1);
+        }
+    },
+    
+    // Definite-length CBOR array: a major type 4 header followed by the items
+    CBOR(MediaType.APPLICATION_CBOR) {
+        @Override
+        public void writeArrayStart(OutputStream out, int size) throws IOException {
+            if (size < 24) {
+                out.write(0x80 | size);
+            } else if (size < 0x100) {
+                out.write(0x98);
+                out.write(size);
+            } else if (size < 0x10000) {
+                out.write(0x99);
+                out.write(size >>> 8);
+                out.write(size);
+            } else {
+                out.write(0x9a);
+                out.write(size >>> 24);
+                out.write(size >>> 16);
+                out.write(size >>> 8);
+                out.write(size);
+            }
+        }
+        
+        @Override
+        public void writeArraySeparator(OutputStream out) {
+        }
+        
+        @Override
+        public void writeArrayEnd(OutputStream out) {
+        }
+        
+        @Override
+        public int arrayOverhead(int size) {
+            return size < 24 ? 1 : size < 0x100 ? 2 : size < 0x10000 ? 3 : 5;
+        }
+    };
+    
+    private final MediaType mediaType;
+    
+    SerializationFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+    
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+    
+    public abstract void writeArrayStart(OutputStream out, int size) throws IOException;
+    
+    public abstract void writeArraySeparator(OutputStream out) throws IOException;
+    
+    public abstract void writeArrayEnd(OutputStream out) throws IOException;
+    
+    public abstract int arrayOverhead(int size);
+}
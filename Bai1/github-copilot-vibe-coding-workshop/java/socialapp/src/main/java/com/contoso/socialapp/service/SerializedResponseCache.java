@@ -0,0 +1,110 @@
+package com.contoso.socialapp.service;
+
+import com.contoso.socialapp.config.ResponseCacheProperties;
+import com.contoso.socialapp.dto.SerializedResponse;
+import com.contoso.socialapp.entity.Comment;
+import com.contoso.socialapp.entity.Post;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pre-serialized posts and comments, per wire format, keyed by entity version so an
+ * edit or a counter change simply misses and old versions age out by size. A hit skips
+ * DTO mapping, date formatting and Jackson entirely.
+ */
+@Component
+public class SerializedResponseCache {
+    
+    private final ResponseMapper responseMapper;
+    private final Map<SerializationFormat, ObjectMapper> mappers = new EnumMap<>(SerializationFormat.class);
+    private final Cache<Object, byte[]> cache;
+    
+    public SerializedResponseCache(ObjectMapper objectMapper, ResponseMapper responseMapper,
+                                   ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.responseMapper = responseMapper;
+        this.mappers.put(SerializationFormat.JSON, objectMapper);
+        this.mappers.put(SerializationFormat.CBOR, Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build());
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxSize().toBytes())
+                .weigher((Object key, byte[] value) -> value.length)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "serializedResponses");
+    }
+    
+    public byte[] post(Post post, SerializationFormat format) {
+        PostVersion key = new PostVersion(post.getId(), post.getUpdatedAt(), post.getLikesCount(),
+                post.getCommentsCount(), format);
+        return cache.get(key, k -> serialize(responseMapper.toPostResponse(post), format));
+    }
+    
+    public byte[] comment(Comment comment, SerializationFormat format) {
+        CommentVersion key = new CommentVersion(comment.getId(), comment.getUpdatedAt(), format);
+        return cache.get(key, k -> serialize(responseMapper.toCommentResponse(comment), format));
+    }
+    
+    public long contentLength(SerializedResponse response, SerializationFormat format) {
+        List<?> items = response.getItems();
+        long length = response.isArray() ? format.arrayOverhead(items.size()) : 0;
+        for (Object item : items) {
+            length += bytes(item, format).length;
+        }
+        return length;
+    }
+    
+    public void write(SerializedResponse response, SerializationFormat format, OutputStream out) throws IOException {
+        List<?> items = response.getItems();
+        if (!response.isArray()) {
+            out.write(bytes(items.get(0), format));
+            return;
+        }
+        format.writeArrayStart(out, items.size());
+        for (int i = 0; i < items.size(); i++) {
+            if (i > 0) {
+                format.writeArraySeparator(out);
+            }
+            out.write(bytes(items.get(i), format));
+        }
+        format.writeArrayEnd(out);
+    }
+    
+    private byte[] bytes(Object item, SerializationFormat format) {
+        if (item instanceof Post post) {
+            return post(post, format);
+        }
+        if (item instanceof Comment comment) {
+            return comment(comment, format);
+        }
+        throw new IllegalArgumentException("Unsupported response item: " + item.getClass().getName());
+    }
+    
+    private byte[] serialize(Object response, SerializationFormat format) {
+        try {
+            return mappers.get(format).writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private record PostVersion(Long id, LocalDateTime updatedAt, Integer likesCount, Integer commentsCount,
+                               SerializationFormat format) {
+    }
+    
+    private record CommentVersion(Long id, LocalDateTime updatedAt, SerializationFormat format) {
+    }
+}
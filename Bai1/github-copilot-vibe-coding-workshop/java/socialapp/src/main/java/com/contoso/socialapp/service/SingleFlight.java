@@ -0,0 +1,101 @@
+package com.contoso.socialapp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent loads of the same key into one: the first caller runs the
+ * loader and every caller that arrives while it is running waits for and shares its
+ * result (or exception). Optionally the completed result keeps answering for a short
+ * micro-cache window.
+ */
+public class SingleFlight<K, V> {
+    
+    private final ConcurrentMap<K, Call<V>> calls = new ConcurrentHashMap<>();
+    private final long microCacheNanos;
+    private final DistributionSummary callersPerLoad;
+    private final Counter microCacheHits;
+    
+    public SingleFlight(String name, Duration microCache, MeterRegistry meterRegistry) {
+        this.microCacheNanos = microCache.toNanos();
+        this.callersPerLoad = DistributionSummary.builder("socialapp.singleflight.callers")
+                .description("Callers served by each load, including the one that ran it")
+                .tag("name", name)
+                .register(meterRegistry);
+        this.microCacheHits = Counter.builder("socialapp.singleflight.microcache.hits")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+    
+    public V execute(K key, Supplier<V> loader) {
+        while (true) {
+            Call<V> call = calls.get(key);
+            if (call == null) {
+                Call<V> created = new Call<>();
+                call = calls.putIfAbsent(key, created);
+                if (call == null) {
+                    return load(key, created, loader);
+                }
+            }
+            
+            if (call.future.isDone()) {
+                if (System.nanoTime() - call.expiresAtNanos < 0) {
+                    microCacheHits.increment();
+                    return call.result();
+                }
+                calls.remove(key, call);
+                continue;
+            }
+            call.callers.incrementAndGet();
+            return call.result();
+        }
+    }
+    
+    private V load(K key, Call<V> call, Supplier<V> loader) {
+        try {
+            V value = loader.get();
+            call.expiresAtNanos = System.nanoTime() + microCacheNanos;
+            call.future.complete(value);
+            if (microCacheNanos <= 0) {
+                calls.remove(key, call);
+            }
+            return value;
+        } catch (RuntimeException | Error e) {
+            calls.remove(key, call);
+            call.future.completeExceptionally(e);
+            throw e;
+        } finally {
+            callersPerLoad.record(call.callers.get());
+        }
+    }
+    
+    private static final class Call<V> {
+        
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+        private final AtomicInteger callers = new AtomicInteger(1);
+        private volatile long expiresAtNanos;
+        
+        V result() {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw e;
+            }
+        }
+    }
+}
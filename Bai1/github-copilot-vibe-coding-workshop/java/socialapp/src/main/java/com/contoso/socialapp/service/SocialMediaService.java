@@ -1,49 +1,60 @@
 package com.contoso.socialapp.service;
 
 import com.contoso.socialapp.dto.*;
+import com.contoso.socialapp.entity.ChangeLogEntry.EntityType;
+import com.contoso.socialapp.entity.ChangeLogEntry.Operation;
 import com.contoso.socialapp.entity.Comment;
 import com.contoso.socialapp.entity.Like;
 import com.contoso.socialapp.entity.Post;
+import com.contoso.socialapp.exception.AlreadyLikedException;
+import com.contoso.socialapp.exception.CommentNotFoundException;
+import com.contoso.socialapp.exception.LikeNotFoundException;
+import com.contoso.socialapp.exception.PostNotFoundException;
 import com.contoso.socialapp.repository.CommentRepository;
 import com.contoso.socialapp.repository.LikeRepository;
 import com.contoso.socialapp.repository.PostRepository;
+import com.contoso.socialapp.shard.NewPost;
+import com.contoso.socialapp.shard.ShardedFeed;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Sort;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.ZoneOffset;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "socialapp.service", histogram = true)
 @RequiredArgsConstructor
 public class SocialMediaService {
     
     private final PostRepository postRepository;
     private final CommentRepository commentRepository;
     private final LikeRepository likeRepository;
-    
-    private static final DateTimeFormatter ISO_FORMATTER = DateTimeFormatter.ISO_DATE_TIME;
-    
-    // Helper method to format datetime to ISO format with Z
-    private String formatDateTime(java.time.LocalDateTime dateTime) {
-        if (dateTime == null) {
-            return java.time.OffsetDateTime.now(ZoneOffset.UTC).format(ISO_FORMATTER);
-        }
-        return dateTime.atOffset(ZoneOffset.UTC).format(ISO_FORMATTER);
-    }
+    private final ResponseMapper responseMapper;
+    private final PageVersions pageVersions;
+    private final ExistenceFilters existenceFilters;
+    private final FeedStream feedStream;
+    private final ChangeLog changeLog;
+    private final ShardedFeed shardedFeed;
     
     // Post methods
-    @Transactional(readOnly = true)
+    // The feed reads every shard, each in its own transaction
     public List<PostResponse> listPosts() {
-        List<Post> posts = postRepository.findAll(Sort.by(Sort.Direction.DESC, "createdAt"));
+        List<Post> posts = shardedFeed.newestFirst();
         return posts.stream()
-                .map(this::toPostResponse)
+                .map(responseMapper::toPostResponse)
                 .collect(Collectors.toList());
     }
     
+    public SerializedResponse listPostsSerialized() {
+        Object pageKey = pageVersions.feedPageKey();
+        return SerializedResponse.page(shardedFeed.newestFirst(), pageKey);
+    }
+    
+    @NewPost
     @Transactional
     public PostResponse createPost(CreatePostRequest request) {
         Post post = new Post();
@@ -53,53 +64,84 @@ public class SocialMediaService {
         post.setCommentsCount(0);
         
         Post savedPost = postRepository.save(post);
-        return toPostResponse(savedPost);
+        changeLog.record(EntityType.POST, savedPost.getId(), savedPost.getId(), Operation.CREATE);
+        existenceFilters.postAdded(savedPost.getId());
+        pageVersions.feedChanged();
+        PostResponse response = responseMapper.toPostResponse(savedPost);
+        feedStream.postChanged(response);
+        return response;
     }
     
     @Transactional(readOnly = true)
     public PostResponse getPost(Long postId) {
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new RuntimeException("Post not found"));
-        return toPostResponse(post);
+        Post post = findPost(postId)
+                .orElseThrow(PostNotFoundException::new);
+        return responseMapper.toPostResponse(post);
+    }
+    
+    @Transactional(readOnly = true)
+    public SerializedResponse getPostSerialized(Long postId) {
+        Post post = findPost(postId)
+                .orElseThrow(PostNotFoundException::new);
+        return SerializedResponse.value(post);
     }
     
     @Transactional
     public PostResponse updatePost(Long postId, UpdatePostRequest request) {
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new RuntimeException("Post not found"));
+        Post post = findPost(postId)
+                .orElseThrow(PostNotFoundException::new);
         
         post.setUsername(request.getUsername());
         post.setContent(request.getContent());
         
         Post updatedPost = postRepository.save(post);
-        return toPostResponse(updatedPost);
+        changeLog.record(EntityType.POST, postId, postId, Operation.UPDATE);
+        pageVersions.feedChanged();
+        PostResponse response = responseMapper.toPostResponse(updatedPost);
+        feedStream.postChanged(response);
+        return response;
     }
     
     @Transactional
     public void deletePost(Long postId) {
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new RuntimeException("Post not found"));
+        Post post = findPost(postId)
+                .orElseThrow(PostNotFoundException::new);
         postRepository.delete(post);
+        changeLog.record(EntityType.POST, postId, postId, Operation.DELETE);
+        pageVersions.feedChanged();
+        pageVersions.commentsChanged(postId);
+        feedStream.postDeleted(postId);
     }
     
     // Comment methods
     @Transactional(readOnly = true)
     public List<CommentResponse> listComments(Long postId) {
         // Check if post exists
-        postRepository.findById(postId)
-                .orElseThrow(() -> new RuntimeException("Post not found"));
+        findPost(postId)
+                .orElseThrow(PostNotFoundException::new);
         
         List<Comment> comments = commentRepository.findByPostIdOrderByCreatedAtAsc(postId);
         return comments.stream()
-                .map(this::toCommentResponse)
+                .map(responseMapper::toCommentResponse)
                 .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
+    public SerializedResponse listCommentsSerialized(Long postId) {
+        Object pageKey = pageVersions.commentsPageKey(postId);
+        
+        // Check if post exists
+        findPost(postId)
+                .orElseThrow(PostNotFoundException::new);
+        
+        return SerializedResponse.page(commentRepository.findByPostIdOrderByCreatedAtAsc(postId), pageKey);
+    }
+    
     @Transactional
     public CommentResponse createComment(Long postId, CreateCommentRequest request) {
         // Check if post exists
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new RuntimeException("Post not found"));
+        Post post = findPost(postId)
+                .orElseThrow(PostNotFoundException::new);
         
         Comment comment = new Comment();
         comment.setPostId(postId);
@@ -107,51 +149,72 @@ public class SocialMediaService {
         comment.setContent(request.getContent());
         
         Comment savedComment = commentRepository.save(comment);
+        changeLog.record(EntityType.COMMENT, savedComment.getId(), postId, Operation.CREATE);
+        pageVersions.commentsChanged(postId);
+        // Published first, so streams see the comment before the count it bumps
+        CommentResponse response = responseMapper.toCommentResponse(savedComment);
+        feedStream.commentCreated(response);
         
         // Update post comments count
         updatePostCounts(postId);
         
-        return toCommentResponse(savedComment);
+        return response;
     }
     
     @Transactional(readOnly = true)
     public CommentResponse getComment(Long postId, Long commentId) {
         // Check if post exists
-        postRepository.findById(postId)
-                .orElseThrow(() -> new RuntimeException("Post not found"));
+        findPost(postId)
+                .orElseThrow(PostNotFoundException::new);
+        
+        Comment comment = findComment(postId, commentId)
+                .orElseThrow(CommentNotFoundException::new);
+        
+        return responseMapper.toCommentResponse(comment);
+    }
+    
+    @Transactional(readOnly = true)
+    public SerializedResponse getCommentSerialized(Long postId, Long commentId) {
+        // Check if post exists
+        findPost(postId)
+                .orElseThrow(PostNotFoundException::new);
         
-        Comment comment = commentRepository.findByIdAndPostId(commentId, postId)
-                .orElseThrow(() -> new RuntimeException("Comment not found"));
+        Comment comment = findComment(postId, commentId)
+                .orElseThrow(CommentNotFoundException::new);
         
-        return toCommentResponse(comment);
+        return SerializedResponse.value(comment);
     }
     
     @Transactional
     public CommentResponse updateComment(Long postId, Long commentId, UpdateCommentRequest request) {
         // Check if post exists
-        postRepository.findById(postId)
-                .orElseThrow(() -> new RuntimeException("Post not found"));
+        findPost(postId)
+                .orElseThrow(PostNotFoundException::new);
         
-        Comment comment = commentRepository.findByIdAndPostId(commentId, postId)
-                .orElseThrow(() -> new RuntimeException("Comment not found"));
+        Comment comment = findComment(postId, commentId)
+                .orElseThrow(CommentNotFoundException::new);
         
         comment.setUsername(request.getUsername());
         comment.setContent(request.getContent());
         
         Comment updatedComment = commentRepository.save(comment);
-        return toCommentResponse(updatedComment);
+        changeLog.record(EntityType.COMMENT, commentId, postId, Operation.UPDATE);
+        pageVersions.commentsChanged(postId);
+        return responseMapper.toCommentResponse(updatedComment);
     }
     
     @Transactional
     public void deleteComment(Long postId, Long commentId) {
         // Check if post exists
-        postRepository.findById(postId)
-                .orElseThrow(() -> new RuntimeException("Post not found"));
+        findPost(postId)
+                .orElseThrow(PostNotFoundException::new);
         
-        Comment comment = commentRepository.findByIdAndPostId(commentId, postId)
-                .orElseThrow(() -> new RuntimeException("Comment not found"));
+        Comment comment = findComment(postId, commentId)
+                .orElseThrow(CommentNotFoundException::new);
         
         commentRepository.delete(comment);
+        changeLog.record(EntityType.COMMENT, commentId, postId, Operation.DELETE);
+        pageVersions.commentsChanged(postId);
         
         // Update post comments count
         updatePostCounts(postId);
@@ -161,42 +224,84 @@ public class SocialMediaService {
     @Transactional
     public LikeResponse likePost(Long postId, LikeRequest request) {
         // Check if post exists
-        postRepository.findById(postId)
-                .orElseThrow(() -> new RuntimeException("Post not found"));
+        findPost(postId)
+                .orElseThrow(PostNotFoundException::new);
         
         // Check if user already liked this post
-        if (likeRepository.existsByPostIdAndUsername(postId, request.getUsername())) {
-            throw new RuntimeException("User already liked this post");
+        if (existenceFilters.mightContainLike(postId, request.getUsername())) {
+            if (likeRepository.existsByPostIdAndUsername(postId, request.getUsername())) {
+                throw new AlreadyLikedException();
+            }
+            existenceFilters.likeFalsePositive();
         }
         
         Like like = new Like();
         like.setPostId(postId);
         like.setUsername(request.getUsername());
         
-        Like savedLike = likeRepository.save(like);
+        Like savedLike;
+        try {
+            savedLike = likeRepository.save(like);
+        } catch (DataIntegrityViolationException e) {
+            // The same like committed by a concurrent request after the check above
+            throw new AlreadyLikedException();
+        }
+        changeLog.record(EntityType.LIKE, savedLike.getId(), postId, Operation.CREATE);
+        existenceFilters.likeAdded(postId, request.getUsername());
         
         // Update post likes count
         updatePostCounts(postId);
         
-        return toLikeResponse(savedLike);
+        return responseMapper.toLikeResponse(savedLike);
     }
     
     @Transactional
     public void unlikePost(Long postId, LikeRequest request) {
         // Check if post exists
-        postRepository.findById(postId)
-                .orElseThrow(() -> new RuntimeException("Post not found"));
+        findPost(postId)
+                .orElseThrow(PostNotFoundException::new);
         
-        Like like = likeRepository.findByPostIdAndUsername(postId, request.getUsername())
-                .orElseThrow(() -> new RuntimeException("Like not found"));
+        Like like = findLike(postId, request.getUsername())
+                .orElseThrow(LikeNotFoundException::new);
         
         likeRepository.delete(like);
+        changeLog.record(EntityType.LIKE, like.getId(), postId, Operation.DELETE);
         
         // Update post likes count
         updatePostCounts(postId);
     }
     
     // Helper methods
+    
+    // A definite negative from the existence filter answers without a query
+    private Optional<Post> findPost(Long postId) {
+        if (!existenceFilters.mightContainPost(postId)) {
+            return Optional.empty();
+        }
+        Optional<Post> post = postRepository.findById(postId);
+        if (post.isEmpty()) {
+            existenceFilters.postFalsePositive();
+        }
+        return post;
+    }
+    
+    private Optional<Like> findLike(Long postId, String username) {
+        if (!existenceFilters.mightContainLike(postId, username)) {
+            return Optional.empty();
+        }
+        Optional<Like> like = likeRepository.findByPostIdAndUsername(postId, username);
+        if (like.isEmpty()) {
+            existenceFilters.likeFalsePositive();
+        }
+        return like;
+    }
+    
+    // Lookup by id goes through the second-level cache; findByIdAndPostId would always query
+    private Optional<Comment> findComment(Long postId, Long commentId) {
+        return commentRepository.findById(commentId)
+                .filter(comment -> postId.equals(comment.getPostId()));
+    }
+    
     private void updatePostCounts(Long postId) {
         Post post = postRepository.findById(postId).orElseThrow();
         
@@ -207,37 +312,8 @@ public class SocialMediaService {
         post.setCommentsCount((int) commentsCount);
         
         postRepository.save(post);
-    }
-    
-    private PostResponse toPostResponse(Post post) {
-        PostResponse response = new PostResponse();
-        response.setId(post.getId());
-        response.setUsername(post.getUsername());
-        response.setContent(post.getContent());
-        response.setCreatedAt(formatDateTime(post.getCreatedAt()));
-        response.setUpdatedAt(formatDateTime(post.getUpdatedAt()));
-        response.setLikesCount(post.getLikesCount());
-        response.setCommentsCount(post.getCommentsCount());
-        return response;
-    }
-    
-    private CommentResponse toCommentResponse(Comment comment) {
-        CommentResponse response = new CommentResponse();
-        response.setId(comment.getId());
-        response.setPostId(comment.getPostId());
-        response.setUsername(comment.getUsername());
-        response.setContent(comment.getContent());
-        response.setCreatedAt(formatDateTime(comment.getCreatedAt()));
-        response.setUpdatedAt(formatDateTime(comment.getUpdatedAt()));
-        return response;
-    }
-    
-    private LikeResponse toLikeResponse(Like like) {
-        LikeResponse response = new LikeResponse();
-        response.setId(like.getId());
-        response.setPostId(like.getPostId());
-        response.setUsername(like.getUsername());
-        response.setCreatedAt(formatDateTime(like.getCreatedAt()));
-        return response;
+        changeLog.record(EntityType.POST, postId, postId, Operation.UPDATE);
+        pageVersions.feedChanged();
+        feedStream.countsChanged(new PostCountsResponse(postId, post.getLikesCount(), post.getCommentsCount()));
     }
 }
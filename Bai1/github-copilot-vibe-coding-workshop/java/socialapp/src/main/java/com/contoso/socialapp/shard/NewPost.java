@@ -0,0 +1,15 @@
+package com.contoso.socialapp.shard;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a service method that creates a post, so {@link ShardRouting} picks the shard
+ * the post will live on.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface NewPost {
+}
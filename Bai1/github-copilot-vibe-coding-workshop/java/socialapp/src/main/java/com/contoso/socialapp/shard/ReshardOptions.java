@@ -0,0 +1,67 @@
+package com.contoso.socialapp.shard;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Command-line options of the reshard tool, all given as {@code --name=value}.
+ */
+public record ReshardOptions(
+        Path database,
+        int fromShards,
+        Path target,
+        int toShards,
+        int batchSize) {
+    
+    private static final Set<String> NAMES = Set.of("database", "from-shards", "target", "to-shards", "batch-size");
+    
+    public static final String USAGE = """
+            Options (all --name=value):
+              --database=sns_api.db        database path as in spring.datasource.url, without jdbc:sqlite:
+              --from-shards=1              app.sharding.shards the database was written with
+              --target=<path>              database path to write; its shard files must not exist yet
+              --to-shards=<n>              app.sharding.shards to run with afterwards
+              --batch-size=10000           rows per JDBC batch
+            """;
+    
+    public static ReshardOptions parse(String... args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got '" + arg + "'");
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            if (!NAMES.contains(name)) {
+                throw new IllegalArgumentException("Unknown option --" + name);
+            }
+            values.put(name, arg.substring(arg.indexOf('=') + 1));
+        }
+        if (!values.containsKey("target") || !values.containsKey("to-shards")) {
+            throw new IllegalArgumentException("--target and --to-shards are required");
+        }
+        ReshardOptions options = new ReshardOptions(
+                Path.of(values.getOrDefault("database", "sns_api.db")),
+                Integer.parseInt(values.getOrDefault("from-shards", "1")),
+                Path.of(values.get("target")),
+                Integer.parseInt(values.get("to-shards")),
+                Integer.parseInt(values.getOrDefault("batch-size", "10000")));
+        if (options.fromShards() < 1 || options.toShards() < 1 || options.batchSize() <= 0) {
+            throw new IllegalArgumentException("--from-shards, --to-shards and --batch-size must be positive");
+        }
+        return options;
+    }
+    
+    public Path sourceFile(int shard) {
+        return file(database, shard, fromShards);
+    }
+    
+    public Path targetFile(int shard) {
+        return file(target, shard, toShards);
+    }
+    
+    private static Path file(Path database, int shard, int shards) {
+        return shards == 1 ? database : Path.of(Shards.shardUrl(database.toString(), shard));
+    }
+}
@@ -0,0 +1,214 @@
+package com.contoso.socialapp.shard;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Offline move of a database from one shard count to another, run while the app is
+ * stopped. The schema of the first source file is created in fresh target files, then
+ * every post is copied to the shard its id now maps to and every comment and like to
+ * its post's shard. The change log is not carried over, so clients' delta cursors
+ * expire and they reload once. Target shards get an id floor above every copied id:
+ * moved comments and likes keep ids of the old layout, and new ids must not meet them.
+ */
+public final class ReshardTool {
+    
+    private static final String POSTS = "posts";
+    private static final String CHANGE_LOG = "change_log";
+    
+    private ReshardTool() {
+    }
+    
+    public static void main(String[] args) throws Exception {
+        ReshardOptions options;
+        try {
+            options = ReshardOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(ReshardOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+        
+        System.out.printf("Resharding %s from %d to %d shard(s) into %s%n", options.database().toAbsolutePath(),
+                options.fromShards(), options.toShards(), options.target().toAbsolutePath());
+        long started = System.nanoTime();
+        Map<String, long[]> copied = reshard(options);
+        copied.forEach((table, rows) -> System.out.printf("  %-10s %,12d rows  %s%n", table,
+                Arrays.stream(rows).sum(), Arrays.stream(rows).mapToObj(n -> String.format("%,d", n))
+                        .collect(Collectors.joining(" / "))));
+        System.out.printf("Done in %.1f s; start the app with app.sharding.shards=%d and the datasource URL "
+                + "jdbc:sqlite:%s%n", (System.nanoTime() - started) / 1e9, options.toShards(), options.target());
+    }
+    
+    /**
+     * Copies the data and returns, per table, the rows written to each target shard.
+     */
+    public static Map<String, long[]> reshard(ReshardOptions options) throws SQLException {
+        for (int shard = 0; shard < options.fromShards(); shard++) {
+            if (!Files.isRegularFile(options.sourceFile(shard))) {
+                throw new IllegalArgumentException("Source shard file " + options.sourceFile(shard) + " does not exist");
+            }
+        }
+        for (int shard = 0; shard < options.toShards(); shard++) {
+            if (Files.exists(options.targetFile(shard))) {
+                throw new IllegalArgumentException("Target shard file " + options.targetFile(shard) + " already exists");
+            }
+        }
+        
+        List<Connection> sources = new ArrayList<>();
+        List<Connection> targets = new ArrayList<>();
+        try {
+            for (int shard = 0; shard < options.fromShards(); shard++) {
+                Connection source = open(options.sourceFile(shard));
+                sources.add(source);
+                checkLayout(source, shard, options);
+            }
+            for (int shard = 0; shard < options.toShards(); shard++) {
+                Connection target = open(options.targetFile(shard));
+                targets.add(target);
+                try (Statement statement = target.createStatement()) {
+                    // Fresh files: a failed run is simply deleted and repeated
+                    statement.execute("pragma journal_mode = off");
+                    statement.execute("pragma synchronous = off");
+                }
+                target.setAutoCommit(false);
+            }
+            
+            List<String> tables = copySchema(sources.get(0), targets);
+            Map<String, long[]> copied = new LinkedHashMap<>();
+            long maxId = 0;
+            for (String table : tables) {
+                if (table.equals(CHANGE_LOG)) {
+                    continue;
+                }
+                long[] rows = new long[targets.size()];
+                for (Connection source : sources) {
+                    maxId = Math.max(maxId, copyRows(table, source, targets, rows, options.batchSize()));
+                }
+                copied.put(table, rows);
+            }
+            if (targets.size() > 1) {
+                for (int shard = 0; shard < targets.size(); shard++) {
+                    ShardCatalog.write(targets.get(shard), shard, targets.size(), maxId);
+                }
+            }
+            for (Connection target : targets) {
+                target.commit();
+            }
+            return copied;
+        } finally {
+            for (Connection connection : sources) {
+                connection.close();
+            }
+            for (Connection connection : targets) {
+                connection.close();
+            }
+        }
+    }
+    
+    private static Connection open(Path file) throws SQLException {
+        return DriverManager.getConnection("jdbc:sqlite:" + file);
+    }
+    
+    // A file from another layout would put posts on the wrong shards
+    private static void checkLayout(Connection source, int shard, ReshardOptions options) throws SQLException {
+        int[] layout = ShardCatalog.layout(source);
+        boolean matches = layout == null
+                ? options.fromShards() == 1
+                : layout[0] == shard && layout[1] == options.fromShards();
+        if (!matches) {
+            throw new IllegalStateException(String.format("%s was written as %s, not as shard %d of %d",
+                    options.sourceFile(shard), layout == null ? "a single database"
+                            : "shard " + layout[0] + " of " + layout[1], shard, options.fromShards()));
+        }
+    }
+    
+    // Tables before indexes; returns the tables
+    private static List<String> copySchema(Connection source, List<Connection> targets) throws SQLException {
+        List<String> tables = new ArrayList<>();
+        try (Statement statement = source.createStatement();
+             ResultSet schema = statement.executeQuery("select type, name, sql from sqlite_master "
+                     + "where sql is not null and name not like 'sqlite_%' and name <> 'shard_info' "
+                     + "order by type <> 'table', rowid")) {
+            while (schema.next()) {
+                if (schema.getString(1).equals("table")) {
+                    tables.add(schema.getString(2));
+                }
+                for (Connection target : targets) {
+                    try (Statement create = target.createStatement()) {
+                        create.execute(schema.getString(3));
+                    }
+                }
+            }
+        }
+        return tables;
+    }
+    
+    // Returns the largest id copied, or 0 if the table has no id column
+    private static long copyRows(String table, Connection source, List<Connection> targets, long[] rows,
+                                 int batchSize) throws SQLException {
+        try (Statement statement = source.createStatement();
+             ResultSet result = statement.executeQuery("select * from " + table)) {
+            ResultSetMetaData columns = result.getMetaData();
+            List<String> names = new ArrayList<>();
+            for (int column = 1; column <= columns.getColumnCount(); column++) {
+                names.add(columns.getColumnName(column));
+            }
+            String placement = table.equals(POSTS) ? "id" : "post_id";
+            if (!names.contains(placement)) {
+                throw new IllegalStateException("Table " + table + " has no " + placement + " column to place its rows by");
+            }
+            int placementColumn = names.indexOf(placement) + 1;
+            int idColumn = names.indexOf("id") + 1;
+            String insert = "insert into " + table + " (" + String.join(", ", names) + ") values ("
+                    + names.stream().map(name -> "?").collect(Collectors.joining(", ")) + ")";
+            
+            List<PreparedStatement> inserts = new ArrayList<>();
+            int[] pending = new int[targets.size()];
+            long maxId = 0;
+            try {
+                for (Connection target : targets) {
+                    inserts.add(target.prepareStatement(insert));
+                }
+                while (result.next()) {
+                    int shard = Math.floorMod(result.getLong(placementColumn), targets.size());
+                    PreparedStatement row = inserts.get(shard);
+                    for (int column = 1; column <= names.size(); column++) {
+                        row.setObject(column, result.getObject(column));
+                    }
+                    row.addBatch();
+                    rows[shard]++;
+                    if (idColumn > 0) {
+                        maxId = Math.max(maxId, result.getLong(idColumn));
+                    }
+                    if (++pending[shard] == batchSize) {
+                        row.executeBatch();
+                        pending[shard] = 0;
+                    }
+                }
+                for (PreparedStatement row : inserts) {
+                    row.executeBatch();
+                }
+            } finally {
+                for (PreparedStatement row : inserts) {
+                    row.close();
+                }
+            }
+            return maxId;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.contoso.socialapp.shard;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * The {@code shard_info} row every shard file carries: which shard of how many it is, and
+ * the id floor left by resharding. Files written for a different shard count are refused
+ * at startup rather than served with posts on the wrong shard.
+ */
+public final class ShardCatalog {
+    
+    static final String CREATE_TABLE = "create table if not exists shard_info "
+            + "(shard integer not null, shards integer not null, id_floor integer not null)";
+    
+    private ShardCatalog() {
+    }
+    
+    public static void prepare(DataSource dataSource, int shard, int shards) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_TABLE);
+            int[] layout = layout(connection);
+            if (layout == null) {
+                write(connection, shard, shards, 0);
+            } else if (layout[0] != shard || layout[1] != shards) {
+                throw new IllegalStateException(String.format(
+                        "Database of shard %d was written as shard %d of %d, but app.sharding.shards=%d; "
+                                + "run the reshard task to move the data", shard, layout[0], layout[1], shards));
+            }
+        }
+    }
+    
+    // Shard number and shard count recorded in the file, or null if it has none
+    static int[] layout(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet table = statement.executeQuery(
+                     "select 1 from sqlite_master where type = 'table' and name = 'shard_info'")) {
+            if (!table.next()) {
+                return null;
+            }
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet info = statement.executeQuery("select shard, shards from shard_info")) {
+            return info.next() ? new int[] {info.getInt(1), info.getInt(2)} : null;
+        }
+    }
+    
+    static void write(Connection connection, int shard, int shards, long idFloor) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_TABLE);
+            statement.execute("delete from shard_info");
+        }
+        try (PreparedStatement insert = connection.prepareStatement(
+                "insert into shard_info (shard, shards, id_floor) values (?, ?, ?)")) {
+            insert.setInt(1, shard);
+            insert.setInt(2, shards);
+            insert.setLong(3, idFloor);
+            insert.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.contoso.socialapp.shard;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Routes every public {@code SocialMediaService} method to a shard before its transaction
+ * opens: methods with a {@code postId} parameter go to that post's shard, methods marked
+ * {@link NewPost} to the next shard in turn. Everything else runs unrouted and reads the
+ * shards it needs itself.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 200)
+public class ShardRouting {
+    
+    private static final int NO_POST_ID = -1;
+    
+    private static final DefaultParameterNameDiscoverer PARAMETER_NAMES = new DefaultParameterNameDiscoverer();
+    
+    private final Shards shards;
+    private final Map<Method, Integer> postIdIndexes = new ConcurrentHashMap<>();
+    
+    public ShardRouting(Shards shards) {
+        this.shards = shards;
+    }
+    
+    @Around("execution(public * com.contoso.socialapp.service.SocialMediaService.*(..))")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (shards.count() == 1) {
+            return joinPoint.proceed();
+        }
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        int postIdIndex = postIdIndexes.computeIfAbsent(method, ShardRouting::postIdIndex);
+        int shard;
+        if (postIdIndex != NO_POST_ID && joinPoint.getArgs()[postIdIndex] instanceof Long postId) {
+            shard = shards.shardOf(postId);
+        } else if (method.isAnnotationPresent(NewPost.class)) {
+            shard = shards.nextShard();
+        } else {
+            return joinPoint.proceed();
+        }
+        return shards.on(shard, () -> proceed(joinPoint));
+    }
+    
+    private static Object proceed(ProceedingJoinPoint joinPoint) {
+        try {
+            return joinPoint.proceed();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private static int postIdIndex(Method method) {
+        String[] names = PARAMETER_NAMES.getParameterNames(method);
+        if (names != null) {
+            for (int i = 0; i < names.length; i++) {
+                if ("postId".equals(names[i])) {
+                    return i;
+                }
+            }
+        }
+        return NO_POST_ID;
+    }
+}
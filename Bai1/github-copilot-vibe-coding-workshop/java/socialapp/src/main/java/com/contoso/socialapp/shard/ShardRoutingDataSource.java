@@ -0,0 +1,41 @@
+package com.contoso.socialapp.shard;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hands out connections from the pool of the shard the current thread is routed to.
+ * The shard is read when a transaction takes its connection, so routing has to be in
+ * place before the transaction starts and cannot change inside it.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+    
+    private final List<HikariDataSource> pools;
+    
+    public ShardRoutingDataSource(List<HikariDataSource> pools) {
+        this.pools = List.copyOf(pools);
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < pools.size(); shard++) {
+            targets.put(shard, pools.get(shard));
+        }
+        setTargetDataSources(targets);
+        // Hibernate's bootstrap and anything else unrouted
+        setDefaultTargetDataSource(pools.get(0));
+        setLenientFallback(false);
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return Shards.current();
+    }
+    
+    @Override
+    public void destroy() {
+        pools.forEach(HikariDataSource::close);
+    }
+}
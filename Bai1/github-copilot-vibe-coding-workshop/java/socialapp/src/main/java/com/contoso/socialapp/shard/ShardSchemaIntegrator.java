@@ -0,0 +1,36 @@
+package com.contoso.socialapp.shard;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+
+/**
+ * Applies Hibernate's schema action ({@code ddl-auto}) to every shard but the first,
+ * which Hibernate handles itself through the unrouted bootstrap connection.
+ */
+@RequiredArgsConstructor
+public class ShardSchemaIntegrator implements Integrator {
+    
+    private final Shards shards;
+    
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        ServiceRegistry serviceRegistry = sessionFactory.getServiceRegistry();
+        var settings = serviceRegistry.requireService(ConfigurationService.class).getSettings();
+        for (int shard = 1; shard < shards.count(); shard++) {
+            // Drops on shutdown (create-drop) are only run for the first shard
+            shards.on(shard, () -> SchemaManagementToolCoordinator.process(metadata, serviceRegistry, settings,
+                    action -> { }));
+        }
+    }
+    
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+}
@@ -0,0 +1,98 @@
+package com.contoso.socialapp.shard;
+
+import com.contoso.socialapp.config.ShardingProperties;
+import com.contoso.socialapp.entity.Post;
+import com.contoso.socialapp.repository.PostRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * All posts, newest first, merged from the shards. Each shard is read through a keyset
+ * cursor on {@code (created_at, id)} a page at a time, and the cursors are merged on a
+ * heap, so no shard is read further than the merge has consumed plus one page.
+ */
+@Component
+public class ShardedFeed {
+    
+    static final Comparator<Post> NEWEST_FIRST = Comparator.comparing(Post::getCreatedAt)
+            .thenComparing(Post::getId)
+            .reversed();
+    
+    private static final Sort NEWEST_FIRST_SORT = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+    
+    private final Shards shards;
+    private final PostRepository postRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int pageSize;
+    
+    public ShardedFeed(Shards shards, PostRepository postRepository, PlatformTransactionManager transactionManager,
+                       ShardingProperties properties) {
+        this.shards = shards;
+        this.postRepository = postRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.pageSize = properties.getFeedPageSize();
+    }
+    
+    public List<Post> newestFirst() {
+        if (shards.count() == 1) {
+            return readOnlyTransaction.execute(status -> postRepository.findAll(NEWEST_FIRST_SORT));
+        }
+        PriorityQueue<Cursor> heads = new PriorityQueue<>(Comparator.comparing(Cursor::head, NEWEST_FIRST));
+        for (int shard = 0; shard < shards.count(); shard++) {
+            Cursor cursor = new Cursor(shard);
+            if (cursor.advance()) {
+                heads.add(cursor);
+            }
+        }
+        List<Post> posts = new ArrayList<>();
+        while (!heads.isEmpty()) {
+            Cursor cursor = heads.poll();
+            posts.add(cursor.head());
+            if (cursor.advance()) {
+                heads.add(cursor);
+            }
+        }
+        return posts;
+    }
+    
+    private class Cursor {
+        
+        private final int shard;
+        private List<Post> page = List.of();
+        private int index = -1;
+        private boolean lastPage;
+        
+        Cursor(int shard) {
+            this.shard = shard;
+        }
+        
+        Post head() {
+            return page.get(index);
+        }
+        
+        boolean advance() {
+            if (++index < page.size()) {
+                return true;
+            }
+            if (lastPage) {
+                return false;
+            }
+            Post last = page.isEmpty() ? null : page.get(page.size() - 1);
+            page = shards.on(shard, () -> readOnlyTransaction.execute(status -> last == null
+                    ? postRepository.findAllByOrderByCreatedAtDescIdDesc(Limit.of(pageSize))
+                    : postRepository.findFeedPageBefore(last.getCreatedAt(), last.getId(), Limit.of(pageSize))));
+            index = 0;
+            lastPage = page.size() < pageSize;
+            return !page.isEmpty();
+        }
+    }
+}
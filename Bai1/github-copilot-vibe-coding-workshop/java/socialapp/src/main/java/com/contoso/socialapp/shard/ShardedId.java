@@ -0,0 +1,17 @@
+package com.contoso.socialapp.shard;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Database-assigned id that is unique across shards; see {@link ShardedIdentityGenerator}.
+ */
+@IdGeneratorType(ShardedIdentityGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface ShardedId {
+}
@@ -0,0 +1,47 @@
+package com.contoso.socialapp.shard;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.id.IdentityGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+import org.hibernate.mapping.Column;
+
+import java.lang.reflect.Member;
+
+/**
+ * Identity column that, with more than one shard, is computed by the insert itself: the
+ * smallest id above both the table's largest id and the reshard floor that is congruent
+ * to the shard number modulo the shard count. Ids therefore never collide across shards
+ * and a post's id names its shard. The insert holds the shard's write lock, so no other
+ * writer can take the same id, and like a plain identity nothing is read beforehand.
+ * With one shard this is an ordinary identity column.
+ */
+public class ShardedIdentityGenerator extends IdentityGenerator {
+    
+    public static final String SHARDS_SETTING = "socialapp.sharding.shards";
+    
+    private final String nextId;
+    
+    public ShardedIdentityGenerator(ShardedId config, Member member, CustomIdGeneratorCreationContext context) {
+        int shards = context.getServiceRegistry().requireService(ConfigurationService.class)
+                .getSetting(SHARDS_SETTING, StandardConverters.INTEGER, 1);
+        String table = context.getPersistentClass().getTable().getName();
+        Column column = context.getProperty().getColumns().get(0);
+        // Hibernate only does this for its own identity generator; on SQLite it makes the id the rowid
+        column.setIdentity(true);
+        this.nextId = shards == 1 ? null
+                : "(select m + 1 + ((s - m - 1) % n + n) % n from (select max(coalesce((select max(" + column.getName()
+                        + ") from " + table + "), 0), id_floor) as m, shard as s, shards as n from shard_info))";
+    }
+    
+    @Override
+    public boolean referenceColumnsInSql(Dialect dialect) {
+        return nextId != null || super.referenceColumnsInSql(dialect);
+    }
+    
+    @Override
+    public String[] getReferencedColumnValues(Dialect dialect) {
+        return nextId != null ? new String[] {nextId} : super.getReferencedColumnValues(dialect);
+    }
+}
@@ -0,0 +1,101 @@
+package com.contoso.socialapp.shard;
+
+import com.contoso.socialapp.config.ShardingProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Placement of posts on shards and the shard the current thread talks to. A post lives
+ * on the shard given by its id modulo the shard count, which the id generator keeps true
+ * for new posts; comments and likes live with their post. Code that runs without a shard
+ * uses the first one.
+ */
+@Component
+public class Shards {
+    
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+    
+    private final int count;
+    private final AtomicInteger nextShard = new AtomicInteger();
+    
+    public Shards(ShardingProperties properties) {
+        if (properties.getShards() < 1) {
+            throw new IllegalArgumentException("app.sharding.shards must be at least 1");
+        }
+        this.count = properties.getShards();
+    }
+    
+    public int count() {
+        return count;
+    }
+    
+    public int shardOf(long postId) {
+        return (int) Math.floorMod(postId, (long) count);
+    }
+    
+    // New posts go round-robin, so shards fill evenly whatever the id pattern
+    public int nextShard() {
+        return Math.floorMod(nextShard.getAndIncrement(), count);
+    }
+    
+    public <T> T on(int shard, Supplier<T> action) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return action.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+    
+    public void on(int shard, Runnable action) {
+        on(shard, () -> {
+            action.run();
+            return null;
+        });
+    }
+    
+    /**
+     * Runs the action once per shard, in shard order, routed to that shard.
+     */
+    public void forEachShard(IntConsumer action) {
+        for (int shard = 0; shard < count; shard++) {
+            int current = shard;
+            on(shard, () -> action.accept(current));
+        }
+    }
+    
+    public long sum(LongSupplier perShard) {
+        long sum = 0;
+        for (int shard = 0; shard < count; shard++) {
+            sum += on(shard, perShard::getAsLong);
+        }
+        return sum;
+    }
+    
+    static Integer current() {
+        return CURRENT.get();
+    }
+    
+    /**
+     * The URL of one shard next to the single-database URL: {@code sns_api.db} becomes
+     * {@code sns_api.shard2.db}, and URI options after {@code ?} are kept.
+     */
+    public static String shardUrl(String url, int shard) {
+        int options = url.indexOf('?');
+        String path = options < 0 ? url : url.substring(0, options);
+        String rest = options < 0 ? "" : url.substring(options);
+        String suffix = ".shard" + shard;
+        return path.endsWith(".db")
+                ? path.substring(0, path.length() - 3) + suffix + ".db" + rest
+                : path + suffix + rest;
+    }
+}
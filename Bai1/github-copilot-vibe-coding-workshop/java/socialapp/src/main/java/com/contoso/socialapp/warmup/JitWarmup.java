@@ -0,0 +1,265 @@
+package com.contoso.socialapp.warmup;
+
+import com.contoso.socialapp.config.WarmupProperties;
+import com.contoso.socialapp.dto.LikeRequest;
+import com.contoso.socialapp.entity.Post;
+import com.contoso.socialapp.exception.DomainException;
+import com.contoso.socialapp.repository.PostRepository;
+import com.contoso.socialapp.service.ExistenceFilters;
+import com.contoso.socialapp.service.SocialMediaService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives the hot endpoints through the running server right after startup so that C2
+ * has compiled the Tomcat, Jackson, Hibernate and controller paths before the first
+ * real request. Reads go over loopback HTTP in JSON and CBOR, with and without gzip;
+ * like and unlike run through the service in a transaction that is rolled back, on a
+ * post created in that transaction when the database has none yet. Reports
+ * {@code OUT_OF_SERVICE} until the warmup is over, which keeps the readiness group down.
+ */
+@Slf4j
+@Component
+public class JitWarmup implements HealthIndicator {
+    
+    private static final String USERNAME = "jit-warmup";
+    private static final List<String> ENDPOINTS = List.of("listPosts", "getPost", "listComments", "likeUnlike");
+    
+    private enum State { PENDING, RUNNING, DONE, SKIPPED, FAILED }
+    
+    private final WarmupProperties properties;
+    private final SocialMediaService socialMediaService;
+    private final PostRepository postRepository;
+    private final ExistenceFilters existenceFilters;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate rolledBackTransaction;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Map<String, LatencyWindows> latencies = new LinkedHashMap<>();
+    private final LatencyWindows rounds;
+    
+    private volatile State state = State.PENDING;
+    private volatile long iterations;
+    private volatile long durationNanos;
+    private volatile boolean stable;
+    private volatile String failure;
+    
+    public JitWarmup(WarmupProperties properties, SocialMediaService socialMediaService, PostRepository postRepository,
+                     ExistenceFilters existenceFilters, ObjectMapper objectMapper,
+                     PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.socialMediaService = socialMediaService;
+        this.postRepository = postRepository;
+        this.existenceFilters = existenceFilters;
+        this.objectMapper = objectMapper;
+        this.rolledBackTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.rounds = new LatencyWindows(properties.getWindow(), properties.getTolerance());
+        for (String endpoint : ENDPOINTS) {
+            LatencyWindows windows = new LatencyWindows(properties.getWindow(), properties.getTolerance());
+            latencies.put(endpoint, windows);
+            TimeGauge.builder("socialapp.warmup.latency", windows, TimeUnit.NANOSECONDS, LatencyWindows::firstNanos)
+                    .description("Latency of the first warmup call of the endpoint")
+                    .tags("endpoint", endpoint, "phase", "first")
+                    .register(meterRegistry);
+            TimeGauge.builder("socialapp.warmup.latency", windows, TimeUnit.NANOSECONDS, LatencyWindows::warmNanos)
+                    .description("Median latency of the endpoint over the last warmup window")
+                    .tags("endpoint", endpoint, "phase", "warm")
+                    .register(meterRegistry);
+        }
+        TimeGauge.builder("socialapp.warmup.duration", this, TimeUnit.NANOSECONDS, warmup -> warmup.durationNanos)
+                .description("Time spent warming up before reporting ready")
+                .register(meterRegistry);
+        Gauge.builder("socialapp.warmup.iterations", this, warmup -> warmup.iterations)
+                .description("Rounds of the endpoint mix run during warmup")
+                .register(meterRegistry);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start(ApplicationReadyEvent event) {
+        // Mock web environments have no server to call
+        if (!properties.isEnabled() || !(event.getApplicationContext() instanceof WebServerApplicationContext context)) {
+            state = State.SKIPPED;
+            return;
+        }
+        String baseUrl = "http://localhost:" + context.getWebServer().getPort()
+                + context.getEnvironment().getProperty("server.servlet.context-path", "");
+        Thread thread = new Thread(() -> run(baseUrl), "jit-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    @Override
+    public Health health() {
+        State current = state;
+        Health.Builder health = switch (current) {
+            case PENDING, RUNNING -> Health.outOfService();
+            case DONE, SKIPPED, FAILED -> Health.up();
+        };
+        health.withDetail("state", current.name().toLowerCase());
+        if (current == State.SKIPPED || current == State.PENDING) {
+            return health.build();
+        }
+        health.withDetail("iterations", iterations)
+                .withDetail("durationMs", TimeUnit.NANOSECONDS.toMillis(durationNanos))
+                .withDetail("stable", stable);
+        if (failure != null) {
+            health.withDetail("error", failure);
+        }
+        Map<String, Map<String, Double>> endpoints = new LinkedHashMap<>();
+        latencies.forEach((endpoint, windows) -> {
+            // A warmup that failed early has not reached every endpoint
+            if (windows.samples() > 0) {
+                endpoints.put(endpoint, Map.of(
+                        "firstMs", millis(windows.firstNanos()), "warmMs", millis(windows.warmNanos())));
+            }
+        });
+        return health.withDetail("latency", endpoints).build();
+    }
+    
+    private void run(String baseUrl) {
+        state = State.RUNNING;
+        long started = System.nanoTime();
+        long deadline = started + properties.getMaxDuration().toNanos();
+        try (HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build()) {
+            // Without posts the reads still warm the 404 path, and like and unlike use a throwaway post
+            List<Long> postIds = recentPostIds();
+            for (int i = 0; i < properties.getMaxIterations(); i++) {
+                Long postId = postIds.isEmpty() ? null : postIds.get(i % postIds.size());
+                String accept = i % 4 == 3 ? MediaType.APPLICATION_CBOR_VALUE : MediaType.APPLICATION_JSON_VALUE;
+                String encoding = i % 2 == 0 ? "gzip" : "identity";
+                long round = time("listPosts", () -> get(client, baseUrl + "/posts", accept, encoding))
+                        + time("getPost", () -> get(client, baseUrl + "/posts/" + readId(postId), accept, encoding))
+                        + time("listComments", () -> get(client, baseUrl + "/posts/" + readId(postId) + "/comments",
+                                accept, encoding))
+                        + time("likeUnlike", () -> likeAndUnlike(postId));
+                rounds.record(round);
+                iterations = i + 1;
+                durationNanos = System.nanoTime() - started;
+                stable = rounds.isStable();
+                if ((iterations >= properties.getMinIterations() && stable) || System.nanoTime() > deadline) {
+                    break;
+                }
+            }
+            state = State.DONE;
+        } catch (RuntimeException e) {
+            // A broken warmup must not keep the instance out of service
+            failure = e.toString();
+            state = State.FAILED;
+            log.warn("JIT warmup failed after {} rounds", iterations, e);
+        } finally {
+            durationNanos = System.nanoTime() - started;
+            latencies.values().forEach(LatencyWindows::finish);
+        }
+        if (state == State.DONE) {
+            StringBuilder summary = new StringBuilder();
+            latencies.forEach((endpoint, windows) -> {
+                if (windows.samples() > 0) {
+                    summary.append(String.format(" %s %.1f -> %.2f ms;", endpoint,
+                            millis(windows.firstNanos()), millis(windows.warmNanos())));
+                }
+            });
+            log.info("JIT warmup finished after {} rounds in {} ms ({}):{}", iterations,
+                    TimeUnit.NANOSECONDS.toMillis(durationNanos), stable ? "stable" : "not stable", summary);
+        }
+    }
+    
+    // Unrouted, so with shards these come from the first one, where the rolled-back like transaction also runs
+    private List<Long> recentPostIds() {
+        return readOnlyTransaction.execute(status -> postRepository
+                .findAll(PageRequest.of(0, properties.getPosts(), Sort.by(Sort.Direction.DESC, "createdAt")))
+                .map(Post::getId)
+                .toList());
+    }
+    
+    private long time(String endpoint, Runnable call) {
+        long started = System.nanoTime();
+        call.run();
+        long nanos = System.nanoTime() - started;
+        latencies.get(endpoint).record(nanos);
+        return nanos;
+    }
+    
+    // Status is not checked: a 404 warms the problem-detail path just the same
+    private static void get(HttpClient client, String url, String accept, String encoding) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header(HttpHeaders.ACCEPT, accept)
+                .header(HttpHeaders.ACCEPT_ENCODING, encoding)
+                .timeout(Duration.ofSeconds(30))
+                .build();
+        try {
+            client.send(request, HttpResponse.BodyHandlers.discarding());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during warmup", e);
+        }
+    }
+    
+    private static long readId(Long postId) {
+        return postId == null ? 1L : postId;
+    }
+    
+    // Nothing is committed, so the after-commit filter and page-version updates never run
+    private void likeAndUnlike(Long postId) {
+        rolledBackTransaction.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            Long target = postId == null ? throwawayPost() : postId;
+            LikeRequest request = new LikeRequest(USERNAME);
+            try {
+                objectMapper.writeValueAsBytes(socialMediaService.likePost(target, request));
+                socialMediaService.unlikePost(target, request);
+            } catch (DomainException e) {
+                // Post deleted since the ids were read, or the warmup user is a real one
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+    
+    // Saved unrouted, so with shards it is on the first one with the transaction, and its id says so
+    private Long throwawayPost() {
+        Post post = new Post();
+        post.setUsername(USERNAME);
+        post.setContent("JIT warmup");
+        Long postId = postRepository.saveAndFlush(post).getId();
+        existenceFilters.postAdded(postId);
+        return postId;
+    }
+    
+    private static double millis(double nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
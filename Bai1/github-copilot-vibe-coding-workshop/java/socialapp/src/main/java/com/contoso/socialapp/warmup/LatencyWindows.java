@@ -0,0 +1,74 @@
+package com.contoso.socialapp.warmup;
+
+import java.util.Arrays;
+
+/**
+ * Latency samples grouped into fixed windows. Latency counts as stable once the medians
+ * of two consecutive windows are within the tolerance of each other. The first sample
+ * and the latest window median can be read from other threads.
+ */
+final class LatencyWindows {
+    
+    private final long[] window;
+    private final double tolerance;
+    
+    private int filled;
+    private long samples;
+    private long previousMedian = -1;
+    private boolean stable;
+    private volatile double firstNanos = Double.NaN;
+    private volatile double warmNanos = Double.NaN;
+    
+    LatencyWindows(int window, double tolerance) {
+        if (window < 1) {
+            throw new IllegalArgumentException("window must be positive");
+        }
+        this.window = new long[window];
+        this.tolerance = tolerance;
+    }
+    
+    void record(long nanos) {
+        if (samples++ == 0) {
+            firstNanos = nanos;
+        }
+        window[filled++] = nanos;
+        if (filled == window.length) {
+            long median = median(window, filled);
+            stable = previousMedian >= 0 && Math.abs(median - previousMedian) <= tolerance * previousMedian;
+            previousMedian = median;
+            warmNanos = median;
+            filled = 0;
+        }
+    }
+    
+    boolean isStable() {
+        return stable;
+    }
+    
+    long samples() {
+        return samples;
+    }
+    
+    /**
+     * Takes the median of a partly filled window when no window was ever completed.
+     */
+    void finish() {
+        if (previousMedian < 0 && filled > 0) {
+            warmNanos = median(window, filled);
+        }
+    }
+    
+    double firstNanos() {
+        return firstNanos;
+    }
+    
+    double warmNanos() {
+        return warmNanos;
+    }
+    
+    private static long median(long[] samples, int count) {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        return sorted[count / 2];
+    }
+}
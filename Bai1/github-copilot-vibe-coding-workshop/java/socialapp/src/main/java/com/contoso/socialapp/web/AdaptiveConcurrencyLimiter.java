@@ -0,0 +1,118 @@
+package com.contoso.socialapp.web;
+
+import com.contoso.socialapp.config.ConcurrencyLimitProperties;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Concurrency limit estimated from observed latency using the gradient algorithm:
+ * the ratio between the unloaded (minimum) latency and the latest sample says how
+ * much requests are queueing, and the limit shrinks in proportion to it. While
+ * latency stays within {@code rttTolerance} of the unloaded latency the limit grows
+ * by a small queue allowance. Requests over the limit are rejected at once rather
+ * than queued. Samples are taken without a lock: the limit is a compare-and-set on
+ * its bits, so releasing a permit never waits on another request's sample.
+ */
+public class AdaptiveConcurrencyLimiter {
+    
+    private final ConcurrencyLimitProperties properties;
+    private final AtomicInteger inflight = new AtomicInteger();
+    
+    // Double bits of the current limit
+    private final AtomicLong limit;
+    private final AtomicLong minRttNanos = new AtomicLong();
+    private final AtomicLong sampleCount = new AtomicLong();
+    
+    public AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties) {
+        this.properties = properties;
+        this.limit = new AtomicLong(Double.doubleToRawLongBits(properties.getInitialLimit()));
+    }
+    
+    /**
+     * Admits a request if the in-flight count is below this priority's share of the limit.
+     *
+     * @return a permit to release when the request completes, or {@code null} when shed
+     */
+    public Permit tryAcquire(RequestPriority priority) {
+        int allowed = Math.max(1, (int) (limit() * share(priority)));
+        while (true) {
+            int current = inflight.get();
+            if (current >= allowed) {
+                return null;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return new Permit(System.nanoTime(), current + 1);
+            }
+        }
+    }
+    
+    public int getLimit() {
+        return (int) limit();
+    }
+    
+    public int getInflight() {
+        return inflight.get();
+    }
+    
+    private double share(RequestPriority priority) {
+        return switch (priority) {
+            case READ -> 1.0;
+            case WRITE -> properties.getWriteShare();
+            case BULK -> properties.getBulkShare();
+        };
+    }
+    
+    private void onSample(long rttNanos, int inflightAtStart) {
+        long rtt = Math.max(1L, rttNanos);
+        
+        if (sampleCount.incrementAndGet() % properties.getProbeInterval() == 0) {
+            // The unloaded latency may have changed; shorten the queue and measure it again.
+            // Only the sqrt(limit) allowance is taken away, so throughput dips rather than collapses.
+            minRttNanos.set(0);
+            updateLimit(current -> current - Math.sqrt(current));
+            return;
+        }
+        long minRtt = minRttNanos.accumulateAndGet(rtt, (min, sample) -> min == 0 ? sample : Math.min(min, sample));
+        
+        // Don't grow the limit when the application, not the limiter, is what keeps concurrency low
+        if (inflightAtStart < limit() / 2) {
+            return;
+        }
+        
+        double gradient = Math.max(0.5, Math.min(1.0, properties.getRttTolerance() * minRtt / rtt));
+        updateLimit(current -> {
+            double next = current * gradient + Math.sqrt(current);
+            return current * (1 - properties.getSmoothing()) + next * properties.getSmoothing();
+        });
+    }
+    
+    private double limit() {
+        return Double.longBitsToDouble(limit.get());
+    }
+    
+    private void updateLimit(DoubleUnaryOperator update) {
+        limit.updateAndGet(bits -> {
+            double next = update.applyAsDouble(Double.longBitsToDouble(bits));
+            return Double.doubleToRawLongBits(
+                    Math.max(properties.getMinLimit(), Math.min(properties.getMaxLimit(), next)));
+        });
+    }
+    
+    public final class Permit {
+        
+        private final long startNanos;
+        private final int inflightAtStart;
+        
+        private Permit(long startNanos, int inflightAtStart) {
+            this.startNanos = startNanos;
+            this.inflightAtStart = inflightAtStart;
+        }
+        
+        public void release() {
+            inflight.decrementAndGet();
+            onSample(System.nanoTime() - startNanos, inflightAtStart);
+        }
+    }
+}
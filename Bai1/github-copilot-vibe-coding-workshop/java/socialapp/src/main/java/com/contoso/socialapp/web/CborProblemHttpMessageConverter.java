@@ -0,0 +1,24 @@
+package com.contoso.socialapp.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+
+import java.util.List;
+
+/**
+ * Jackson's CBOR converter that also offers {@link org.springframework.http.ProblemDetail}
+ * bodies as {@code application/cbor}. Spring only lists problem media types for problem
+ * bodies, and the stock converter has none, so a client accepting CBOR got JSON errors.
+ */
+public class CborProblemHttpMessageConverter extends MappingJackson2CborHttpMessageConverter {
+    
+    public CborProblemHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+    
+    @Override
+    protected List<MediaType> getMediaTypesForProblemDetail() {
+        return List.of(MediaType.APPLICATION_CBOR);
+    }
+}
@@ -0,0 +1,72 @@
+package com.contoso.socialapp.web;
+
+import com.contoso.socialapp.config.CompressedPageProperties;
+import com.contoso.socialapp.dto.SerializedResponse;
+import com.contoso.socialapp.service.CompressedPageCache;
+import com.contoso.socialapp.service.SerializationFormat;
+import com.contoso.socialapp.service.SerializedResponseCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Switches cacheable pages to their pre-compressed form for clients that accept gzip.
+ */
+@ControllerAdvice
+@RequiredArgsConstructor
+public class CompressedPageResponseBodyAdvice implements ResponseBodyAdvice<Object> {
+    
+    private final CompressedPageProperties properties;
+    private final SerializedResponseCache serializedResponseCache;
+    
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return properties.isEnabled() && SerializedResponseHttpMessageConverter.class.isAssignableFrom(converterType);
+    }
+    
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(body instanceof SerializedResponse page) || page.getPageKey() == null) {
+            return body;
+        }
+        response.getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (!acceptsGzip(request.getHeaders().get(HttpHeaders.ACCEPT_ENCODING))) {
+            return body;
+        }
+        SerializationFormat format = SerializationFormat.CBOR.getMediaType().isCompatibleWith(selectedContentType)
+                ? SerializationFormat.CBOR : SerializationFormat.JSON;
+        if (serializedResponseCache.contentLength(page, format) < properties.getMinSize().toBytes()) {
+            return body;
+        }
+        response.getHeaders().set(HttpHeaders.CONTENT_ENCODING, CompressedPageCache.GZIP);
+        return page.withContentEncoding(CompressedPageCache.GZIP);
+    }
+    
+    private static boolean acceptsGzip(Iterable<String> acceptEncodings) {
+        if (acceptEncodings == null) {
+            return false;
+        }
+        for (String header : acceptEncodings) {
+            for (String coding : header.split(",")) {
+                String[] parts = coding.trim().split(";");
+                String name = parts[0].trim();
+                if (!name.equalsIgnoreCase(CompressedPageCache.GZIP) && !name.equals("*")) {
+                    continue;
+                }
+                boolean refused = parts.length > 1 && parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+                if (!refused) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
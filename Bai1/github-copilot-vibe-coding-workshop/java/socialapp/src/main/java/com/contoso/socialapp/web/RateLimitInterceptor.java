@@ -0,0 +1,29 @@
+package com.contoso.socialapp.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Applies the per-IP limit before the request body is read.
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimitInterceptor implements HandlerInterceptor {
+    
+    private final RateLimiter rateLimiter;
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            String endpoint = rateLimiter.endpointFor(handlerMethod.getMethod());
+            if (endpoint != null) {
+                rateLimiter.acquire(endpoint, RateLimiter.SCOPE_IP, request.getRemoteAddr());
+            }
+        }
+        return true;
+    }
+}
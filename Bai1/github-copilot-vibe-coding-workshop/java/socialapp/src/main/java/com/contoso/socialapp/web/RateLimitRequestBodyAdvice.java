@@ -0,0 +1,39 @@
+package com.contoso.socialapp.web;
+
+import com.contoso.socialapp.dto.UserScopedRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.lang.reflect.Type;
+
+/**
+ * Applies the per-username limit once the request DTO has been deserialized.
+ */
+@ControllerAdvice
+@RequiredArgsConstructor
+public class RateLimitRequestBodyAdvice extends RequestBodyAdviceAdapter {
+    
+    private final RateLimiter rateLimiter;
+    
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return UserScopedRequest.class.isAssignableFrom(methodParameter.getParameterType())
+                && methodParameter.getMethod() != null
+                && rateLimiter.endpointFor(methodParameter.getMethod()) != null;
+    }
+    
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter,
+                                Type targetType, Class<? extends HttpMessageConverter<?>> converterType) {
+        String username = ((UserScopedRequest) body).getUsername();
+        if (username != null && !username.isBlank()) {
+            rateLimiter.acquire(rateLimiter.endpointFor(parameter.getMethod()), RateLimiter.SCOPE_USER, username);
+        }
+        return body;
+    }
+}
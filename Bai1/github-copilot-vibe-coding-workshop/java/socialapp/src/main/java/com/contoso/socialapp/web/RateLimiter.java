@@ -0,0 +1,100 @@
+package com.contoso.socialapp.web;
+
+import com.contoso.socialapp.config.RateLimitProperties;
+import com.contoso.socialapp.exception.RateLimitExceededException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-endpoint token buckets keyed by client IP and by request username.
+ * Endpoints are identified by the OpenAPI operationId of the controller method.
+ */
+@Component
+public class RateLimiter {
+    
+    public static final String SCOPE_IP = "ip";
+    public static final String SCOPE_USER = "user";
+    
+    private static final String UNLIMITED = "";
+    
+    private final RateLimitProperties properties;
+    private final Cache<BucketKey, TokenBucket> buckets;
+    private final Map<Method, String> endpointsByMethod = new ConcurrentHashMap<>();
+    private final Map<MeterKey, Counter> allowedCounters = new HashMap<>();
+    private final Map<MeterKey, Counter> rejectedCounters = new HashMap<>();
+    
+    public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxKeys())
+                .expireAfterAccess(properties.getIdleExpiry().toNanos(), TimeUnit.NANOSECONDS)
+                .build();
+        
+        for (String endpoint : properties.getEndpoints().keySet()) {
+            for (String scope : new String[] {SCOPE_IP, SCOPE_USER}) {
+                MeterKey key = new MeterKey(endpoint, scope);
+                allowedCounters.put(key, Counter.builder("socialapp.ratelimit.requests")
+                        .tags("endpoint", endpoint, "scope", scope, "outcome", "allowed")
+                        .register(meterRegistry));
+                rejectedCounters.put(key, Counter.builder("socialapp.ratelimit.requests")
+                        .tags("endpoint", endpoint, "scope", scope, "outcome", "rejected")
+                        .register(meterRegistry));
+            }
+        }
+        Gauge.builder("socialapp.ratelimit.buckets", buckets, Cache::estimatedSize)
+                .description("Live token buckets")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Resolves the rate-limited endpoint name for a handler method, or {@code null}
+     * when the method is not limited. The lookup is cached per method.
+     */
+    public String endpointFor(Method method) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        String endpoint = endpointsByMethod.computeIfAbsent(method, this::resolveEndpoint);
+        return endpoint.isEmpty() ? null : endpoint;
+    }
+    
+    public void acquire(String endpoint, String scope, String key) {
+        RateLimitProperties.Limit limit = properties.getEndpoints().get(endpoint);
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(new BucketKey(endpoint, scope, key),
+                k -> new TokenBucket(limit.getCapacity(), limit.getRefillPerSecond(), now));
+        
+        long waitNanos = bucket.tryAcquire(now);
+        if (waitNanos > 0) {
+            rejectedCounters.get(new MeterKey(endpoint, scope)).increment();
+            long retryAfterSeconds = Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+            throw new RateLimitExceededException(endpoint, retryAfterSeconds);
+        }
+        allowedCounters.get(new MeterKey(endpoint, scope)).increment();
+    }
+    
+    private String resolveEndpoint(Method method) {
+        Operation operation = method.getAnnotation(Operation.class);
+        if (operation != null && properties.getEndpoints().containsKey(operation.operationId())) {
+            return operation.operationId();
+        }
+        return UNLIMITED;
+    }
+    
+    private record BucketKey(String endpoint, String scope, String key) {
+    }
+    
+    private record MeterKey(String endpoint, String scope) {
+    }
+}
@@ -0,0 +1,118 @@
+package com.contoso.socialapp.web;
+
+import com.contoso.socialapp.config.ReplicationProperties;
+import com.contoso.socialapp.exception.Problems;
+import com.contoso.socialapp.replication.CommitSequenceHeader;
+import com.contoso.socialapp.replication.ReplicationFollower;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Keeps a follower read-only. Writes, and the feed stream that only the leader can
+ * publish, are redirected to the leader with 307 so the method and body are kept;
+ * without a leader URL they get 503. A read carrying a sequence token from
+ * {@value CommitSequenceHeader#HEADER} waits until that sequence is applied here and
+ * is redirected if it is not within the timeout. Every response reports the sequence
+ * this copy had applied when the request came in.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+@ConditionalOnProperty(prefix = "app.replication", name = "role", havingValue = "follower")
+public class ReplicaRoutingFilter extends OncePerRequestFilter {
+    
+    private static final String LEADER_ONLY_READ = "/posts/stream";
+    
+    private final ReplicationProperties properties;
+    private final ReplicationFollower follower;
+    private final ObjectMapper objectMapper;
+    private final Counter redirectedWrites;
+    private final Counter redirectedReads;
+    
+    public ReplicaRoutingFilter(ReplicationProperties properties, ReplicationFollower follower,
+                                ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.follower = follower;
+        this.objectMapper = objectMapper;
+        this.redirectedWrites = Counter.builder("socialapp.replication.redirected")
+                .tag("reason", "write")
+                .register(meterRegistry);
+        this.redirectedReads = Counter.builder("socialapp.replication.redirected")
+                .tag("reason", "behind")
+                .register(meterRegistry);
+    }
+    
+    // The data API; actuator and admin endpoints act on this instance
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = pathWithinApplication(request);
+        return !path.startsWith("/posts") && !path.startsWith("/changes");
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        response.setHeader(CommitSequenceHeader.HEADER, Long.toString(follower.appliedSeq()));
+        String method = request.getMethod();
+        boolean read = "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method);
+        if (!read || pathWithinApplication(request).equals(LEADER_ONLY_READ)) {
+            redirectedWrites.increment();
+            toLeader(request, response, "read-only-replica", "This instance is a read-only replica");
+            return;
+        }
+        Long token = token(request);
+        if (token != null && !follower.awaitApplied(token, properties.getReadYourWritesTimeout())) {
+            redirectedReads.increment();
+            toLeader(request, response, "replica-behind", "This replica has not caught up with your writes yet");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+    
+    private void toLeader(HttpServletRequest request, HttpServletResponse response, String problemType,
+                          String detail) throws IOException {
+        if (!StringUtils.hasText(properties.getLeaderUrl())) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(),
+                    Problems.of(HttpStatus.SERVICE_UNAVAILABLE, problemType, detail));
+            return;
+        }
+        String location = properties.getLeaderUrl().replaceAll("/+$", "") + pathWithinApplication(request)
+                + (request.getQueryString() != null ? "?" + request.getQueryString() : "");
+        response.setStatus(HttpStatus.TEMPORARY_REDIRECT.value());
+        response.setHeader(HttpHeaders.LOCATION, location);
+    }
+    
+    // A token that does not parse asks for nothing
+    private static Long token(HttpServletRequest request) {
+        String header = request.getHeader(CommitSequenceHeader.HEADER);
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
+    private static String pathWithinApplication(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
@@ -0,0 +1,10 @@
+package com.contoso.socialapp.web;
+
+/**
+ * Admission classes for the concurrency limiter, from most to least important.
+ */
+public enum RequestPriority {
+    READ,
+    WRITE,
+    BULK
+}
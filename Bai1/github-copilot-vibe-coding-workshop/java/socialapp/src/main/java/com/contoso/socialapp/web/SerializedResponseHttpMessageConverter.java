@@ -0,0 +1,67 @@
+package com.contoso.socialapp.web;
+
+import com.contoso.socialapp.dto.SerializedResponse;
+import com.contoso.socialapp.service.CompressedPageCache;
+import com.contoso.socialapp.service.SerializationFormat;
+import com.contoso.socialapp.service.SerializedResponseCache;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+
+/**
+ * Writes {@link SerializedResponse} bodies in one wire format from the cached bytes.
+ */
+public class SerializedResponseHttpMessageConverter extends AbstractHttpMessageConverter<SerializedResponse> {
+    
+    private final SerializedResponseCache cache;
+    private final CompressedPageCache compressedPageCache;
+    private final SerializationFormat format;
+    
+    public SerializedResponseHttpMessageConverter(SerializedResponseCache cache, CompressedPageCache compressedPageCache,
+                                                  SerializationFormat format) {
+        super(format.getMediaType());
+        this.cache = cache;
+        this.compressedPageCache = compressedPageCache;
+        this.format = format;
+    }
+    
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return SerializedResponse.class == clazz;
+    }
+    
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+    
+    @Override
+    protected SerializedResponse readInternal(Class<? extends SerializedResponse> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("SerializedResponse is write-only", inputMessage);
+    }
+    
+    @Override
+    protected Long getContentLength(SerializedResponse body, MediaType contentType) {
+        if (isGzip(body)) {
+            return (long) compressedPageCache.gzip(body, format).length;
+        }
+        return cache.contentLength(body, format);
+    }
+    
+    @Override
+    protected void writeInternal(SerializedResponse body, HttpOutputMessage outputMessage) throws IOException {
+        if (isGzip(body)) {
+            outputMessage.getBody().write(compressedPageCache.gzip(body, format));
+            return;
+        }
+        cache.write(body, format, outputMessage.getBody());
+    }
+    
+    private static boolean isGzip(SerializedResponse body) {
+        return CompressedPageCache.GZIP.equals(body.getContentEncoding());
+    }
+}
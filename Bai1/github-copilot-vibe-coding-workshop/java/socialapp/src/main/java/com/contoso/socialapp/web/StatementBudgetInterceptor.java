@@ -0,0 +1,108 @@
+package com.contoso.socialapp.web;
+
+import com.contoso.socialapp.config.StatementBudgetProperties;
+import com.contoso.socialapp.jdbc.StatementCounter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counts the SQL statements each request runs against its endpoint's budget and
+ * reports statement shapes repeated often enough to suggest an N+1. An async request
+ * is settled when its handler returns, as {@code afterCompletion} would run on another
+ * thread and the scope must not stay on the pooled one.
+ */
+@Slf4j
+@Component
+public class StatementBudgetInterceptor implements AsyncHandlerInterceptor {
+    
+    private static final String SCOPE_ATTRIBUTE = StatementBudgetInterceptor.class.getName() + ".scope";
+    
+    private final StatementBudgetProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<Method, String> endpointsByMethod = new ConcurrentHashMap<>();
+    private final Map<String, EndpointMeters> meters = new ConcurrentHashMap<>();
+    
+    public StatementBudgetInterceptor(StatementBudgetProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (properties.isEnabled() && handler instanceof HandlerMethod handlerMethod) {
+            String endpoint = endpointsByMethod.computeIfAbsent(handlerMethod.getMethod(), this::resolveEndpoint);
+            boolean reject = properties.getMode() == StatementBudgetProperties.Mode.REJECT;
+            request.setAttribute(SCOPE_ATTRIBUTE, StatementCounter.open(endpoint, properties.budgetFor(endpoint), reject));
+        }
+        return true;
+    }
+    
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        settle(request);
+    }
+    
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        settle(request);
+    }
+    
+    private void settle(HttpServletRequest request) {
+        if (!(request.getAttribute(SCOPE_ATTRIBUTE) instanceof StatementCounter.Scope scope)) {
+            return;
+        }
+        request.removeAttribute(SCOPE_ATTRIBUTE);
+        scope.close();
+        
+        String endpoint = scope.getName();
+        EndpointMeters endpointMeters = meters.computeIfAbsent(endpoint, this::createMeters);
+        endpointMeters.statements.record(scope.getCount());
+        if (scope.isOverBudget()) {
+            endpointMeters.overBudget.increment();
+            log.warn("{} ran {} statements, budget is {}: {}", endpoint, scope.getCount(), scope.getBudget(),
+                    scope.getShapes());
+        }
+        Map<String, Integer> repeated = scope.repeatedShapes(properties.getRepeatedThreshold());
+        if (!repeated.isEmpty()) {
+            endpointMeters.repeated.increment();
+            log.warn("Possible N+1 in {}: {}", endpoint, repeated);
+        }
+    }
+    
+    private String resolveEndpoint(Method method) {
+        Operation operation = method.getAnnotation(Operation.class);
+        return operation != null && !operation.operationId().isEmpty() ? operation.operationId() : method.getName();
+    }
+    
+    private EndpointMeters createMeters(String endpoint) {
+        return new EndpointMeters(
+                DistributionSummary.builder("socialapp.sql.statements")
+                        .description("SQL statements run per request")
+                        .tag("endpoint", endpoint)
+                        .register(meterRegistry),
+                Counter.builder("socialapp.sql.budget.exceeded")
+                        .description("Requests that ran more statements than their budget")
+                        .tag("endpoint", endpoint)
+                        .register(meterRegistry),
+                Counter.builder("socialapp.sql.repeated")
+                        .description("Requests that repeated one statement shape, a likely N+1")
+                        .tag("endpoint", endpoint)
+                        .register(meterRegistry));
+    }
+    
+    private record EndpointMeters(DistributionSummary statements, Counter overBudget, Counter repeated) {
+    }
+}
@@ -0,0 +1,106 @@
+package com.contoso.socialapp.compression;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContentCompressionTests {
+
+	private static final String[] WORDS = {"weekend", "hiking", "with", "friends", "the", "mountains", "coffee",
+			"sunset", "đi", "chơi", "cuối", "tuần", "🏔️"};
+
+	@Test
+	void shortContentIsStoredAsItsText() {
+		ContentCodec codec = new ContentCodec(64, 6, 1);
+		byte[] stored = codec.encode("Sunset at the beach");
+
+		assertArrayEquals("Sunset at the beach".getBytes(StandardCharsets.UTF_8), stored);
+		assertFalse(ContentCodec.isCompressed(stored));
+		assertEquals("Sunset at the beach", ContentCodec.decode(stored));
+	}
+
+	@Test
+	void longContentRoundTripsSmallerWithAndWithoutTheDictionary() {
+		String content = text(new SplittableRandom(1), 3000);
+		int textLength = content.getBytes(StandardCharsets.UTF_8).length;
+		for (int dictionary : new int[] {0, 1}) {
+			byte[] stored = new ContentCodec(64, 6, dictionary).encode(content);
+
+			assertTrue(ContentCodec.isCompressed(stored));
+			assertEquals(dictionary, stored[2]);
+			assertEquals(textLength, ContentCodec.textLength(stored));
+			assertTrue(stored.length < textLength / 2, "stored " + stored.length + " of " + textLength + " bytes");
+			assertEquals(content, ContentCodec.decode(stored));
+		}
+	}
+
+	@Test
+	void textThatDoesNotShrinkIsStoredPlain() {
+		SplittableRandom random = new SplittableRandom(2);
+		StringBuilder noise = new StringBuilder();
+		for (int i = 0; i < 200; i++) {
+			noise.append((char) ('!' + random.nextInt(94)));
+		}
+		byte[] stored = new ContentCodec(64, 6, 0).encode(noise.toString());
+
+		assertFalse(ContentCodec.isCompressed(stored));
+		assertEquals(noise.toString(), ContentCodec.decode(stored));
+	}
+
+	@Test
+	void rowsWrittenBeforeCompressionStillRead() {
+		String legacy = "Chuyến đi cuối tuần 🏔️ with friends";
+		assertEquals(legacy, ContentCodec.decode(legacy.getBytes(StandardCharsets.UTF_8)));
+		assertEquals("", ContentCodec.decode(new byte[0]));
+	}
+
+	@Test
+	void unreadableValuesFailLoudly() {
+		assertThrows(IllegalStateException.class, () -> new ContentCodec(64, 6, 200));
+
+		byte[] stored = new ContentCodec(0, 6, 1).encode(text(new SplittableRandom(3), 500));
+		byte[] otherCodec = stored.clone();
+		otherCodec[1] = 9;
+		assertThrows(IllegalStateException.class, () -> ContentCodec.decode(otherCodec));
+		byte[] missingDictionary = stored.clone();
+		missingDictionary[2] = (byte) 200;
+		assertThrows(IllegalStateException.class, () -> ContentCodec.decode(missingDictionary));
+		byte[] truncated = Arrays.copyOf(stored, stored.length / 2);
+		assertThrows(IllegalStateException.class, () -> ContentCodec.decode(truncated));
+	}
+
+	@Test
+	void trainedDictionaryBeatsNoDictionaryOnUnseenValues() {
+		SplittableRandom random = new SplittableRandom(4);
+		List<byte[]> training = new ArrayList<>();
+		List<byte[]> test = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			(i % 10 == 0 ? test : training).add(text(random, 60 + random.nextInt(200)).getBytes(StandardCharsets.UTF_8));
+		}
+
+		byte[] dictionary = ContentDictionaryTrainer.train(training, 4096, 64);
+
+		assertTrue(dictionary.length > 0 && dictionary.length <= 4096, "dictionary of " + dictionary.length);
+		double without = ContentDictionaryTrainer.ratio(test, null);
+		double with = ContentDictionaryTrainer.ratio(test, dictionary);
+		assertTrue(with < without * 0.8, "ratio " + with + " with the dictionary, " + without + " without");
+	}
+
+	private static String text(SplittableRandom random, int minLength) {
+		StringBuilder text = new StringBuilder(minLength + 16);
+		while (text.length() < minLength) {
+			text.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+		}
+		return text.toString().trim();
+	}
+}
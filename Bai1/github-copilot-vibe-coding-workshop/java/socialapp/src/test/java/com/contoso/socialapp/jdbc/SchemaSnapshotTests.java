@@ -0,0 +1,87 @@
+package com.contoso.socialapp.jdbc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The loadtest seeder writes these tables itself and is checked against the same
+ * snapshot, so a mapping change fails here until the snapshot and
+ * {@code SeedSchema.SOCIALAPP} in {@code java/loadtest} are updated with it.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class SchemaSnapshotTests {
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void hibernateSchemaMatchesTheSnapshot() throws IOException, SQLException {
+		List<String> schema = new ArrayList<>();
+		try (Connection connection = dataSource.getConnection();
+			 Statement statement = connection.createStatement();
+			 ResultSet result = statement.executeQuery("select sql from sqlite_master where sql is not null "
+					 + "and name not like 'sqlite_%' and name <> 'shard_info' order by type desc, name")) {
+			while (result.next()) {
+				schema.add(result.getString(1));
+			}
+		}
+
+		assertEquals(snapshot(), schema);
+	}
+
+	@Test
+	void likeCommittedElsewhereAfterTheCheckIsRefused() throws Exception {
+		String created = mockMvc.perform(post("/posts").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"username\":\"author\",\"content\":\"unique likes\"}"))
+				.andExpect(status().isCreated())
+				.andReturn().getResponse().getContentAsString();
+		long postId = objectMapper.readTree(created).get("id").asLong();
+		// Written past the existence filter, as by another process, so only the index can catch it
+		try (Connection connection = dataSource.getConnection();
+			 PreparedStatement insert = connection.prepareStatement(
+					 "insert into likes (post_id, username, created_at) values (?, 'racer', 0)")) {
+			insert.setLong(1, postId);
+			insert.executeUpdate();
+		}
+
+		mockMvc.perform(post("/posts/{postId}/likes", postId).contentType(MediaType.APPLICATION_JSON)
+						.content("{\"username\":\"racer\"}"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.type").value("urn:contoso:socialapp:problem:already-liked"));
+	}
+
+	private static List<String> snapshot() throws IOException {
+		try (InputStream in = SchemaSnapshotTests.class.getResourceAsStream("/hibernate-schema.sql")) {
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+		}
+	}
+}
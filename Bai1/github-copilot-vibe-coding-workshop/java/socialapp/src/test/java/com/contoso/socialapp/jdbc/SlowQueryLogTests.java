@@ -0,0 +1,65 @@
+package com.contoso.socialapp.jdbc;
+
+import com.contoso.socialapp.config.SlowQueryProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlowQueryLogTests {
+
+	@Test
+	void keepsTheSlowestShapesAndGroupsLiterals() {
+		SlowQueryLog log = newLog(2);
+
+		log.record("select * from posts where id = 1", millis(60));
+		log.record("select * from posts where id = 2", millis(90));
+		log.record("select * from comments where post_id = 1", millis(70));
+		log.record("select * from likes where post_id = 1", millis(80));
+		log.record("select * from posts where id = 3", millis(10));
+
+		List<SlowQueryLog.SlowQuery> worst = log.worst();
+		assertEquals(List.of("select * from posts where id = ?", "select * from likes where post_id = ?"),
+				worst.stream().map(SlowQueryLog.SlowQuery::shape).toList());
+		assertEquals(2, worst.get(0).count());
+		assertEquals("select * from posts where id = 2", worst.get(0).sample());
+	}
+
+	@Test
+	void fastStatementsAreNotKept() {
+		SlowQueryLog log = newLog(10);
+
+		log.record("select * from posts where id = 1", millis(49));
+
+		assertTrue(log.worst().isEmpty());
+	}
+
+	@Test
+	void tableScansAreFullScansButIndexWalksAreNot() {
+		assertTrue(SlowQueryLog.isFullScan("SCAN c1_0"));
+		assertTrue(SlowQueryLog.isFullScan("  SCAN comments"));
+		assertFalse(SlowQueryLog.isFullScan("SCAN posts USING INDEX idx_posts_created_at"));
+		assertFalse(SlowQueryLog.isFullScan("SEARCH p1_0 USING INTEGER PRIMARY KEY (rowid=?)"));
+		assertFalse(SlowQueryLog.isFullScan("SCAN CONSTANT ROW"));
+	}
+
+	private static SlowQueryLog newLog(int capacity) {
+		SlowQueryProperties properties = new SlowQueryProperties();
+		properties.setThreshold(Duration.ofMillis(50));
+		properties.setCapacity(capacity);
+		properties.setExplain(false);
+		return new SlowQueryLog(properties, new StaticListableBeanFactory().getBeanProvider(DataSource.class),
+				new SimpleMeterRegistry());
+	}
+
+	private static long millis(long millis) {
+		return Duration.ofMillis(millis).toNanos();
+	}
+}
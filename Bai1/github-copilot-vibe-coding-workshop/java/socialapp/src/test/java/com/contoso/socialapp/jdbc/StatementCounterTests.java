@@ -0,0 +1,50 @@
+package com.contoso.socialapp.jdbc;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StatementCounterTests {
+
+	@Test
+	void repeatedShapesWithDifferentLiteralsAreGrouped() {
+		try (StatementCounter.Scope scope = StatementCounter.open()) {
+			for (int id = 1; id <= 3; id++) {
+				scope.record("select * from likes where post_id = " + id + " and username = 'user" + id + "'");
+			}
+			scope.record("select * from posts where id in (?, ?, ?)");
+
+			Map<String, Integer> repeated = scope.repeatedShapes(3);
+			assertEquals(Map.of("select * from likes where post_id = ? and username = ?", 3), repeated);
+			assertEquals(4, scope.getCount());
+		}
+	}
+
+	@Test
+	void nestedScopesCountTowardsEnclosingScopes() {
+		try (StatementCounter.Scope outer = StatementCounter.open()) {
+			try (StatementCounter.Scope inner = StatementCounter.open("listPosts", 1, false)) {
+				StatementCounter.current().record("select 1");
+				StatementCounter.current().record("select 2");
+				assertTrue(inner.isOverBudget());
+			}
+			assertEquals(2, outer.getCount());
+			assertEquals(outer, StatementCounter.current());
+		}
+	}
+
+	@Test
+	void rejectingScopeFailsTheStatementOverBudget() {
+		try (StatementCounter.Scope scope = StatementCounter.open("getPost", 1, true)) {
+			scope.checkBudget(1);
+			scope.record("select 1");
+			assertThrows(StatementBudgetExceededException.class, () -> scope.checkBudget(1));
+			assertTrue(scope.isOverBudget());
+		}
+	}
+
+}
@@ -0,0 +1,82 @@
+package com.contoso.socialapp.profiling;
+
+import com.contoso.socialapp.dto.CreatePostRequest;
+import com.contoso.socialapp.dto.PostResponse;
+import com.contoso.socialapp.exception.PostNotFoundException;
+import com.contoso.socialapp.service.SocialMediaService;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ServiceOperationRecorderTests {
+
+	private static final String EVENT = "com.contoso.socialapp.ServiceOperation";
+
+	@Autowired
+	private SocialMediaService service;
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void recordsTheOperationAndItsDatabaseWork() throws IOException {
+		PostResponse post = service.createPost(new CreatePostRequest("recorded", "hello"));
+
+		List<RecordedEvent> events = record(() -> service.getPost(post.getId()));
+
+		assertEquals(1, events.size());
+		RecordedEvent event = events.get(0);
+		assertEquals("getPost", event.getString("operation"));
+		assertEquals(post.getId(), event.getLong("postId"));
+		assertEquals(1, event.getInt("rowsReturned"));
+		assertEquals(0, event.getLong("rowsAffected"));
+		assertNull(event.getString("failure"));
+		assertTrue(event.getInt("statements") <= 1);
+		assertTrue(event.getDuration("databaseTime").compareTo(event.getDuration()) <= 0);
+	}
+
+	@Test
+	void recordsWritesAndFailures() throws IOException {
+		RecordedEvent created = record(() -> service.createPost(new CreatePostRequest("recorded", "written"))).get(0);
+		assertEquals("createPost", created.getString("operation"));
+		assertEquals(0, created.getLong("postId"));
+		assertTrue(created.getInt("statements") > 0);
+		assertTrue(created.getLong("rowsAffected") > 0);
+
+		RecordedEvent missing = record(() -> assertThrows(PostNotFoundException.class,
+				() -> service.getPost(Long.MAX_VALUE))).get(0);
+		assertEquals("getPost", missing.getString("operation"));
+		assertEquals(Long.MAX_VALUE, missing.getLong("postId"));
+		assertEquals("PostNotFoundException", missing.getString("failure"));
+	}
+
+	private List<RecordedEvent> record(Supplier<?> call) throws IOException {
+		Path file = dir.resolve("operation.jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable(EVENT).withThreshold(Duration.ZERO);
+			recording.start();
+			call.get();
+			recording.stop();
+			recording.dump(file);
+		}
+		return RecordingFile.readAllEvents(file).stream()
+				.filter(event -> event.getEventType().getName().equals(EVENT))
+				.toList();
+	}
+}
@@ -0,0 +1,147 @@
+package com.contoso.socialapp.replication;
+
+import com.contoso.socialapp.SocialappApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A leader and a follower in one JVM, each with its own database file, talking over a
+ * socket in a temporary directory as two processes on one host would.
+ */
+class ReplicationTests {
+
+	@TempDir
+	static Path directory;
+
+	private static final HttpClient HTTP = HttpClient.newHttpClient();
+	private static final ObjectMapper JSON = new ObjectMapper();
+
+	private static ConfigurableApplicationContext leader;
+	private static ConfigurableApplicationContext follower;
+	private static String leaderUrl;
+	private static String followerUrl;
+	private static long postBeforeFollower;
+
+	@BeforeAll
+	static void start() throws Exception {
+		leader = run("leader", "--app.replication.role=leader");
+		leaderUrl = baseUrl(leader);
+		// Written before the follower exists, so it arrives with the snapshot
+		postBeforeFollower = id(send(leaderUrl, "POST", "/posts", "{\"username\":\"ann\",\"content\":\"first\"}", null));
+		send(leaderUrl, "POST", "/posts/" + postBeforeFollower + "/comments", "{\"username\":\"bob\",\"content\":\"hi\"}", null);
+		send(leaderUrl, "POST", "/posts/" + postBeforeFollower + "/likes", "{\"username\":\"bob\"}", null);
+
+		follower = run("follower", "--app.replication.role=follower", "--app.replication.leader-url=" + leaderUrl,
+				"--app.replication.read-your-writes-timeout=200ms");
+		followerUrl = baseUrl(follower);
+		ReplicationFollower replica = follower.getBean(ReplicationFollower.class);
+		long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+		while (!replica.isSynced() && System.nanoTime() < deadline) {
+			Thread.sleep(20);
+		}
+		assertTrue(replica.isSynced(), "follower did not catch up");
+	}
+
+	@AfterAll
+	static void stop() {
+		if (follower != null) {
+			follower.close();
+		}
+		if (leader != null) {
+			leader.close();
+		}
+	}
+
+	@Test
+	void snapshotCarriesRowsWrittenBeforeTheFollowerStarted() throws Exception {
+		HttpResponse<String> post = send(followerUrl, "GET", "/posts/" + postBeforeFollower, null, null);
+		assertEquals(200, post.statusCode());
+		JsonNode body = JSON.readTree(post.body());
+		assertEquals(1, body.get("commentsCount").asInt());
+		assertEquals(1, body.get("likesCount").asInt());
+		assertEquals(1, JSON.readTree(send(followerUrl, "GET", "/posts/" + postBeforeFollower + "/comments", null, null)
+				.body()).size());
+	}
+
+	@Test
+	void readsWithTheWriteTokenSeeTheWrite() throws Exception {
+		HttpResponse<String> created = send(leaderUrl, "POST", "/posts", "{\"username\":\"ann\",\"content\":\"new\"}", null);
+		long postId = id(created);
+		HttpResponse<String> read = send(followerUrl, "GET", "/posts/" + postId, null, token(created));
+		assertEquals(200, read.statusCode());
+
+		HttpResponse<String> edited = send(leaderUrl, "PATCH", "/posts/" + postId,
+				"{\"username\":\"ann\",\"content\":\"edited\"}", null);
+		read = send(followerUrl, "GET", "/posts/" + postId, null, token(edited));
+		assertEquals("edited", JSON.readTree(read.body()).get("content").asText());
+
+		HttpResponse<String> deleted = send(leaderUrl, "DELETE", "/posts/" + postId, null, null);
+		assertEquals(204, deleted.statusCode());
+		assertEquals(404, send(followerUrl, "GET", "/posts/" + postId, null, token(deleted)).statusCode());
+	}
+
+	@Test
+	void writesAndReadsAheadOfTheReplicaGoToTheLeader() throws Exception {
+		HttpResponse<String> write = send(followerUrl, "POST", "/posts", "{\"username\":\"ann\",\"content\":\"x\"}", null);
+		assertEquals(307, write.statusCode());
+		assertEquals(leaderUrl + "/posts", write.headers().firstValue("Location").orElseThrow());
+
+		HttpResponse<String> ahead = send(followerUrl, "GET", "/posts?page=2", null, Long.toString(Long.MAX_VALUE));
+		assertEquals(307, ahead.statusCode());
+		assertEquals(leaderUrl + "/posts?page=2", ahead.headers().firstValue("Location").orElseThrow());
+	}
+
+	private static ConfigurableApplicationContext run(String name, String... args) {
+		String[] common = {
+				"--server.port=0",
+				"--spring.datasource.url=jdbc:sqlite:" + directory.resolve(name + ".db"),
+				"--app.replication.socket-path=" + directory.resolve("replication.sock"),
+				"--app.rate-limit.enabled=false",
+				"--app.warmup.enabled=false",
+				"--spring.main.banner-mode=off"};
+		String[] all = new String[common.length + args.length];
+		System.arraycopy(common, 0, all, 0, common.length);
+		System.arraycopy(args, 0, all, common.length, args.length);
+		return new SpringApplicationBuilder(SocialappApplication.class).run(all);
+	}
+
+	private static String baseUrl(ConfigurableApplicationContext context) {
+		return "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort() + "/api";
+	}
+
+	private static HttpResponse<String> send(String baseUrl, String method, String path, String json, String token)
+			throws Exception {
+		HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+				.method(method, json != null ? HttpRequest.BodyPublishers.ofString(json) : HttpRequest.BodyPublishers.noBody())
+				.header("Content-Type", "application/json");
+		if (token != null) {
+			request.header(CommitSequenceHeader.HEADER, token);
+		}
+		return HTTP.send(request.build(), HttpResponse.BodyHandlers.ofString());
+	}
+
+	private static String token(HttpResponse<String> response) {
+		return response.headers().firstValue(CommitSequenceHeader.HEADER).orElseThrow();
+	}
+
+	private static long id(HttpResponse<String> response) throws Exception {
+		return JSON.readTree(response.body()).get("id").asLong();
+	}
+}
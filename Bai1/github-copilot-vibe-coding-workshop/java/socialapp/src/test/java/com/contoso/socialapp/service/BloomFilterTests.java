@@ -0,0 +1,44 @@
+package com.contoso.socialapp.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTests {
+
+	private static final int INSERTIONS = 100_000;
+
+	@Test
+	void neverReportsAnAddedElementAsAbsent() {
+		BloomFilter filter = BloomFilter.create(INSERTIONS, 0.01);
+		for (long id = 1; id <= INSERTIONS; id++) {
+			filter.put(BloomFilter.hash(id));
+			filter.put(BloomFilter.hash(id, "user" + id));
+		}
+
+		for (long id = 1; id <= INSERTIONS; id++) {
+			assertTrue(filter.mightContain(BloomFilter.hash(id)));
+			assertTrue(filter.mightContain(BloomFilter.hash(id, "user" + id)));
+		}
+	}
+
+	@Test
+	void falsePositiveRateStaysNearTargetAtCapacity() {
+		BloomFilter filter = BloomFilter.create(INSERTIONS, 0.01);
+		for (long id = 1; id <= INSERTIONS; id++) {
+			filter.put(BloomFilter.hash(id));
+		}
+
+		int falsePositives = 0;
+		for (long id = INSERTIONS + 1; id <= 2L * INSERTIONS; id++) {
+			if (filter.mightContain(BloomFilter.hash(id))) {
+				falsePositives++;
+			}
+		}
+		double observed = (double) falsePositives / INSERTIONS;
+		assertTrue(observed < 0.015, "false-positive rate was " + observed);
+		assertTrue(Math.abs(filter.expectedFalsePositiveRate() - 0.01) < 0.005,
+				"expected rate was " + filter.expectedFalsePositiveRate());
+	}
+
+}
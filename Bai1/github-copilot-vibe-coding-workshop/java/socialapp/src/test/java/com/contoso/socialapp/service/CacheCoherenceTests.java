@@ -0,0 +1,70 @@
+package com.contoso.socialapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Another process is played by a plain JDBC connection to the same file, writing a row
+ * and its change-log entry the way a second instance would.
+ */
+@SpringBootTest(properties = "app.cache-coherence.poll-interval=20ms")
+@AutoConfigureMockMvc
+class CacheCoherenceTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void anotherProcessWriteEvictsTheCachedPost() throws Exception {
+		String created = mockMvc.perform(post("/posts").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"username\":\"coherence\",\"content\":\"before\"}"))
+				.andExpect(status().isCreated())
+				.andReturn().getResponse().getContentAsString();
+		long postId = objectMapper.readTree(created).get("id").asLong();
+		mockMvc.perform(get("/posts/{postId}", postId))
+				.andExpect(jsonPath("$.content").value("before"));
+
+		try (Connection other = DriverManager.getConnection("jdbc:sqlite:sns_api.db")) {
+			other.setAutoCommit(false);
+			try (PreparedStatement update = other.prepareStatement(
+						"update posts set content = 'after', updated_at = updated_at + 1 where id = ?");
+				 PreparedStatement entry = other.prepareStatement("insert into change_log "
+						 + "(entity_type, entity_id, post_id, operation, origin, changed_at) "
+						 + "select 'POST', ?, ?, 'UPDATE', 42, changed_at from change_log order by seq desc limit 1")) {
+				update.setLong(1, postId);
+				update.executeUpdate();
+				entry.setLong(1, postId);
+				entry.setLong(2, postId);
+				entry.executeUpdate();
+			}
+			other.commit();
+		}
+
+		String content = null;
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!"after".equals(content) && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+			content = objectMapper.readTree(mockMvc.perform(get("/posts/{postId}", postId))
+					.andReturn().getResponse().getContentAsString()).get("content").asText();
+		}
+		assertEquals("after", content);
+	}
+}
@@ -0,0 +1,78 @@
+package com.contoso.socialapp.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ChangeLogTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void returnsLatestStatePerEntityAndTombstones() throws Exception {
+		String since = cursor();
+		long postId = create("/posts", "{\"username\":\"sync\",\"content\":\"first\"}");
+		mockMvc.perform(patch("/posts/{postId}", postId).contentType(MediaType.APPLICATION_JSON)
+						.content("{\"username\":\"sync\",\"content\":\"edited\"}"))
+				.andExpect(status().isOk());
+		long kept = create("/posts/" + postId + "/comments", "{\"username\":\"sync\",\"content\":\"kept\"}");
+		long removed = create("/posts/" + postId + "/comments", "{\"username\":\"sync\",\"content\":\"removed\"}");
+		mockMvc.perform(delete("/posts/{postId}/comments/{commentId}", postId, removed))
+				.andExpect(status().isNoContent());
+
+		mockMvc.perform(get("/changes").param("since", since))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.hasMore").value(false))
+				.andExpect(jsonPath("$.posts", hasSize(1)))
+				.andExpect(jsonPath("$.posts[0].content").value("edited"))
+				.andExpect(jsonPath("$.posts[0].commentsCount").value(1))
+				.andExpect(jsonPath("$.comments[*].id", contains((int) kept)))
+				.andExpect(jsonPath("$.deleted[0].type").value("comment"))
+				.andExpect(jsonPath("$.deleted[0].id").value(removed))
+				.andExpect(jsonPath("$.deleted[0].postId").value(postId));
+
+		String afterComments = cursor();
+		mockMvc.perform(delete("/posts/{postId}", postId)).andExpect(status().isNoContent());
+		mockMvc.perform(get("/changes").param("since", afterComments))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.posts", hasSize(0)))
+				.andExpect(jsonPath("$.deleted[0].type").value("post"))
+				.andExpect(jsonPath("$.deleted[0].id").value(postId));
+	}
+
+	@Test
+	void rejectsCursorAheadOfTheLog() throws Exception {
+		mockMvc.perform(get("/changes").param("since", String.valueOf(Long.parseLong(cursor()) + 1000)))
+				.andExpect(status().isGone())
+				.andExpect(jsonPath("$.type").value("urn:contoso:socialapp:problem:changes-expired"));
+	}
+
+	private String cursor() throws Exception {
+		String body = mockMvc.perform(get("/changes"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return body.replaceAll(".*\"cursor\":\"([\\d.]+)\".*", "$1");
+	}
+
+	private long create(String path, String json) throws Exception {
+		String created = mockMvc.perform(post(path).contentType(MediaType.APPLICATION_JSON).content(json))
+				.andExpect(status().isCreated())
+				.andReturn().getResponse().getContentAsString();
+		return Long.parseLong(created.replaceAll("^\\{\"id\":(\\d+).*", "$1"));
+	}
+}
@@ -0,0 +1,73 @@
+package com.contoso.socialapp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FeedEventLogTests {
+
+	@Test
+	void returnsEventsAfterCursorInOrder() {
+		FeedEventLog log = new FeedEventLog(8);
+		log.append("post", "post:1", "a");
+		log.append("comment", null, "b");
+		log.append("counts", "counts:1", "c");
+
+		assertThat(log.after(1)).extracting(FeedEventLog.Event::frame).containsExactly(
+				log.frame(2, "comment", "b"), log.frame(3, "counts", "c"));
+		assertThat(log.after(3)).isEmpty();
+	}
+
+	@Test
+	void eventIdsFromAnotherLogAreNotRecognised() {
+		FeedEventLog log = new FeedEventLog(8);
+		log.append("post", "post:1", "a");
+		String eventId = log.frame(1, "post", "a").lines().findFirst().orElseThrow().substring("id:".length());
+
+		assertThat(log.idOf(eventId)).isEqualTo(1);
+		// A restarted process numbers from 1 again, under a new epoch
+		assertThat(new FeedEventLog(8).idOf(eventId)).isEqualTo(-1);
+		assertThat(log.idOf("1")).isEqualTo(-1);
+		assertThat(log.idOf(eventId + "x")).isEqualTo(-1);
+	}
+
+	@Test
+	void cursorBehindTheRingOrAheadOfTheLogNeedsResync() {
+		FeedEventLog log = new FeedEventLog(2);
+		for (int i = 0; i < 5; i++) {
+			log.append("comment", null, Integer.toString(i));
+		}
+
+		assertThat(log.after(3)).hasSize(2);
+		assertThat(log.after(2)).isNull();
+		assertThat(log.after(6)).isNull();
+	}
+
+	@Test
+	void awaitReturnsEmptyOnTimeoutAndWakesOnAppend() throws Exception {
+		FeedEventLog log = new FeedEventLog(8);
+		assertThat(log.awaitAfter(0, TimeUnit.MILLISECONDS.toNanos(10))).isEmpty();
+
+		Thread writer = Thread.ofVirtual().start(() -> log.append("post", "post:1", "a"));
+		List<FeedEventLog.Event> events = log.awaitAfter(0, TimeUnit.SECONDS.toNanos(10));
+		writer.join();
+
+		assertThat(events).extracting(FeedEventLog.Event::id).containsExactly(1L);
+	}
+
+	@Test
+	void coalesceKeepsOnlyTheLatestEventPerKey() {
+		FeedEventLog log = new FeedEventLog(8);
+		log.append("counts", "counts:1", "likes=1");
+		log.append("comment", null, "first");
+		log.append("counts", "counts:2", "likes=5");
+		log.append("comment", null, "second");
+		log.append("counts", "counts:1", "likes=2");
+
+		assertThat(FeedEventLog.coalesce(log.after(0))).extracting(FeedEventLog.Event::id)
+				.containsExactly(2L, 3L, 4L, 5L);
+	}
+}
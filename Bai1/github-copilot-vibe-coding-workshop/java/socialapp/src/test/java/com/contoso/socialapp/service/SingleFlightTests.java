@@ -0,0 +1,80 @@
+package com.contoso.socialapp.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SingleFlightTests {
+
+	@Test
+	void concurrentCallersShareOneLoad() throws Exception {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		SingleFlight<Long, String> flights = new SingleFlight<>("test", Duration.ZERO, registry);
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		int callers = 16;
+
+		ExecutorService executor = Executors.newFixedThreadPool(callers);
+		try {
+			List<Future<String>> results = new ArrayList<>();
+			for (int i = 0; i < callers; i++) {
+				results.add(executor.submit(() -> flights.execute(1L, () -> {
+					loads.incrementAndGet();
+					await(release);
+					return "post-1";
+				})));
+			}
+			// Give every caller time to join the in-flight load before it completes
+			Thread.sleep(200);
+			release.countDown();
+
+			for (Future<String> result : results) {
+				assertEquals("post-1", result.get(5, TimeUnit.SECONDS));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertEquals(1, loads.get());
+		assertEquals(callers, registry.get("socialapp.singleflight.callers").summary().totalAmount());
+	}
+
+	@Test
+	void failedLoadIsNotRemembered() {
+		SingleFlight<Long, String> flights = new SingleFlight<>("test", Duration.ofSeconds(10), new SimpleMeterRegistry());
+
+		assertThrows(IllegalStateException.class, () -> flights.execute(1L, () -> {
+			throw new IllegalStateException("Post not found");
+		}));
+		assertEquals("post-1", flights.execute(1L, () -> "post-1"));
+	}
+
+	@Test
+	void microCacheServesCompletedLoad() {
+		SingleFlight<Long, String> flights = new SingleFlight<>("test", Duration.ofSeconds(10), new SimpleMeterRegistry());
+
+		assertEquals("first", flights.execute(1L, () -> "first"));
+		assertEquals("first", flights.execute(1L, () -> "second"));
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,83 @@
+package com.contoso.socialapp.shard;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ReshardToolTests {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void movesPostsByIdAndCommentsWithTheirPost() throws Exception {
+		Path source = directory.resolve("single.db");
+		try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + source);
+			 Statement statement = connection.createStatement()) {
+			statement.execute("create table posts (id integer, content text, primary key (id))");
+			statement.execute("create table comments (id integer, post_id bigint not null, primary key (id))");
+			statement.execute("create table change_log (seq integer, post_id bigint not null, primary key (seq))");
+			statement.execute("create index idx_comments_post_id on comments (post_id)");
+			for (int id = 1; id <= 6; id++) {
+				statement.execute("insert into posts (id, content) values (" + id + ", 'post " + id + "')");
+				statement.execute("insert into comments (id, post_id) values (" + (100 + id) + ", " + id + ")");
+				statement.execute("insert into change_log (post_id) values (" + id + ")");
+			}
+		}
+
+		Map<String, long[]> copied = ReshardTool.reshard(ReshardOptions.parse(
+				"--database=" + source, "--target=" + directory.resolve("sharded.db"), "--to-shards=3"));
+
+		assertArrayEquals(new long[] {2, 2, 2}, copied.get("posts"));
+		assertArrayEquals(new long[] {2, 2, 2}, copied.get("comments"));
+		for (int shard = 0; shard < 3; shard++) {
+			Path file = directory.resolve("sharded.shard" + shard + ".db");
+			assertEquals(0, query(file, "select count(*) from posts where id % 3 <> " + shard));
+			assertEquals(0, query(file, "select count(*) from comments where post_id % 3 <> " + shard));
+			assertEquals(0, query(file, "select count(*) from change_log"));
+			assertEquals(1, query(file, "select count(*) from sqlite_master where name = 'idx_comments_post_id'"));
+			assertEquals(shard, query(file, "select shard from shard_info"));
+			// Above the comment ids, which no longer follow the layout
+			assertEquals(106, query(file, "select id_floor from shard_info"));
+		}
+	}
+
+	@Test
+	void refusesExistingTargetsAndSourcesOfAnotherLayout() throws Exception {
+		Path source = directory.resolve("sns.shard0.db");
+		try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + source)) {
+			ShardCatalog.write(connection, 0, 2, 0);
+		}
+		Files.createFile(directory.resolve("sns.shard1.db"));
+		Files.createFile(directory.resolve("single.db"));
+
+		assertThrows(IllegalArgumentException.class, () -> ReshardTool.reshard(ReshardOptions.parse(
+				"--database=" + directory.resolve("single.db"), "--target=" + directory.resolve("sns.db"),
+				"--to-shards=2")));
+		// The second file has no shard_info row
+		assertThrows(IllegalStateException.class, () -> ReshardTool.reshard(ReshardOptions.parse(
+				"--database=" + directory.resolve("sns.db"), "--from-shards=2",
+				"--target=" + directory.resolve("moved.db"), "--to-shards=1")));
+	}
+
+	private static long query(Path file, String sql) throws SQLException {
+		try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + file);
+			 Statement statement = connection.createStatement();
+			 ResultSet result = statement.executeQuery(sql)) {
+			result.next();
+			return result.getLong(1);
+		}
+	}
+}
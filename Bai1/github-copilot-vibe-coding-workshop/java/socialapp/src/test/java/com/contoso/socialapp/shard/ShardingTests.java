@@ -0,0 +1,133 @@
+package com.contoso.socialapp.shard;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ShardingTests {
+
+	private static final int SHARDS = 3;
+
+	@TempDir
+	static Path directory;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@DynamicPropertySource
+	static void shardedDatabase(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + directory.resolve("sharded.db"));
+		registry.add("app.sharding.shards", () -> SHARDS);
+		// Small pages make the feed merge fetch several per shard
+		registry.add("app.sharding.feed-page-size", () -> 2);
+		registry.add("app.rate-limit.enabled", () -> false);
+	}
+
+	@Test
+	void postsSpreadOverShardsWithTheirCommentsAndLikes() throws Exception {
+		Set<Long> shards = new HashSet<>();
+		for (int i = 0; i < SHARDS * 2; i++) {
+			long postId = create("/posts", "{\"username\":\"shard\",\"content\":\"post " + i + "\"}");
+			long commentId = create("/posts/" + postId + "/comments", "{\"username\":\"shard\",\"content\":\"hi\"}");
+			create("/posts/" + postId + "/likes", "{\"username\":\"shard\"}");
+			int shard = (int) (postId % SHARDS);
+			shards.add((long) shard);
+
+			assertEquals(1, count(shard, "select count(*) from posts where id = " + postId));
+			assertEquals(1, count(shard, "select count(*) from comments where id = " + commentId + " and post_id = " + postId));
+			assertEquals(1, count(shard, "select count(*) from likes where post_id = " + postId));
+			mockMvc.perform(get("/posts/{postId}", postId))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$.commentsCount").value(1))
+					.andExpect(jsonPath("$.likesCount").value(1));
+		}
+		assertEquals(SHARDS, shards.size());
+	}
+
+	@Test
+	void feedMergesEveryShardNewestFirst() throws Exception {
+		Set<Long> created = new HashSet<>();
+		for (int i = 0; i < SHARDS * 3; i++) {
+			created.add(create("/posts", "{\"username\":\"feed\",\"content\":\"post " + i + "\"}"));
+		}
+
+		JsonNode feed = objectMapper.readTree(mockMvc.perform(get("/posts"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString());
+		List<Long> ids = new ArrayList<>();
+		Instant previous = Instant.MAX;
+		for (JsonNode post : feed) {
+			Instant createdAt = Instant.parse(post.get("createdAt").asText());
+			assertFalse(createdAt.isAfter(previous), "feed out of order at post " + post.get("id"));
+			previous = createdAt;
+			ids.add(post.get("id").asLong());
+		}
+		assertTrue(ids.containsAll(created));
+		assertEquals(ids.size(), new HashSet<>(ids).size());
+	}
+
+	@Test
+	void changeCursorHasOnePartPerShard() throws Exception {
+		String cursor = objectMapper.readTree(mockMvc.perform(get("/changes"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString()).get("cursor").asText();
+		assertTrue(cursor.matches("\\d+\\.\\d+\\.\\d+"), cursor);
+
+		long postId = create("/posts", "{\"username\":\"sync\",\"content\":\"sharded\"}");
+		mockMvc.perform(get("/changes").param("since", cursor))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.posts[?(@.id == " + postId + ")].content").value("sharded"));
+		mockMvc.perform(get("/changes").param("since", "0"))
+				.andExpect(status().isGone());
+	}
+
+	private long count(int shard, String sql) throws SQLException {
+		String url = Shards.shardUrl("jdbc:sqlite:" + directory.resolve("sharded.db"), shard);
+		try (Connection connection = DriverManager.getConnection(url);
+			 Statement statement = connection.createStatement();
+			 ResultSet result = statement.executeQuery(sql)) {
+			result.next();
+			return result.getLong(1);
+		}
+	}
+
+	private long create(String path, String json) throws Exception {
+		String created = mockMvc.perform(post(path).contentType(MediaType.APPLICATION_JSON).content(json))
+				.andExpect(status().isCreated())
+				.andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(created).get("id").asLong();
+	}
+}
@@ -0,0 +1,24 @@
+package com.contoso.socialapp.support;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Fails the test if its body runs more than {@link #value()} SQL statements. Setup in
+ * {@code @BeforeEach} is not counted. Statements are counted on the test thread, so
+ * drive controllers through {@code MockMvc} rather than a real HTTP client.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(MaxQueriesExtension.class)
+public @interface MaxQueries {
+
+	int value();
+
+}
@@ -0,0 +1,29 @@
+package com.contoso.socialapp.support;
+
+import com.contoso.socialapp.jdbc.StatementCounter;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MaxQueriesExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+	private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(MaxQueriesExtension.class);
+
+	@Override
+	public void beforeTestExecution(ExtensionContext context) {
+		context.getStore(NAMESPACE).put(context.getUniqueId(), StatementCounter.open());
+	}
+
+	@Override
+	public void afterTestExecution(ExtensionContext context) {
+		StatementCounter.Scope scope = context.getStore(NAMESPACE).remove(context.getUniqueId(), StatementCounter.Scope.class);
+		scope.close();
+		MaxQueries maxQueries = AnnotatedElementUtils.findMergedAnnotation(context.getRequiredTestMethod(), MaxQueries.class);
+		assertTrue(scope.getCount() <= maxQueries.value(),
+				() -> "expected at most " + maxQueries.value() + " statements but ran " + scope.getCount() + ": " + scope.getShapes());
+	}
+
+}
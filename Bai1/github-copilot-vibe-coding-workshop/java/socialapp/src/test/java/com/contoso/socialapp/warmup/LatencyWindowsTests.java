@@ -0,0 +1,54 @@
+package com.contoso.socialapp.warmup;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyWindowsTests {
+
+	@Test
+	void keepsFirstSampleAndLatestWindowMedian() {
+		LatencyWindows windows = new LatencyWindows(3, 0.1);
+
+		windows.record(900);
+		windows.record(300);
+		windows.record(200);
+
+		assertThat(windows.firstNanos()).isEqualTo(900);
+		assertThat(windows.warmNanos()).isEqualTo(300);
+	}
+
+	@Test
+	void becomesStableOnceConsecutiveMediansAgree() {
+		LatencyWindows windows = new LatencyWindows(2, 0.1);
+
+		record(windows, 1000, 1000);
+		assertThat(windows.isStable()).isFalse();
+		record(windows, 400, 400);
+		assertThat(windows.isStable()).isFalse();
+		record(windows, 380, 420);
+		assertThat(windows.isStable()).isTrue();
+		record(windows, 200, 200);
+		assertThat(windows.isStable()).isFalse();
+	}
+
+	@Test
+	void finishTakesPartialWindowOnlyWhenNoneCompleted() {
+		LatencyWindows partial = new LatencyWindows(10, 0.1);
+		record(partial, 500, 100, 300);
+		assertThat(partial.warmNanos()).isNaN();
+		partial.finish();
+		assertThat(partial.warmNanos()).isEqualTo(300);
+
+		LatencyWindows completed = new LatencyWindows(2, 0.1);
+		record(completed, 100, 100, 900);
+		completed.finish();
+		assertThat(completed.warmNanos()).isEqualTo(100);
+	}
+
+	private static void record(LatencyWindows windows, long... samples) {
+		for (long sample : samples) {
+			windows.record(sample);
+		}
+	}
+}
@@ -0,0 +1,137 @@
+package com.contoso.socialapp.web;
+
+import com.contoso.socialapp.config.ConcurrencyLimitProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTests {
+
+	private static final long BASE_LATENCY_MILLIS = 10;
+	private static final int CAPACITY = 4;
+
+	@Test
+	void latencyStaysBoundedUnderFiveTimesCapacity() throws Exception {
+		ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+		properties.setInitialLimit(CAPACITY);
+		properties.setMinLimit(1);
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+		SimulatedBackend backend = new SimulatedBackend();
+
+		// Learn the unloaded latency first, as a running service would
+		for (int i = 0; i < 50; i++) {
+			AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire(RequestPriority.READ);
+			backend.call();
+			permit.release();
+		}
+
+		int clients = CAPACITY * 5;
+		List<Long> admittedLatencies = Collections.synchronizedList(new ArrayList<>());
+		AtomicInteger shed = new AtomicInteger();
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+		List<Integer> limits = Collections.synchronizedList(new ArrayList<>());
+		CountDownLatch done = new CountDownLatch(clients);
+		for (int i = 0; i < clients; i++) {
+			Thread.ofPlatform().start(() -> {
+				try {
+					while (System.nanoTime() < deadline) {
+						AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire(RequestPriority.READ);
+						if (permit == null) {
+							shed.incrementAndGet();
+							Thread.sleep(BASE_LATENCY_MILLIS / 2);
+							continue;
+						}
+						long start = System.nanoTime();
+						backend.call();
+						permit.release();
+						admittedLatencies.add(System.nanoTime() - start);
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				} finally {
+					done.countDown();
+				}
+			});
+		}
+		// Sample the limit over the second half, once it has had time to settle
+		Thread.sleep(1000);
+		while (done.getCount() > 0 && System.nanoTime() < deadline) {
+			limits.add(limiter.getLimit());
+			Thread.sleep(BASE_LATENCY_MILLIS);
+		}
+		assertTrue(done.await(10, TimeUnit.SECONDS));
+
+		List<Long> sorted = new ArrayList<>(admittedLatencies);
+		Collections.sort(sorted);
+		long p50Millis = TimeUnit.NANOSECONDS.toMillis(sorted.get(sorted.size() / 2));
+		double meanLimit = limits.stream().mapToInt(Integer::intValue).average().orElseThrow();
+
+		// Unprotected, 20 clients on 4 slots see 5x the base latency on every call; the
+		// limiter settles around 2x capacity (rttTolerance plus queue allowance) and sheds
+		// the rest. The median rather than p99 is asserted, with room for scheduler delay
+		// on small runners, so a limiter that lets latency grow towards 5x still fails.
+		assertTrue(shed.get() > 0, "expected excess load to be shed");
+		assertTrue(meanLimit <= CAPACITY * 3, "limit averaged " + meanLimit + " for a capacity of " + CAPACITY);
+		assertTrue(p50Millis < BASE_LATENCY_MILLIS * 7 / 2, "p50 was " + p50Millis + "ms");
+	}
+
+	@Test
+	void bulkIsShedBeforeReads() {
+		ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+		properties.setInitialLimit(10);
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+
+		for (int i = 0; i < 5; i++) {
+			assertNotNull(limiter.tryAcquire(RequestPriority.READ));
+		}
+
+		assertNull(limiter.tryAcquire(RequestPriority.BULK));
+		assertNotNull(limiter.tryAcquire(RequestPriority.WRITE));
+		assertNotNull(limiter.tryAcquire(RequestPriority.READ));
+	}
+
+	@Test
+	void probeOnlyTrimsTheQueueAllowance() {
+		ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+		properties.setInitialLimit(100);
+		properties.setProbeInterval(10);
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+
+		// Lightly loaded samples leave the limit alone until the probe
+		for (int i = 0; i < 10; i++) {
+			limiter.tryAcquire(RequestPriority.READ).release();
+		}
+
+		assertEquals(90, limiter.getLimit());
+	}
+
+	/**
+	 * Serves {@link #CAPACITY} calls in parallel at the base latency; beyond that every
+	 * call slows down in proportion to the overload, like a saturated database.
+	 */
+	private static class SimulatedBackend {
+
+		private final AtomicInteger active = new AtomicInteger();
+
+		void call() throws InterruptedException {
+			int concurrent = active.incrementAndGet();
+			try {
+				double slowdown = Math.max(1.0, (double) concurrent / CAPACITY);
+				Thread.sleep((long) (BASE_LATENCY_MILLIS * slowdown));
+			} finally {
+				active.decrementAndGet();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,58 @@
+package com.contoso.socialapp.web;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class CborProblemTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void problemIsCborWhenCborIsAccepted() throws Exception {
+		byte[] body = mockMvc.perform(get("/posts/{postId}", Long.MAX_VALUE).accept(MediaType.APPLICATION_CBOR))
+				.andExpect(status().isNotFound())
+				.andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+				.andReturn().getResponse().getContentAsByteArray();
+
+		JsonNode problem = new CBORMapper().readTree(body);
+		assertEquals(404, problem.get("status").asInt());
+		assertEquals("urn:contoso:socialapp:problem:post-not-found", problem.get("type").asText());
+	}
+
+	@Test
+	void validationProblemIsCborWhenCborIsAccepted() throws Exception {
+		byte[] body = mockMvc.perform(post("/posts").contentType(MediaType.APPLICATION_JSON)
+						.accept(MediaType.APPLICATION_CBOR).content("{\"username\":\"\",\"content\":\"\"}"))
+				.andExpect(status().isBadRequest())
+				.andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+				.andReturn().getResponse().getContentAsByteArray();
+
+		assertEquals(400, new CBORMapper().readTree(body).get("status").asInt());
+	}
+
+	@Test
+	void problemStaysJsonOtherwise() throws Exception {
+		mockMvc.perform(get("/posts/{postId}", Long.MAX_VALUE).accept(MediaType.ALL))
+				.andExpect(status().isNotFound())
+				.andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON));
+		mockMvc.perform(get("/posts/{postId}", Long.MAX_VALUE).accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isNotFound())
+				.andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON));
+	}
+
+}
@@ -0,0 +1,92 @@
+package com.contoso.socialapp.web;
+
+import com.contoso.socialapp.support.MaxQueries;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Rejecting, so statements left counting against another request's budget fail the test
+@SpringBootTest(properties = "app.statement-budget.mode=REJECT")
+@AutoConfigureMockMvc
+class StatementBudgetTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private long postId;
+
+	@BeforeEach
+	void createPostWithComments() throws Exception {
+		String created = mockMvc.perform(post("/posts").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"username\":\"budget\",\"content\":\"statement budget\"}"))
+				.andExpect(status().isCreated())
+				.andReturn().getResponse().getContentAsString();
+		postId = Long.parseLong(created.replaceAll(".*\"id\":(\\d+).*", "$1"));
+		for (int i = 0; i < 3; i++) {
+			mockMvc.perform(post("/posts/{postId}/comments", postId).contentType(MediaType.APPLICATION_JSON)
+							.content("{\"username\":\"budget\",\"content\":\"comment " + i + "\"}"))
+					.andExpect(status().isCreated());
+		}
+	}
+
+	@Test
+	@MaxQueries(2)
+	void getPost() throws Exception {
+		mockMvc.perform(get("/posts/{postId}", postId)).andExpect(status().isOk());
+	}
+
+	@Test
+	@MaxQueries(2)
+	void listComments() throws Exception {
+		mockMvc.perform(get("/posts/{postId}/comments", postId)).andExpect(status().isOk());
+	}
+
+	@Test
+	@MaxQueries(2)
+	void getMissingPost() throws Exception {
+		mockMvc.perform(get("/posts/{postId}", Long.MAX_VALUE)).andExpect(status().isNotFound());
+	}
+
+	@Test
+	void requestAfterStreamHasItsOwnBudget() throws Exception {
+		// MockMvc runs every request on this thread, like a single Tomcat worker
+		mockMvc.perform(get("/posts/stream")).andExpect(request().asyncStarted());
+
+		for (int i = 0; i < 3; i++) {
+			like(postId);
+			mockMvc.perform(delete("/posts/{postId}/likes", postId).contentType(MediaType.APPLICATION_JSON)
+							.content("{\"username\":\"budget\"}"))
+					.andExpect(status().isNoContent());
+		}
+	}
+
+	@Test
+	void likeIsNotReportedAsNPlusOne() throws Exception {
+		like(postId);
+		Counter repeated = meterRegistry.find("socialapp.sql.repeated").tag("endpoint", "likePost").counter();
+		assertEquals(0, repeated == null ? 0 : repeated.count());
+	}
+
+	private void like(long postId) throws Exception {
+		mockMvc.perform(post("/posts/{postId}/likes", postId).contentType(MediaType.APPLICATION_JSON)
+						.content("{\"username\":\"budget\"}"))
+				.andExpect(status().isCreated());
+	}
+
+}
@@ -0,0 +1,41 @@
+package com.contoso.socialapp.web;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTests {
+
+	private static final long SECOND = 1_000_000_000L;
+
+	@Test
+	void allowsBurstUpToCapacityThenRejects() {
+		TokenBucket bucket = new TokenBucket(3, 1.0, 0);
+
+		assertEquals(0, bucket.tryAcquire(0));
+		assertEquals(0, bucket.tryAcquire(0));
+		assertEquals(0, bucket.tryAcquire(0));
+		assertEquals(SECOND, bucket.tryAcquire(0));
+	}
+
+	@Test
+	void refillsAtConfiguredRate() {
+		TokenBucket bucket = new TokenBucket(1, 2.0, 0);
+
+		assertEquals(0, bucket.tryAcquire(0));
+		assertTrue(bucket.tryAcquire(SECOND / 4) > 0);
+		assertEquals(0, bucket.tryAcquire(SECOND / 2));
+	}
+
+	@Test
+	void idleBucketDoesNotAccumulateBeyondCapacity() {
+		TokenBucket bucket = new TokenBucket(2, 1.0, 0);
+		long later = 60 * SECOND;
+
+		assertEquals(0, bucket.tryAcquire(later));
+		assertEquals(0, bucket.tryAcquire(later));
+		assertTrue(bucket.tryAcquire(later) > 0);
+	}
+
+}
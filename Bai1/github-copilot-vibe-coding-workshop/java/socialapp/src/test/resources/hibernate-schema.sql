@@ -0,0 +1,6 @@
+CREATE TABLE change_log (changed_at timestamp not null, entity_id bigint not null, origin bigint, post_id bigint not null, seq integer, entity_type varchar(16) not null check (entity_type in ('POST','COMMENT','LIKE')), operation varchar(16) not null check (operation in ('CREATE','UPDATE','DELETE')), primary key (seq))
+CREATE TABLE comments (created_at timestamp not null, id integer, post_id bigint not null, updated_at timestamp not null, content TEXT not null, username varchar(255) not null, primary key (id))
+CREATE TABLE likes (created_at timestamp not null, id integer, post_id bigint not null, username varchar(255) not null, primary key (id))
+CREATE TABLE posts (comments_count integer not null, likes_count integer not null, created_at timestamp not null, id integer, updated_at timestamp not null, content TEXT not null, username varchar(255) not null, primary key (id))
+CREATE INDEX idx_posts_created_at_id on posts (created_at, id)
+CREATE UNIQUE INDEX uk_likes_post_id_username on likes (post_id, username)